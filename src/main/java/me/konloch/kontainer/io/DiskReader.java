@@ -4,8 +4,9 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import the.bytecode.club.bytecodeviewer.util.EncodeUtils;
 
 /**
@@ -17,12 +18,12 @@ import the.bytecode.club.bytecodeviewer.util.EncodeUtils;
 public class DiskReader {
 
     public static Random random = new Random();
-    public static HashMap<String, ArrayList<String>> map = new HashMap<>();
+    public static Map<String, ArrayList<String>> map = new ConcurrentHashMap<>();
 
     /**
      * Used to load from file, allows caching
      */
-    public synchronized static ArrayList<String> loadArrayList(String fileName,
+    public static ArrayList<String> loadArrayList(String fileName,
                                                                boolean cache) {
         ArrayList<String> array = new ArrayList<>();
         if (!map.containsKey(fileName)) {
@@ -53,20 +54,20 @@ public class DiskReader {
     }
 
     /**
-     * Used to load from file
+     * Used to load from file, every caller reads its own file so this isn't synchronized
      */
-    public synchronized static String loadAsString(String fileName) throws Exception {
+    public static String loadAsString(String fileName) throws Exception {
         StringBuilder s = new StringBuilder();
+        String separator = System.lineSeparator();
 
-        BufferedReader reader = new BufferedReader(new FileReader(fileName));
-
-        for (String add = reader.readLine(); add != null; add = reader.readLine()) {
-            s.append(EncodeUtils.unicodeToString(add)).append(System.getProperty("line.separator"));
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            for (String add = reader.readLine(); add != null; add = reader.readLine()) {
+                s.append(add).append(separator);
+            }
         }
 
-        reader.close();
-
-        return s.toString();
+        //unicode escapes can't span lines, so they're decoded in a single pass over the whole file
+        return EncodeUtils.unicodeToString(s.toString());
     }
 
     /**
@@ -59,55 +59,26 @@ public class ClassTree {
         build(classes);
     }
 
-    // TODO: optimise
     public void build(Map<String, ClassNode> classes) {
-        for (ClassNode node : classes.values()) {
-            for (String iface : node.interfaces) {
-                ClassNode ifacecs = classes.get(iface);
-                if (ifacecs == null)
-                    continue;
-
-                getDelegates0(ifacecs).add(node);
-
-                Set<ClassNode> superinterfaces = new HashSet<>();
-                buildSubTree(classes, superinterfaces, ifacecs);
-
-                getSupers0(node).addAll(superinterfaces);
-            }
-            ClassNode currentSuper = classes.get(node.superName);
-            while (currentSuper != null) {
-                getDelegates0(currentSuper).add(node);
-                getSupers0(node).add(currentSuper);
-                for (String iface : currentSuper.interfaces) {
-                    ClassNode ifacecs = classes.get(iface);
-                    if (ifacecs == null)
-                        continue;
-                    getDelegates0(ifacecs).add(currentSuper);
-                    Set<ClassNode> superinterfaces = new HashSet<>();
-                    buildSubTree(classes, superinterfaces, ifacecs);
-                    getSupers0(currentSuper).addAll(superinterfaces);
-                    getSupers0(node).addAll(superinterfaces);
-                }
-                currentSuper = classes.get(currentSuper.superName);
-            }
-
-            getSupers0(node);
-            getDelegates0(node);
-        }
+        Map<ClassNode, Set<ClassNode>> interfaceTrees = new HashMap<>();
+        for (ClassNode node : classes.values())
+            build(classes, node, interfaceTrees);
     }
 
     public void build(ClassNode node) {
+        build(classes, node, new HashMap<>());
+        classes.put(node.name, node);
+    }
+
+    private void build(Map<String, ClassNode> classes, ClassNode node,
+                       Map<ClassNode, Set<ClassNode>> interfaceTrees) {
         for (String iface : node.interfaces) {
             ClassNode ifacecs = classes.get(iface);
             if (ifacecs == null)
                 continue;
 
             getDelegates0(ifacecs).add(node);
-
-            Set<ClassNode> superinterfaces = new HashSet<>();
-            buildSubTree(classes, superinterfaces, ifacecs);
-
-            getSupers0(node).addAll(superinterfaces);
+            getSupers0(node).addAll(getInterfaceTree(classes, ifacecs, interfaceTrees));
         }
         ClassNode currentSuper = classes.get(node.superName);
         while (currentSuper != null) {
@@ -118,8 +89,7 @@ public class ClassTree {
                 if (ifacecs == null)
                     continue;
                 getDelegates0(ifacecs).add(currentSuper);
-                Set<ClassNode> superinterfaces = new HashSet<>();
-                buildSubTree(classes, superinterfaces, ifacecs);
+                Set<ClassNode> superinterfaces = getInterfaceTree(classes, ifacecs, interfaceTrees);
                 getSupers0(currentSuper).addAll(superinterfaces);
                 getSupers0(node).addAll(superinterfaces);
             }
@@ -128,22 +98,32 @@ public class ClassTree {
 
         getSupers0(node);
         getDelegates0(node);
-
-        classes.put(node.name, node);
     }
 
-    private void buildSubTree(Map<String, ClassNode> classes, Collection<ClassNode> superinterfaces,
-                              ClassNode current) {
+    /**
+     * Returns the interface and all of its super interfaces.
+     * Every implementation walks the same interfaces, so each tree is only built once per build.
+     */
+    private Set<ClassNode> getInterfaceTree(Map<String, ClassNode> classes, ClassNode current,
+                                            Map<ClassNode, Set<ClassNode>> interfaceTrees) {
+        Set<ClassNode> superinterfaces = interfaceTrees.get(current);
+        if (superinterfaces != null)
+            return superinterfaces;
+
+        //cached before walking the super interfaces so cyclic interfaces can't recurse forever
+        superinterfaces = new HashSet<>();
+        interfaceTrees.put(current, superinterfaces);
         superinterfaces.add(current);
+
         for (String iface : current.interfaces) {
             ClassNode cs = classes.get(iface);
             if (cs != null) {
                 getDelegates0(cs).add(current);
-                buildSubTree(classes, superinterfaces, cs);
-            } /*else {
-                System.out.println("Null interface -> " + iface);
-            }*/
+                superinterfaces.addAll(getInterfaceTree(classes, cs, interfaceTrees));
+            }
         }
+
+        return superinterfaces;
     }
 
     public Set<MethodNode> getMethodsFromSuper(ClassNode node, String name, String desc) {
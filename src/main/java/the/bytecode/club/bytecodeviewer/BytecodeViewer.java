@@ -3,7 +3,11 @@ package the.bytecode.club.bytecodeviewer;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
 import javax.swing.*;
 
 import com.google.gson.Gson;
@@ -14,14 +18,20 @@ import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bootloader.Boot;
 import the.bytecode.club.bytecodeviewer.api.BCV;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+import the.bytecode.club.bytecodeviewer.decompilers.DecompiledSourceCache;
+import the.bytecode.club.bytecodeviewer.decompilers.DecompilerWorkerPool;
 import the.bytecode.club.bytecodeviewer.gui.components.*;
 import the.bytecode.club.bytecodeviewer.gui.resourceviewer.TabbedPane;
 import the.bytecode.club.bytecodeviewer.gui.resourceviewer.viewer.ClassViewer;
 import the.bytecode.club.bytecodeviewer.gui.MainViewerGUI;
 import the.bytecode.club.bytecodeviewer.gui.resourceviewer.viewer.ResourceViewer;
+import the.bytecode.club.bytecodeviewer.gui.util.PaneDecompilerPool;
 import the.bytecode.club.bytecodeviewer.obfuscators.mapping.Refactorer;
 import the.bytecode.club.bytecodeviewer.plugin.PluginWriter;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+import the.bytecode.club.bytecodeviewer.resources.QuickSearchIndex;
+import the.bytecode.club.bytecodeviewer.resources.ResourceRegistry;
+import the.bytecode.club.bytecodeviewer.resources.WorkspaceIndex;
 import the.bytecode.club.bytecodeviewer.util.*;
 import the.bytecode.club.bytecodeviewer.resources.importing.ImportResource;
 
@@ -129,6 +139,21 @@ public class BytecodeViewer
     //Refactorer
     public static Refactorer refactorer = new Refactorer();
     
+    //Type hierarchy & call graph of all of the loaded classes
+    public static final WorkspaceIndex workspaceIndex = new WorkspaceIndex();
+    
+    //Container, class & file name lookups of the opened resources
+    public static final ResourceRegistry resourceRegistry = new ResourceRegistry();
+    
+    //Worker pool the class viewer panes are decompiled on
+    public static final PaneDecompilerPool paneDecompilerPool = new PaneDecompilerPool();
+    
+    //Warm decompiler JVMs, used when the decompilers are launched in a new process
+    public static final DecompilerWorkerPool decompilerWorkerPool = new DecompilerWorkerPool();
+    
+    //Name index behind the resource list quick search
+    public static final QuickSearchIndex quickSearchIndex = new QuickSearchIndex(resourceRegistry);
+    
     //GSON Reference
     public static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     
@@ -162,28 +187,37 @@ public class BytecodeViewer
         {
             //precache settings file
             SettingsSerializer.preloadSettingsFile();
-            //setup look and feel
-            Configuration.lafTheme.setLAF();
-            
-            //set swing specific system properties
-            System.setProperty("swing.aatext", "true");
-            
-            //setup swing components
-            viewer = new MainViewerGUI();
-            SwingUtilities.updateComponentTreeUI(viewer);
-            
-            //load settings and set swing components state
-            SettingsSerializer.loadSettings();
-            Configuration.bootState = Configuration.BootState.SETTINGS_LOADED;
-            
-            //set translation language
-            if(!Settings.hasSetLanguageAsSystemLanguage)
-                MiscUtils.setLanguage(guessLanguage());
     
-            //handle CLI
+            //handle CLI, it's parsed first since the command line never creates the swing components
             int CLI = CommandLineInput.parseCommandLine(args);
             if (CLI == CommandLineInput.STOP)
                 return;
+            
+            if (CLI == CommandLineInput.GUI)
+            {
+                //setup look and feel
+                Configuration.lafTheme.setLAF();
+                
+                //set swing specific system properties
+                System.setProperty("swing.aatext", "true");
+                
+                //setup swing components
+                viewer = new MainViewerGUI();
+                SwingUtilities.updateComponentTreeUI(viewer);
+                
+                //load settings and set swing components state
+                SettingsSerializer.loadSettings();
+                Configuration.bootState = Configuration.BootState.SETTINGS_LOADED;
+                
+                //set translation language
+                if(!Settings.hasSetLanguageAsSystemLanguage)
+                    MiscUtils.setLanguage(guessLanguage());
+            }
+            else
+            {
+                Configuration.headless = true;
+                SettingsSerializer.loadCommandLineSettings();
+            }
 
             //load with shaded libraries
             if (FAT_JAR)
@@ -228,15 +262,24 @@ public class BytecodeViewer
         {
             for (Process proc : createdProcesses)
                 proc.destroy();
-            SettingsSerializer.saveSettings();
+            decompilerWorkerPool.shutdown();
+            
+            //the settings are stored in the swing components
+            if (!Configuration.headless)
+                SettingsSerializer.saveSettings();
+            
             cleanup();
         }, "Shutdown Hook"));
 
-        //setup the viewer
-        viewer.calledAfterLoad();
-        
-        //setup the recent files
-        Settings.resetRecentFilesMenu();
+        //the command line runs without the viewer
+        if (!cli)
+        {
+            //setup the viewer
+            viewer.calledAfterLoad();
+            
+            //setup the recent files
+            Settings.resetRecentFilesMenu();
+        }
 
         //ping back once on first boot to add to global user count
         if (!Configuration.pingback)
@@ -246,7 +289,7 @@ public class BytecodeViewer
         }
         
         //version checking
-        if (viewer.updateCheck.isSelected())
+        if (!cli && viewer.updateCheck.isSelected())
             versionChecker.start();
 
         //show the main UI
@@ -321,6 +364,15 @@ public class BytecodeViewer
     @Deprecated
     public static ClassNode blindlySearchForClassNode(String name)
     {
+        ResourceContainer registered = resourceRegistry.getClassContainer(name);
+        if (registered != null)
+        {
+            ClassNode node = registered.getClassNode(name);
+            if (node != null)
+                return node;
+        }
+        
+        //classes added to a container directly aren't registered
         for (ResourceContainer container : resourceContainers)
         {
             ClassNode node = container.getClassNode(name);
@@ -336,11 +388,26 @@ public class BytecodeViewer
      */
     public static ResourceContainer getFileContainer(String name)
     {
-        for (ResourceContainer container : resourceContainers)
-            if (container.name.equals(name))
-                return container;
-
-        return null;
+        return resourceRegistry.getContainer(name);
+    }
+    
+    /**
+     * Adds a newly imported File Container to the workspace
+     */
+    public static void addResourceContainer(ResourceContainer container)
+    {
+        resourceContainers.add(container);
+        resourceRegistry.register(container);
+    }
+    
+    /**
+     * Removes a File Container from the workspace
+     */
+    public static void removeResourceContainer(ResourceContainer container)
+    {
+        resourceContainers.remove(container);
+        resourceRegistry.unregister(container);
+        container.close();
     }
     
     /**
@@ -358,9 +425,21 @@ public class BytecodeViewer
      */
     public static byte[] getFileContents(String name)
     {
+        ResourceContainer registered = resourceRegistry.getFileContainer(name);
+        if (registered != null)
+        {
+            byte[] bytes = registered.getFileBytes(name);
+            if (bytes != null)
+                return bytes;
+        }
+        
+        //files added to a container directly aren't registered
         for (ResourceContainer container : resourceContainers)
-            if (container.resourceFiles.containsKey(name))
-                return container.resourceFiles.get(name);
+        {
+            byte[] bytes = container.getFileBytes(name);
+            if (bytes != null)
+                return bytes;
+        }
 
         return null;
     }
@@ -381,14 +460,28 @@ public class BytecodeViewer
     public static ArrayList<ClassNode> getLoadedClasses()
     {
         ArrayList<ClassNode> a = new ArrayList<>();
+        Set<ClassNode> added = Collections.newSetFromMap(new IdentityHashMap<>());
 
         for (ResourceContainer container : resourceContainers)
-            for (ClassNode c : container.resourceClasses.values())
-                if (!a.contains(c))
+            for (ClassNode c : container.getClassNodes())
+                if (added.add(c))
                     a.add(c);
 
         return a;
     }
+    
+    /**
+     * Streams all of the loaded classes one by one, unlike getLoadedClasses this doesn't
+     * hold every ClassNode at once when the resource containers are lazily loaded
+     *
+     * @return the loaded classes
+     */
+    public static Iterable<ClassNode> getLoadedClassNodes()
+    {
+        return () -> resourceContainers.stream()
+                .flatMap(container -> StreamSupport.stream(container.getClassNodes().spliterator(), false))
+                .iterator();
+    }
 
     /**
      * Called any time refresh is called to automatically compile all of the compilable panes that're opened.
@@ -512,6 +605,12 @@ public class BytecodeViewer
      */
     public static void showMessage(String message)
     {
+        if (Configuration.headless)
+        {
+            System.out.println(message);
+            return;
+        }
+        
         BetterJOptionPane.showMessageDialog(viewer, message);
     }
     
@@ -520,7 +619,17 @@ public class BytecodeViewer
      */
     public static void updateBusyStatus(boolean busyStatus)
     {
-        viewer.updateBusyStatus(busyStatus);
+        if (viewer != null)
+            viewer.updateBusyStatus(busyStatus);
+    }
+    
+    /**
+     * Displays the progress of the most recent background task on the busy status icon
+     */
+    public static void updateBusyProgress(int percent)
+    {
+        if (viewer != null)
+            viewer.updateBusyProgress(percent);
     }
     
     /**
@@ -528,7 +637,8 @@ public class BytecodeViewer
      */
     public static void clearBusyStatus()
     {
-        viewer.clearBusyStatus();
+        if (viewer != null)
+            viewer.clearBusyStatus();
     }
     
     /**
@@ -536,13 +646,12 @@ public class BytecodeViewer
      */
     public static boolean promptIfNoLoadedClasses()
     {
-        if (BytecodeViewer.getLoadedClasses().isEmpty())
-        {
-            BytecodeViewer.showMessage("First open a class, jar, zip, apk or dex file.");
-            return true;
-        }
+        for (ResourceContainer container : resourceContainers)
+            if (container.hasClasses())
+                return false;
         
-        return false;
+        BytecodeViewer.showMessage("First open a class, jar, zip, apk or dex file.");
+        return true;
     }
     
     /**
@@ -558,6 +667,13 @@ public class BytecodeViewer
      */
     public static void handleException(Throwable t, String author)
     {
+        //the command line has no windows to show it in
+        if (Configuration.headless)
+        {
+            t.printStackTrace();
+            return;
+        }
+        
         new ExceptionUI(t, author);
     }
     
@@ -599,12 +715,24 @@ public class BytecodeViewer
      */
     public static void resetWorkspace()
     {
+        for (ResourceContainer container : BytecodeViewer.resourceContainers)
+            container.close();
+        
         BytecodeViewer.resourceContainers.clear();
+        BytecodeViewer.workspaceIndex.clear();
+        BytecodeViewer.resourceRegistry.clear();
+        BytecodeViewer.quickSearchIndex.clear();
+        DecompiledSourceCache.clear();
         LazyNameUtil.reset();
+        BCV.getClassNodeLoader().clear();
+        
+        //the command line batch resets the workspace between inputs without the viewer
+        if (viewer == null)
+            return;
+        
         BytecodeViewer.viewer.resourcePane.resetWorkspace();
         BytecodeViewer.viewer.workPane.resetWorkspace();
         BytecodeViewer.viewer.searchBoxPane.resetWorkspace();
-        BCV.getClassNodeLoader().clear();
     }
     
     /**
@@ -1,6 +1,15 @@
 package the.bytecode.club.bytecodeviewer;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
 import me.konloch.kontainer.io.DiskWriter;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -8,9 +17,13 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.decompilers.BatchDecompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
+import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScanModule;
+import the.bytecode.club.bytecodeviewer.malwarescanner.StreamingMalwareScan;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.IOCRuleSet;
+import the.bytecode.club.bytecodeviewer.resources.importing.ImportResource;
 import the.bytecode.club.bytecodeviewer.translation.Language;
-import the.bytecode.club.bytecodeviewer.util.JarUtils;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import static the.bytecode.club.bytecodeviewer.Constants.*;
@@ -51,12 +64,22 @@ public class CommandLineInput {
 
     static {
         options.addOption("help", false, "prints the help menu.");
+        options.addOption("clean", false, "deletes the BCV directory.");
+        options.addOption("english", false, "forces English language translations.");
         options.addOption("list", false, "lists all the available decompilers for BCV " + VERSION + ".");
         options.addOption("decompiler", true, "sets the decompiler, procyon by default.");
-        options.addOption("i", true, "sets the input.");
+        options.addOption("i", true, "sets the input, repeat it to decompile every input into the output directory.");
         options.addOption("o", true, "sets the output.");
         options.addOption("t", true, "sets the target class to decompile, append all to decomp all as zip.");
-        options.addOption("nowait", true, "won't wait the 5 seconds to allow the user to read the CLI.");
+        options.addOption("nowait", false, "won't wait the 5 seconds to allow the user to read the CLI.");
+        options.addOption("batch", true, "decompiles every input inside of a directory or listed in a file.");
+        options.addOption("threads", true, "sets the decompiler thread count.");
+        options.addOption("timeout", true, "sets the max seconds a single class can take to decompile.");
+        options.addOption("summary", true, "sets the batch summary output, summary.json in the output directory by default.");
+        options.addOption("scan", true, "scans the input for malicious code with all, the default or the listed scanner modules.");
+        options.addOption("iocs", true, "loads extra IOC rule lists for the malware scan.");
+        options.addOption("lazy", false, "only builds the ClassNodes of the classes being decompiled.");
+        options.addOption("mmap", false, "memory maps the input archives instead of reading them into memory.");
     }
 
     public static boolean containsCommand(String[] args) {
@@ -74,7 +97,9 @@ public class CommandLineInput {
                             cmd.hasOption("i") ||
                             cmd.hasOption("o") ||
                             cmd.hasOption("t") ||
-                            cmd.hasOption("nowait")
+                            cmd.hasOption("nowait") ||
+                            cmd.hasOption("batch") ||
+                            cmd.hasOption("scan")
             ) {
                 return true;
             }
@@ -98,29 +123,56 @@ public class CommandLineInput {
                 System.out.println("Krakatau-Bytecode");
                 System.out.println("JD-GUI");
                 System.out.println("Smali");
+                System.out.println("JADX");
                 return STOP;
             } else if (cmd.hasOption("clean")) {
                 new File(Constants.getBCVDirectory()).delete();
                 if(cmd.getOptionValue("i") == null && cmd.getOptionValue("o") == null
-                        && cmd.getOptionValue("t") == null)
+                        && cmd.getOptionValue("t") == null && !cmd.hasOption("batch") && !cmd.hasOption("scan"))
                     return GUI;
             } else if (cmd.hasOption("english")) {
                 Configuration.language = Language.ENGLISH;
                 return GUI;
             } else if (cmd.hasOption("help")) {
-                for (String s : new String[]{
-                        "-help                         Displays the help menu",
-                        "-clean                        Deletes the BCV directory",
-                        "-english                      Forces English language translations",
-                        "-list                         Displays the available decompilers",
-                        "-decompiler <decompiler>      Selects the decompiler, procyon by default",
-                        "-i <input file>               Selects the input file",
-                        "-o <output file>              Selects the output file",
-                        "-t <target classname>         Must either be the fully qualified classname or \"all\" to decompile all as zip",
-                        "-nowait                       Doesn't wait for the user to read the CLI messages"
-                })
-                    System.out.println(s);
+                printHelp();
                 return STOP;
+            }
+
+            if (getCount(cmd, "threads", 1) <= 0 || getCount(cmd, "timeout", 1) <= 0) {
+                System.err.println("-threads and -timeout have to be whole numbers above 0");
+                printHelp();
+                return STOP;
+            }
+
+            if (cmd.hasOption("scan")) {
+                if (cmd.getOptionValue("i") == null) {
+                    System.err.println("Set the input with -i");
+                    return STOP;
+                }
+
+                if (!new File(cmd.getOptionValue("i")).exists()) {
+                    System.err.println(new File(cmd.getOptionValue("i")).getAbsolutePath() + " does not exist.");
+                    return STOP;
+                }
+
+                if (getScanOptions(cmd.getOptionValue("scan")) == null)
+                    return STOP;
+            } else if (isBatch(cmd)) {
+                if (cmd.getOptionValue("o") == null) {
+                    System.err.println("Set the output directory with -o");
+                    return STOP;
+                }
+
+                if (cmd.hasOption("batch") && !new File(cmd.getOptionValue("batch")).exists()) {
+                    System.err.println(new File(cmd.getOptionValue("batch")).getAbsolutePath() + " does not exist.");
+                    return STOP;
+                }
+
+                if (getDecompiler(cmd.getOptionValue("decompiler", "procyon")) == null) {
+                    System.err.println("Error, no decompiler called '" + cmd.getOptionValue("decompiler") + "' found. Type -list"
+                            + " for the list");
+                    return STOP;
+                }
             } else {
                 if (cmd.getOptionValue("i") == null) {
                     System.err.println("Set the input with -i");
@@ -153,26 +205,16 @@ public class CommandLineInput {
                 //if its zip/jar/apk/dex attempt unzip as whole zip
                 //if its just class allow any
 
-                if (
-                        decompiler != null &&
-                                !decompiler.equalsIgnoreCase("procyon") &&
-                                !decompiler.equalsIgnoreCase("cfr") &&
-                                !decompiler.equalsIgnoreCase("fernflower") &&
-                                !decompiler.equalsIgnoreCase("krakatau") &&
-                                !decompiler.equalsIgnoreCase("krakatau-bytecode") &&
-                                !decompiler.equalsIgnoreCase("jd-gui") &&
-                                !decompiler.equalsIgnoreCase("smali")
-                ) {
+                if (decompiler != null && getDecompiler(decompiler) == null) {
                     System.out.println("Error, no decompiler called '" + decompiler + "' found. Type -decompiler-list"
                             + " for the list");
                 }
+            }
 
+            if (!cmd.hasOption("nowait"))
+                Thread.sleep(5 * 1000);
 
-                if (!cmd.hasOption("nowait"))
-                    Thread.sleep(5 * 1000);
-
-                return CLI;
-            }
+            return CLI;
         } catch (Exception e) {
             BytecodeViewer.handleException(e);
         }
@@ -180,187 +222,331 @@ public class CommandLineInput {
         return GUI;
     }
 
+    private static void printHelp() {
+        for (String s : new String[]{
+                "-help                         Displays the help menu",
+                "-clean                        Deletes the BCV directory",
+                "-english                      Forces English language translations",
+                "-list                         Displays the available decompilers",
+                "-decompiler <decompiler>      Selects the decompiler, procyon by default",
+                "-i <input file>               Selects the input file, repeat it to decompile every input like -batch",
+                "-o <output file>              Selects the output file",
+                "-t <target classname>         Must either be the fully qualified classname or \"all\" to decompile all as zip",
+                "-nowait                       Doesn't wait for the user to read the CLI messages",
+                "-batch <directory/file list>  Decompiles every input, -o is then the output directory",
+                "-threads <count>              Selects the decompiler thread count",
+                "-timeout <seconds>            Selects the max seconds a single class can take to decompile",
+                "-summary <output file>        Selects the batch summary output",
+                "-scan <all/default/modules>   Scans the input (file or directory) for malicious code, the modules are comma separated",
+                "                              -o then optionally selects the report file",
+                "-iocs <rule files>            Loads extra IOC rule lists for -scan, separated by " + File.pathSeparator,
+                "-lazy                         Only builds the ClassNodes of the classes being decompiled, uses less memory",
+                "-mmap                         Memory maps the input archives instead of reading them into memory, implies -lazy",
+                "",
+                "The command line runs without the settings menu, the decompilers use their default settings"
+        })
+            System.out.println(s);
+    }
+
+    /**
+     * A -batch or more than one -i input
+     */
+    private static boolean isBatch(CommandLine cmd) {
+        String[] inputs = cmd.getOptionValues("i");
+        return cmd.hasOption("batch") || (inputs != null && inputs.length > 1);
+    }
+
+    /**
+     * Returns the option as a count, the default value if it isn't set or -1 if it isn't a whole number above 0
+     */
+    private static int getCount(CommandLine cmd, String option, int defaultValue) {
+        if (!cmd.hasOption(option))
+            return defaultValue;
+
+        try {
+            int count = Integer.parseInt(cmd.getOptionValue(option).trim());
+            return count > 0 ? count : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     public static void executeCommandLine(String[] args) {
         try {
             CommandLine cmd = parser.parse(options, args);
-            String decompiler = cmd.getOptionValue("decompiler");
-            File input = new File(cmd.getOptionValue("i"));
-            File output = new File(cmd.getOptionValue("o"));
-            String target = cmd.getOptionValue("t");
-
-            if (cmd.getOptionValue("decompiler") == null) {
-                System.out.println("You can define another decompiler by appending -decompiler \"name\", by default "
-                        + "procyon has been set.");
-                decompiler = "procyon";
-            }
 
-            //check if zip, jar, apk, dex, or class
-            //if its zip/jar/apk/dex attempt unzip as whole zip
-            //if its just class allow any
+            if (cmd.hasOption("lazy"))
+                Configuration.lazyClassNodes = true;
+            if (cmd.hasOption("mmap"))
+                Configuration.memoryMappedArchives = true;
 
-            File tempZip =
-                    new File(tempDirectory + fs + "temp_" + MiscUtils.getRandomizedName() + ".jar");
-            if (tempZip.exists())
-                tempZip.delete();
+            if (cmd.hasOption("scan"))
+                executeScan(cmd);
+            else if (isBatch(cmd))
+                executeBatch(cmd);
+            else
+                executeSingle(cmd);
 
-            JarUtils.saveAsJarClassesOnly(BytecodeViewer.getLoadedClasses(), tempZip.getAbsolutePath());
+            System.out.println("Finished.");
+            System.out.println("Bytecode Viewer " + VERSION + " [CLI] - Created by @Konloch - https://bytecodeviewer.com");
+            Configuration.canExit = true;
+            System.exit(0);
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        }
+    }
 
-            if (decompiler.equalsIgnoreCase("procyon")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with Procyon");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+    private static void executeSingle(CommandLine cmd) throws Exception {
+        String decompilerName = cmd.getOptionValue("decompiler");
+        File input = new File(cmd.getOptionValue("i"));
+        File output = new File(cmd.getOptionValue("o"));
+        String target = cmd.getOptionValue("t");
 
-                Thread.sleep(5 * 1000);
+        if (decompilerName == null) {
+            System.out.println("You can define another decompiler by appending -decompiler \"name\", by default "
+                    + "procyon has been set.");
+            decompilerName = "procyon";
+        }
 
-                if (target.equalsIgnoreCase("all")) {
-                    Decompiler.PROCYON_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.PROCYON_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("cfr")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with CFR");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+        Decompiler decompiler = getDecompiler(decompilerName);
+        if (decompiler == null)
+            return;
 
-                Thread.sleep(5 * 1000);
+        System.out.println("Decompiling " + input.getAbsolutePath() + " with " + decompiler.getDecompilerName());
 
-                if (target.equalsIgnoreCase("all")) {
-                    Decompiler.CFR_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.CFR_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("fernflower")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with FernFlower");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+        //import on this thread so the classes are loaded before decompiling
+        importFiles(input);
 
-                Thread.sleep(5 * 1000);
+        if (target.equalsIgnoreCase("all")) {
+            BatchDecompiler.Result result = createBatchDecompiler(cmd, decompiler).decompileLoadedClasses(output);
+            System.out.println(result);
+        } else {
+            try {
+                ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
+                final ClassWriter cw = accept(cn);
+                String contents = decompiler.getDecompiler().decompileClassNode(cn, cw.toByteArray());
+                DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
+            } catch (Exception e) {
+                BytecodeViewer.handleException(e);
+            }
+        }
+    }
 
-                if (target.equalsIgnoreCase("all")) {
-                    Decompiler.FERNFLOWER_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.FERNFLOWER_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("krakatau")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with Krakatau");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+    /**
+     * Decompiles every input into the output directory and writes a json summary with the timings of each input
+     */
+    private static void executeBatch(CommandLine cmd) throws IOException {
+        Decompiler decompiler = getDecompiler(cmd.getOptionValue("decompiler", "procyon"));
+        List<File> inputs = new ArrayList<>();
+        if (cmd.hasOption("batch"))
+            inputs.addAll(getBatchInputs(new File(cmd.getOptionValue("batch"))));
+        if (cmd.hasOption("i"))
+            for (String input : cmd.getOptionValues("i"))
+                inputs.add(new File(input));
+
+        File outputDirectory = new File(cmd.getOptionValue("o"));
+        File summaryFile = cmd.hasOption("summary")
+                ? new File(cmd.getOptionValue("summary"))
+                : new File(outputDirectory, "summary.json");
+        BatchDecompiler batchDecompiler = createBatchDecompiler(cmd, decompiler);
+
+        outputDirectory.mkdirs();
+
+        BatchSummary summary = new BatchSummary();
+        summary.version = VERSION;
+        summary.decompiler = decompiler.getDecompilerName();
+        summary.threads = getCount(cmd, "threads", Configuration.batchDecompilerThreads);
+        long start = System.currentTimeMillis();
+
+        //the inputs are ran one at a time since they share the workspace, each input uses every decompiler thread
+        for (int i = 0; i < inputs.size(); i++) {
+            File input = inputs.get(i);
+            File output = new File(outputDirectory, i + "-" + input.getName() + "-" + decompiler.name().toLowerCase() + ".zip");
+            BatchSummary.Input entry = new BatchSummary.Input();
+            entry.input = input.getAbsolutePath();
+            entry.output = output.getAbsolutePath();
+            summary.inputs.add(entry);
+
+            System.out.println("[" + (i + 1) + "/" + inputs.size() + "] Decompiling " + input.getAbsolutePath());
+
+            //the importer would prompt the user about missing files
+            if (!input.exists()) {
+                System.err.println(input.getAbsolutePath() + " does not exist.");
+                entry.error = "Input does not exist";
+                continue;
+            }
 
-                Thread.sleep(5 * 1000);
+            try {
+                BytecodeViewer.resetWorkspace();
+
+                long importStart = System.currentTimeMillis();
+                importFiles(input);
+                entry.importMillis = System.currentTimeMillis() - importStart;
+
+                BatchDecompiler.Result result = batchDecompiler.decompileLoadedClasses(output);
+                entry.decompileMillis = result.elapsedMillis;
+                entry.classes = result.total;
+                entry.decompiled = result.decompiled;
+                entry.failed = result.failed;
+                entry.timedOut = result.timedOut;
+                entry.success = true;
+
+                System.out.println(result);
+            } catch (Exception e) {
+                e.printStackTrace();
+                entry.error = e.toString();
+            }
+        }
 
-                if (target.equalsIgnoreCase("all")) {
-                    Decompiler.KRAKATAU_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.KRAKATAU_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("krakatau-bytecode")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with Krakatau-Bytecode");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+        summary.totalMillis = System.currentTimeMillis() - start;
+        DiskWriter.replaceFile(summaryFile.getAbsolutePath(), BytecodeViewer.gson.toJson(summary), false);
 
-                Thread.sleep(5 * 1000);
+        System.out.println("Wrote the batch summary to " + summaryFile.getAbsolutePath());
+    }
 
-                if (target.equalsIgnoreCase("all")) {
-                    System.out.println("Coming soon.");
-                    //Decompiler.krakatauDA.decompileToZip(output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.KRAKATAU_DISASSEMBLER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("jd-gui")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with JD-GUI");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+    /**
+     * Scans the input straight from disk, the classes are never imported into the workspace
+     */
+    private static void executeScan(CommandLine cmd) throws IOException {
+        HashSet<String> scanOptions = getScanOptions(cmd.getOptionValue("scan"));
 
-                Thread.sleep(5 * 1000);
+        if (cmd.hasOption("iocs")) {
+            Configuration.iocRuleFiles = cmd.getOptionValue("iocs");
+            System.out.println("Loaded " + IOCRuleSet.getDefault().size() + " IOC patterns");
+        }
+        File input = new File(cmd.getOptionValue("i"));
+        int threads = getCount(cmd, "threads", Configuration.malwareScanThreads);
+        List<File> inputs = new ArrayList<>();
+
+        if (input.isDirectory()) {
+            for (File file : getBatchInputs(input)) {
+                String extension = MiscUtils.extension(file.getName()).toLowerCase();
+                if (extension.equals("jar") || extension.equals("zip") || extension.equals("class"))
+                    inputs.add(file);
+            }
+        } else {
+            inputs.add(input);
+        }
 
-                if (target.equalsIgnoreCase("all")) {
-                    System.out.println("Coming soon.");
-                    //Decompiler.jdgui.decompileToZip(output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.JD_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-            } else if (decompiler.equalsIgnoreCase("smali")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with Smali");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+        StringBuilder report = new StringBuilder();
 
-                Thread.sleep(5 * 1000);
+        try (StreamingMalwareScan scan = new StreamingMalwareScan(scanOptions, threads)) {
+            for (int i = 0; i < inputs.size(); i++) {
+                File file = inputs.get(i);
+                System.out.println("[" + (i + 1) + "/" + inputs.size() + "] Scanning " + file.getAbsolutePath());
 
-                if (target.equalsIgnoreCase("all")) {
-                    System.out.println("Coming soon.");
-                    //Decompiler.smali.decompileToZip(output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.SMALI_DISASSEMBLER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
+                try {
+                    String results = scan.scan(file);
+                    report.append(file.getAbsolutePath()).append(nl).append(results).append(nl);
+                } catch (IOException e) {
+                    System.err.println("Failed to read " + file.getAbsolutePath() + ": " + e);
                 }
-            } else if (decompiler.equalsIgnoreCase("jadx")) {
-                System.out.println("Decompiling " + input.getAbsolutePath() + " with JADX");
-                BytecodeViewer.openFiles(new File[]{input}, false);
+            }
 
-                Thread.sleep(5 * 1000);
+            System.out.println("Scanned " + scan.getClassCount() + " classes, " + scan.getErrorCount()
+                    + " could not be parsed.");
+        }
+
+        if (cmd.hasOption("o")) {
+            DiskWriter.replaceFile(new File(cmd.getOptionValue("o")).getAbsolutePath(), report.toString(), false);
+            System.out.println("Wrote the scan report to " + new File(cmd.getOptionValue("o")).getAbsolutePath());
+        } else {
+            System.out.println(report);
+        }
+    }
 
-                if (target.equalsIgnoreCase("all")) {
-                    System.out.println("Coming soon.");
-                    //Decompiler.smali.decompileToZip(output.getAbsolutePath());
-                } else {
-                    try {
-                        ClassNode cn = BytecodeViewer.blindlySearchForClassNode(target);
-                        final ClassWriter cw = accept(cn);
-                        String contents = Decompiler.JADX_DECOMPILER.getDecompiler().decompileClassNode(cn, cw.toByteArray());
-                        DiskWriter.replaceFile(output.getAbsolutePath(), contents, false);
-                    } catch (Exception e) {
-                        BytecodeViewer.handleException(e);
-                    }
+    /**
+     * Returns the scanner module names for all, default or a comma separated module list, or null if a module doesn't exist
+     */
+    private static HashSet<String> getScanOptions(String value) {
+        HashSet<String> scanOptions = new HashSet<>();
+
+        for (String module : value.split(",")) {
+            module = module.trim();
+
+            if (module.equalsIgnoreCase("all") || module.equalsIgnoreCase("default")) {
+                for (MalwareScanModule scanModule : MalwareScanModule.values())
+                    if (module.equalsIgnoreCase("all") || scanModule.isToggledByDefault())
+                        scanOptions.add(scanModule.name());
+            } else {
+                try {
+                    scanOptions.add(MalwareScanModule.valueOf(module.toUpperCase()).name());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error, no scanner module called '" + module + "' found, use all, default or one of "
+                            + Arrays.toString(MalwareScanModule.values()));
+                    return null;
                 }
             }
+        }
 
-            System.out.println("Finished.");
-            System.out.println("Bytecode Viewer " + VERSION + " [CLI] - Created by @Konloch - https://bytecodeviewer.com");
-            Configuration.canExit = true;
-            System.exit(0);
-        } catch (Exception e) {
-            BytecodeViewer.handleException(e);
+        return scanOptions;
+    }
+
+    /**
+     * Returns every supported file inside of the directory, or every file listed inside of the file list
+     */
+    private static List<File> getBatchInputs(File batch) throws IOException {
+        List<File> inputs = new ArrayList<>();
+
+        if (batch.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(batch.toPath())) {
+                paths.filter(Files::isRegularFile)
+                        .map(Path::toFile)
+                        .filter(file -> Arrays.asList(SUPPORTED_FILE_EXTENSIONS)
+                                .contains(MiscUtils.extension(file.getName()).toLowerCase()))
+                        .sorted()
+                        .forEach(inputs::add);
+            }
+        } else {
+            //one input per line, blank lines and # comments are skipped
+            for (String line : Files.readAllLines(batch.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#"))
+                    inputs.add(new File(line));
+            }
+        }
+
+        return inputs;
+    }
+
+    private static BatchDecompiler createBatchDecompiler(CommandLine cmd, Decompiler decompiler) {
+        int threads = getCount(cmd, "threads", Configuration.batchDecompilerThreads);
+        int timeout = getCount(cmd, "timeout", Configuration.batchDecompilerTimeout);
+
+        return new BatchDecompiler(decompiler, threads, timeout);
+    }
+
+    /**
+     * Imports the files on the calling thread, returning once they have been loaded into the workspace
+     */
+    private static void importFiles(File... files) {
+        BytecodeViewer.updateBusyStatus(true);
+        new ImportResource(files).run();
+    }
+
+    /**
+     * Returns the decompiler for the CLI name, or null if there isn't one
+     */
+    public static Decompiler getDecompiler(String name) {
+        switch (name.toLowerCase()) {
+            case "procyon":
+                return Decompiler.PROCYON_DECOMPILER;
+            case "cfr":
+                return Decompiler.CFR_DECOMPILER;
+            case "fernflower":
+                return Decompiler.FERNFLOWER_DECOMPILER;
+            case "krakatau":
+                return Decompiler.KRAKATAU_DECOMPILER;
+            case "krakatau-bytecode":
+                return Decompiler.KRAKATAU_DISASSEMBLER;
+            case "jd-gui":
+                return Decompiler.JD_DECOMPILER;
+            case "smali":
+                return Decompiler.SMALI_DISASSEMBLER;
+            case "jadx":
+                return Decompiler.JADX_DECOMPILER;
+            default:
+                return null;
         }
     }
 
@@ -378,4 +564,28 @@ public class CommandLineInput {
         }
         return cw;
     }
+
+    /**
+     * The machine readable batch summary, serialized with gson
+     */
+    private static class BatchSummary {
+        private String version;
+        private String decompiler;
+        private int threads;
+        private long totalMillis;
+        private final List<Input> inputs = new ArrayList<>();
+
+        private static class Input {
+            private String input;
+            private String output;
+            private boolean success;
+            private String error;
+            private long importMillis;
+            private long decompileMillis;
+            private int classes;
+            private int decompiled;
+            private int failed;
+            private int timedOut;
+        }
+    }
 }
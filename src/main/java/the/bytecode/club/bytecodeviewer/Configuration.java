@@ -5,6 +5,7 @@ import the.bytecode.club.bytecodeviewer.gui.theme.RSTATheme;
 import the.bytecode.club.bytecodeviewer.translation.Language;
 
 import java.io.File;
+import java.util.zip.Deflater;
 
 /**
  * A collection of variables that can be configured through the settings menu or some form of UI/plugin
@@ -25,7 +26,6 @@ public class Configuration
 	public static boolean displayParentInTab = false; //also change in the main GUI
 	public static boolean simplifiedTabNames = false;
 	public static boolean forceResourceUpdateFromClassNode = false; //TODO add to GUI
-	public static boolean currentlyDumping = false;
 	public static boolean needsReDump = true;
 	public static boolean warnForEditing = false;
 	public static boolean runningObfuscation = false;
@@ -34,9 +34,43 @@ public class Configuration
 	public static boolean pingback = false;
 	public static boolean deleteForeignLibraries = true;
 	public static boolean canExit = false;
+	public static boolean headless = false; //set by the command line, none of the swing components are created
 	public static int silenceExceptionGUI = 0;
 	public static int pauseExceptionGUI = 0;
 	
+	//only keep the class bytes on import, the ClassNodes are built on first access
+	//NOTE: edits made directly to a lazily built ClassNode are lost once it's evicted, use ResourceContainer.updateNode or BCV.markEdited
+	public static boolean lazyClassNodes = false; //Settings > Load Classes On Demand, -lazy on the command line
+	public static int classNodeCacheSize = 1024; //max ClassNodes kept per lazily loaded container
+	//memory map zip archives and only read the central directory on import, this also enables lazy ClassNodes
+	public static boolean memoryMappedArchives = false; //Settings > Memory Map Archives, -mmap on the command line
+	//cache the decompiled source by class bytes + decompiler settings, in memory and inside of the BCV directory
+	public static boolean decompilerCache = true; //TODO add to GUI
+	public static boolean decompilerDiskCache = false; //TODO add to GUI
+	public static int decompilerDiskCacheSize = 256; //max size of the on-disk decompiled sources in MB
+	public static int decompilerCacheSize = 256; //max decompiled sources kept in memory
+	//whole archive decompiling splits the classes into per-class tasks on a work-stealing pool
+	public static int batchDecompilerThreads = Runtime.getRuntime().availableProcessors(); //TODO add to GUI
+	public static int batchDecompilerTimeout = 120; //seconds a single class can take before it's skipped
+	//the search pane looks up strings, method and field references through a per-container inverted index
+	public static boolean searchIndex = true; //TODO add to GUI
+	public static boolean persistSearchIndex = false; //TODO add to GUI - writes <archive>.bcvindex next to the archive
+	public static int searchThreads = Runtime.getRuntime().availableProcessors(); //TODO add to GUI
+	public static int maxSearchResults = 10000; //the search stops once this many results have been found
+	public static int malwareScanThreads = Runtime.getRuntime().availableProcessors(); //TODO add to GUI
+	public static boolean streamingMalwareScan = true; //toggled in the Malicious Code Scanner options
+	public static boolean workspaceIndex = true; //TODO add to GUI - type hierarchy & call graph, built after importing
+	public static int paneDecompilerThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2); //TODO add to GUI
+	public static int paneDecompilerTimeout = 60; //TODO add to GUI - seconds a class viewer pane can take before it's cancelled
+	public static boolean launchDecompilersInNewProcess = false; //TODO add to GUI - decompiles on the warm worker JVMs instead of in BCV
+	public static int decompilerWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); //TODO add to GUI
+	public static int decompilerWorkerTimeout = 60; //TODO add to GUI - seconds a class can take before its worker is killed
+	public static int decompilerWorkerMemory = 1024; //TODO add to GUI - max heap of each worker in MB
+	public static int quickSearchResults = 50; //TODO add to GUI - results shown by the resource list quick search
+	public static String iocRuleFiles = ""; //TODO add to GUI - extra IOC rule lists, separated by File.pathSeparator
+	public static int exportCompressionLevel = Deflater.DEFAULT_COMPRESSION; //TODO add to GUI - 0 (stored) to 9 (smallest) for the exported jars
+	public static boolean compileInProcess = true; //TODO add to GUI - compile with the javac of the running JDK, the javac path is only used on a JRE
+	
 	public static final int maxRecentFiles = 25; //eventually may be a setting
 	public static boolean verifyCorruptedStateOnBoot = false; //eventually may be a setting
 	
@@ -17,7 +17,6 @@ public class Constants
 	public static String krakatauVersion = "12";
 	public static String enjarifyVersion = "4";
 	public static final boolean BLOCK_TAB_MENU = true;
-	public static final boolean LAUNCH_DECOMPILERS_IN_NEW_PROCESS = false; //TODO
 	public static final boolean FAT_JAR = true; //could be automatic by checking if it's loaded a class named whatever for a library
 	public static final boolean OFFLINE_MODE = true; //disables the automatic updater
 	
@@ -33,6 +32,7 @@ public class Constants
 	public static final String settingsName = getBCVDirectory() + fs + "settings.bcv";
 	public static final String tempDirectory = getBCVDirectory() + fs + "bcv_temp" + fs;
 	public static final String libsDirectory = getBCVDirectory() + fs + "libs" + fs;
+	public static final String decompilerCacheDirectory = getBCVDirectory() + fs + "decompiler_cache" + fs;
 	public static String krakatauWorkingDirectory = getBCVDirectory() + fs + "krakatau_" + krakatauVersion;
 	public static String enjarifyWorkingDirectory = getBCVDirectory() + fs + "enjarify_" + enjarifyVersion;
 	public static final String[] SUPPORTED_FILE_EXTENSIONS = new String[]{"jar", "zip", "class", "apk", "xapk", "dex", "war", "jsp"};
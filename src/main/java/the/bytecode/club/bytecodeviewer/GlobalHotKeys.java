@@ -107,8 +107,8 @@ public class GlobalHotKeys
 					
 					BytecodeViewer.updateBusyStatus(true);
 					Thread jarExport = new Thread(() -> {
-						JarUtils.saveAsJar(BytecodeViewer.getLoadedClasses(),
-								file2.getAbsolutePath());
+						JarUtils.saveContainersAsJar(BytecodeViewer.resourceContainers,
+								file2.getAbsolutePath(), null);
 						BytecodeViewer.updateBusyStatus(false);
 					}, "Jar Export");
 					jarExport.start();
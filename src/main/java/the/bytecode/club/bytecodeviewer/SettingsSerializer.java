@@ -191,6 +191,8 @@ public class SettingsSerializer
             save(BytecodeViewer.viewer.viewPane1.isPaneEditable());
             save(BytecodeViewer.viewer.viewPane2.isPaneEditable());
             save(BytecodeViewer.viewer.viewPane3.isPaneEditable());
+            save(Configuration.lazyClassNodes);
+            save(Configuration.memoryMappedArchives);
         } catch (Exception e) {
             BytecodeViewer.handleException(e);
         }
@@ -348,6 +350,36 @@ public class SettingsSerializer
             BytecodeViewer.viewer.viewPane1.setPaneEditable(asBoolean(131));
             BytecodeViewer.viewer.viewPane2.setPaneEditable(asBoolean(132));
             BytecodeViewer.viewer.viewPane3.setPaneEditable(asBoolean(133));
+            Configuration.lazyClassNodes = asBoolean(134);
+            BytecodeViewer.viewer.loadClassesOnDemand.setSelected(Configuration.lazyClassNodes);
+            Configuration.memoryMappedArchives = asBoolean(135);
+            BytecodeViewer.viewer.memoryMapArchives.setSelected(Configuration.memoryMappedArchives);
+        } catch (Exception e) {
+            //ignore because errors are expected, first start up and outdated settings.
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Loads the settings used by the command line, it runs without the swing components the rest are stored in
+     */
+    public static void loadCommandLineSettings()
+    {
+        if(!settingsFileExists)
+            return;
+        
+        try
+        {
+            Configuration.python2 = asString(89);
+            Configuration.rt = asString(90);
+            Configuration.library = asString(107);
+            Configuration.pingback = asBoolean(108);
+            Configuration.deleteForeignLibraries = asBoolean(113);
+            Configuration.python3 = asString(115);
+            Configuration.javac = asString(116);
+            Configuration.java = asString(117);
+            Configuration.lazyClassNodes = asBoolean(134);
+            Configuration.memoryMappedArchives = asBoolean(135);
         } catch (Exception e) {
             //ignore because errors are expected, first start up and outdated settings.
             e.printStackTrace();
@@ -42,7 +42,7 @@ public final class ASMResourceUtil
      */
     public static String findMainMethod(String defaultFQN)
     {
-        for (ClassNode cn : BytecodeViewer.getLoadedClasses())
+        for (ClassNode cn : BytecodeViewer.getLoadedClassNodes())
         {
             for (Object o : cn.methods.toArray())
             {
@@ -62,7 +62,7 @@ public final class ASMResourceUtil
                                        String originalFieldName, String originalFieldDesc,
                                        String newFieldParent, String newFieldName, String newFieldDesc)
     {
-        for (ClassNode c : BytecodeViewer.getLoadedClasses())
+        for (ClassNode c : BytecodeViewer.getLoadedClassNodes())
         {
             for (Object o : c.methods.toArray())
             {
@@ -94,7 +94,7 @@ public final class ASMResourceUtil
                                         String originalMethodName, String originalMethodDesc,
                                         String newParent, String newName, String newDesc)
     {
-        for (ClassNode c : BytecodeViewer.getLoadedClasses())
+        for (ClassNode c : BytecodeViewer.getLoadedClassNodes())
         {
             for (Object o : c.methods.toArray())
             {
@@ -146,7 +146,7 @@ public final class ASMResourceUtil
     public static void renameClassNode(final String oldName,
                                        final String newName)
     {
-        for (ClassNode c : BytecodeViewer.getLoadedClasses())
+        for (ClassNode c : BytecodeViewer.getLoadedClassNodes())
         {
             for (InnerClassNode oo : c.innerClasses)
             {
@@ -14,6 +14,9 @@ import the.bytecode.club.bytecodeviewer.compilers.InternalCompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.plugin.preinstalled.EZInjection;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+import the.bytecode.club.bytecodeviewer.resources.ResourceRegistry;
+import the.bytecode.club.bytecodeviewer.resources.WorkspaceIndex;
 import the.bytecode.club.bytecodeviewer.util.DialogueUtils;
 import the.bytecode.club.bytecodeviewer.util.JarUtils;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
@@ -177,6 +180,37 @@ public class BCV
                 .blindlySearchForClassNode(name);
     }
 
+    /**
+     * Call this after editing one of the loaded ClassNodes in place. Otherwise the export copies the class as it
+     * was imported, and the edits to a lazily loaded ClassNode are lost once it's evicted.
+     *
+     * @param cn the edited ClassNode
+     */
+    public static void markEdited(ClassNode cn) {
+        for (ResourceContainer container : the.bytecode.club.bytecodeviewer.BytecodeViewer.getResourceContainers())
+            if (container.markEdited(cn))
+                return;
+    }
+
+    /**
+     * Returns the type hierarchy & call graph index of the loaded classes.
+     * Use it for xrefs, finding overrides & checking if a method can be renamed without scanning every class.
+     *
+     * @return the workspace index
+     */
+    public static WorkspaceIndex getWorkspaceIndex() {
+        return the.bytecode.club.bytecodeviewer.BytecodeViewer.workspaceIndex;
+    }
+
+    /**
+     * Returns the container, class & file name lookups of the opened resources.
+     *
+     * @return the resource registry
+     */
+    public static ResourceRegistry getResourceRegistry() {
+        return the.bytecode.club.bytecodeviewer.BytecodeViewer.resourceRegistry;
+    }
+
     /**
      * Used to grab the loaded ClassNodes.
      *
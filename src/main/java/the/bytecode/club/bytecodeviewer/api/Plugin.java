@@ -3,6 +3,7 @@ package the.bytecode.club.bytecodeviewer.api;
 import java.util.ArrayList;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.plugin.PluginManager;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -40,16 +41,16 @@ public abstract class Plugin extends Thread
             if (BytecodeViewer.promptIfNoLoadedClasses())
                 return;
             
-            execute(BytecodeViewer.getLoadedClasses());
+            execute(BytecodeViewer.getLoadedClassNodes());
         } catch (Exception e) {
             BytecodeViewer.handleException(e);
         } finally {
-            finished = true;
+            setFinished();
             BytecodeViewer.updateBusyStatus(false);
         }
     }
 
-    private boolean finished = false;
+    private volatile boolean finished = false;
 
     /**
      * When the plugin is finally finished, this will return true
@@ -66,11 +67,35 @@ public abstract class Plugin extends Thread
      * and it will set the finished boolean to true.
      */
     public void setFinished() {
+        if (finished)
+            return;
+        
         finished = true;
+        
+        //write back the ClassNodes the plugin edited in place
+        PluginManager.pluginFinished(this);
+    }
+
+    /**
+     * Whenever the plugin is started, this method is called with the loaded classes streamed one by one.
+     *
+     * By default the classes are collected and passed to execute(ArrayList), plugins that only
+     * need to visit each class once can override this to avoid holding every ClassNode at once.
+     *
+     * @param classNodes all of the loaded classes
+     */
+    public void execute(Iterable<ClassNode> classNodes)
+    {
+        ArrayList<ClassNode> classNodeList = new ArrayList<>();
+        for (ClassNode cn : classNodes)
+            classNodeList.add(cn);
+        
+        execute(classNodeList);
     }
 
     /**
-     * Whenever the plugin is started, this method is called
+     * Whenever the plugin is started, this method is called.
+     * Call BCV.markEdited for each ClassNode edited in place, otherwise the edits aren't exported.
      *
      * @param classNodeList all of the loaded classes for easy access.
      */
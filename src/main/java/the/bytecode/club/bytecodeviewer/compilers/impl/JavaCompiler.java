@@ -5,6 +5,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.tools.ToolProvider;
 import me.konloch.kontainer.io.DiskWriter;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.Configuration;
@@ -41,8 +45,81 @@ import static the.bytecode.club.bytecodeviewer.Constants.*;
 
 public class JavaCompiler extends InternalCompiler
 {
+    //looked up on the first compile, the javac classes stay loaded & warm between compiles
+    private javax.tools.JavaCompiler systemCompiler;
+    private ResourceFileManager fileManager;
+    private boolean systemCompilerMissing;
+    
     @Override
     public byte[] compile(String contents, String name)
+    {
+        if (Configuration.compileInProcess)
+        {
+            synchronized (this)
+            {
+                if (getSystemCompiler() != null)
+                    return compileInProcess(contents, name);
+            }
+        }
+        
+        return compileExternal(contents, name);
+    }
+    
+    /**
+     * Compiles with the javac of the running JDK, the loaded classes are read straight from their containers
+     * and nothing is written to disk
+     */
+    private byte[] compileInProcess(String contents, String name)
+    {
+        StringWriter log = new StringWriter();
+        
+        try
+        {
+            fileManager.prepare(Configuration.library);
+            
+            Boolean success = systemCompiler.getTask(log, fileManager, null,
+                    Collections.singletonList("-proc:none"), null,
+                    Collections.singletonList(ResourceFileManager.createSource(name, contents))).call();
+            
+            byte[] clazz = fileManager.getOutput(name);
+            System.out.println(log);
+            
+            if (!success || clazz == null)
+                throw new Exception(log.toString());
+            
+            return clazz;
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Returns the javac of the running JDK, or null when running on a JRE
+     */
+    private javax.tools.JavaCompiler getSystemCompiler()
+    {
+        if (systemCompiler == null && !systemCompilerMissing)
+        {
+            systemCompiler = ToolProvider.getSystemJavaCompiler();
+            
+            if (systemCompiler == null)
+                systemCompilerMissing = true;
+            else
+                fileManager = new ResourceFileManager(systemCompiler.getStandardFileManager(null, null,
+                        StandardCharsets.UTF_8));
+        }
+        
+        return systemCompiler;
+    }
+    
+    /**
+     * Compiles with the external javac (Configuration.javac), the loaded classes are saved as the class path jar
+     */
+    private byte[] compileExternal(String contents, String name)
     {
         String fileStart = tempDirectory + fs + "temp" + MiscUtils.randomString(12) + fs;
         String fileStart2 = tempDirectory + fs + "temp" + MiscUtils.randomString(12) + fs;
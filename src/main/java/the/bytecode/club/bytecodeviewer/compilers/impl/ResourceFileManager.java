@@ -0,0 +1,264 @@
+package the.bytecode.club.bytecodeviewer.compilers.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.api.ASMUtil;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The file manager used by the in-process {@link JavaCompiler}, it keeps everything in memory.
+ *
+ * The loaded classes are served to javac as the class path straight from the resource bytes of their
+ * {@link ResourceContainer}, the library class path (Configuration.library) and the JDK classes are left to the
+ * standard file manager. Only the class names are indexed by package, the index is rebuilt when the
+ * ResourceRegistry changes (imports, removed containers & renames) and the bytes are read when javac opens the class.
+ * A class that's in memory as a ClassNode is serialized at that point, so in-place edits (plugins) are picked up
+ * even before they're written back to the container.
+ *
+ * The compiled classes are kept in memory until the next compile.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class ResourceFileManager extends ForwardingJavaFileManager<StandardJavaFileManager>
+{
+    private final Map<String, List<String>> packages = new HashMap<>();
+    private final Map<String, ByteArrayOutputStream> output = new LinkedHashMap<>();
+    private long indexedModCount = -1;
+    private String library;
+    
+    public ResourceFileManager(StandardJavaFileManager fileManager)
+    {
+        super(fileManager);
+    }
+    
+    /**
+     * Updates the class path index and the library class path, then drops the output of the last compile
+     */
+    public void prepare(String library) throws IOException
+    {
+        output.clear();
+        
+        long modCount = BytecodeViewer.resourceRegistry.getModCount();
+        if (modCount != indexedModCount)
+        {
+            index();
+            indexedModCount = modCount;
+        }
+        
+        if (!library.equals(this.library))
+        {
+            List<File> files = new ArrayList<>();
+            for (String path : library.split(File.pathSeparator))
+                if (!path.isEmpty())
+                    files.add(new File(path));
+            
+            fileManager.setLocation(StandardLocation.CLASS_PATH, files);
+            this.library = library;
+        }
+    }
+    
+    /**
+     * Returns the compiled class bytes (full name path without the extension), or null if it wasn't compiled
+     */
+    public byte[] getOutput(String className)
+    {
+        ByteArrayOutputStream out = output.get(className.replace('/', '.'));
+        return out == null ? null : out.toByteArray();
+    }
+    
+    /**
+     * Creates the compilation unit for the source of the class (full name path without the extension)
+     */
+    public static JavaFileObject createSource(String className, String contents)
+    {
+        return new SimpleJavaFileObject(toURI(className + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors)
+            {
+                return contents;
+            }
+        };
+    }
+    
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                         boolean recurse) throws IOException
+    {
+        Iterable<JavaFileObject> delegated = super.list(location, packageName, kinds, recurse);
+        if (location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS))
+            return delegated;
+        
+        //the loaded classes come first so they hide the library versions of the same class
+        List<JavaFileObject> files = new ArrayList<>();
+        if (recurse)
+        {
+            String prefix = packageName + ".";
+            for (Map.Entry<String, List<String>> entry : packages.entrySet())
+                if (packageName.isEmpty() || entry.getKey().equals(packageName) || entry.getKey().startsWith(prefix))
+                    for (String className : entry.getValue())
+                        files.add(new ResourceClassFile(className));
+        }
+        else
+        {
+            for (String className : packages.getOrDefault(packageName, Collections.emptyList()))
+                files.add(new ResourceClassFile(className));
+        }
+        
+        if (files.isEmpty())
+            return delegated;
+        
+        for (JavaFileObject file : delegated)
+            files.add(file);
+        
+        return files;
+    }
+    
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file)
+    {
+        if (file instanceof ResourceClassFile)
+            return ((ResourceClassFile) file).binaryName;
+        
+        return super.inferBinaryName(location, file);
+    }
+    
+    @Override
+    public boolean hasLocation(Location location)
+    {
+        return location == StandardLocation.CLASS_PATH || location == StandardLocation.CLASS_OUTPUT
+                || super.hasLocation(location);
+    }
+    
+    @Override
+    public boolean isSameFile(FileObject a, FileObject b)
+    {
+        if (a instanceof SimpleJavaFileObject || b instanceof SimpleJavaFileObject)
+            return a.toUri().equals(b.toUri());
+        
+        return super.isSameFile(a, b);
+    }
+    
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                               FileObject sibling) throws IOException
+    {
+        if (location != StandardLocation.CLASS_OUTPUT || kind != JavaFileObject.Kind.CLASS)
+            return super.getJavaFileForOutput(location, className, kind, sibling);
+        
+        return new SimpleJavaFileObject(toURI(className.replace('.', '/') + kind.extension), kind)
+        {
+            @Override
+            public OutputStream openOutputStream()
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                output.put(className, out);
+                return out;
+            }
+        };
+    }
+    
+    private void index()
+    {
+        packages.clear();
+        
+        //a copy of the names, the containers can be imported into while javac runs
+        Set<String> classNames = BytecodeViewer.resourceRegistry.getClassNames();
+        
+        for (String className : classNames)
+        {
+            if (className.endsWith("module-info"))
+                continue;
+            
+            int split = className.lastIndexOf('/');
+            String packageName = split == -1 ? "" : className.substring(0, split).replace('/', '.');
+            packages.computeIfAbsent(packageName, k -> new ArrayList<>()).add(className);
+        }
+    }
+    
+    private static URI toURI(String path)
+    {
+        try
+        {
+            return new URI("bcv", null, "/" + path, null);
+        }
+        catch (URISyntaxException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /**
+     * A loaded class, the bytes are looked up in its container when javac reads it
+     */
+    private static class ResourceClassFile extends SimpleJavaFileObject
+    {
+        private final String className;
+        private final String binaryName;
+        
+        private ResourceClassFile(String className)
+        {
+            super(toURI(className + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.binaryName = className.replace('/', '.');
+        }
+        
+        @Override
+        public InputStream openInputStream() throws IOException
+        {
+            ResourceContainer container = BytecodeViewer.resourceRegistry.getClassContainer(className);
+            if (container == null)
+                throw new IOException("The class " + className + " is no longer loaded");
+            
+            //the stored bytes don't have the edits made to the ClassNode in place
+            ClassNode cn = container.getLoadedClassNode(className);
+            byte[] bytes = cn != null ? ASMUtil.nodeToBytes(cn) : container.getBytes(className + ".class");
+            if (bytes == null)
+                throw new IOException("The class " + className + " is no longer loaded");
+            
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+}
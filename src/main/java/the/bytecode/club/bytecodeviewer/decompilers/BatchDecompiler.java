@@ -0,0 +1,488 @@
+package the.bytecode.club.bytecodeviewer.decompilers;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.api.ASMUtil;
+import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+import the.bytecode.club.bytecodeviewer.util.JarUtils;
+import the.bytecode.club.bytecodeviewer.util.MiscUtils;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+import static the.bytecode.club.bytecodeviewer.Constants.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Decompiles a whole archive with any of the decompilers.
+ *
+ * Every class is its own task on a thread pool so the export scales with the available cores,
+ * a class that fails or takes longer than the timeout is written to the zip as an error instead of
+ * stopping the export. A timed out class is interrupted and the export moves on without waiting for it.
+ * The decompiled sources are streamed into the output zip as soon as they finish.
+ *
+ * The decompiled sources skip the decompiled source cache, an archive would flush the sources of the
+ * opened classes out of it.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class BatchDecompiler
+{
+    private final Decompiler decompiler;
+    private final int threads;
+    private final long timeoutMillis;
+    
+    public BatchDecompiler(Decompiler decompiler)
+    {
+        this(decompiler, Configuration.batchDecompilerThreads, Configuration.batchDecompilerTimeout);
+    }
+    
+    public BatchDecompiler(Decompiler decompiler, int threads, int timeoutSeconds)
+    {
+        if (decompiler.getDecompiler() == null)
+            throw new IllegalArgumentException(decompiler.getDecompilerName() + " can't be used to decompile an archive");
+        
+        this.decompiler = decompiler;
+        this.threads = Math.max(1, threads);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, timeoutSeconds));
+    }
+    
+    /**
+     * Decompiles every class loaded into BCV
+     */
+    public Result decompileLoadedClasses(File zip) throws IOException
+    {
+        if (isWholeArchiveDecompiler())
+        {
+            File tempJar = new File(tempDirectory + fs + "temp_" + MiscUtils.getRandomizedName() + ".jar");
+            JarUtils.saveAsJarClassesOnly(BytecodeViewer.getLoadedClasses(), tempJar.getAbsolutePath());
+            
+            try {
+                return decompileWholeArchive(tempJar, zip, countClasses(tempJar));
+            } finally {
+                tempJar.delete();
+            }
+        }
+        
+        List<ClassSource> classes = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        
+        //the first container wins, the same as the class lookups
+        for (ResourceContainer container : BytecodeViewer.resourceContainers)
+            for (String name : container.getClassNames())
+                if (names.add(name))
+                    classes.add(new ContainerClassSource(container, name));
+        
+        return decompile(classes, zip);
+    }
+    
+    /**
+     * Decompiles every class inside of the jar
+     */
+    public Result decompileJar(File jar, File zip) throws IOException
+    {
+        if (isWholeArchiveDecompiler())
+            return decompileWholeArchive(jar, zip, countClasses(jar));
+        
+        try (ZipFile zipFile = new ZipFile(jar))
+        {
+            List<ClassSource> classes = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            
+            while (entries.hasMoreElements())
+            {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                
+                if (!entry.isDirectory() && entryName.endsWith(".class")
+                        && names.add(entryName))
+                    classes.add(new ZipClassSource(zipFile, entry));
+            }
+            
+            return decompile(classes, zip);
+        }
+    }
+    
+    /**
+     * Krakatau runs a single external process over the whole archive, splitting it up per-class
+     * would write out the workspace jar and start a new process for every class
+     */
+    private boolean isWholeArchiveDecompiler()
+    {
+        return decompiler == Decompiler.KRAKATAU_DECOMPILER || decompiler == Decompiler.KRAKATAU_DISASSEMBLER;
+    }
+    
+    private Result decompileWholeArchive(File jar, File zip, int total)
+    {
+        long start = System.currentTimeMillis();
+        decompiler.getDecompiler().decompileToZip(jar.getAbsolutePath(), zip.getAbsolutePath());
+        
+        //the external process doesn't report failures per-class
+        return new Result(decompiler, total, total, 0, 0, System.currentTimeMillis() - start);
+    }
+    
+    private Result decompile(List<ClassSource> classes, File zip) throws IOException
+    {
+        long start = System.currentTimeMillis();
+        int decompiled = 0;
+        int failed = 0;
+        int timedOut = 0;
+        
+        //cancelling one of its tasks interrupts the thread running it
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new NamedThreadFactory("Batch Decompiler"));
+        
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zip))))
+        {
+            CompletionService<Output> completion = new ExecutorCompletionService<>(pool);
+            Map<Future<Output>, Task> pending = new HashMap<>();
+            
+            for (ClassSource source : classes)
+            {
+                Task task = new Task(source);
+                pending.put(completion.submit(task), task);
+            }
+            
+            int total = classes.size();
+            long lastTimeoutCheck = System.currentTimeMillis();
+            
+            while (!pending.isEmpty())
+            {
+                Future<Output> future = completion.poll(250, TimeUnit.MILLISECONDS);
+                
+                List<Output> outputs = new ArrayList<>();
+                
+                //the timed out classes are already written, their cancelled futures still end up in the queue
+                Task task = future == null ? null : pending.remove(future);
+                if (task != null)
+                {
+                    try {
+                        outputs.add(future.get());
+                    } catch (CancellationException e) {
+                        outputs.add(timedOut(task));
+                    } catch (ExecutionException e) {
+                        outputs.add(new Output(task.source.getName(), getErrorMessage(e.getCause()), Status.FAILED));
+                    }
+                }
+                
+                //interrupt the classes that are taking too long and move on without them,
+                //a decompiler ignoring the interrupt only keeps its own thread busy
+                long now = System.currentTimeMillis();
+                if (now - lastTimeoutCheck >= 250)
+                {
+                    lastTimeoutCheck = now;
+                    
+                    Iterator<Map.Entry<Future<Output>, Task>> it = pending.entrySet().iterator();
+                    while (it.hasNext())
+                    {
+                        Map.Entry<Future<Output>, Task> entry = it.next();
+                        long started = entry.getValue().started;
+                        
+                        if (started != 0 && now - started > timeoutMillis)
+                        {
+                            entry.getKey().cancel(true);
+                            it.remove();
+                            outputs.add(timedOut(entry.getValue()));
+                        }
+                    }
+                }
+                
+                for (Output output : outputs)
+                {
+                    switch (output.status)
+                    {
+                        case DECOMPILED:
+                            decompiled++;
+                            break;
+                        case FAILED:
+                            failed++;
+                            break;
+                        case TIMED_OUT:
+                            timedOut++;
+                            break;
+                    }
+                    
+                    out.putNextEntry(new ZipEntry(output.name + getFileExtension()));
+                    out.write(output.source.getBytes(StandardCharsets.UTF_8));
+                    out.closeEntry();
+                }
+                
+                if (!outputs.isEmpty())
+                    BytecodeViewer.updateBusyProgress((int) ((total - pending.size()) * 100L / total));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch decompilation was interrupted", e);
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        
+        return new Result(decompiler, classes.size(), decompiled, failed, timedOut, System.currentTimeMillis() - start);
+    }
+    
+    private Output timedOut(Task task)
+    {
+        return new Output(task.source.getName(), "Decompilation timed out after "
+                + TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds", Status.TIMED_OUT);
+    }
+    
+    private String getFileExtension()
+    {
+        switch (decompiler)
+        {
+            case SMALI_DISASSEMBLER:
+                return ".smali";
+            case KRAKATAU_DISASSEMBLER:
+                return ".j";
+            case BYTECODE_DISASSEMBLER:
+            case ASM_TEXTIFY_DISASSEMBLER:
+                return ".txt";
+            default:
+                return ".java";
+        }
+    }
+    
+    private static String getErrorMessage(Throwable t)
+    {
+        StringBuilder sb = new StringBuilder("Bytecode Viewer Version: " + VERSION + nl + nl);
+        sb.append(t);
+        for (StackTraceElement element : t.getStackTrace())
+            sb.append(nl).append("\tat ").append(element);
+        
+        return sb.toString();
+    }
+    
+    private static int countClasses(File jar) throws IOException
+    {
+        int count = 0;
+        
+        try (ZipFile zipFile = new ZipFile(jar))
+        {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements())
+                if (entries.nextElement().getName().endsWith(".class"))
+                    count++;
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Decompiles a single class
+     */
+    private class Task implements Callable<Output>
+    {
+        private final ClassSource source;
+        private volatile long started;
+        
+        private Task(ClassSource source)
+        {
+            this.source = source;
+        }
+        
+        @Override
+        public Output call() throws Exception
+        {
+            started = System.currentTimeMillis();
+            
+            byte[] bytes = source.getBytes();
+            ClassNode cn = bytes == null ? null : source.getClassNode(bytes);
+            
+            if (cn == null)
+                return new Output(source.getName(), "Unable to read the class", Status.FAILED);
+            
+            String decompiledSource = decompiler.getDecompiler().decompileClassNode(cn, bytes);
+            
+            if (decompiledSource == null)
+                return new Output(source.getName(), "No output", Status.FAILED);
+            
+            //the decompilers return their errors as the decompiled source
+            Status status = decompiledSource.contains(ExceptionUI.SEND_STACKTRACE_TO) ? Status.FAILED : Status.DECOMPILED;
+            return new Output(source.getName(), decompiledSource, status);
+        }
+    }
+    
+    private enum Status
+    {
+        DECOMPILED,
+        FAILED,
+        TIMED_OUT,
+    }
+    
+    private static class Output
+    {
+        private final String name;
+        private final String source;
+        private final Status status;
+        
+        private Output(String name, String source, Status status)
+        {
+            this.name = name;
+            this.source = source;
+            this.status = status;
+        }
+    }
+    
+    /**
+     * A class that can be decompiled, the bytes are only read once the task runs
+     */
+    private interface ClassSource
+    {
+        /**
+         * The internal class name, without the .class extension
+         */
+        String getName();
+        
+        byte[] getBytes() throws IOException;
+        
+        ClassNode getClassNode(byte[] bytes);
+    }
+    
+    private static class ContainerClassSource implements ClassSource
+    {
+        private final ResourceContainer container;
+        private final String name;
+        
+        private ContainerClassSource(ResourceContainer container, String name)
+        {
+            this.container = container;
+            this.name = name;
+        }
+        
+        @Override
+        public String getName()
+        {
+            return name;
+        }
+        
+        @Override
+        public byte[] getBytes()
+        {
+            byte[] bytes = container.getBytes(name + ".class");
+            if (bytes != null)
+                return bytes;
+            
+            ClassNode cn = container.getClassNode(name);
+            return cn == null ? null : ASMUtil.nodeToBytes(cn);
+        }
+        
+        @Override
+        public ClassNode getClassNode(byte[] bytes)
+        {
+            return container.getClassNode(name);
+        }
+    }
+    
+    private static class ZipClassSource implements ClassSource
+    {
+        private final ZipFile zipFile;
+        private final ZipEntry entry;
+        
+        private ZipClassSource(ZipFile zipFile, ZipEntry entry)
+        {
+            this.zipFile = zipFile;
+            this.entry = entry;
+        }
+        
+        @Override
+        public String getName()
+        {
+            String name = entry.getName();
+            return name.substring(0, name.length() - ".class".length());
+        }
+        
+        @Override
+        public byte[] getBytes() throws IOException
+        {
+            try (InputStream in = zipFile.getInputStream(entry))
+            {
+                return IOUtils.toByteArray(in);
+            }
+        }
+        
+        @Override
+        public ClassNode getClassNode(byte[] bytes)
+        {
+            return ASMUtil.bytesToNode(bytes);
+        }
+    }
+    
+    /**
+     * The outcome of a batch decompilation
+     */
+    public static class Result
+    {
+        public final Decompiler decompiler;
+        public final int total;
+        public final int decompiled;
+        public final int failed;
+        public final int timedOut;
+        public final long elapsedMillis;
+        
+        public Result(Decompiler decompiler, int total, int decompiled, int failed, int timedOut, long elapsedMillis)
+        {
+            this.decompiler = decompiler;
+            this.total = total;
+            this.decompiled = decompiled;
+            this.failed = failed;
+            this.timedOut = timedOut;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        @Override
+        public String toString()
+        {
+            return decompiler.getDecompilerName() + ": " + decompiled + "/" + total + " classes decompiled, "
+                    + failed + " failed, " + timedOut + " timed out in " + elapsedMillis + "ms";
+        }
+    }
+}
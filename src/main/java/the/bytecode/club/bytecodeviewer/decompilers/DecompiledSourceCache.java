@@ -0,0 +1,348 @@
+package the.bytecode.club.bytecodeviewer.decompilers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.FileUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+
+import static the.bytecode.club.bytecodeviewer.Constants.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A two tier cache of decompiled sources, a small in-memory LRU backed by a store inside of the BCV directory.
+ *
+ * Entries are keyed by a digest of the class bytes, the decompiler, the decompiler settings and the BCV version,
+ * so editing a class or changing a decompiler setting will never return a stale source. For the decompilers that
+ * resolve the referenced classes from the workspace the bytes of the loaded classes it refers to are part of the key.
+ *
+ * The on-disk store is off by default (Configuration.decompilerDiskCache), once it grows past
+ * Configuration.decompilerDiskCacheSize the least recently used sources are deleted.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class DecompiledSourceCache
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    //the class types inside of descriptors & signatures
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([^;<>.\\[]+)[;<]");
+    private static final Object diskLock = new Object();
+    //bytes used by the on-disk store, -1 until it has been measured
+    private static long diskUsage = -1;
+    private static final Map<String, String> memoryCache = new LinkedHashMap<String, String>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+        {
+            return size() > Configuration.decompilerCacheSize;
+        }
+    };
+    
+    /**
+     * Returns the decompiled source, the decompiler is only invoked on a cache miss
+     */
+    public static String decompile(InternalDecompiler decompiler, ClassNode cn, byte[] b)
+    {
+        if (!Configuration.decompilerCache || !decompiler.isCacheable() || b == null)
+            return decompiler.decompileClassNode(cn, b);
+        
+        String key = createKey(decompiler, b);
+        String source = get(key);
+        if (source != null)
+            return source;
+        
+        source = decompiler.decompileClassNode(cn, b);
+        
+        //failed decompilations are not cached so they get retried
+        if (source != null && !source.contains(ExceptionUI.SEND_STACKTRACE_TO))
+            put(key, source);
+        
+        return source;
+    }
+    
+    /**
+     * Clears both the in-memory and the on-disk cache
+     */
+    public static void clear()
+    {
+        synchronized (memoryCache)
+        {
+            memoryCache.clear();
+        }
+        
+        synchronized (diskLock)
+        {
+            try {
+                FileUtils.deleteDirectory(new File(decompilerCacheDirectory));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            
+            diskUsage = -1;
+        }
+    }
+    
+    private static String get(String key)
+    {
+        synchronized (memoryCache)
+        {
+            String source = memoryCache.get(key);
+            if (source != null)
+                return source;
+        }
+        
+        if (!Configuration.decompilerDiskCache)
+            return null;
+        
+        File file = getCacheFile(key);
+        if (!file.exists())
+            return null;
+        
+        try {
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            
+            //the least recently used sources are pruned first
+            file.setLastModified(System.currentTimeMillis());
+            
+            synchronized (memoryCache)
+            {
+                memoryCache.put(key, source);
+            }
+            
+            return source;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    private static void put(String key, String source)
+    {
+        synchronized (memoryCache)
+        {
+            memoryCache.put(key, source);
+        }
+        
+        if (!Configuration.decompilerDiskCache)
+            return;
+        
+        File file = getCacheFile(key);
+        File tempFile = new File(file.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        
+        try {
+            file.getParentFile().mkdirs();
+            Files.write(tempFile.toPath(), bytes);
+            
+            //write to a temp file first so another instance never reads a partially written source
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            
+            addDiskUsage(bytes.length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            tempFile.delete();
+        }
+    }
+    
+    /**
+     * Counts a newly written source & prunes the on-disk store once it's over the size limit
+     */
+    private static void addDiskUsage(long written)
+    {
+        synchronized (diskLock)
+        {
+            //the first write measures the existing store, that includes the new source
+            if (diskUsage < 0)
+                diskUsage = measure(listCacheFiles());
+            else
+                diskUsage += written;
+            
+            long limit = Math.max(0, Configuration.decompilerDiskCacheSize) * 1024L * 1024L;
+            if (diskUsage > limit)
+                diskUsage = prune(limit * 3 / 4);
+        }
+    }
+    
+    /**
+     * Deletes the least recently used sources until the store is at most the target size
+     *
+     * @return the size of the store afterwards
+     */
+    private static long prune(long target)
+    {
+        List<File> files = listCacheFiles();
+        files.sort(Comparator.comparingLong(File::lastModified));
+        
+        long size = measure(files);
+        for (File file : files)
+        {
+            if (size <= target)
+                break;
+            
+            long length = file.length();
+            if (file.delete())
+                size -= length;
+        }
+        
+        return size;
+    }
+    
+    private static List<File> listCacheFiles()
+    {
+        List<File> files = new ArrayList<>();
+        File[] directories = new File(decompilerCacheDirectory).listFiles(File::isDirectory);
+        if (directories == null)
+            return files;
+        
+        for (File directory : directories)
+        {
+            File[] sources = directory.listFiles((dir, name) -> name.endsWith(".java"));
+            if (sources != null)
+                for (File source : sources)
+                    files.add(source);
+        }
+        
+        return files;
+    }
+    
+    private static long measure(List<File> files)
+    {
+        long size = 0;
+        for (File file : files)
+            size += file.length();
+        
+        return size;
+    }
+    
+    private static File getCacheFile(String key)
+    {
+        return new File(decompilerCacheDirectory + key.substring(0, 2) + fs + key + ".java");
+    }
+    
+    /**
+     * Adds the name & bytes of every loaded class the class refers to (constant pool classes and the types
+     * inside of the descriptors & signatures) to the digest
+     */
+    private static void updateReferencedClasses(MessageDigest digest, byte[] b)
+    {
+        ClassReader cr = new ClassReader(b);
+        char[] buffer = new char[cr.getMaxStringLength()];
+        TreeSet<String> names = new TreeSet<>();
+        
+        for (int i = 1; i < cr.getItemCount(); i++)
+        {
+            //the offset of the entry after its tag, 0 for the unused slot after a long / double
+            int offset = cr.getItem(i);
+            if (offset == 0)
+                continue;
+            
+            int tag = b[offset - 1];
+            if (tag == CONSTANT_CLASS)
+            {
+                String name = cr.readUTF8(offset, buffer);
+                if (name.startsWith("["))
+                    addDescriptorTypes(names, name);
+                else
+                    names.add(name);
+            }
+            else if (tag == CONSTANT_UTF8)
+            {
+                int length = cr.readUnsignedShort(offset);
+                char first = length == 0 ? 0 : (char) b[offset + 2];
+                
+                //only descriptors & signatures can hold class types
+                if (first == '(' || first == 'L' || first == '[' || first == '<')
+                    addDescriptorTypes(names, new String(b, offset + 2, length, StandardCharsets.UTF_8));
+            }
+        }
+        
+        names.remove(cr.getClassName());
+        
+        for (String name : names)
+        {
+            byte[] bytes = InternalDecompiler.loadClassBytes(name);
+            if (bytes == null)
+                continue;
+            
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(bytes);
+        }
+    }
+    
+    private static void addDescriptorTypes(TreeSet<String> names, String descriptor)
+    {
+        Matcher matcher = DESCRIPTOR_TYPE.matcher(descriptor);
+        while (matcher.find())
+            names.add(matcher.group(1));
+    }
+    
+    private static String createKey(InternalDecompiler decompiler, byte[] b)
+    {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(decompiler.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(decompiler.getSettingsFingerprint().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(b);
+            
+            if (decompiler.resolvesReferencedClasses())
+                updateReferencedClasses(digest, b);
+            
+            byte[] hash = digest.digest();
+            char[] key = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++)
+            {
+                key[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                key[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            
+            return new String(key);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package the.bytecode.club.bytecodeviewer.decompilers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The main class of the decompiler worker processes started by the {@link DecompilerWorkerPool}.
+ *
+ * The worker reads the decompile requests from stdin and writes the responses to stdout until stdin is closed,
+ * everything the decompilers print is sent to stderr so it can't corrupt the responses.
+ *
+ * Request: decompiler class (UTF), option count (int) followed by the key & value pairs (UTF),
+ * class name (UTF), class length (int) and the class bytes.
+ * Response: status (byte), length (int) and the UTF-8 source or stack trace.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class DecompilerWorker
+{
+    public static final int HANDSHAKE = 0x42435657; //BCVW
+    public static final byte SOURCE = 0;
+    public static final byte ERROR = 1;
+    public static final byte FATAL_ERROR = 2; //the worker exits after sending the response
+
+    private static final Map<String, InternalDecompiler> decompilers = new HashMap<>();
+
+    public static void main(String[] args) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        System.setOut(System.err);
+
+        out.writeInt(HANDSHAKE);
+        out.flush();
+
+        while (true)
+        {
+            String decompilerClass;
+            try
+            {
+                decompilerClass = in.readUTF();
+            }
+            catch (EOFException e)
+            {
+                return; //BCV closed the pipe
+            }
+
+            int optionCount = in.readInt();
+            Map<String, String> options = new LinkedHashMap<>();
+            for (int i = 0; i < optionCount; i++)
+                options.put(in.readUTF(), in.readUTF());
+
+            String className = in.readUTF();
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+
+            byte status = SOURCE;
+            String result;
+            try
+            {
+                InternalDecompiler decompiler = getDecompiler(decompilerClass);
+                if (!decompiler.supportsIsolation())
+                    throw new UnsupportedOperationException(decompilerClass + " can't run in a decompiler worker");
+
+                result = decompiler.decompileIsolated(className, b, options);
+                if (result == null)
+                {
+                    status = ERROR;
+                    result = "The decompiler didn't produce any source for " + className;
+                }
+            }
+            catch (Throwable e)
+            {
+                StringWriter sw = new StringWriter();
+                e.printStackTrace(new PrintWriter(sw));
+                result = sw.toString();
+
+                //the heap or the VM itself can't be trusted anymore, the pool replaces the worker
+                status = e instanceof VirtualMachineError && !(e instanceof StackOverflowError) ? FATAL_ERROR : ERROR;
+            }
+
+            writeResponse(out, status, result);
+
+            if (status == FATAL_ERROR)
+                System.exit(1);
+        }
+    }
+
+    private static InternalDecompiler getDecompiler(String className) throws ReflectiveOperationException
+    {
+        InternalDecompiler decompiler = decompilers.get(className);
+        if (decompiler == null)
+        {
+            decompiler = (InternalDecompiler) Class.forName(className).getDeclaredConstructor().newInstance();
+            decompilers.put(className, decompiler);
+        }
+
+        return decompiler;
+    }
+
+    private static void writeResponse(DataOutputStream out, byte status, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(status);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+}
@@ -0,0 +1,442 @@
+package the.bytecode.club.bytecodeviewer.decompilers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+import static the.bytecode.club.bytecodeviewer.Constants.fs;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A pool of long-lived {@link DecompilerWorker} JVMs, used when {@link Configuration#launchDecompilersInNewProcess}
+ * is enabled so a class that crashes or hangs the decompiler can't take BCV down with it.
+ *
+ * The workers are started on demand (up to {@link Configuration#decompilerWorkers}) and are kept warm between
+ * requests, each thread borrows an idle worker for a single class so the batch decompiler threads are spread over
+ * all of them. A worker is killed once it takes longer than {@link Configuration#decompilerWorkerTimeout} seconds
+ * or the thread waiting on it is interrupted, dead workers are replaced in the background.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class DecompilerWorkerPool
+{
+    private static final long WATCHDOG_INTERVAL = 250;
+    private static final int HANDSHAKE_TIMEOUT = 30; //seconds
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService spawner = Executors.newSingleThreadExecutor(
+            new NamedThreadFactory("Decompiler Worker Spawner"));
+    private ScheduledExecutorService watchdog;
+    private int size;
+    private boolean shutdown;
+
+    /**
+     * Decompiles the class on one of the workers using {@link InternalDecompiler#decompileIsolated}, decompilers
+     * that don't {@link InternalDecompiler#supportsIsolation support it} are ran in this process instead
+     *
+     * @return the decompiled source
+     * @throws IOException if the decompiler failed, the worker crashed or it was killed
+     */
+    public String decompile(InternalDecompiler decompiler, String className, byte[] b,
+                            Map<String, String> options) throws IOException
+    {
+        if (!decompiler.supportsIsolation())
+        {
+            try
+            {
+                return decompiler.decompileIsolated(className, b, options);
+            }
+            catch (IOException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        Worker worker = acquire();
+        byte status;
+        String result;
+
+        try
+        {
+            worker.begin(Configuration.decompilerWorkerTimeout);
+            worker.send(decompiler.getClass().getName(), className, b, options);
+            status = worker.in.readByte();
+            result = worker.readString();
+            worker.end();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            //the response is incomplete, the worker can't be reused
+            String reason = worker.end();
+            retire(worker);
+
+            if (reason == null)
+                reason = "The decompiler worker crashed while decompiling " + className;
+
+            throw new IOException(reason, e);
+        }
+
+        if (status == DecompilerWorker.FATAL_ERROR)
+            retire(worker);
+        else
+            idle.add(worker);
+
+        if (status != DecompilerWorker.SOURCE)
+            throw new IOException(result);
+
+        return result;
+    }
+
+    /**
+     * Kills all of the workers, used when BCV exits
+     */
+    public void shutdown()
+    {
+        synchronized (this)
+        {
+            shutdown = true;
+            if (watchdog != null)
+                watchdog.shutdownNow();
+        }
+
+        spawner.shutdownNow();
+        for (Worker worker : workers)
+            worker.process.destroyForcibly();
+    }
+
+    /**
+     * Returns the number of worker processes that are running
+     */
+    public int getWorkerCount()
+    {
+        return workers.size();
+    }
+
+    private Worker acquire() throws IOException
+    {
+        try
+        {
+            while (true)
+            {
+                Worker worker = idle.poll();
+                if (worker == null)
+                {
+                    if (reserve())
+                        return spawn();
+
+                    worker = idle.poll(WATCHDOG_INTERVAL, TimeUnit.MILLISECONDS);
+                }
+
+                if (worker != null)
+                {
+                    if (worker.process.isAlive())
+                        return worker;
+
+                    retire(worker);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cancelled while waiting for a decompiler worker");
+        }
+    }
+
+    private synchronized boolean reserve() throws IOException
+    {
+        if (shutdown)
+            throw new IOException("The decompiler workers have been shut down");
+
+        if (size >= Math.max(1, Configuration.decompilerWorkers))
+            return false;
+
+        if (watchdog == null)
+        {
+            watchdog = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Decompiler Worker Watchdog"));
+            watchdog.scheduleWithFixedDelay(this::checkWorkers, WATCHDOG_INTERVAL, WATCHDOG_INTERVAL,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        size++;
+        return true;
+    }
+
+    private synchronized void unreserve()
+    {
+        size--;
+    }
+
+    /**
+     * Starts a new worker, a slot has to be reserved first
+     */
+    private Worker spawn() throws IOException
+    {
+        ProcessBuilder pb = new ProcessBuilder(
+                System.getProperty("java.home") + fs + "bin" + fs + "java",
+                "-Xmx" + Configuration.decompilerWorkerMemory + "m",
+                "-Xss4m",
+                "-Djava.awt.headless=true",
+                "-cp", getWorkerClasspath(),
+                DecompilerWorker.class.getName());
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        Process process = null;
+        Worker worker = null;
+        try
+        {
+            BytecodeViewer.sm.pauseBlocking();
+            try
+            {
+                process = pb.start();
+            }
+            finally
+            {
+                BytecodeViewer.sm.resumeBlocking();
+            }
+
+            //registered before the handshake so the watchdog kills a worker that never answers
+            worker = new Worker(process);
+            worker.begin(HANDSHAKE_TIMEOUT);
+            workers.add(worker);
+
+            if (worker.in.readInt() != DecompilerWorker.HANDSHAKE)
+                throw new IOException("The decompiler worker didn't start correctly");
+
+            worker.end();
+            return worker;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            String reason = worker == null ? null : worker.end();
+            if (worker != null)
+                workers.remove(worker);
+
+            if (process != null)
+                process.destroyForcibly();
+
+            unreserve();
+
+            if (reason != null)
+                throw new IOException(Thread.currentThread().isInterrupted() ? reason
+                        : "The decompiler worker didn't start within " + HANDSHAKE_TIMEOUT + " seconds", e);
+
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the worker class path from where BCV was actually loaded from, java.class.path is only the class
+     * path of the launcher when BCV is loaded by another class loader (a wrapper, a plugin host or an IDE)
+     */
+    private static String getWorkerClasspath()
+    {
+        Set<String> paths = new LinkedHashSet<>();
+
+        CodeSource source = DecompilerWorker.class.getProtectionDomain().getCodeSource();
+        if (source != null)
+            addPath(paths, source.getLocation());
+
+        //the libraries, the decompilers are loaded by the same class loaders as BCV
+        for (ClassLoader loader = DecompilerWorker.class.getClassLoader(); loader != null; loader = loader.getParent())
+        {
+            if (loader instanceof URLClassLoader)
+            {
+                for (URL url : ((URLClassLoader) loader).getURLs())
+                    addPath(paths, url);
+            }
+            else if (loader == ClassLoader.getSystemClassLoader())
+            {
+                //java 9+ the system class path is java.class.path
+                paths.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+            }
+        }
+
+        return String.join(File.pathSeparator, paths);
+    }
+
+    private static void addPath(Set<String> paths, URL url)
+    {
+        if (url == null)
+            return;
+
+        try
+        {
+            paths.add(new File(url.toURI()).getAbsolutePath());
+        }
+        catch (URISyntaxException | IllegalArgumentException ignored) { } //not a local file
+    }
+
+    /**
+     * Kills the worker and starts a replacement in the background
+     */
+    private void retire(Worker worker)
+    {
+        worker.process.destroyForcibly();
+        idle.remove(worker);
+
+        if (!workers.remove(worker))
+            return;
+
+        unreserve();
+
+        try
+        {
+            spawner.execute(() ->
+            {
+                try
+                {
+                    if (reserve())
+                        idle.add(spawn());
+                }
+                catch (IOException e)
+                {
+                    BytecodeViewer.handleException(e);
+                }
+            });
+        }
+        catch (RuntimeException ignored) { } //shut down
+    }
+
+    private void checkWorkers()
+    {
+        long now = System.currentTimeMillis();
+
+        for (Worker worker : workers)
+        {
+            if (!worker.process.isAlive())
+            {
+                //the busy workers are retired by the thread waiting on them
+                if (idle.contains(worker))
+                    retire(worker);
+            }
+            else
+            {
+                worker.check(now);
+            }
+        }
+    }
+
+    private static class Worker
+    {
+        private final Process process;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private Thread owner;
+        private long deadline;
+        private int timeout;
+        private String killReason;
+
+        private Worker(Process process)
+        {
+            this.process = process;
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        }
+
+        private synchronized void begin(int timeout)
+        {
+            this.owner = Thread.currentThread();
+            this.timeout = timeout;
+            this.deadline = System.currentTimeMillis() + timeout * 1000L;
+            this.killReason = null;
+        }
+
+        /**
+         * Returns why the worker was killed during the request, or null if it wasn't
+         */
+        private synchronized String end()
+        {
+            owner = null;
+            return killReason;
+        }
+
+        /**
+         * Kills the worker if the request timed out or the thread waiting on it was interrupted
+         */
+        private synchronized void check(long now)
+        {
+            if (owner == null)
+                return;
+
+            if (owner.isInterrupted())
+                killReason = "Cancelled, the decompiler worker was killed";
+            else if (timeout > 0 && now > deadline)
+                killReason = "The decompiler took longer than " + timeout + " seconds, the decompiler worker was killed";
+            else
+                return;
+
+            //the blocked read of the waiting thread fails once the process is gone
+            process.destroyForcibly();
+        }
+
+        private void send(String decompiler, String className, byte[] b, Map<String, String> options) throws IOException
+        {
+            out.writeUTF(decompiler);
+            out.writeInt(options.size());
+            for (Map.Entry<String, String> option : options.entrySet())
+            {
+                out.writeUTF(option.getKey());
+                out.writeUTF(option.getValue());
+            }
+
+            out.writeUTF(className);
+            out.writeInt(b.length);
+            out.write(b);
+            out.flush();
+        }
+
+        private String readString() throws IOException
+        {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
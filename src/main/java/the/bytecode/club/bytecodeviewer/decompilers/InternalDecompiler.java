@@ -1,6 +1,12 @@
 package the.bytecode.club.bytecodeviewer.decompilers;
 
+import java.util.Map;
+import javax.swing.AbstractButton;
 import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.api.ASMUtil;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -30,4 +36,102 @@ public abstract class InternalDecompiler
     public abstract String decompileClassNode(ClassNode cn, byte[] b);
 
     public abstract void decompileToZip(String sourceJar, String zipName);
+    
+    /**
+     * Returns true if {@link #decompileIsolated} only depends on the given options, so it can run in a
+     * {@link DecompilerWorker} process
+     */
+    public boolean supportsIsolation()
+    {
+        return false;
+    }
+    
+    /**
+     * Decompiles the class using only the given options, this is what the {@link DecompilerWorker} processes run
+     * for the decompilers that {@link #supportsIsolation}. Every other decompiler is ran in this process
+     * through {@link #decompileClassNode}.
+     *
+     * @return the decompiled source or null if the decompiler didn't produce any
+     */
+    public String decompileIsolated(String className, byte[] b, Map<String, String> options) throws Exception
+    {
+        return decompileClassNode(ASMUtil.bytesToNode(b), b);
+    }
+    
+    /**
+     * Runs {@link #decompileIsolated} on a decompiler worker when {@link Configuration#launchDecompilersInNewProcess}
+     * is enabled and the decompiler supports it, otherwise in this process. Only for the decompilers overriding
+     * decompileIsolated, the default one calls back into decompileClassNode.
+     */
+    protected String decompileIsolatedIfEnabled(String className, byte[] b, Map<String, String> options) throws Exception
+    {
+        if (Configuration.launchDecompilersInNewProcess && supportsIsolation())
+            return BytecodeViewer.decompilerWorkerPool.decompile(this, className, b, options);
+        
+        return decompileIsolated(className, b, options);
+    }
+    
+    /**
+     * Returns the decompiled source from the DecompiledSourceCache, the class is only decompiled on a cache miss
+     */
+    public String decompileClassNodeCached(ClassNode cn, byte[] b)
+    {
+        return DecompiledSourceCache.decompile(this, cn, b);
+    }
+    
+    /**
+     * Returns false if the decompiled output can't be cached by the class bytes alone
+     */
+    public boolean isCacheable()
+    {
+        return true;
+    }
+    
+    /**
+     * Returns true if the decompiler reads the referenced classes (super classes, inner classes, member owners)
+     * from the loaded resources, the cache key then also covers the bytes of those classes
+     */
+    public boolean resolvesReferencedClasses()
+    {
+        return false;
+    }
+    
+    /**
+     * Returns a fingerprint of every setting that changes the decompiled output, used as part of the cache key.
+     * Decompilers that aren't cacheable (see {@link #isCacheable}) can return an empty string.
+     */
+    public abstract String getSettingsFingerprint();
+    
+    /**
+     * Builds a settings fingerprint from the decompiler option checkboxes
+     */
+    protected static String fingerprint(AbstractButton... options)
+    {
+        StringBuilder sb = new StringBuilder(options.length);
+        for (AbstractButton option : options)
+            sb.append(option.isSelected() ? '1' : '0');
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Looks up the class bytes from the loaded resources, this is used by the decompilers that
+     * resolve the referenced classes (super classes, inner classes) in-memory instead of from disk
+     *
+     * @param internalName the internal class name, with or without the .class extension
+     * @return the class bytes or null if it isn't loaded
+     */
+    public static byte[] loadClassBytes(String internalName)
+    {
+        String resourceName = internalName.endsWith(".class") ? internalName : internalName + ".class";
+        
+        for (ResourceContainer container : BytecodeViewer.resourceContainers)
+        {
+            byte[] bytes = container.getBytes(resourceName);
+            if (bytes != null)
+                return bytes;
+        }
+        
+        return null;
+    }
 }
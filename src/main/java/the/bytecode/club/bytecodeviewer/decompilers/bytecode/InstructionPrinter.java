@@ -115,8 +115,7 @@ public class InstructionPrinter {
                 info.add(line);
             }
         }
-        if (firstLabel
-                && BytecodeViewer.viewer.appendBracketsToLabels.isSelected())
+        if (firstLabel && appendBracketsToLabels())
             info.add("}");
         return info;
     }
@@ -141,14 +140,12 @@ public class InstructionPrinter {
         } else if (ain instanceof LineNumberNode) {
             line = printLineNumberNode();
         } else if (ain instanceof LabelNode) {
-            if (firstLabel
-                    && BytecodeViewer.viewer.appendBracketsToLabels
-                    .isSelected())
+            if (firstLabel && appendBracketsToLabels())
                 info.add("}");
         
             line = printLabelnode((LabelNode) ain);
         
-            if (BytecodeViewer.viewer.appendBracketsToLabels.isSelected()) {
+            if (appendBracketsToLabels()) {
                 if (!firstLabel)
                     firstLabel = true;
                 line += " {";
@@ -179,7 +176,7 @@ public class InstructionPrinter {
         StringBuilder sb = new StringBuilder();
         sb.append(nameOpcode(vin.getOpcode()));
         sb.append(vin.var);
-        if (BytecodeViewer.viewer.debugHelpers.isSelected()) {
+        if (BytecodeViewer.viewer != null && BytecodeViewer.viewer.debugHelpers.isSelected()) {
             if (vin.var == 0 && !Modifier.isStatic(mNode.access)) {
                 sb.append(" // reference to self");
             } else {
@@ -381,6 +378,11 @@ public class InstructionPrinter {
         }
     }
 
+    //the command line runs without the settings menu
+    private static boolean appendBracketsToLabels() {
+        return BytecodeViewer.viewer != null && BytecodeViewer.viewer.appendBracketsToLabels.isSelected();
+    }
+
     public static void saveTo(File file, InstructionPrinter printer) {
         try {
             BufferedWriter bw = new BufferedWriter(new FileWriter(file));
@@ -105,7 +105,7 @@ public class MethodNodeDecompiler {
 
             sb.append(" {");
 
-            if (BytecodeViewer.viewer.debugHelpers.isSelected()) {
+            if (BytecodeViewer.viewer != null && BytecodeViewer.viewer.debugHelpers.isSelected()) {
                 if (m.name.equals("<clinit>"))
                     sb.append(" // <clinit>");
                 else if (m.name.equals("<init>"))
@@ -39,6 +39,17 @@ public class ASMTextifierDecompiler extends InternalDecompiler
         return writer.toString();
     }
 
+    @Override
+    public boolean isCacheable() {
+        //the output is built from the ClassNode instead of the class bytes
+        return false;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        return ""; //not cached
+    }
+
     @Override
     public void decompileToZip(String sourceJar, String zipName) {
 
@@ -37,6 +37,17 @@ public class BytecodeDisassembler extends InternalDecompiler
 				new ArrayList<>(), cn).toString();
 	}
 	
+	@Override
+	public boolean isCacheable() {
+		//the output is built from the ClassNode instead of the class bytes
+		return false;
+	}
+	
+	@Override
+	public String getSettingsFingerprint() {
+		return ""; //not cached
+	}
+	
 	@Override
 	public void decompileToZip(String sourceJar, String zipName) {
 	}
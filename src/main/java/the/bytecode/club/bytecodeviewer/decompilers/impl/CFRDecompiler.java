@@ -9,19 +9,30 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
-import me.konloch.kontainer.io.DiskReader;
+import org.benf.cfr.reader.api.CfrDriver;
+import org.benf.cfr.reader.api.OutputSinkFactory;
+import org.benf.cfr.reader.api.SinkReturns;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
+import org.benf.cfr.reader.state.ClassFileSourceImpl;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
-import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import static the.bytecode.club.bytecodeviewer.Constants.*;
 import static the.bytecode.club.bytecodeviewer.translation.TranslatedStrings.*;
@@ -91,45 +102,22 @@ public class CFRDecompiler extends InternalDecompiler
 
     @Override
     public String decompileClassNode(ClassNode cn, byte[] b) {
-        String fileStart = tempDirectory + fs.toLowerCase();
-
         String exception = "";
-        //final File tempClass = new File(windowsFun(MiscUtils.getUniqueName(fileStart, ".class") + ".class"));
-        final File tempClass = new File(MiscUtils.getUniqueName(fileStart, ".class") + ".class");
-
-        try {
-            final FileOutputStream fos = new FileOutputStream(tempClass);
-
-            fos.write(b);
-
-            fos.close();
-        } catch (final IOException e) {
-            BytecodeViewer.handleException(e);
-        }
-
-        String fuckery = fuckery(fileStart);
-
-        /*if (!BytecodeViewer.fatJar) {
-            try {
-                ProcessBuilder pb = new ProcessBuilder(ArrayUtils.addAll(
-                        new String[]{BytecodeViewer.getJavaCommand(), "-jar", Resources.findLibrary("cfr")},
-                        generateMainMethod(tempClass.getAbsolutePath(), fuckery)
-                ));
-                BytecodeViewer.sm.stopBlocking();
-                Process p = pb.start();
-                BytecodeViewer.createdProcesses.add(p);
-                p.waitFor();
-            } catch (Exception e) {
-                BytecodeViewer.handleException(e);
-            } finally {
-                BytecodeViewer.sm.setBlocking();
-            }
-        } else {
-            org.benf.cfr.reader.Main.main(generateMainMethod(tempClass.getAbsolutePath(), fuckery));
-        }*/
 
         try {
-            org.benf.cfr.reader.Main.main(generateMainMethod(tempClass.getAbsolutePath(), fuckery));
+            //the class is served from memory and the source is collected from the output sink
+            Options options = new OptionsImpl(generateOptions());
+            StringBuilder source = new StringBuilder();
+
+            CfrDriver driver = new CfrDriver.Builder()
+                    .withBuiltOptions(options)
+                    .withClassFileSource(new BCVClassFileSource(options, cn.name + ".class", b))
+                    .withOutputSink(new BCVOutputSinkFactory(source))
+                    .build();
+            driver.analyse(Collections.singletonList(cn.name + ".class"));
+
+            if (source.length() > 0)
+                return source.toString();
         } catch (StackOverflowError | Exception e) {
             StringWriter sw = new StringWriter();
             e.printStackTrace(new PrintWriter(sw));
@@ -139,12 +127,6 @@ public class CFRDecompiler extends InternalDecompiler
                     "Bytecode Viewer Version: " + VERSION + nl + nl + sw;
         }
 
-        tempClass.delete();
-        File file = new File(fuckery);
-
-        if (file.exists())
-            return findFile(Objects.requireNonNull(file.listFiles()));
-
         return CFR + " " + ERROR + "! " + ExceptionUI.SEND_STACKTRACE_TO +
                 nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR +
                 nl + nl + exception;
@@ -161,146 +143,85 @@ public class CFRDecompiler extends InternalDecompiler
         }
     }
 
-    public String findFile(File[] fA) {
-        for (File f : fA) {
-            if (f.isDirectory())
-                return findFile(Objects.requireNonNull(f.listFiles()));
-            else {
-                String s;
-                try {
-                    s = DiskReader.loadAsString(f.getAbsolutePath());
-                } catch (Exception e) {
-                    StringWriter sw = new StringWriter();
-                    e.printStackTrace(new PrintWriter(sw));
-                    e.printStackTrace();
-
-                    String exception = "Bytecode Viewer Version: " + VERSION + nl + nl + sw;
-                    
-                    return CFR + " " + ERROR + "! " + ExceptionUI.SEND_STACKTRACE_TO +
-                            nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR +
-                            nl + nl + exception;
-                }
-                
-                return s;
-            }
-        }
+    /**
+     * Returns the CFR options selected in the settings menu
+     */
+    public Map<String, String> generateOptions() {
+        Map<String, String> options = new LinkedHashMap<>();
         
-        return "CFR error!" +
-                nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR;
+        //the command line runs without the settings menu, CFR then uses its own defaults
+        if (BytecodeViewer.viewer == null)
+            return options;
+        
+        options.put("decodeenumswitch", String.valueOf(BytecodeViewer.viewer.decodeEnumSwitch.isSelected()));
+        options.put("sugarenums", String.valueOf(BytecodeViewer.viewer.sugarEnums.isSelected()));
+        options.put("decodestringswitch", String.valueOf(BytecodeViewer.viewer.decodeStringSwitch.isSelected()));
+        options.put("arrayiter", String.valueOf(BytecodeViewer.viewer.arrayiter.isSelected()));
+        options.put("collectioniter", String.valueOf(BytecodeViewer.viewer.collectioniter.isSelected()));
+        options.put("innerclasses", String.valueOf(BytecodeViewer.viewer.innerClasses.isSelected()));
+        options.put("removeboilerplate", String.valueOf(BytecodeViewer.viewer.removeBoilerPlate.isSelected()));
+        options.put("removeinnerclasssynthetics", String.valueOf(BytecodeViewer.viewer.removeInnerClassSynthetics.isSelected()));
+        options.put("decodelambdas", String.valueOf(BytecodeViewer.viewer.decodeLambdas.isSelected()));
+        options.put("hidebridgemethods", String.valueOf(BytecodeViewer.viewer.hideBridgeMethods.isSelected()));
+        options.put("liftconstructorinit", String.valueOf(BytecodeViewer.viewer.liftConstructorInit.isSelected()));
+        options.put("removedeadmethods", String.valueOf(BytecodeViewer.viewer.removeDeadMethods.isSelected()));
+        options.put("removebadgenerics", String.valueOf(BytecodeViewer.viewer.removeBadGenerics.isSelected()));
+        options.put("sugarasserts", String.valueOf(BytecodeViewer.viewer.sugarAsserts.isSelected()));
+        options.put("sugarboxing", String.valueOf(BytecodeViewer.viewer.sugarBoxing.isSelected()));
+        options.put("showversion", String.valueOf(BytecodeViewer.viewer.showVersion.isSelected()));
+        options.put("decodefinally", String.valueOf(BytecodeViewer.viewer.decodeFinally.isSelected()));
+        options.put("tidymonitors", String.valueOf(BytecodeViewer.viewer.tidyMonitors.isSelected()));
+        options.put("lenient", String.valueOf(BytecodeViewer.viewer.lenient.isSelected()));
+        options.put("dumpclasspath", String.valueOf(BytecodeViewer.viewer.dumpClassPath.isSelected()));
+        options.put("comments", String.valueOf(BytecodeViewer.viewer.comments.isSelected()));
+        options.put("forcetopsort", String.valueOf(BytecodeViewer.viewer.forceTopSort.isSelected()));
+        options.put("forcetopsortaggress", String.valueOf(BytecodeViewer.viewer.forceTopSortAggress.isSelected()));
+        options.put("stringbuffer", String.valueOf(BytecodeViewer.viewer.stringBuffer.isSelected()));
+        options.put("stringbuilder", String.valueOf(BytecodeViewer.viewer.stringBuilder.isSelected()));
+        options.put("silent", String.valueOf(BytecodeViewer.viewer.silent.isSelected()));
+        options.put("recover", String.valueOf(BytecodeViewer.viewer.recover.isSelected()));
+        options.put("eclipse", String.valueOf(BytecodeViewer.viewer.eclipse.isSelected()));
+        options.put("override", String.valueOf(BytecodeViewer.viewer.override.isSelected()));
+        options.put("showinferrable", String.valueOf(BytecodeViewer.viewer.showInferrable.isSelected()));
+        options.put("aexagg", String.valueOf(BytecodeViewer.viewer.aexagg.isSelected()));
+        options.put("forcecondpropagate", String.valueOf(BytecodeViewer.viewer.forceCondPropagate.isSelected()));
+        options.put("hideutf", String.valueOf(BytecodeViewer.viewer.hideUTF.isSelected()));
+        options.put("hidelongstrings", String.valueOf(BytecodeViewer.viewer.hideLongStrings.isSelected()));
+        options.put("commentmonitors", String.valueOf(BytecodeViewer.viewer.commentMonitor.isSelected()));
+        options.put("allowcorrecting", String.valueOf(BytecodeViewer.viewer.allowCorrecting.isSelected()));
+        options.put("labelledblocks", String.valueOf(BytecodeViewer.viewer.labelledBlocks.isSelected()));
+        options.put("j14classobj", String.valueOf(BytecodeViewer.viewer.j14ClassOBJ.isSelected()));
+        options.put("hidelangimports", String.valueOf(BytecodeViewer.viewer.hideLangImports.isSelected()));
+        options.put("recovertypeclash", String.valueOf(BytecodeViewer.viewer.recoveryTypeClash.isSelected()));
+        options.put("recovertypehints", String.valueOf(BytecodeViewer.viewer.recoveryTypehInts.isSelected()));
+        options.put("forcereturningifs", String.valueOf(BytecodeViewer.viewer.forceTurningIFs.isSelected()));
+        options.put("forloopaggcapture", String.valueOf(BytecodeViewer.viewer.forLoopAGGCapture.isSelected()));
+        return options;
+    }
+
+    @Override
+    public boolean resolvesReferencedClasses() {
+        //see BCVClassFileSource
+        return true;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        return generateOptions().toString();
     }
 
     public String[] generateMainMethod(String filePath, String outputPath) {
-        return new String[]{
-                filePath,
-                "--outputdir",
-                outputPath,
-                "--decodeenumswitch",
-                String.valueOf(BytecodeViewer.viewer.decodeEnumSwitch
-                        .isSelected()),
-                "--sugarenums",
-                String.valueOf(BytecodeViewer.viewer.sugarEnums.isSelected()),
-                "--decodestringswitch",
-                String.valueOf(BytecodeViewer.viewer.decodeStringSwitch
-                        .isSelected()),
-                "--arrayiter",
-                String.valueOf(BytecodeViewer.viewer.arrayiter.isSelected()),
-                "--collectioniter",
-                String.valueOf(BytecodeViewer.viewer.collectioniter
-                        .isSelected()),
-                "--innerclasses",
-                String.valueOf(BytecodeViewer.viewer.innerClasses.isSelected()),
-                "--removeboilerplate",
-                String.valueOf(BytecodeViewer.viewer.removeBoilerPlate
-                        .isSelected()),
-                "--removeinnerclasssynthetics",
-                String.valueOf(BytecodeViewer.viewer.removeInnerClassSynthetics
-                        .isSelected()),
-                "--decodelambdas",
-                String.valueOf(BytecodeViewer.viewer.decodeLambdas.isSelected()),
-                "--hidebridgemethods",
-                String.valueOf(BytecodeViewer.viewer.hideBridgeMethods
-                        .isSelected()),
-                "--liftconstructorinit",
-                String.valueOf(BytecodeViewer.viewer.liftConstructorInit
-                        .isSelected()),
-                "--removedeadmethods",
-                String.valueOf(BytecodeViewer.viewer.removeDeadMethods
-                        .isSelected()),
-                "--removebadgenerics",
-                String.valueOf(BytecodeViewer.viewer.removeBadGenerics
-                        .isSelected()),
-                "--sugarasserts",
-                String.valueOf(BytecodeViewer.viewer.sugarAsserts.isSelected()),
-                "--sugarboxing",
-                String.valueOf(BytecodeViewer.viewer.sugarBoxing.isSelected()),
-                "--showversion",
-                String.valueOf(BytecodeViewer.viewer.showVersion.isSelected()),
-                "--decodefinally",
-                String.valueOf(BytecodeViewer.viewer.decodeFinally.isSelected()),
-                "--tidymonitors",
-                String.valueOf(BytecodeViewer.viewer.tidyMonitors.isSelected()),
-                "--lenient",
-                String.valueOf(BytecodeViewer.viewer.lenient.isSelected()),
-                "--dumpclasspath",
-                String.valueOf(BytecodeViewer.viewer.dumpClassPath.isSelected()),
-                "--comments",
-                String.valueOf(BytecodeViewer.viewer.comments.isSelected()),
-                "--forcetopsort",
-                String.valueOf(BytecodeViewer.viewer.forceTopSort.isSelected()),
-                "--forcetopsortaggress",
-                String.valueOf(BytecodeViewer.viewer.forceTopSortAggress
-                        .isSelected()),
-                "--stringbuffer",
-                String.valueOf(BytecodeViewer.viewer.stringBuffer.isSelected()),
-                "--stringbuilder",
-                String.valueOf(BytecodeViewer.viewer.stringBuilder.isSelected()),
-                "--silent",
-                String.valueOf(BytecodeViewer.viewer.silent.isSelected()),
-                "--recover",
-                String.valueOf(BytecodeViewer.viewer.recover.isSelected()),
-                "--eclipse",
-                String.valueOf(BytecodeViewer.viewer.eclipse.isSelected()),
-                "--override",
-                String.valueOf(BytecodeViewer.viewer.override.isSelected()),
-                "--showinferrable",
-                String.valueOf(BytecodeViewer.viewer.showInferrable
-                        .isSelected()),
-                "--aexagg",
-                String.valueOf(BytecodeViewer.viewer.aexagg.isSelected()),
-                "--forcecondpropagate",
-                String.valueOf(BytecodeViewer.viewer.forceCondPropagate
-                        .isSelected()),
-                "--hideutf",
-                String.valueOf(BytecodeViewer.viewer.hideUTF.isSelected()),
-                "--hidelongstrings",
-                String.valueOf(BytecodeViewer.viewer.hideLongStrings
-                        .isSelected()),
-                "--commentmonitors",
-                String.valueOf(BytecodeViewer.viewer.commentMonitor
-                        .isSelected()),
-                "--allowcorrecting",
-                String.valueOf(BytecodeViewer.viewer.allowCorrecting
-                        .isSelected()),
-                "--labelledblocks",
-                String.valueOf(BytecodeViewer.viewer.labelledBlocks
-                        .isSelected()),
-                "--j14classobj",
-                String.valueOf(BytecodeViewer.viewer.j14ClassOBJ.isSelected()),
-                "--hidelangimports",
-                String.valueOf(BytecodeViewer.viewer.hideLangImports
-                        .isSelected()),
-                "--recovertypeclash",
-                String.valueOf(BytecodeViewer.viewer.recoveryTypeClash
-                        .isSelected()),
-                "--recovertypehints",
-                String.valueOf(BytecodeViewer.viewer.recoveryTypehInts
-                        .isSelected()),
-                "--forcereturningifs",
-                String.valueOf(BytecodeViewer.viewer.forceTurningIFs
-                        .isSelected()),
-                "--forloopaggcapture",
-                String.valueOf(BytecodeViewer.viewer.forLoopAGGCapture
-                        .isSelected()),};
+        List<String> args = new ArrayList<>();
+        args.add(filePath);
+        args.add("--outputdir");
+        args.add(outputPath);
+
+        for (Map.Entry<String, String> option : generateOptions().entrySet()) {
+            args.add("--" + option.getKey());
+            args.add(option.getValue());
+        }
+
+        return args.toArray(new String[0]);
     }
 
     @Override
@@ -371,4 +292,55 @@ public class CFRDecompiler extends InternalDecompiler
             copy(in, out);
         }
     }
+
+    /**
+     * Serves the decompiled class from memory, referenced classes are resolved from the
+     * loaded resources first and then from the default CFR class path
+     */
+    private static class BCVClassFileSource extends ClassFileSourceImpl {
+        private final String classFilePath;
+        private final byte[] content;
+
+        private BCVClassFileSource(Options options, String classFilePath, byte[] content) {
+            super(options);
+            this.classFilePath = classFilePath;
+            this.content = content;
+        }
+
+        @Override
+        public Pair<byte[], String> getClassFileContent(String path) throws IOException {
+            if (path.equals(classFilePath))
+                return Pair.make(content, path);
+
+            byte[] bytes = loadClassBytes(path);
+            if (bytes != null)
+                return Pair.make(bytes, path);
+
+            return super.getClassFileContent(path);
+        }
+    }
+
+    /**
+     * Collects the decompiled java source, everything else CFR outputs is dropped
+     */
+    private static class BCVOutputSinkFactory implements OutputSinkFactory {
+        private final StringBuilder source;
+
+        private BCVOutputSinkFactory(StringBuilder source) {
+            this.source = source;
+        }
+
+        @Override
+        public List<SinkClass> getSupportedSinks(SinkType sinkType, Collection<SinkClass> available) {
+            return Collections.singletonList(SinkClass.DECOMPILED);
+        }
+
+        @Override
+        public <T> Sink<T> getSink(SinkType sinkType, SinkClass sinkClass) {
+            if (sinkType == SinkType.JAVA && sinkClass == SinkClass.DECOMPILED)
+                return decompiled -> source.append(((SinkReturns.Decompiled) decompiled).getJava());
+
+            return ignored -> { };
+        }
+    }
 }
@@ -1,20 +1,21 @@
 package the.bytecode.club.bytecodeviewer.decompilers.impl;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import me.konloch.kontainer.io.DiskReader;
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.main.extern.IResultSaver;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.resources.ExternalResources;
-import the.bytecode.club.bytecodeviewer.resources.Resources;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
-import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import static the.bytecode.club.bytecodeviewer.Constants.*;
 import static the.bytecode.club.bytecodeviewer.translation.TranslatedStrings.*;
@@ -69,102 +70,93 @@ public class FernFlowerDecompiler extends InternalDecompiler
     @Override
     public String decompileClassNode(final ClassNode cn, byte[] b)
     {
-        String start = tempDirectory + fs + MiscUtils.getUniqueName("", ".class");
-
-        final File tempClass = new File(start + ".class");
-
         String exception = "";
-        try {
-            final FileOutputStream fos = new FileOutputStream(tempClass);
-            fos.write(b);
-            fos.close();
-        } catch (final IOException e) {
+        try
+        {
+            String source = decompileIsolatedIfEnabled(cn.name, b, generateOptions());
+            
+            if (source != null)
+                return source;
+        }
+        catch (Throwable e)
+        {
             StringWriter sw = new StringWriter();
             e.printStackTrace(new PrintWriter(sw));
             e.printStackTrace();
             exception = "Bytecode Viewer Version: " + VERSION + nl + nl + sw;
         }
-
-
-        if (LAUNCH_DECOMPILERS_IN_NEW_PROCESS)
-        {
-            try
-            {
-                ProcessBuilder pb = new ProcessBuilder(ArrayUtils.addAll(
-                        new String[]{ExternalResources.getSingleton().getJavaCommand(true), "-jar", ExternalResources.getSingleton().findLibrary("fernflower")},
-                        generateMainMethod(tempClass.getAbsolutePath(),
-                                new File(tempDirectory).getAbsolutePath())
-                ));
-                BytecodeViewer.sm.pauseBlocking();
-                Process p = pb.start();
-                BytecodeViewer.createdProcesses.add(p);
-                p.waitFor();
-            } catch (Exception e) {
-                BytecodeViewer.handleException(e);
-            } finally {
-                BytecodeViewer.sm.resumeBlocking();
-            }
-        }
-        else
-        {
-            try {
-                org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler.main(
-                        generateMainMethod(tempClass.getAbsolutePath(), new File(tempDirectory).getAbsolutePath()));
-            } catch (Throwable e) {
-                StringWriter sw = new StringWriter();
-                e.printStackTrace(new PrintWriter(sw));
-                e.printStackTrace();
-                exception = "Bytecode Viewer Version: " + VERSION + nl + nl + sw;
-            }
-        }
-
-        tempClass.delete();
-
-        final File outputJava = new File(start + ".java");
-        if (outputJava.exists()) {
-            String s;
-            try {
-                s = DiskReader.loadAsString(outputJava.getAbsolutePath());
-                
-                outputJava.delete();
-                
-                return s;
-            } catch (Exception e) {
-                StringWriter sw = new StringWriter();
-                e.printStackTrace(new PrintWriter(sw));
-                e.printStackTrace();
-
-                exception += nl + nl + sw;
-            }
-        }
         
         return FERNFLOWER + " " + ERROR + "! " + ExceptionUI.SEND_STACKTRACE_TO +
                 nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR +
                 nl + nl + exception;
     }
+    
+    @Override
+    public boolean supportsIsolation()
+    {
+        return true;
+    }
+    
+    @Override
+    public String decompileIsolated(String className, byte[] b, Map<String, String> options)
+    {
+        //the class is served from memory and the source is collected by the result saver
+        ResultSaver saver = new ResultSaver();
+        Fernflower fernflower = new Fernflower((externalPath, internalPath) -> b, saver,
+                new LinkedHashMap<>(options), new PrintStreamLogger(System.out));
+        
+        fernflower.getStructContext().addSpace(new File(className + ".class"), true);
+        fernflower.decompileContext();
+        
+        return saver.source;
+    }
+
+    /**
+     * Returns the FernFlower options selected in the settings menu
+     */
+    private Map<String, String> generateOptions() {
+        Map<String, String> options = new LinkedHashMap<>();
+        
+        //the command line runs without the settings menu, FernFlower then uses its own defaults
+        if (BytecodeViewer.viewer == null)
+            return options;
+        
+        options.put("rbr", r(BytecodeViewer.viewer.rbr.isSelected()));
+        options.put("rsy", r(BytecodeViewer.viewer.rsy.isSelected()));
+        options.put("din", r(BytecodeViewer.viewer.din.isSelected()));
+        options.put("dc4", r(BytecodeViewer.viewer.dc4.isSelected()));
+        options.put("das", r(BytecodeViewer.viewer.das.isSelected()));
+        options.put("hes", r(BytecodeViewer.viewer.hes.isSelected()));
+        options.put("hdc", r(BytecodeViewer.viewer.hdc.isSelected()));
+        options.put("dgs", r(BytecodeViewer.viewer.dgs.isSelected()));
+        options.put("ner", r(BytecodeViewer.viewer.ner.isSelected()));
+        options.put("den", r(BytecodeViewer.viewer.den.isSelected()));
+        options.put("rgn", r(BytecodeViewer.viewer.rgn.isSelected()));
+        options.put("bto", r(BytecodeViewer.viewer.bto.isSelected()));
+        options.put("nns", r(BytecodeViewer.viewer.nns.isSelected()));
+        options.put("uto", r(BytecodeViewer.viewer.uto.isSelected()));
+        options.put("udv", r(BytecodeViewer.viewer.udv.isSelected()));
+        options.put("rer", r(BytecodeViewer.viewer.rer.isSelected()));
+        options.put("fdi", r(BytecodeViewer.viewer.fdi.isSelected()));
+        options.put("asc", r(BytecodeViewer.viewer.asc.isSelected()));
+        options.put("ren", r(BytecodeViewer.viewer.ren.isSelected()));
+        return options;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        return generateOptions().toString();
+    }
 
     private String[] generateMainMethod(String className, String folder) {
-        return new String[]{
-                "-rbr=" + r(BytecodeViewer.viewer.rbr.isSelected()),
-                "-rsy=" + r(BytecodeViewer.viewer.rsy.isSelected()),
-                "-din=" + r(BytecodeViewer.viewer.din.isSelected()),
-                "-dc4=" + r(BytecodeViewer.viewer.dc4.isSelected()),
-                "-das=" + r(BytecodeViewer.viewer.das.isSelected()),
-                "-hes=" + r(BytecodeViewer.viewer.hes.isSelected()),
-                "-hdc=" + r(BytecodeViewer.viewer.hdc.isSelected()),
-                "-dgs=" + r(BytecodeViewer.viewer.dgs.isSelected()),
-                "-ner=" + r(BytecodeViewer.viewer.ner.isSelected()),
-                "-den=" + r(BytecodeViewer.viewer.den.isSelected()),
-                "-rgn=" + r(BytecodeViewer.viewer.rgn.isSelected()),
-                "-bto=" + r(BytecodeViewer.viewer.bto.isSelected()),
-                "-nns=" + r(BytecodeViewer.viewer.nns.isSelected()),
-                "-uto=" + r(BytecodeViewer.viewer.uto.isSelected()),
-                "-udv=" + r(BytecodeViewer.viewer.udv.isSelected()),
-                "-rer=" + r(BytecodeViewer.viewer.rer.isSelected()),
-                "-fdi=" + r(BytecodeViewer.viewer.fdi.isSelected()),
-                "-asc=" + r(BytecodeViewer.viewer.asc.isSelected()),
-                "-ren=" + r(BytecodeViewer.viewer.ren.isSelected()), className,
-                folder};
+        List<String> args = new ArrayList<>();
+        
+        for (Map.Entry<String, String> option : generateOptions().entrySet())
+            args.add("-" + option.getKey() + "=" + option.getValue());
+        
+        args.add(className);
+        args.add(folder);
+        return args.toArray(new String[0]);
     }
 
     private String r(boolean b) {
@@ -174,4 +166,38 @@ public class FernFlowerDecompiler extends InternalDecompiler
             return "0";
         }
     }
+
+    /**
+     * Keeps the decompiled source in memory, nothing is written to disk
+     */
+    private static class ResultSaver implements IResultSaver {
+        private String source;
+
+        @Override
+        public void saveFolder(String path) { }
+
+        @Override
+        public void copyFile(String source, String path, String entryName) { }
+
+        @Override
+        public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+            if (source == null)
+                source = content;
+        }
+
+        @Override
+        public void createArchive(String path, String archiveName, Manifest manifest) { }
+
+        @Override
+        public void saveDirEntry(String path, String archiveName, String entryName) { }
+
+        @Override
+        public void copyEntry(String source, String path, String archiveName, String entry) { }
+
+        @Override
+        public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) { }
+
+        @Override
+        public void closeArchive(String path, String archiveName) { }
+    }
 }
@@ -2,17 +2,17 @@ package the.bytecode.club.bytecodeviewer.decompilers.impl;
 
 import jadx.api.JadxArgs;
 import jadx.api.JadxDecompiler;
+import jadx.api.JavaClass;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Objects;
-import java.util.Random;
-import me.konloch.kontainer.io.DiskReader;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+import the.bytecode.club.bytecodeviewer.decompilers.BatchDecompiler;
+import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
@@ -60,19 +60,20 @@ public class JADXDecompiler extends InternalDecompiler
             BytecodeViewer.handleException(e);
         }
 
-        File fuckery = new File(fuckery(fileStart));
-        
+        String source = null;
         try {
-            JadxArgs args = new JadxArgs();
+            //JADX only reads its input from disk, the decompiled source is taken from memory instead
+            JadxArgs args = createArgs();
             args.getInputFiles().add(tempClass);
-            args.setOutDir(fuckery);
-            args.setOutDirSrc(fuckery);
-            args.setOutDirRes(fuckery);
 
             JadxDecompiler jadx = new JadxDecompiler(args);
             jadx.load();
-            jadx.saveSources();
-            //jadx.close();
+            
+            for (JavaClass javaClass : jadx.getClasses()) {
+                source = javaClass.getCode();
+                if (source != null && !source.isEmpty())
+                    break;
+            }
         } catch (StackOverflowError | Exception e) {
             StringWriter sw = new StringWriter();
             e.printStackTrace(new PrintWriter(sw));
@@ -82,56 +83,46 @@ public class JADXDecompiler extends InternalDecompiler
 
         tempClass.delete();
 
-        if (fuckery.exists())
-            return findFile(Objects.requireNonNull(fuckery.listFiles()));
+        if (source != null && !source.isEmpty())
+            return source;
         
         if(exception.isEmpty())
-            exception = "Decompiled source file not found!";
+            exception = "Decompiled source not found!";
 
         return JADX + " " + ERROR + "! " + ExceptionUI.SEND_STACKTRACE_TO +
                 nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR +
                 nl + nl + exception;
     }
 
-    Random r = new Random();
-    File f;
-
-    public String fuckery(String start) {
-        while (true) {
-            f = new File(start + r.nextInt(Integer.MAX_VALUE));
-            if (!f.exists())
-                return f.toString();
-        }
+    @Override
+    public String getSettingsFingerprint() {
+        JadxArgs args = createArgs();
+        return "fallback=" + args.isFallbackMode()
+                + ",inconsistent=" + args.isShowInconsistentCode()
+                + ",imports=" + args.isUseImports()
+                + ",debug=" + args.isDebugInfo()
+                + ",deobf=" + args.isDeobfuscationOn()
+                + ",escapeUnicode=" + args.isEscapeUnicode()
+                + ",replaceConsts=" + args.isReplaceConsts()
+                + ",accModifiers=" + args.isRespectBytecodeAccModifiers();
     }
 
-    public String findFile(File[] fA) {
-        for (File f : fA) {
-            if (f.isDirectory())
-                return findFile(Objects.requireNonNull(f.listFiles()));
-            else {
-                String s;
-                try {
-                    s = DiskReader.loadAsString(f.getAbsolutePath());
-                } catch (Exception e) {
-                    StringWriter sw = new StringWriter();
-                    e.printStackTrace(new PrintWriter(sw));
-                    e.printStackTrace();
-                    String exception = "Bytecode Viewer Version: " + VERSION + nl + nl + sw;
-                    
-                    return JADX + " " + ERROR + "! " + ExceptionUI.SEND_STACKTRACE_TO +
-                            nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR +
-                            nl + nl + exception;
-                }
-                return s;
-            }
-        }
-        
-        return "JADX error!" +
-                nl + nl + TranslatedStrings.SUGGESTED_FIX_DECOMPILER_ERROR;
+    /**
+     * Returns the JADX options, the input file is added by the caller
+     */
+    private static JadxArgs createArgs() {
+        JadxArgs args = new JadxArgs();
+        args.setSkipResources(true);
+        return args;
     }
 
     @Override
     public void decompileToZip(String sourceJar, String zipName) {
+        try {
+            new BatchDecompiler(Decompiler.JADX_DECOMPILER).decompileJar(new File(sourceJar), new File(zipName));
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        }
     }
 
 }
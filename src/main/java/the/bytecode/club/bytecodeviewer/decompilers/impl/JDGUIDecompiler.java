@@ -1,25 +1,22 @@
 package the.bytecode.club.bytecodeviewer.decompilers.impl;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+import the.bytecode.club.bytecodeviewer.decompilers.BatchDecompiler;
+import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
-import the.bytecode.club.bytecodeviewer.decompilers.jdgui.DirectoryLoader;
+import the.bytecode.club.bytecodeviewer.decompilers.jdgui.MemoryLoader;
 import the.bytecode.club.bytecodeviewer.decompilers.jdgui.CommonPreferences;
 import the.bytecode.club.bytecodeviewer.decompilers.jdgui.PlainTextPrinter;
-import the.bytecode.club.bytecodeviewer.decompilers.jdgui.JDGUIClassFileUtil;
-import me.konloch.kontainer.io.DiskReader;
 import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
 import org.objectweb.asm.tree.ClassNode;
-import the.bytecode.club.bytecodeviewer.Constants;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
-import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import static the.bytecode.club.bytecodeviewer.Constants.*;
 import static the.bytecode.club.bytecodeviewer.translation.TranslatedStrings.*;
@@ -56,61 +53,20 @@ public class JDGUIDecompiler extends InternalDecompiler
     public String decompileClassNode(ClassNode cn, byte[] b) {
         String exception;
         try {
-            final File tempDirectory = new File(Constants.tempDirectory + fs + MiscUtils.randomString(32) + fs);
-            tempDirectory.mkdir();
-            
-            final File tempClass = new File(tempDirectory.getAbsolutePath() + fs + cn.name + ".class");
-            final File tempJava = new File(tempDirectory.getAbsolutePath() + fs + cn.name + ".java");
-
-            if (cn.name.contains("/")) {
-                String[] raw = cn.name.split("/");
-                String path = tempDirectory.getAbsolutePath() + fs;
-                for (int i = 0; i < raw.length - 1; i++) {
-                    path += raw[i] + fs;
-                    File f = new File(path);
-                    f.mkdir();
-                }
-            }
-
-            try {
-                final FileOutputStream fos = new FileOutputStream(tempClass);
-                fos.write(b);
-                fos.close();
-            } catch (final IOException e) {
-                BytecodeViewer.handleException(e);
-            }
-
-
-            String pathToClass = tempClass.getAbsolutePath().replace('/', File.separatorChar).replace('\\', File.separatorChar);
-            String directoryPath = JDGUIClassFileUtil.ExtractDirectoryPath(pathToClass);
-            String internalPath = JDGUIClassFileUtil.ExtractInternalPath(directoryPath, pathToClass);
-
-            CommonPreferences preferences = new CommonPreferences() {
-                @Override
-                public boolean isShowLineNumbers() {
-                    return false;
-                }
+            CommonPreferences preferences = createPreferences();
 
-                @Override
-                public boolean isMergeEmptyLines() {
-                    return true;
-                }
-            };
+            //the class is served from memory and the source is printed into a buffer
+            MemoryLoader loader = new MemoryLoader(cn.name, b);
 
-            DirectoryLoader loader = new DirectoryLoader(new File(directoryPath));
-
-            //PrintStream ps = new PrintStream("test.html");
-            //HtmlPrinter printer = new HtmlPrinter(ps);
-            PrintStream ps = new PrintStream(tempJava.getAbsolutePath());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PrintStream ps = new PrintStream(out, false, "UTF-8");
             PlainTextPrinter printer = new PlainTextPrinter(preferences, ps);
 
             org.jd.core.v1.api.Decompiler decompiler = new ClassFileToJavaSourceDecompiler();
-            decompiler.decompile(loader, printer, internalPath, preferences.getPreferences());
-
-            String decompiledSource;
-            decompiledSource = DiskReader.loadAsString(tempJava.getAbsolutePath());
+            decompiler.decompile(loader, printer, cn.name, preferences.getPreferences());
+            ps.flush();
 
-            return decompiledSource;
+            return out.toString("UTF-8");
         } catch (Exception e) {
             StringWriter sw = new StringWriter();
             e.printStackTrace(new PrintWriter(sw));
@@ -125,7 +81,44 @@ public class JDGUIDecompiler extends InternalDecompiler
                 nl + nl + exception;
     }
 
+    @Override
+    public boolean resolvesReferencedClasses() {
+        //see MemoryLoader
+        return true;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        CommonPreferences preferences = createPreferences();
+        return "defaultConstructor=" + preferences.isShowDefaultConstructor()
+                + ",realignLines=" + preferences.isRealignmentLineNumber()
+                + ",prefixThis=" + preferences.isShowPrefixThis()
+                + ",mergeEmptyLines=" + preferences.isMergeEmptyLines()
+                + ",unicodeEscape=" + preferences.isUnicodeEscape()
+                + ",lineNumbers=" + preferences.isShowLineNumbers()
+                + "," + preferences.getPreferences();
+    }
+
+    private static CommonPreferences createPreferences() {
+        return new CommonPreferences() {
+            @Override
+            public boolean isShowLineNumbers() {
+                return false;
+            }
+
+            @Override
+            public boolean isMergeEmptyLines() {
+                return true;
+            }
+        };
+    }
+
     @Override
     public void decompileToZip(String sourceJar, String zipName) {
+        try {
+            new BatchDecompiler(Decompiler.JD_DECOMPILER).decompileJar(new File(sourceJar), new File(zipName));
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        }
     }
 }
\ No newline at end of file
@@ -147,6 +147,17 @@ public class KrakatauDecompiler extends InternalDecompiler
         return s;
     }
 
+    @Override
+    public boolean isCacheable() {
+        //the class is decompiled from a jar of every loaded class and failures aren't reported as errors
+        return false;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        return ""; //not cached
+    }
+
     @Override
     public String decompileClassNode(ClassNode cn, byte[] b) {
         if (Configuration.python2.isEmpty()) {
@@ -45,6 +45,17 @@ import static the.bytecode.club.bytecodeviewer.Constants.*;
 
 public class KrakatauDisassembler extends InternalDecompiler
 {
+    @Override
+    public boolean isCacheable() {
+        //the class is disassembled from a jar of every loaded class and failures aren't reported as errors
+        return false;
+    }
+
+    @Override
+    public String getSettingsFingerprint() {
+        return ""; //not cached
+    }
+
     @Override
     public String decompileClassNode(ClassNode cn, byte[] b) {
         if (Configuration.python2.isEmpty()) {
@@ -36,7 +36,6 @@ import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
 import the.bytecode.club.bytecodeviewer.util.EncodeUtils;
-import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import static the.bytecode.club.bytecodeviewer.Constants.*;
 import static the.bytecode.club.bytecodeviewer.translation.TranslatedStrings.*;
@@ -69,6 +68,10 @@ public class ProcyonDecompiler extends InternalDecompiler
 {
     public DecompilerSettings getDecompilerSettings()
     {
+        //the command line runs without the settings menu
+        if (BytecodeViewer.viewer == null)
+            return DecompilerSettings.javaDefaults();
+        
         DecompilerSettings settings = new DecompilerSettings();
         settings.setAlwaysGenerateExceptionVariableForCatchBlocks(BytecodeViewer.viewer.alwaysGenerateExceptionVars.isSelected());
         settings.setExcludeNestedTypes(BytecodeViewer.viewer.excludeNestedTypes.isSelected());
@@ -88,29 +91,43 @@ public class ProcyonDecompiler extends InternalDecompiler
         return settings;
     }
 
+    @Override
+    public boolean resolvesReferencedClasses()
+    {
+        //see MemoryTypeLoader
+        return true;
+    }
+    
+    @Override
+    public String getSettingsFingerprint()
+    {
+        return fingerprint(BytecodeViewer.viewer.alwaysGenerateExceptionVars,
+                BytecodeViewer.viewer.excludeNestedTypes,
+                BytecodeViewer.viewer.showDebugLineNumbers,
+                BytecodeViewer.viewer.includeLineNumbersInBytecode,
+                BytecodeViewer.viewer.includeErrorDiagnostics,
+                BytecodeViewer.viewer.showSyntheticMembers,
+                BytecodeViewer.viewer.simplifyMemberReferences,
+                BytecodeViewer.viewer.mergeVariables,
+                BytecodeViewer.viewer.forceExplicitTypeArguments,
+                BytecodeViewer.viewer.forceExplicitImports,
+                BytecodeViewer.viewer.flattenSwitchBlocks,
+                BytecodeViewer.viewer.retainPointlessSwitches,
+                BytecodeViewer.viewer.retainRedunantCasts,
+                BytecodeViewer.viewer.unicodeOutputEnabled);
+    }
+
     @Override
     public String decompileClassNode(ClassNode cn, byte[] b) {
         String exception;
         try {
-            String fileStart = tempDirectory + fs + "temp";
-
-            final File tempClass = new File(MiscUtils.getUniqueName(fileStart, ".class") + ".class");
-
-            try {
-                final FileOutputStream fos = new FileOutputStream(tempClass);
-
-                fos.write(b);
-
-                fos.close();
-            } catch (final IOException e) {
-                BytecodeViewer.handleException(e);
-            }
-
             DecompilerSettings settings = getDecompilerSettings();
 
+            //the class is served from memory before falling back to the default type loaders
             LuytenTypeLoader typeLoader = new LuytenTypeLoader();
+            typeLoader.getTypeLoaders().add(0, new MemoryTypeLoader(cn.name, b));
             MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
-            TypeReference type = metadataSystem.lookupType(tempClass.getCanonicalPath());
+            TypeReference type = metadataSystem.lookupType(cn.name);
 
             DecompilationOptions decompilationOptions = new DecompilationOptions();
             decompilationOptions.setSettings(settings);
@@ -257,4 +274,32 @@ public class ProcyonDecompiler extends InternalDecompiler
             return false;
         }
     }
+
+    /**
+     * Loads the decompiled class and any other loaded resource classes from memory
+     */
+    public static final class MemoryTypeLoader implements ITypeLoader {
+        private final String internalName;
+        private final byte[] bytes;
+
+        public MemoryTypeLoader(String internalName, byte[] bytes) {
+            this.internalName = internalName;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public boolean tryLoadType(final String internalName,
+                                   final Buffer buffer) {
+            byte[] data = internalName.equals(this.internalName)
+                    ? bytes : loadClassBytes(internalName);
+
+            if (data == null)
+                return false;
+
+            buffer.reset(data.length);
+            buffer.putByteArray(data, 0, data.length);
+            buffer.position(0);
+            return true;
+        }
+    }
 }
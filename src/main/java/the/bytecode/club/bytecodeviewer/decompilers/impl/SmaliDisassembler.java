@@ -11,6 +11,8 @@ import org.apache.commons.io.FileUtils;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
+import the.bytecode.club.bytecodeviewer.decompilers.BatchDecompiler;
+import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
 import the.bytecode.club.bytecodeviewer.util.Dex2Jar;
@@ -123,7 +125,17 @@ public class SmaliDisassembler extends InternalDecompiler
     }
 
     @Override
-    public void decompileToZip(String sourceJar, String zipName) {
+    public String getSettingsFingerprint() {
+        //jar2dex & baksmali always run with their default options
+        return "jar2dex,baksmali";
+    }
 
+    @Override
+    public void decompileToZip(String sourceJar, String zipName) {
+        try {
+            new BatchDecompiler(Decompiler.SMALI_DISASSEMBLER).decompileJar(new File(sourceJar), new File(zipName));
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        }
     }
 }
@@ -0,0 +1,47 @@
+package the.bytecode.club.bytecodeviewer.decompilers.jdgui;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+import the.bytecode.club.bytecodeviewer.decompilers.InternalDecompiler;
+
+/**
+ * Serves the decompiled class from memory, referenced classes are loaded from the resource containers
+ */
+public class MemoryLoader implements Loader
+{
+    protected String internalName;
+    protected byte[] bytes;
+    
+    public MemoryLoader(String internalName, byte[] bytes)
+    {
+        this.internalName = internalName;
+        this.bytes = bytes;
+    }
+
+    @Override
+    public byte[] load(String internalPath)
+            throws LoaderException {
+        byte[] data = find(internalPath);
+        
+        if (data == null)
+            throw new LoaderException("'" + internalPath + "'  not found.");
+        
+        return data;
+    }
+
+    @Override
+    public boolean canLoad(String internalPath) {
+        return find(internalPath) != null;
+    }
+    
+    private byte[] find(String internalPath) {
+        String name = internalPath.endsWith(".class")
+                ? internalPath.substring(0, internalPath.length() - ".class".length())
+                : internalPath;
+        
+        if (name.equals(internalName))
+            return bytes;
+        
+        return InternalDecompiler.loadClassBytes(name);
+    }
+}
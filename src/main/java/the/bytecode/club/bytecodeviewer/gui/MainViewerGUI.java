@@ -19,6 +19,8 @@ import the.bytecode.club.bytecodeviewer.gui.resourceviewer.DecompilerSelectionPa
 import the.bytecode.club.bytecodeviewer.gui.resourceviewer.WorkPaneMainComponent;
 import the.bytecode.club.bytecodeviewer.gui.theme.LAFTheme;
 import the.bytecode.club.bytecodeviewer.gui.theme.RSTATheme;
+import the.bytecode.club.bytecodeviewer.obfuscators.JavaObfuscator;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.MappingImporter;
 import the.bytecode.club.bytecodeviewer.obfuscators.rename.RenameClasses;
 import the.bytecode.club.bytecodeviewer.obfuscators.rename.RenameFields;
 import the.bytecode.club.bytecodeviewer.obfuscators.rename.RenameMethods;
@@ -119,6 +121,7 @@ public class MainViewerGUI extends JFrame
     public final JMenuItem zStringArrayDecrypter = new TranslatedJMenuItem("ZStringArray Decrypter", Translation.ZSTRINGARRAY_DECRYPTER);
     public final JMenuItem viewAPKAndroidPermissions = new JMenuItem("View Android Permissions");
     public final JMenuItem viewManifest = new JMenuItem("View Manifest");
+    public final JMenuItem applyMappings = new JMenuItem("Apply Mappings...");
     
     //all of the settings main menu components
     public final ButtonGroup apkConversionGroup = new ButtonGroup();
@@ -154,6 +157,8 @@ public class MainViewerGUI extends JFrame
     public final JCheckBoxMenuItem decodeAPKResources = new TranslatedJCheckBoxMenuItem("Decode APK Resources", Translation.DECODE_APK_RESOURCES);
     public final JCheckBoxMenuItem synchronizedViewing = new TranslatedJCheckBoxMenuItem("Synchronized Viewing", Translation.SYNCHRONIZED_VIEWING);
     public final JCheckBoxMenuItem showClassMethods = new TranslatedJCheckBoxMenuItem("Show Class Methods", Translation.SHOW_CLASS_METHODS);
+    public final JCheckBoxMenuItem loadClassesOnDemand = new TranslatedJCheckBoxMenuItem("Load Classes On Demand", Translation.LOAD_CLASSES_ON_DEMAND);
+    public final JCheckBoxMenuItem memoryMapArchives = new TranslatedJCheckBoxMenuItem("Memory Map Archives", Translation.MEMORY_MAP_ARCHIVES);
     
     //CFIDE settings
     public final JCheckBoxMenuItem appendBracketsToLabels = new TranslatedJCheckBoxMenuItem("Append Brackets To Labels", Translation.APPEND_BRACKETS_TO_LABEL);
@@ -256,6 +261,7 @@ public class MainViewerGUI extends JFrame
     public final JRadioButtonMenuItem strongObf = new JRadioButtonMenuItem("Strong Obfuscation");
     public final JRadioButtonMenuItem lightObf = new JRadioButtonMenuItem("Light Obfuscation");
     public final JMenuItem renameClasses = new JMenuItem("Rename Classes");
+    public final JMenuItem renameAll = new JMenuItem("Rename All");
 
     public MainViewerGUI()
     {
@@ -380,6 +386,9 @@ public class MainViewerGUI extends JFrame
         settingsMainMenu.add(updateCheck);
         settingsMainMenu.add(forcePureAsciiAsText);
         settingsMainMenu.add(new JSeparator());
+        settingsMainMenu.add(loadClassesOnDemand);
+        settingsMainMenu.add(memoryMapArchives);
+        settingsMainMenu.add(new JSeparator());
         settingsMainMenu.add(setPython2);
         settingsMainMenu.add(setPython3);
         settingsMainMenu.add(setJRERT);
@@ -564,6 +573,16 @@ public class MainViewerGUI extends JFrame
         
         deleteForeignOutdatedLibs.addActionListener(arg0 -> showForeignLibraryWarning());
         forcePureAsciiAsText.addActionListener(arg0 -> SettingsSerializer.saveSettingsAsync());
+        loadClassesOnDemand.addActionListener(arg0 -> {
+            //only applies to the files opened from now on
+            Configuration.lazyClassNodes = loadClassesOnDemand.isSelected();
+            SettingsSerializer.saveSettingsAsync();
+        });
+        memoryMapArchives.addActionListener(arg0 -> {
+            //only applies to the files opened from now on
+            Configuration.memoryMappedArchives = memoryMapArchives.isSelected();
+            SettingsSerializer.saveSettingsAsync();
+        });
         setPython2.addActionListener(arg0 -> ExternalResources.getSingleton().selectPython2());
         setJRERT.addActionListener(arg0 -> ExternalResources.getSingleton().selectJRERTLibrary());
         setPython3.addActionListener(arg0 -> ExternalResources.getSingleton().selectPython3());
@@ -600,6 +619,7 @@ public class MainViewerGUI extends JFrame
         pluginsMainMenu.add(showAllStrings);
         pluginsMainMenu.add(replaceStrings);
         pluginsMainMenu.add(stackFramesRemover);
+        pluginsMainMenu.add(applyMappings);
         
         //allatori is disabled since they are just placeholders
         //ZKM and ZStringArray decrypter are disabled until deobfuscation has been extended
@@ -616,6 +636,7 @@ public class MainViewerGUI extends JFrame
         showAllStrings.addActionListener(e -> PluginManager.runPlugin(new ShowAllStrings()));
         replaceStrings.addActionListener(arg0 -> ReplaceStringsOptions.open());
         stackFramesRemover.addActionListener(e -> PluginManager.runPlugin(new StackFramesRemover()));
+        applyMappings.addActionListener(e -> MappingImporter.open());
         allatoriStringDecrypter.addActionListener(e -> PluginManager.runPlugin(new AllatoriStringDecrypter.AllatoriStringDecrypterOptions()));
         ZKMStringDecrypter.addActionListener(e -> PluginManager.runPlugin(new ZKMStringDecrypter()));
         zStringArrayDecrypter.addActionListener(arg0 -> PluginManager.runPlugin(new ZStringArrayDecrypter()));
@@ -636,6 +657,7 @@ public class MainViewerGUI extends JFrame
         obfuscate.add(renameFields);
         obfuscate.add(renameMethods);
         obfuscate.add(renameClasses);
+        obfuscate.add(renameAll);
         obfuscate.add(controlFlow);
         obfuscate.add(junkCode);
         
@@ -646,6 +668,8 @@ public class MainViewerGUI extends JFrame
         renameFields.addActionListener(arg0 -> RenameFields.open());
         renameClasses.addActionListener(arg0 -> RenameClasses.open());
         renameMethods.addActionListener(arg0 -> RenameMethods.open());
+        renameAll.addActionListener(arg0 -> JavaObfuscator.open(new RenameClasses(), new RenameFields(),
+                new RenameMethods()));
     }
     
     public void defaultSettings()
@@ -780,6 +804,20 @@ public class MainViewerGUI extends JFrame
         });
     }
 
+    public synchronized void updateBusyProgress(final int percent) {
+        SwingUtilities.invokeLater(() ->
+        {
+            if(waitIcons.isEmpty())
+                return;
+            
+            JMenuItem waitIcon = waitIcons.get(waitIcons.size() - 1);
+            if(waitIcon instanceof WaitBusyIcon)
+                ((WaitBusyIcon) waitIcon).setProgress(percent);
+    
+            rootMenu.updateUI();
+        });
+    }
+
     public void openClassFile(final ResourceContainer container, final String name, final ClassNode cn) {
         workPane.addClassResource(container, name, cn);
     }
@@ -822,6 +860,7 @@ public class MainViewerGUI extends JFrame
                     container.file = newFile;
                 }
                 reopen.add(container.file);
+                container.close();
             }
         
             BytecodeViewer.resourceContainers.clear();
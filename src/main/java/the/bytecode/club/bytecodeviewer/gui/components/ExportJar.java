@@ -63,7 +63,7 @@ public class ExportJar extends JFrame
             BytecodeViewer.updateBusyStatus(true);
             Thread t = new Thread(() ->
             {
-                JarUtils.saveAsJar(BytecodeViewer.getLoadedClasses(), jarPath, manifest.getText());
+                JarUtils.saveContainersAsJar(BytecodeViewer.resourceContainers, jarPath, manifest.getText());
                 BytecodeViewer.updateBusyStatus(false);
             }, "Jar Export");
             t.start();
@@ -3,6 +3,7 @@ package the.bytecode.club.bytecodeviewer.gui.components;
 import the.bytecode.club.bytecodeviewer.resources.Resources;
 
 import javax.swing.*;
+import java.awt.*;
 
 /**
  * @author Konloch
@@ -16,6 +17,22 @@ public class WaitBusyIcon extends JMenuItemIcon
 		setAlignmentY(0.65f);
 	}
 	
+	/**
+	 * Displays the progress percentage next to the busy icon
+	 */
+	public void setProgress(int percent)
+	{
+		setText(percent + "%");
+		
+		Icon icon = getIcon();
+		int textWidth = getFontMetrics(getFont()).stringWidth(getText()) + getIconTextGap();
+		Dimension size = new Dimension((int) (icon.getIconWidth()*1.4) + textWidth, icon.getIconHeight());
+		setSize(size);
+		setPreferredSize(size);
+		setMinimumSize(size);
+		setMaximumSize(size);
+	}
+	
 	public static Icon loadIcon()
 	{
 		if(Resources.busyIcon != null)
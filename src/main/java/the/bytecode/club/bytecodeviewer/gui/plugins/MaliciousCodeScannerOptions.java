@@ -1,6 +1,7 @@
 package the.bytecode.club.bytecodeviewer.gui.plugins;
 
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.resources.Resources;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScanModule;
 import the.bytecode.club.bytecodeviewer.malwarescanner.util.MaliciousCodeOptions;
@@ -50,7 +51,7 @@ public class MaliciousCodeScannerOptions extends JFrame
     public MaliciousCodeScannerOptions()
     {
         this.setIconImages(Resources.iconList);
-        setSize(new Dimension(250, 7 + (MalwareScanModule.values().length * SPACER_HEIGHT_BETWEEN_OPTIONS) + 90));
+        setSize(new Dimension(250, 7 + ((MalwareScanModule.values().length + 1) * SPACER_HEIGHT_BETWEEN_OPTIONS) + 90));
         setResizable(false);
         setTitle("Malicious Code Scanner Options");
         getContentPane().setLayout(null);
@@ -67,9 +68,17 @@ public class MaliciousCodeScannerOptions extends JFrame
             
             y += SPACER_HEIGHT_BETWEEN_OPTIONS;
         }
+        
+        //scans the lazily loaded classes from their bytes instead of building every ClassNode
+        final JCheckBox streamingScan = new JCheckBox("Stream Lazily Loaded Classes");
+        streamingScan.setSelected(Configuration.streamingMalwareScan);
+        streamingScan.setBounds(6, y, 232, 23);
+        getContentPane().add(streamingScan);
+        y += SPACER_HEIGHT_BETWEEN_OPTIONS;
     
         JButton btnNewButton = new JButton("Start Scanning");
         btnNewButton.addActionListener(arg0 -> {
+            Configuration.streamingMalwareScan = streamingScan.isSelected();
             PluginManager.runPlugin(new MaliciousCodeScanner(checkBoxes));
             dispose();
         });
@@ -4,9 +4,7 @@ import the.bytecode.club.bytecodeviewer.resources.Resources;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultTreeCellRenderer;
-import javax.swing.tree.TreeNode;
 import java.awt.*;
-import java.util.ArrayList;
 
 /**
  * @author http://stackoverflow.com/questions/14968005
@@ -83,56 +81,17 @@ public class ImageRenderer extends DefaultTreeCellRenderer
 			{
 				setIcon(Resources.configIcon);
 			}
-			else if (node.getChildCount() <= 0)
+			else if (node.isLeaf())
 			{ //random file
 				setIcon(Resources.fileIcon);
 			}
+			else if (node.containsClasses())
+			{ //package
+				setIcon(Resources.packagesIcon);
+			}
 			else
 			{ //folder
-				ArrayList<TreeNode> nodes = new ArrayList<>();
-				ArrayList<TreeNode> totalNodes = new ArrayList<>();
-				
-				nodes.add(node);
-				totalNodes.add(node);
-				
-				boolean isJava = false;
-				boolean finished = false;
-				
-				while (!finished)
-				{ //may cause a clusterfuck with huge files
-					if (nodes.isEmpty())
-						finished = true;
-					else
-					{
-						TreeNode treeNode = nodes.get(0);
-						nodes.remove(treeNode);
-						int children = treeNode.getChildCount();
-						if (children >= 1)
-							for (int i = 0; i < children; i++)
-							{
-								TreeNode child = treeNode.getChildAt(i);
-								
-								if (!totalNodes.contains(child))
-								{
-									nodes.add(child);
-									totalNodes.add(child);
-								}
-								
-								if (child.toString().endsWith(".class"))
-									isJava = true;
-							}
-						
-						if (isJava)
-							nodes.clear();
-					}
-				}
-				
-				if (isJava)
-					setIcon(Resources.packagesIcon);
-				else
-				{
-					setIcon(Resources.folderIcon);
-				}
+				setIcon(Resources.folderIcon);
 			}
 		}
 		
@@ -0,0 +1,128 @@
+package the.bytecode.club.bytecodeviewer.gui.resourcelist;
+
+import java.awt.Dimension;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import the.bytecode.club.bytecodeviewer.resources.QuickSearchIndex;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The quick file search results, shown above the search field while typing.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class QuickSearchPopup extends JPopupMenu
+{
+	private static final int VISIBLE_ROWS = 15;
+	
+	private final ResourceListPane resourceListPane;
+	private final DefaultListModel<QuickSearchIndex.Result> model = new DefaultListModel<>();
+	private final JList<QuickSearchIndex.Result> list = new JList<>(model);
+	private final JScrollPane scrollPane = new JScrollPane(list);
+	
+	public QuickSearchPopup(ResourceListPane resourceListPane)
+	{
+		this.resourceListPane = resourceListPane;
+		
+		//the search field keeps the focus so typing continues to refine the results
+		setFocusable(false);
+		list.setFocusable(false);
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		scrollPane.setBorder(null);
+		add(scrollPane);
+		
+		list.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				int index = list.locationToIndex(e.getPoint());
+				if (index != -1)
+					open(model.get(index));
+			}
+		});
+	}
+	
+	public void showResults(List<QuickSearchIndex.Result> results)
+	{
+		model.clear();
+		
+		if (results.isEmpty())
+		{
+			setVisible(false);
+			return;
+		}
+		
+		for (QuickSearchIndex.Result result : results)
+			model.addElement(result);
+		
+		list.setSelectedIndex(0);
+		list.ensureIndexIsVisible(0);
+		list.setVisibleRowCount(Math.min(results.size(), VISIBLE_ROWS));
+		scrollPane.setPreferredSize(null);
+		
+		Dimension size = scrollPane.getPreferredSize();
+		int width = Math.max(resourceListPane.quickSearch.getWidth(), size.width);
+		scrollPane.setPreferredSize(new Dimension(width, size.height));
+		pack();
+		
+		//the search field sits at the bottom of the pane, so the results go above it
+		show(resourceListPane.quickSearch, 0, -getPreferredSize().height);
+	}
+	
+	/**
+	 * Moves the selected result up (negative) or down (positive)
+	 */
+	public void moveSelection(int amount)
+	{
+		if (model.isEmpty())
+			return;
+		
+		int index = Math.max(0, Math.min(model.size() - 1, list.getSelectedIndex() + amount));
+		list.setSelectedIndex(index);
+		list.ensureIndexIsVisible(index);
+	}
+	
+	/**
+	 * Opens the selected result, returns false if nothing is selected
+	 */
+	public boolean openSelected()
+	{
+		if (!isVisible() || list.getSelectedValue() == null)
+			return false;
+		
+		open(list.getSelectedValue());
+		return true;
+	}
+	
+	private void open(QuickSearchIndex.Result result)
+	{
+		setVisible(false);
+		resourceListPane.quickSearch.setText("");
+		resourceListPane.openResource(result.container, result.getNodeNames());
+	}
+}
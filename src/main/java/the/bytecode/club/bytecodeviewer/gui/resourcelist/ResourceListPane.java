@@ -13,9 +13,11 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Map.Entry;
+import java.util.IdentityHashMap;
 import java.util.Objects;
+import java.util.Set;
 import javax.swing.AbstractAction;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
@@ -24,7 +26,9 @@ import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.JTree;
+import javax.swing.SwingUtilities;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import org.objectweb.asm.tree.ClassNode;
@@ -73,6 +77,7 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
     public final JButton close = new JButton("-");
     public final ResourceTreeNode treeRoot = new ResourceTreeNode("Loaded Files:");
     public final ResourceTree tree = new ResourceTree(treeRoot);
+    private final DefaultTreeModel treeModel = (DefaultTreeModel) tree.getModel();
     public final JTextField quickSearch = new TranslatedJTextField("Quick file search (no file extension)", Translation.QUICK_FILE_SEARCH_NO_FILE_EXTENSION);
     public final FileDrop fileDrop;
     public boolean cancel = false;
@@ -111,7 +116,7 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
     //used to remove resources from the resource list
     public void removeFile(ResourceContainer resourceContainer)
     {
-        BytecodeViewer.resourceContainers.remove(resourceContainer);
+        BytecodeViewer.removeResourceContainer(resourceContainer);
         LazyNameUtil.removeName(resourceContainer.name);
     }
 
@@ -120,6 +125,7 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
         super("Files", Translation.FILES);
         tree.setRootVisible(false);
         tree.setShowsRootHandles(true);
+        tree.setCellRenderer(new ImageRenderer());
         quickSearch.setForeground(Color.gray);
 
         attachTreeListeners();
@@ -155,107 +161,98 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
         BytecodeViewer.openFiles(files, true);
     }
 
+    /**
+     * Syncs the tree with the loaded resource containers, only the containers that were opened or closed
+     * since the last update are touched. Safe to call from any thread.
+     */
     public void updateTree()
     {
-        try
+        if (!SwingUtilities.isEventDispatchThread())
         {
-            treeRoot.removeAllChildren();
-            for (ResourceContainer container : BytecodeViewer.resourceContainers)
-            {
-                ResourceTreeNode root = new ResourceTreeNode(container.name);
-                treeRoot.add(root);
-                
-                ImageRenderer renderer = new ImageRenderer();
-                tree.setCellRenderer(renderer);
-
-                if (!container.resourceClasses.isEmpty())
-                {
-                    for (ClassNode c : container.resourceClasses.values())
-                    {
-                        String name = c.name;
-                        final String[] spl = name.split("/");
-                        if (spl.length < 2)
-                        {
-                            root.add(new ResourceTreeNode(name + ".class"));
-                        }
-                        else
-                        {
-                            ResourceTreeNode parent = root;
-                            for (int i1 = 0; i1 < spl.length; i1++)
-                            {
-                                String s = spl[i1];
-                                
-                                if (i1 == spl.length - 1)
-                                    s += ".class";
-                                
-                                ResourceTreeNode child = null;
-                                for (int i = 0; i < parent.getChildCount(); i++)
-                                {
-                                    if (((ResourceTreeNode) parent.getChildAt(i)).getUserObject().equals(s))
-                                    {
-                                        child = (ResourceTreeNode) parent.getChildAt(i);
-                                        break;
-                                    }
-                                }
-                                
-                                if (child == null)
-                                {
-                                    child = new ResourceTreeNode(s);
-                                    parent.add(child);
-                                }
-                                
-                                parent = child;
-                            }
-                        }
-                    }
-                }
-
-                if (!container.resourceFiles.isEmpty())
-                {
-                    for (final Entry<String, byte[]> entry : container.resourceFiles.entrySet())
-                    {
-                        String name = entry.getKey();
-                        final String[] spl = name.split("/");
-                        if (spl.length < 2)
-                        {
-                            root.add(new ResourceTreeNode(name));
-                        }
-                        else
-                        {
-                            ResourceTreeNode parent = root;
-                            for (final String s : spl)
-                            {
-                                ResourceTreeNode child = null;
-                                for (int i = 0; i < parent.getChildCount(); i++)
-                                {
-                                    if (((ResourceTreeNode) parent.getChildAt(i)).getUserObject().equals(s))
-                                    {
-                                        child = (ResourceTreeNode) parent.getChildAt(i);
-                                        break;
-                                    }
-                                }
-                                if (child == null)
-                                {
-                                    child = new ResourceTreeNode(s);
-                                    parent.add(child);
-                                }
-                                parent = child;
-                            }
-                        }
-                    }
-                }
-            }
-
-            treeRoot.sort();
-            tree.expandPath(new TreePath(tree.getModel().getRoot()));
-            tree.updateUI();
-        } catch (java.util.ConcurrentModificationException e) {
-            //ignore, the last file will reset everything
+            SwingUtilities.invokeLater(this::updateTree);
+            return;
+        }
+        
+        Set<ResourceContainer> loaded = Collections.newSetFromMap(new IdentityHashMap<>());
+        loaded.addAll(BytecodeViewer.resourceContainers);
+        
+        //drop the closed containers
+        for (int i = treeRoot.getChildCount() - 1; i >= 0; i--)
+        {
+            ResourceTreeNode node = (ResourceTreeNode) treeRoot.getChildAt(i);
+            if (node.getResourceContainer() == null || !loaded.contains(node.getResourceContainer()))
+                treeModel.removeNodeFromParent(node);
         }
         
+        //add the newly opened containers, their contents are read on first expansion
+        for (int i = 0; i < treeRoot.getChildCount(); i++)
+            loaded.remove(((ResourceTreeNode) treeRoot.getChildAt(i)).getResourceContainer());
+        
+        for (ResourceContainer container : BytecodeViewer.resourceContainers)
+        {
+            if (!loaded.remove(container))
+                continue;
+            
+            ResourceTreeNode root = new ResourceTreeNode(container);
+            int index = treeRoot.insertSorted(root);
+            treeModel.nodesWereInserted(treeRoot, new int[]{index});
+        }
+        
+        tree.expandPath(new TreePath(treeRoot));
+        
         //TODO add a setting for this
         // expandAll(tree, true);
     }
+    
+    /**
+     * Rebuilds the nodes of every loaded container, use this after classes have been renamed or replaced.
+     * Safe to call from any thread.
+     */
+    public void refreshTree()
+    {
+        if (!SwingUtilities.isEventDispatchThread())
+        {
+            SwingUtilities.invokeLater(this::refreshTree);
+            return;
+        }
+        
+        for (int i = 0; i < treeRoot.getChildCount(); i++)
+        {
+            ResourceTreeNode node = (ResourceTreeNode) treeRoot.getChildAt(i);
+            if (node.getResourceContainer() != null)
+                refreshContainer(node.getResourceContainer());
+        }
+    }
+    
+    /**
+     * Rebuilds the node of a single container, it's expanded again if it was before
+     */
+    public void refreshContainer(ResourceContainer container)
+    {
+        if (!SwingUtilities.isEventDispatchThread())
+        {
+            SwingUtilities.invokeLater(() -> refreshContainer(container));
+            return;
+        }
+        
+        for (int i = 0; i < treeRoot.getChildCount(); i++)
+        {
+            ResourceTreeNode node = (ResourceTreeNode) treeRoot.getChildAt(i);
+            if (node.getResourceContainer() != container)
+                continue;
+            
+            boolean expanded = tree.isExpanded(new TreePath(node.getPath()));
+            treeModel.removeNodeFromParent(node);
+            
+            ResourceTreeNode root = new ResourceTreeNode(container);
+            int index = treeRoot.insertSorted(root);
+            treeModel.nodesWereInserted(treeRoot, new int[]{index});
+            
+            if (expanded)
+                tree.expandPath(new TreePath(root.getPath()));
+            return;
+        }
+    }
 
     @SuppressWarnings("rawtypes")
     private void expandAll(final JTree tree, final TreePath parent,
@@ -281,8 +278,44 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
     public void resetWorkspace()
     {
         treeRoot.removeAllChildren();
+        treeModel.nodeStructureChanged(treeRoot);
         tree.repaint();
-        tree.updateUI();
+    }
+
+    /**
+     * Selects and opens a resource, the nodes along the path are created if they haven't been expanded yet
+     */
+    public void openResource(ResourceContainer container, String[] nodeNames)
+    {
+        ResourceTreeNode node = null;
+        for (int i = 0; i < treeRoot.getChildCount() && node == null; i++)
+        {
+            ResourceTreeNode root = (ResourceTreeNode) treeRoot.getChildAt(i);
+            if (root.getResourceContainer() == container)
+                node = root;
+        }
+        
+        for (int i = 0; i < nodeNames.length && node != null; i++)
+            node = node.getChild(nodeNames[i]);
+        
+        if (node == null)
+            return;
+        
+        TreePath path = new TreePath(node.getPath());
+        selectPath(path);
+        openPath(path);
+    }
+    
+    /**
+     * Selects and scrolls to the path without the selection listener opening it
+     */
+    public void selectPath(TreePath path)
+    {
+        cancel = true;
+        tree.setSelectionPath(path);
+        cancel = false;
+        tree.makeVisible(path);
+        tree.scrollPathToVisible(path);
     }
 
     public void openPath(TreePath path)
@@ -299,13 +332,7 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
         }
 
         String cheapHax = path.getPathComponent(1).toString();
-        ResourceContainer container = null;
-
-        for (ResourceContainer c : BytecodeViewer.resourceContainers)
-        {
-            if (c.name.equals(cheapHax))
-                container = c;
-        }
+        ResourceContainer container = BytecodeViewer.getFileContainer(cheapHax);
 
         String name = nameBuffer.toString();
         if (name.endsWith(".class"))
@@ -317,12 +344,12 @@ public class ResourceListPane extends TranslatedVisibleComponent implements File
                 BytecodeViewer.viewer.openClassFile(container, nameBuffer.toString(), cn);
             else
                 BytecodeViewer.viewer.openFile(container, nameBuffer.toString(),
-                        BytecodeViewer.getFileContents(nameBuffer.toString()));
+                        container.getFileBytes(nameBuffer.toString()));
         }
-        else
+        else if (container != null)
         {
             BytecodeViewer.viewer.openFile(container, nameBuffer.toString(),
-                    BytecodeViewer.getFileContents(nameBuffer.toString()));
+                    container.getFileBytes(nameBuffer.toString()));
         }
     }
     
@@ -1,6 +1,5 @@
 package the.bytecode.club.bytecodeviewer.gui.resourcelist;
 
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
 import javax.swing.*;
@@ -41,17 +40,9 @@ public class ResourceListRightClickRemove extends AbstractAction
 			DefaultMutableTreeNode node = (DefaultMutableTreeNode) enumeration.nextElement();
 			if (node.isNodeAncestor(selectNode))
 			{
-				DefaultMutableTreeNode root = (DefaultMutableTreeNode) tree.getModel().getRoot();
-				root.remove(node);
-				
-				for (ResourceContainer resourceContainer : BytecodeViewer.resourceContainers)
-				{
-					if (resourceContainer.name.equals(selectNode.toString()))
-					{
-						resourceListPane.removeFile(resourceContainer);
-						break;
-					}
-				}
+				ResourceContainer resourceContainer = ((ResourceTreeNode) node).getResourceContainer();
+				if (resourceContainer != null)
+					resourceListPane.removeFile(resourceContainer);
 				
 				resourceListPane.updateTree();
 				return;
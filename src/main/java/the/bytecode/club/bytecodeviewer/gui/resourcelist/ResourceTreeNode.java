@@ -2,10 +2,23 @@ package the.bytecode.club.bytecodeviewer.gui.resourcelist;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.MutableTreeNode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
 import javax.swing.tree.TreeNode;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
 /**
+ * A node on the resource list.
+ *
+ * Container and package nodes are lazy, they hold the paths underneath them and only create their direct
+ * children the first time Swing (or anything else) asks for them. Children are indexed by name and kept
+ * sorted, so lookups and single inserts don't walk the child list.
+ *
  * @author Konloch
  * @since 6/22/2021
  */
@@ -14,15 +27,174 @@ public class ResourceTreeNode extends DefaultMutableTreeNode
 	
 	private static final long serialVersionUID = -8817777566176729571L;
 	
+	private final transient ResourceContainer container;
+	private transient List<String[]> pending;
+	private transient HashMap<String, ResourceTreeNode> childIndex;
+	private transient Boolean containsClasses;
+	private boolean loaded;
+	private int depth;
+	
 	public ResourceTreeNode(final Object o)
 	{
 		super(o);
+		this.container = null;
+		this.loaded = true;
+	}
+	
+	/**
+	 * Creates the root node of a resource container, the classes and files are read on first expansion
+	 */
+	public ResourceTreeNode(final ResourceContainer container)
+	{
+		super(container.name);
+		this.container = container;
+	}
+	
+	private ResourceTreeNode(final String name, final int depth)
+	{
+		super(name);
+		this.container = null;
+		this.depth = depth;
+	}
+	
+	/**
+	 * Returns the resource container this node is the root of, or null
+	 */
+	public ResourceContainer getResourceContainer()
+	{
+		return container;
+	}
+	
+	/**
+	 * Returns true if the children of this node have been created
+	 */
+	public boolean isLoaded()
+	{
+		return loaded;
+	}
+	
+	/**
+	 * Returns the direct child with the given name, or null
+	 */
+	public ResourceTreeNode getChild(final String name)
+	{
+		loadChildren();
+		return childIndex == null ? null : childIndex.get(name);
+	}
+	
+	/**
+	 * Inserts the child at its sorted position and returns the index it was inserted at
+	 */
+	@SuppressWarnings("unchecked")
+	public int insertSorted(final ResourceTreeNode child)
+	{
+		loadChildren();
+		
+		int index = children == null ? -1 : Collections.binarySearch((List<TreeNode>) children, child, nodeComparator);
+		if (index < 0)
+			index = -index - 1;
+		
+		insert(child, index);
+		return index;
+	}
+	
+	/**
+	 * Returns true if there is a class file anywhere underneath this node, without creating the children
+	 */
+	public boolean containsClasses()
+	{
+		if (containsClasses != null)
+			return containsClasses;
+		
+		boolean found = false;
+		if (!loaded)
+		{
+			if (container != null)
+				found = container.hasClasses();
+			else
+				for (String[] path : pending)
+					if (path[path.length - 1].endsWith(".class"))
+					{
+						found = true;
+						break;
+					}
+		}
+		else if (children != null)
+		{
+			for (Object child : children)
+			{
+				ResourceTreeNode node = (ResourceTreeNode) child;
+				if (node.toString().endsWith(".class") || node.containsClasses())
+				{
+					found = true;
+					break;
+				}
+			}
+		}
+		
+		containsClasses = found;
+		return found;
 	}
 	
 	@Override
 	public void insert(final MutableTreeNode newChild, final int childIndex)
 	{
 		super.insert(newChild, childIndex);
+		
+		if (this.childIndex == null)
+			this.childIndex = new HashMap<>();
+		
+		this.childIndex.putIfAbsent(newChild.toString(), (ResourceTreeNode) newChild);
+		containsClasses = null;
+	}
+	
+	@Override
+	public void remove(final int childIndex)
+	{
+		TreeNode child = getChildAt(childIndex);
+		super.remove(childIndex);
+		
+		if (this.childIndex != null)
+			this.childIndex.remove(child.toString(), child);
+		containsClasses = null;
+	}
+	
+	@Override
+	public void removeAllChildren()
+	{
+		loaded = true;
+		pending = null;
+		childIndex = null;
+		containsClasses = null;
+		super.removeAllChildren();
+	}
+	
+	@Override
+	public boolean isLeaf()
+	{
+		return loaded && super.getChildCount() == 0;
+	}
+	
+	@Override
+	public int getChildCount()
+	{
+		loadChildren();
+		return super.getChildCount();
+	}
+	
+	@Override
+	public TreeNode getChildAt(final int index)
+	{
+		loadChildren();
+		return super.getChildAt(index);
+	}
+	
+	@Override
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public Enumeration children()
+	{
+		loadChildren();
+		return super.children();
 	}
 	
 	public void sort()
@@ -33,14 +205,81 @@ public class ResourceTreeNode extends DefaultMutableTreeNode
 	@SuppressWarnings("unchecked")
 	private void recursiveSort(final ResourceTreeNode node)
 	{
+		if (!node.loaded || node.children == null)
+			return;
+		
 		node.children.sort(nodeComparator);
 		for (TreeNode nextNode : (Iterable<TreeNode>) node.children)
 		{
-			if (nextNode.getChildCount() > 0)
+			recursiveSort((ResourceTreeNode) nextNode);
+		}
+	}
+	
+	/**
+	 * Creates the direct children of this node from the pending paths, each package child keeps
+	 * the paths underneath it until it's asked for its own children
+	 */
+	private void loadChildren()
+	{
+		if (loaded)
+			return;
+		
+		loaded = true;
+		List<String[]> paths = container != null ? getContainerPaths(container) : pending;
+		pending = null;
+		
+		if (paths.isEmpty())
+			return;
+		
+		childIndex = new HashMap<>();
+		List<ResourceTreeNode> created = new ArrayList<>();
+		for (String[] path : paths)
+		{
+			String name = path[depth];
+			ResourceTreeNode child = childIndex.get(name);
+			
+			if (child == null)
+			{
+				child = new ResourceTreeNode(name, depth + 1);
+				child.loaded = true;
+				childIndex.put(name, child);
+				created.add(child);
+			}
+			
+			if (path.length > depth + 1)
+			{
+				if (child.pending == null)
+					child.pending = new ArrayList<>();
+				
+				child.loaded = false;
+				child.pending.add(path);
+			}
+		}
+		
+		created.sort(nodeComparator);
+		for (ResourceTreeNode child : created)
+			super.insert(child, super.getChildCount());
+	}
+	
+	private static List<String[]> getContainerPaths(final ResourceContainer container)
+	{
+		List<String[]> paths = new ArrayList<>();
+		
+		if (container.hasClasses())
+		{
+			for (String name : container.getClassNames())
 			{
-				recursiveSort((ResourceTreeNode) nextNode);
+				String[] path = name.split("/");
+				path[path.length - 1] += ".class";
+				paths.add(path);
 			}
 		}
+		
+		Collection<String> fileNames = container.getFileNames();
+		for (String name : fileNames)
+			paths.add(name.split("/"));
+		
+		return paths;
 	}
 	
 	protected Comparator<TreeNode> nodeComparator = new Comparator<TreeNode>()
@@ -49,10 +288,12 @@ public class ResourceTreeNode extends DefaultMutableTreeNode
 		public int compare(final TreeNode o1, final TreeNode o2)
 		{
 			// To make sure nodes with children are always on top
-			final int firstOffset = o1.getChildCount() > 0 ? -1000 : 0;
-			final int secondOffset = o2.getChildCount() > 0 ? 1000 : 0;
-			return o1.toString().compareToIgnoreCase(o2.toString())
-					+ firstOffset + secondOffset;
+			final boolean firstFolder = !o1.isLeaf();
+			final boolean secondFolder = !o2.isLeaf();
+			if (firstFolder != secondFolder)
+				return firstFolder ? -1 : 1;
+			
+			return o1.toString().compareToIgnoreCase(o2.toString());
 		}
 		
 		@Override
@@ -1,38 +1,116 @@
 package the.bytecode.club.bytecodeviewer.gui.resourcelist;
 
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.resources.QuickSearchIndex;
 
-import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.Enumeration;
+import java.util.List;
 
 /**
+ * Searches the loaded files as you type, the results are shown in a popup above the search field.
+ *
  * @author Konloch
  * @since 6/22/2021
  */
 public class SearchKeyAdapter extends KeyAdapter
 {
 	private final ResourceListPane resourceListPane;
+	private final QuickSearchPopup popup;
+	private String lastSearch = "";
 	
-	public SearchKeyAdapter(ResourceListPane resourceListPane) {this.resourceListPane = resourceListPane;}
+	public SearchKeyAdapter(ResourceListPane resourceListPane)
+	{
+		this.resourceListPane = resourceListPane;
+		this.popup = new QuickSearchPopup(resourceListPane);
+	}
 	
 	@Override
 	public void keyPressed(final KeyEvent ke)
 	{
-		//only trigger on enter
-		if (ke.getKeyCode() != KeyEvent.VK_ENTER)
-			return;
+		switch (ke.getKeyCode())
+		{
+			case KeyEvent.VK_DOWN:
+				popup.moveSelection(1);
+				ke.consume();
+				return;
+				
+			case KeyEvent.VK_UP:
+				popup.moveSelection(-1);
+				ke.consume();
+				return;
+				
+			case KeyEvent.VK_PAGE_DOWN:
+				popup.moveSelection(10);
+				ke.consume();
+				return;
+				
+			case KeyEvent.VK_PAGE_UP:
+				popup.moveSelection(-10);
+				ke.consume();
+				return;
+				
+			case KeyEvent.VK_ESCAPE:
+				popup.setVisible(false);
+				return;
+				
+			case KeyEvent.VK_ENTER:
+				break;
+				
+			default:
+				return;
+		}
 		
 		final String qt = resourceListPane.quickSearch.getText();
-		resourceListPane.quickSearch.setText("");
 		
 		if (qt.isEmpty()) //NOPE
 			return;
 		
+		if (resourceListPane.exact.isSelected())
+		{
+			resourceListPane.quickSearch.setText("");
+			openExact(qt);
+		}
+		else if (!popup.openSelected())
+		{
+			//enter was pressed before the results were shown, open the best match
+			List<QuickSearchIndex.Result> results = BytecodeViewer.quickSearchIndex.search(qt, 1);
+			if (!results.isEmpty())
+			{
+				resourceListPane.quickSearch.setText("");
+				resourceListPane.openResource(results.get(0).container, results.get(0).getNodeNames());
+			}
+		}
+		
+		lastSearch = "";
+	}
+	
+	@Override
+	public void keyReleased(final KeyEvent ke)
+	{
+		final String qt = resourceListPane.quickSearch.getText();
+		if (qt.equals(lastSearch))
+			return;
+		
+		lastSearch = qt;
+		
+		if (qt.trim().isEmpty() || resourceListPane.exact.isSelected())
+		{
+			popup.setVisible(false);
+			return;
+		}
+		
+		popup.showResults(BytecodeViewer.quickSearchIndex.search(qt, Configuration.quickSearchResults));
+	}
+	
+	/**
+	 * Opens the full dotted path (com.example.Main) on the first container it's found in
+	 */
+	private void openExact(String qt)
+	{
 		String[] path;
-		int found = 0;
 		
 		if (qt.contains("."))
 		{
@@ -43,87 +121,28 @@ public class SearchKeyAdapter extends KeyAdapter
 			path = new String[]{qt};
 		}
 		
-		ResourceTreeNode curNode = resourceListPane.treeRoot;
-		if (resourceListPane.exact.isSelected())
+		String name = path[path.length - 1];
+		for (String last : new String[]{name + ".class", name})
 		{
-			pathLoop:
-			for (int i = 0; i < path.length; i++)
+			path[path.length - 1] = last;
+			
+			for (int c = 0; c < resourceListPane.treeRoot.getChildCount(); c++)
 			{
-				final String pathName = path[i];
-				final boolean isLast = i == path.length - 1;
+				ResourceTreeNode curNode = (ResourceTreeNode) resourceListPane.treeRoot.getChildAt(c);
 				
-				for (int c = 0; c < curNode.getChildCount(); c++)
-				{
-					final ResourceTreeNode child = (ResourceTreeNode) curNode.getChildAt(c);
-					System.out.println(pathName + ":" + child.getUserObject());
-					
-					if (child.getUserObject().equals(pathName))
-					{
-						curNode = child;
-						if (isLast)
-						{
-							System.out.println("Found! " + curNode);
-							found++;
-							final TreePath pathn = new TreePath(curNode.getPath());
-							resourceListPane.tree.setSelectionPath(pathn);
-							resourceListPane.tree.makeVisible(pathn);
-							resourceListPane.tree.scrollPathToVisible(pathn);
-							resourceListPane.openPath(pathn); //auto open
-							break pathLoop;
-						}
-						continue pathLoop;
-					}
-				}
+				for (int i = 0; i < path.length && curNode != null; i++)
+					curNode = curNode.getChild(path[i]);
 				
-				System.out.println("Could not find " + pathName);
-				break;
-			}
-		}
-		else
-		{
-			@SuppressWarnings("unchecked")
-			Enumeration<TreeNode> enums = curNode.depthFirstEnumeration();
-			while (enums != null && enums.hasMoreElements())
-			{
-				ResourceTreeNode node = (ResourceTreeNode) enums.nextElement();
-				if (node.isLeaf())
+				if (curNode != null)
 				{
-					if (((String) (node.getUserObject())).toLowerCase().contains(path[path.length - 1].toLowerCase()))
-					{
-						TreeNode[] pathArray = node.getPath();
-						int k = 0;
-						StringBuilder fullPath = new StringBuilder();
-						while (pathArray != null
-								&& k < pathArray.length)
-						{
-							ResourceTreeNode n = (ResourceTreeNode) pathArray[k];
-							String s = (String) (n.getUserObject());
-							fullPath.append(s);
-							if (k++ != pathArray.length - 1)
-							{
-								fullPath.append(".");
-							}
-						}
-						String fullPathString = fullPath.toString();
-						if (fullPathString.toLowerCase().contains(qt.toLowerCase()))
-						{
-							System.out.println("Found! " + node);
-							found++;
-							if (found >= 30)
-							{ //TODO probably make this a setting, no real reason it's 30
-								BytecodeViewer.showMessage("Uh oh, there could be more results but you've"
-										+ " triggered the 30 classes at once limit. Try refining your search.");
-								return;
-							}
-							final TreePath pathn = new TreePath(node.getPath());
-							resourceListPane.tree.setSelectionPath(pathn.getParentPath());
-							resourceListPane.tree.setSelectionPath(pathn);
-							resourceListPane.tree.makeVisible(pathn);
-							resourceListPane.tree.scrollPathToVisible(pathn);
-						}
-					}
+					final TreePath pathn = new TreePath(curNode.getPath());
+					resourceListPane.selectPath(pathn);
+					resourceListPane.openPath(pathn); //auto open
+					return;
 				}
 			}
 		}
+		
+		System.out.println("Could not find " + qt);
 	}
 }
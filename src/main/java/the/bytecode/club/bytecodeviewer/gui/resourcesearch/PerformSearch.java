@@ -2,15 +2,20 @@ package the.bytecode.club.bytecodeviewer.gui.resourcesearch;
 
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.searching.BackgroundSearchThread;
-import the.bytecode.club.bytecodeviewer.searching.RegexInsnFinder;
+import the.bytecode.club.bytecodeviewer.searching.BatchedSearchResultNotifier;
 import the.bytecode.club.bytecodeviewer.searching.impl.RegexSearch;
 import the.bytecode.club.bytecodeviewer.searching.SearchResultNotifier;
+import the.bytecode.club.bytecodeviewer.searching.SearchTypeDetails;
 import the.bytecode.club.bytecodeviewer.translation.TranslatedStrings;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
+import javax.swing.SwingUtilities;
 import javax.swing.tree.TreePath;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 /**
@@ -31,23 +36,90 @@ class PerformSearch extends BackgroundSearchThread
 	@Override
 	public void search()
 	{
-		try
+		final SearchTypeDetails details = searchBoxPane.searchType.details;
+		
+		if (details instanceof RegexSearch)
 		{
-			Pattern.compile(RegexInsnFinder.processRegex(RegexSearch.searchText.getText()), Pattern.MULTILINE);
+			try
+			{
+				RegexSearch.compile(RegexSearch.searchText.getText());
+			}
+			catch (PatternSyntaxException ex)
+			{
+				BytecodeViewer.showMessage("You have an error in your regex syntax.\n\r" + ex.getMessage());
+				SwingUtilities.invokeLater(() -> searchBoxPane.search.setText(TranslatedStrings.SEARCH.getText()));
+				return;
+			}
 		}
-		catch (PatternSyntaxException ex)
+		
+		final boolean exact = searchBoxPane.exact.isSelected();
+		final BatchedSearchResultNotifier batch = new BatchedSearchResultNotifier(this, srn, Configuration.maxSearchResults);
+		final List<ResourceContainer> containers = new ArrayList<>(BytecodeViewer.resourceContainers);
+		final List<ResourceContainer> unindexed = Collections.synchronizedList(new ArrayList<>());
+		
+		//indexed lookups are done per container, this also builds the missing indexes in parallel
+		List<Runnable> tasks = new ArrayList<>();
+		for (ResourceContainer container : containers)
+			tasks.add(() ->
+			{
+				if (isStopped(batch))
+					return;
+				
+				if (!Configuration.searchIndex || !details.searchIndexed(container, batch, exact))
+					unindexed.add(container);
+			});
+		runInParallel(tasks);
+		
+		//everything else is split into chunks of classes
+		tasks = new ArrayList<>();
+		for (ResourceContainer container : containers)
 		{
-			BytecodeViewer.showMessage("You have an error in your regex syntax.");
+			if (!unindexed.contains(container))
+				continue;
+			
+			List<String> classNames = new ArrayList<>(container.getClassNames());
+			int chunkSize = Math.max(16, classNames.size() / (Math.max(1, Configuration.searchThreads) * 8));
+			
+			for (int i = 0; i < classNames.size(); i += chunkSize)
+			{
+				List<String> chunk = classNames.subList(i, Math.min(classNames.size(), i + chunkSize));
+				tasks.add(() ->
+				{
+					for (String className : chunk)
+					{
+						if (isStopped(batch))
+							return;
+						
+						ClassNode cn = container.getClassNode(className);
+						if (cn != null)
+							details.search(container, cn, batch, exact);
+					}
+				});
+			}
 		}
+		runInParallel(tasks);
 		
-		for (ResourceContainer container : BytecodeViewer.resourceContainers)
-			for (ClassNode c : container.resourceClasses.values())
-				searchBoxPane.searchType.details.search(container, c, srn, searchBoxPane.exact.isSelected());
+		batch.flush();
 		
-		BytecodeViewer.viewer.searchBoxPane.search.setEnabled(true);
-		BytecodeViewer.viewer.searchBoxPane.search.setText(TranslatedStrings.SEARCH.getText());
+		//a newer search owns the search pane now
+		if (isCancelled())
+			return;
 		
-		searchBoxPane.tree.expandPath(new TreePath(searchBoxPane.tree.getModel().getRoot()));
-		searchBoxPane.tree.updateUI();
+		SwingUtilities.invokeLater(() ->
+		{
+			searchBoxPane.search.setText(TranslatedStrings.SEARCH.getText());
+			
+			searchBoxPane.tree.expandPath(new TreePath(searchBoxPane.tree.getModel().getRoot()));
+			searchBoxPane.tree.updateUI();
+		});
+		
+		if (batch.isFull())
+			BytecodeViewer.showMessage("The search was stopped after " + batch.getResultCount() + " results,"
+					+ " please narrow down your search.");
+	}
+	
+	private boolean isStopped(BatchedSearchResultNotifier batch)
+	{
+		return isCancelled() || batch.isFull();
 	}
 }
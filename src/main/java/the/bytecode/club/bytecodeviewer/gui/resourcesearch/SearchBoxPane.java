@@ -3,6 +3,7 @@ package the.bytecode.club.bytecodeviewer.gui.resourcesearch;
 import java.awt.BorderLayout;
 import java.awt.GridLayout;
 import java.awt.event.ItemListener;
+import java.util.List;
 import java.util.Objects;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
@@ -13,6 +14,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTree;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
 
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
@@ -163,32 +165,53 @@ public class SearchBoxPane extends TranslatedVisibleComponent
 
     public void search()
     {
+        //a new query replaces the search that's still running
+        if (performSearchThread != null && !performSearchThread.finished)
+            performSearchThread.cancel();
+        
         treeRoot.removeAllChildren();
+        ((DefaultTreeModel) tree.getModel()).reload();
         searchType = (SearchType) typeBox.getSelectedItem();
         final SearchRadius radius = (SearchRadius) searchRadiusBox.getSelectedItem();
-        final SearchResultNotifier srn = debug -> treeRoot.add(new DefaultMutableTreeNode(debug));
-        
-        if (radius == SearchRadius.All_Classes)
+        final SearchResultNotifier srn = new SearchResultNotifier()
         {
-            if (performSearchThread == null || performSearchThread.finished)
+            @Override
+            public void notifyOfResult(String debug)
             {
-                BytecodeViewer.viewer.searchBoxPane.search.setEnabled(false);
-                BytecodeViewer.viewer.searchBoxPane.search.setText("Searching, please wait..");
-                
-                performSearchThread = new PerformSearch(this, srn);
-                performSearchThread.start();
+                treeRoot.add(new DefaultMutableTreeNode(debug));
             }
-            else
-            { // this should really never be called.
-                BytecodeViewer.showMessage("You currently have a search performing in the background, please wait for that to finish.");
+            
+            @Override
+            public void notifyOfResults(List<String> debug)
+            {
+                int[] indices = new int[debug.size()];
+                for (int i = 0; i < indices.length; i++)
+                {
+                    indices[i] = treeRoot.getChildCount();
+                    treeRoot.add(new DefaultMutableTreeNode(debug.get(i)));
+                }
+                
+                ((DefaultTreeModel) tree.getModel()).nodesWereInserted(treeRoot, indices);
+                tree.expandPath(new TreePath(treeRoot));
             }
+        };
+        
+        if (radius == SearchRadius.All_Classes)
+        {
+            search.setText("Searching, please wait..");
+            
+            performSearchThread = new PerformSearch(this, srn);
+            performSearchThread.start();
         }
         else if (radius == SearchRadius.Current_Class)
         {
             final ResourceViewer cv = BytecodeViewer.getActiveResource();
             
             if (cv != null)
+            {
                 searchType.details.search(cv.container, cv.cn, srn, exact.isSelected());
+                ((DefaultTreeModel) tree.getModel()).reload();
+            }
         }
     }
     
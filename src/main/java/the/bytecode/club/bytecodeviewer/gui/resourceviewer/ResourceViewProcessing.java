@@ -48,7 +48,6 @@ public class ResourceViewProcessing extends PaneUpdaterThread
 	private final byte[] b;
 	private final boolean isPanelEditable;
 	private final JButton button;
-	public boolean waitingFor;
 	
 	public ResourceViewProcessing(ResourceViewPanel resourceViewPanel, ClassViewer cv, byte[] b, boolean isPanelEditable, JButton button)
 	{
@@ -57,7 +56,45 @@ public class ResourceViewProcessing extends PaneUpdaterThread
 		this.b = b;
 		this.isPanelEditable = isPanelEditable;
 		this.button = button;
-		waitingFor = true;
+	}
+	
+	@Override
+	public void showTimeout(long seconds)
+	{
+		final Decompiler decompiler = resourceViewPanel.decompiler;
+		SwingUtilities.invokeLater(() ->
+		{
+			resourceViewPanel.panel.removeAll();
+			attachSource(decompiler, decompiler.getDecompilerName() + " timed out after " + seconds
+					+ " seconds, the decompilation was cancelled.", false);
+			resourceViewPanel.panel.revalidate();
+		});
+	}
+	
+	private void attachSource(Decompiler decompiler, String decompiledSource, boolean isPanelEditable)
+	{
+		updateUpdaterTextArea = new SearchableRSyntaxTextArea();
+		
+		Configuration.rstaTheme.apply(updateUpdaterTextArea);
+		resourceViewPanel.panel.add(updateUpdaterTextArea.getScrollPane());
+		resourceViewPanel.panel.add(updateUpdaterTextArea.getTitleHeader(), BorderLayout.NORTH);
+		
+		resourceViewPanel.textArea = updateUpdaterTextArea;
+		resourceViewPanel.textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVA);
+		resourceViewPanel.textArea.setCodeFoldingEnabled(true);
+		resourceViewPanel.textArea.setAntiAliasingEnabled(true);
+		resourceViewPanel.textArea.setText(decompiledSource);
+		resourceViewPanel.textArea.setCaretPosition(0);
+		resourceViewPanel.textArea.setEditable(isPanelEditable);
+		
+		if(isPanelEditable && decompiler == Decompiler.SMALI_DISASSEMBLER)
+			resourceViewPanel.compileMode = Compiler.SMALI_ASSEMBLER;
+		else if(isPanelEditable && decompiler == Decompiler.KRAKATAU_DISASSEMBLER)
+			resourceViewPanel.compileMode = Compiler.KRAKATAU_ASSEMBLER;
+		
+		String editable = isPanelEditable ? " - " + EDITABLE : "";
+		resourceViewPanel.textArea.getTitleHeader().setText(decompiler.getDecompilerName() + editable);
+		resourceViewPanel.textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, (int) BytecodeViewer.viewer.fontSpinner.getValue()));
 	}
 	
 	@Override
@@ -88,47 +125,26 @@ public class ResourceViewProcessing extends PaneUpdaterThread
 					final Decompiler decompiler = resourceViewPanel.decompiler;
 					
 					//perform decompiling inside of this thread
-					final String decompiledSource = decompiler.getDecompiler().decompileClassNode(viewer.cn, b);
+					final String decompiledSource = decompiler.getDecompiler().decompileClassNodeCached(viewer.cn, b);
 					
-					//set the swing components on the swing thread
-					SwingUtilities.invokeLater(() ->
-					{
-						updateUpdaterTextArea = new SearchableRSyntaxTextArea();
-						
-						Configuration.rstaTheme.apply(updateUpdaterTextArea);
-						resourceViewPanel.panel.add(updateUpdaterTextArea.getScrollPane());
-						resourceViewPanel.panel.add(updateUpdaterTextArea.getTitleHeader(), BorderLayout.NORTH);
-						
-						resourceViewPanel.textArea = updateUpdaterTextArea;
-						resourceViewPanel.textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVA);
-						resourceViewPanel.textArea.setCodeFoldingEnabled(true);
-						resourceViewPanel.textArea.setAntiAliasingEnabled(true);
-						resourceViewPanel.textArea.setText(decompiledSource);
-						resourceViewPanel.textArea.setCaretPosition(0);
-						resourceViewPanel.textArea.setEditable(isPanelEditable);
-						
-						if(isPanelEditable && decompiler == Decompiler.SMALI_DISASSEMBLER)
-							resourceViewPanel.compileMode = Compiler.SMALI_ASSEMBLER;
-						else if(isPanelEditable && decompiler == Decompiler.KRAKATAU_DISASSEMBLER)
-							resourceViewPanel.compileMode = Compiler.KRAKATAU_ASSEMBLER;
-						
-						String editable = isPanelEditable ? " - " + EDITABLE : "";
-						resourceViewPanel.textArea.getTitleHeader().setText(decompiler.getDecompilerName() + editable);
-						resourceViewPanel.textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, (int) BytecodeViewer.viewer.fontSpinner.getValue()));
-						
-						waitingFor = false;
-					});
+					//the tab was closed, refreshed or the decompiler timed out
+					if (isCancelled())
+						return;
 					
-					//hold this thread until the swing thread has finished attaching the components
-					while (waitingFor)
+					//set the swing components on the swing thread, this thread is held until they're attached
+					SwingUtilities.invokeAndWait(() ->
 					{
-						try {
-							Thread.sleep(1);
-						} catch (Exception e) {}
-					}
+						if (!isCancelled())
+							attachSource(decompiler, decompiledSource, isPanelEditable);
+					});
 				}
 			}
 		}
+		catch (InterruptedException e)
+		{
+			//cancelled while waiting on the swing thread
+			Thread.currentThread().interrupt();
+		}
 		catch (IndexOutOfBoundsException | NullPointerException e)
 		{
 			//ignore
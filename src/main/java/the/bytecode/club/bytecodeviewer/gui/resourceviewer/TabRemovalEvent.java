@@ -26,6 +26,7 @@ public class TabRemovalEvent implements ContainerListener
 		{
 			String workingName = ((ClassViewer) c).workingName;
 			BytecodeViewer.viewer.workPane.openedTabs.remove(workingName);
+			BytecodeViewer.paneDecompilerPool.cancel((ClassViewer) c);
 		}
 		else if (c instanceof FileViewer)
 		{
@@ -155,7 +155,14 @@ public class WorkPaneMainComponent extends TranslatedVisibleComponent
         getContentPane().add(buttonPanel, BorderLayout.SOUTH);
 
         tabs.addContainerListener(new TabRemovalEvent());
-        tabs.addChangeListener(arg0 -> buttonPanel.setVisible(tabs.getSelectedIndex() != -1));
+        tabs.addChangeListener(arg0 ->
+        {
+            buttonPanel.setVisible(tabs.getSelectedIndex() != -1);
+            
+            //the selected tab is decompiled first
+            if (tabs.getSelectedComponent() instanceof ClassViewer)
+                BytecodeViewer.paneDecompilerPool.prioritize((ClassViewer) tabs.getSelectedComponent());
+        });
 
         this.setVisible(true);
     }
@@ -3,6 +3,7 @@ package the.bytecode.club.bytecodeviewer.gui.resourceviewer.viewer;
 import the.bytecode.club.bytecodeviewer.api.ASMUtil;
 import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.gui.resourceviewer.ResourceViewPanel;
+import the.bytecode.club.bytecodeviewer.gui.util.PaneUpdaterThread;
 
 import java.awt.BorderLayout;
 import java.awt.Container;
@@ -11,6 +12,7 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.HierarchyEvent;
 import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.swing.JButton;
@@ -90,6 +92,9 @@ public class ClassViewer extends ResourceViewer
 
     public void startPaneUpdater(final JButton button)
     {
+        //the panes that are still decompiling the previous version are out of date
+        BytecodeViewer.paneDecompilerPool.cancel(this);
+        
         this.cn = container.getClassNode(cn.name); //update the classnode
         
         setPanes();
@@ -119,30 +124,12 @@ public class ClassViewer extends ResourceViewer
         resourceViewPanel2.updatePane(this, classBytes, button, isPanel2Editable());
         resourceViewPanel3.updatePane(this, classBytes, button, isPanel3Editable());
 
-        Thread dumpBuild = new Thread(() ->
-        {
-            BytecodeViewer.updateBusyStatus(true);
-            
-            while (Configuration.currentlyDumping)
-            {
-                //wait until it's not dumping
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-
-            BytecodeViewer.updateBusyStatus(false);
-
-            if (resourceViewPanel1.decompiler != Decompiler.NONE)
-                resourceViewPanel1.updateThread.startNewThread();
-            if (resourceViewPanel2.decompiler != Decompiler.NONE)
-                resourceViewPanel2.updateThread.startNewThread();
-            if (resourceViewPanel3.decompiler != Decompiler.NONE)
-                resourceViewPanel3.updateThread.startNewThread();
-        }, "ClassViewer Temp Dump");
-        dumpBuild.start();
+        List<PaneUpdaterThread> panes = new ArrayList<>();
+        for (ResourceViewPanel resourceViewPanel : Arrays.asList(resourceViewPanel1, resourceViewPanel2, resourceViewPanel3))
+            if (resourceViewPanel.decompiler != Decompiler.NONE)
+                panes.add(resourceViewPanel.updateThread);
+        
+        BytecodeViewer.paneDecompilerPool.submit(panes.toArray(new PaneUpdaterThread[0]));
 
         if (isPanel1Editable() || isPanel2Editable() || isPanel3Editable())
         {
@@ -0,0 +1,255 @@
+package the.bytecode.club.bytecodeviewer.gui.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.gui.resourceviewer.viewer.ClassViewer;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The shared worker pool the class viewer panes are decompiled on.
+ *
+ * Queued panes of the most recently opened or selected tab run first, the panes of a tab are cancelled when
+ * it's closed or refreshed, and every pane gets {@link Configuration#paneDecompilerTimeout} seconds once it
+ * starts. A pane that doesn't stop after being interrupted is reported as hung and the pool gets an extra
+ * thread until it returns, so a decompiler stuck in a loop can't starve the other tabs.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class PaneDecompilerPool
+{
+    private static final long HUNG_GRACE_SECONDS = 5;
+    
+    private final AtomicLong ranks = new AtomicLong();
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("Pane Decompiler Watchdog"));
+    private final Map<ClassViewer, List<Job>> jobs = new IdentityHashMap<>();
+    private final List<Job> hung = new ArrayList<>();
+    
+    public PaneDecompilerPool()
+    {
+        this(Configuration.paneDecompilerThreads);
+    }
+    
+    public PaneDecompilerPool(int threads)
+    {
+        this.threads = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), new NamedThreadFactory("Pane Decompiler"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Queues the panes ahead of everything that was queued before them
+     */
+    public synchronized void submit(PaneUpdaterThread... panes)
+    {
+        long rank = ranks.incrementAndGet();
+        
+        for (PaneUpdaterThread pane : panes)
+        {
+            Job job = new Job(pane, rank);
+            jobs.computeIfAbsent(pane.viewer, viewer -> new ArrayList<>()).add(job);
+            executor.execute(job);
+        }
+    }
+    
+    /**
+     * Cancels the queued and running panes of the viewer, used when its tab is closed or refreshed
+     */
+    public synchronized void cancel(ClassViewer viewer)
+    {
+        List<Job> viewerJobs = jobs.remove(viewer);
+        if (viewerJobs == null)
+            return;
+        
+        for (Job job : viewerJobs)
+        {
+            job.pane.cancel();
+            job.cancel(true);
+            executor.remove(job);
+        }
+    }
+    
+    /**
+     * Moves the queued panes of the viewer to the front, used when its tab is selected
+     */
+    public synchronized void prioritize(ClassViewer viewer)
+    {
+        List<Job> viewerJobs = jobs.get(viewer);
+        if (viewerJobs == null)
+            return;
+        
+        long rank = ranks.incrementAndGet();
+        for (Job job : viewerJobs)
+        {
+            //the rank can only change while the job is out of the queue
+            if (executor.getQueue().remove(job))
+            {
+                job.rank = rank;
+                executor.getQueue().add(job);
+            }
+        }
+    }
+    
+    /**
+     * Returns a description of every pane that is still running after it timed out
+     */
+    public synchronized List<String> getHungJobs()
+    {
+        List<String> descriptions = new ArrayList<>();
+        for (Job job : hung)
+            descriptions.add(job.toString());
+        
+        return Collections.unmodifiableList(descriptions);
+    }
+    
+    private synchronized void finished(Job job)
+    {
+        List<Job> viewerJobs = jobs.get(job.pane.viewer);
+        if (viewerJobs != null)
+        {
+            viewerJobs.remove(job);
+            if (viewerJobs.isEmpty())
+                jobs.remove(job.pane.viewer);
+        }
+        
+        if (hung.remove(job))
+        {
+            System.err.println("Pane Decompiler: " + job + " returned after being reported as hung");
+            resize();
+        }
+    }
+    
+    private void timedOut(Job job)
+    {
+        if (!job.running)
+            return;
+        
+        long seconds = Math.max(1, Configuration.paneDecompilerTimeout);
+        System.err.println("Pane Decompiler: " + job + " timed out after " + seconds + " seconds, cancelling it");
+        job.pane.cancel();
+        job.pane.showTimeout(seconds);
+        job.cancel(true);
+        
+        watchdog.schedule(() -> checkHung(job), HUNG_GRACE_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    private synchronized void checkHung(Job job)
+    {
+        if (!job.running)
+            return;
+        
+        System.err.println("Pane Decompiler: " + job + " is hung, it didn't stop after being interrupted");
+        hung.add(job);
+        resize();
+    }
+    
+    /**
+     * Every hung job gets a replacement thread, up to doubling the pool
+     */
+    private void resize()
+    {
+        int size = threads + Math.min(hung.size(), threads);
+        
+        if (size > executor.getMaximumPoolSize())
+        {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        }
+        else if (size < executor.getMaximumPoolSize())
+        {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+    
+    /**
+     * A single pane decompilation, the highest rank runs first and the panes of a viewer keep their order
+     */
+    private class Job extends FutureTask<Void> implements Comparable<Job>
+    {
+        private final PaneUpdaterThread pane;
+        private volatile long rank;
+        private volatile boolean running;
+        
+        private Job(PaneUpdaterThread pane, long rank)
+        {
+            super(pane, null);
+            this.pane = pane;
+            this.rank = rank;
+        }
+        
+        @Override
+        public void run()
+        {
+            if (isDone())
+                return;
+            
+            running = true;
+            ScheduledFuture<?> timeout = watchdog.schedule(() -> timedOut(this),
+                    Math.max(1, Configuration.paneDecompilerTimeout), TimeUnit.SECONDS);
+            
+            try
+            {
+                super.run();
+            }
+            finally
+            {
+                running = false;
+                timeout.cancel(false);
+                
+                //clear an interrupt that arrived after the pane finished, so it doesn't leak into the next job
+                Thread.interrupted();
+                finished(this);
+            }
+        }
+        
+        @Override
+        public int compareTo(Job o)
+        {
+            if (rank != o.rank)
+                return Long.compare(o.rank, rank);
+            
+            return Integer.compare(pane.resourceViewPanel.panelIndex, o.pane.resourceViewPanel.panelIndex);
+        }
+        
+        @Override
+        public String toString()
+        {
+            return pane.resourceViewPanel.decompiler.getDecompilerName() + " on " + pane.viewer.workingName;
+        }
+    }
+}
@@ -54,7 +54,7 @@ public abstract class PaneUpdaterThread implements Runnable
     public final ResourceViewPanel resourceViewPanel;
     public SearchableRSyntaxTextArea updateUpdaterTextArea;
     public JComboBox<Integer> methodsList;
-    private Thread thread;
+    private volatile boolean cancelled;
     
     public PaneUpdaterThread(ClassViewer viewer, ResourceViewPanel resourceViewPanel)
     {
@@ -64,19 +64,42 @@ public abstract class PaneUpdaterThread implements Runnable
     
     public abstract void processDisplay();
     
+    /**
+     * Shows that the decompiler didn't finish in time, called by the pane decompiler pool
+     */
+    public void showTimeout(long seconds) { }
+    
+    /**
+     * Queues this pane on the shared pane decompiler pool
+     */
     public void startNewThread()
     {
-        thread = new Thread(this, "Pane Update");
-        thread.start();
+        BytecodeViewer.paneDecompilerPool.submit(this);
+    }
+    
+    /**
+     * Stops the pane from being updated once the decompiler returns
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+    
+    public boolean isCancelled()
+    {
+        return cancelled;
     }
 
     @Override
     public void run()
     {
-        if(resourceViewPanel.decompiler == Decompiler.NONE)
+        if(resourceViewPanel.decompiler == Decompiler.NONE || cancelled)
             return;
         
         processDisplay();
+        
+        if (cancelled || updateUpdaterTextArea == null)
+            return;
     
         //this still freezes the swing UI
         synchronizePane();
@@ -0,0 +1,223 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.SearchableString;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+import static the.bytecode.club.bytecodeviewer.Constants.nl;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Runs all of the enabled scan modules in a single pass.
+ *
+ * Each class, field and instruction is visited once and handed to every enabled scanner,
+ * string constants are only lower cased once. Classes are scanned in parallel, every worker
+ * writes into its own per module buffers which are merged back in class & module order,
+ * so the output matches scanning the modules one by one.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class FusedMalwareScan
+{
+	private static final int CHUNK_SIZE = 64;
+	
+	private final MalwareScan scan;
+	private final MalwareCodeScanner[] scanners;
+	
+	public FusedMalwareScan(MalwareScan scan)
+	{
+		this.scan = scan;
+		
+		List<MalwareCodeScanner> enabled = new ArrayList<>();
+		for (MalwareScanModule module : MalwareScanModule.values())
+			if (scan.scanOptions.contains(module.name()))
+				enabled.add((MalwareCodeScanner) module.getMalwareScanner());
+		
+		this.scanners = enabled.toArray(new MalwareCodeScanner[0]);
+	}
+	
+	/**
+	 * Scans every class of the scan and appends the results to scan.sb
+	 */
+	public void scan()
+	{
+		if (scanners.length == 0)
+			return;
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Configuration.malwareScanThreads),
+				new NamedThreadFactory("Malware Scanner"));
+		
+		try
+		{
+			List<Future<String>> results = new ArrayList<>();
+			List<List<ClassNode>> chunks = new ArrayList<>();
+			List<ClassNode> chunk = new ArrayList<>(CHUNK_SIZE);
+			
+			for (ClassNode cn : scan.classNodes)
+			{
+				chunk.add(cn);
+				
+				if (chunk.size() == CHUNK_SIZE)
+				{
+					results.add(submit(pool, chunk));
+					chunks.add(chunk);
+					chunk = new ArrayList<>(CHUNK_SIZE);
+				}
+			}
+			
+			if (!chunk.isEmpty())
+			{
+				results.add(submit(pool, chunk));
+				chunks.add(chunk);
+			}
+			
+			//a failed chunk is reported in the results, the chunks after it are still merged
+			for (int i = 0; i < results.size(); i++)
+			{
+				try
+				{
+					scan.sb.append(results.get(i).get());
+				}
+				catch (ExecutionException e)
+				{
+					List<ClassNode> failed = chunks.get(i);
+					scan.sb.append("Failed to scan ").append(failed.size()).append(" classes (")
+							.append(failed.get(0).name).append(" to ").append(failed.get(failed.size() - 1).name)
+							.append("): ").append(e.getCause()).append(nl);
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+	
+	private Future<String> submit(ExecutorService pool, List<ClassNode> chunk)
+	{
+		return pool.submit(() ->
+		{
+			Buffers buffers = new Buffers();
+			
+			for (ClassNode cn : chunk)
+			{
+				scanClass(cn, buffers);
+				buffers.flushClass();
+			}
+			
+			return buffers.output.toString();
+		});
+	}
+	
+	/**
+	 * Visits the class once, every event is handed to all of the enabled scanners
+	 */
+	public void scanClass(ClassNode cn, Buffers buffers)
+	{
+		for (FieldNode field : cn.fields)
+		{
+			Object fieldValue = field.value;
+			
+			//scan strings
+			if (fieldValue instanceof String)
+				fieldString(cn, field, (String) fieldValue, buffers);
+			
+			//scan string array
+			else if (fieldValue instanceof String[])
+				for (String s : (String[]) fieldValue)
+					fieldString(cn, field, s, buffers);
+		}
+		
+		for (MethodNode method : cn.methods)
+		{
+			for (AbstractInsnNode instruction = method.instructions.getFirst(); instruction != null;
+			     instruction = instruction.getNext())
+			{
+				methodInstruction(cn, method, instruction, buffers);
+				
+				if (instruction instanceof LdcInsnNode && ((LdcInsnNode) instruction).cst instanceof String)
+					methodString(cn, method, (String) ((LdcInsnNode) instruction).cst, buffers);
+			}
+		}
+	}
+	
+	public void fieldString(ClassNode cn, FieldNode field, String string, Buffers buffers)
+	{
+		SearchableString searchable = new SearchableString(string);
+		for (int i = 0; i < scanners.length; i++)
+			scanners[i].scanFieldString(buffers.scans[i], cn, field, searchable);
+	}
+	
+	public void methodString(ClassNode cn, MethodNode method, String string, Buffers buffers)
+	{
+		SearchableString searchable = new SearchableString(string);
+		for (int i = 0; i < scanners.length; i++)
+			scanners[i].scanMethodString(buffers.scans[i], cn, method, searchable);
+	}
+	
+	public void methodInstruction(ClassNode cn, MethodNode method, AbstractInsnNode instruction, Buffers buffers)
+	{
+		for (int i = 0; i < scanners.length; i++)
+			scanners[i].scanMethodInstruction(buffers.scans[i], cn, method, instruction);
+	}
+	
+	/**
+	 * The per worker output, one buffer for each enabled scanner
+	 */
+	public class Buffers
+	{
+		private final MalwareScan[] scans = new MalwareScan[scanners.length];
+		public final StringBuilder output = new StringBuilder();
+		
+		public Buffers()
+		{
+			for (int i = 0; i < scans.length; i++)
+				scans[i] = new MalwareScan(scan.classNodes, new StringBuilder(), scan.scanOptions);
+		}
+		
+		/**
+		 * Moves the results of the current class to the output, in module order
+		 */
+		public void flushClass()
+		{
+			for (MalwareScan moduleScan : scans)
+			{
+				output.append(moduleScan.sb);
+				moduleScan.sb.setLength(0);
+			}
+		}
+	}
+}
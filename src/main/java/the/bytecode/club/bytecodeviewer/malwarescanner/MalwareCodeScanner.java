@@ -109,7 +109,7 @@ public abstract class MalwareCodeScanner implements CodeScanner
 		String header = String.format("%30s", (module.getReadableName() + " ->\t"));
 		
 		//TODO display the file container for this specific ClassNode
-		if(BytecodeViewer.viewer.showFileInTabTitle.isSelected())
+		if(BytecodeViewer.viewer != null && BytecodeViewer.viewer.showFileInTabTitle.isSelected())
 			header += "{fileContainerGoesHere}\t";
 		
 		return header;
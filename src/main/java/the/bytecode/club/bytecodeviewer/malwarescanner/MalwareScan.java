@@ -34,13 +34,31 @@ import java.util.HashSet;
  */
 public class MalwareScan
 {
+	/**
+	 * The classes being scanned, this is null unless the scan was created from an ArrayList
+	 * (the classes are usually streamed from their containers)
+	 *
+	 * @deprecated use {@link #classNodes}, it also holds the streamed classes
+	 */
+	@Deprecated
 	public final ArrayList<ClassNode> classNodeList;
+	public final Iterable<ClassNode> classNodes;
 	public final StringBuilder sb;
 	public final HashSet<String> scanOptions;
 	
+	/**
+	 * @deprecated use {@link #MalwareScan(Iterable, StringBuilder, HashSet)}
+	 */
+	@Deprecated
 	public MalwareScan(ArrayList<ClassNode> classNodeList, StringBuilder sb, HashSet<String> scanOptions)
 	{
-		this.classNodeList = classNodeList;
+		this((Iterable<ClassNode>) classNodeList, sb, scanOptions);
+	}
+	
+	public MalwareScan(Iterable<ClassNode> classNodes, StringBuilder sb, HashSet<String> scanOptions)
+	{
+		this.classNodeList = classNodes instanceof ArrayList ? (ArrayList<ClassNode>) classNodes : null;
+		this.classNodes = classNodes;
 		this.sb = sb;
 		this.scanOptions = scanOptions;
 	}
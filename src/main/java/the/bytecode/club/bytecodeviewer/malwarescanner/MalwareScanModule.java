@@ -1,7 +1,6 @@
 package the.bytecode.club.bytecodeviewer.malwarescanner;
 
 import org.apache.commons.text.WordUtils;
-import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.malwarescanner.impl.*;
 
 /***************************************************************************
@@ -37,6 +36,7 @@ public enum MalwareScanModule
 	JAVA_IO_SCANNER("Scan Java IO", new JavaIOScanner(), false),
 	AWT_ROBOT_SCANNER("Scan AWT Robot", new AWTRobotScanner(), true),
 	NULL_SECURITY_MANAGER("Scan Null SecurityManager", new NullSecurityManagerScanner(), true),
+	IOC_SCANNER("Scan Indicators Of Compromise", new IOCScanner(), false),
 	;
 	
 	static
@@ -80,11 +80,7 @@ public enum MalwareScanModule
 	
 	public static void performScan(MalwareScan scan)
 	{
-		for (ClassNode cn : scan.classNodeList)
-		{
-			for (MalwareScanModule module : values())
-				if(scan.scanOptions.contains(module.name()))
-					module.malwareScanner.scanningClass(scan, cn);
-		}
+		//all of the enabled modules share a single pass over the classes
+		new FusedMalwareScan(scan).scan();
 	}
 }
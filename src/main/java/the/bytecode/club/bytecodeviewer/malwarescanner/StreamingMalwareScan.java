@@ -0,0 +1,426 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.IOUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+import static the.bytecode.club.bytecodeviewer.Constants.nl;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Scans class files straight from their bytes, without importing them or building the ClassNode trees.
+ *
+ * The classes are read with a ClassVisitor (skipping frames & debug info) and every field constant and
+ * instruction is handed to the enabled scanners as it's visited. Only a shell ClassNode / MethodNode and
+ * the current instruction are created, so memory stays flat no matter how big the archive is.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class StreamingMalwareScan implements Closeable
+{
+	private static final int CHUNK_SIZE = 64;
+	private static final int CLASS_MAGIC = 0xCAFEBABE;
+	
+	private final FusedMalwareScan fused;
+	private final ExecutorService pool;
+	//bounds the classes that have been read but not scanned yet
+	private final Semaphore pending;
+	private final AtomicInteger classCount = new AtomicInteger();
+	private final AtomicInteger errorCount = new AtomicInteger();
+	
+	public StreamingMalwareScan(HashSet<String> scanOptions, int threads)
+	{
+		this.fused = new FusedMalwareScan(new MalwareScan(Collections.emptyList(), new StringBuilder(), scanOptions));
+		this.pool = Executors.newFixedThreadPool(Math.max(1, threads), new NamedThreadFactory("Malware Scanner"));
+		this.pending = new Semaphore(Math.max(1, threads) * 2);
+	}
+	
+	/**
+	 * Scans a class file or any zip based archive (jar, zip, war..), returns the scan results
+	 */
+	public String scan(File file) throws IOException
+	{
+		ChunkedScan scan = new ChunkedScan();
+		
+		try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file)))
+		{
+			in.mark(4);
+			int magic = (in.read() << 24) | (in.read() << 16) | (in.read() << 8) | in.read();
+			in.reset();
+			
+			if (magic == CLASS_MAGIC)
+			{
+				scan.add(IOUtils.toByteArray(in));
+			}
+			else
+			{
+				ZipInputStream zip = new ZipInputStream(in);
+				ZipEntry entry;
+				
+				while ((entry = zip.getNextEntry()) != null)
+					if (!entry.isDirectory() && entry.getName().endsWith(".class"))
+						scan.add(IOUtils.toByteArray(zip));
+			}
+		}
+		
+		return scan.finish();
+	}
+	
+	/**
+	 * Scans already loaded class bytes, returns the scan results
+	 */
+	public String scan(Iterable<byte[]> classes)
+	{
+		ChunkedScan scan = new ChunkedScan();
+		
+		for (byte[] bytes : classes)
+			scan.add(bytes);
+		
+		return scan.finish();
+	}
+	
+	/**
+	 * Returns the number of classes that have been scanned
+	 */
+	public int getClassCount()
+	{
+		return classCount.get();
+	}
+	
+	/**
+	 * Returns the number of class files that couldn't be parsed
+	 */
+	public int getErrorCount()
+	{
+		return errorCount.get();
+	}
+	
+	@Override
+	public void close()
+	{
+		pool.shutdownNow();
+	}
+	
+	/**
+	 * Visits a single class file, the output goes into the worker's buffers
+	 */
+	public void scanClass(byte[] bytes, FusedMalwareScan.Buffers buffers)
+	{
+		try
+		{
+			new ClassReader(bytes).accept(new ScanClassVisitor(buffers), ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			classCount.incrementAndGet();
+		}
+		catch (Exception e)
+		{
+			//malformed or intentionally broken class files are common in samples
+			errorCount.incrementAndGet();
+		}
+		
+		buffers.flushClass();
+	}
+	
+	/**
+	 * Groups the classes into chunks for the pool and collects the results in order
+	 */
+	private class ChunkedScan
+	{
+		private final List<Future<String>> results = new ArrayList<>();
+		private final List<Integer> chunkSizes = new ArrayList<>();
+		private List<byte[]> chunk = new ArrayList<>(CHUNK_SIZE);
+		
+		private void add(byte[] bytes)
+		{
+			if (bytes == null || bytes.length < 4)
+				return;
+			
+			chunk.add(bytes);
+			if (chunk.size() == CHUNK_SIZE)
+				submit();
+		}
+		
+		private void submit()
+		{
+			final List<byte[]> classes = chunk;
+			chunk = new ArrayList<>(CHUNK_SIZE);
+			
+			pending.acquireUninterruptibly();
+			chunkSizes.add(classes.size());
+			results.add(pool.submit(() ->
+			{
+				try
+				{
+					FusedMalwareScan.Buffers buffers = fused.new Buffers();
+					for (byte[] bytes : classes)
+						scanClass(bytes, buffers);
+					
+					return buffers.output.toString();
+				}
+				finally
+				{
+					pending.release();
+				}
+			}));
+		}
+		
+		private String finish()
+		{
+			if (!chunk.isEmpty())
+				submit();
+			
+			StringBuilder sb = new StringBuilder();
+			
+			//a failed chunk is reported in the results, the chunks after it are still merged
+			for (int i = 0; i < results.size(); i++)
+			{
+				try
+				{
+					sb.append(results.get(i).get());
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					break;
+				}
+				catch (ExecutionException e)
+				{
+					sb.append("Failed to scan a chunk of ").append(chunkSizes.get(i)).append(" classes: ")
+							.append(e.getCause()).append(nl);
+				}
+			}
+			
+			return sb.toString();
+		}
+	}
+	
+	/**
+	 * Creates a shell ClassNode with the class details, the members are passed on without being stored
+	 */
+	private class ScanClassVisitor extends ClassVisitor
+	{
+		private final FusedMalwareScan.Buffers buffers;
+		private final ClassNode cn = new ClassNode();
+		
+		private ScanClassVisitor(FusedMalwareScan.Buffers buffers)
+		{
+			super(Opcodes.ASM9);
+			this.buffers = buffers;
+		}
+		
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName,
+		                  String[] interfaces)
+		{
+			cn.visit(version, access, name, signature, superName, interfaces);
+		}
+		
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature,
+		                               Object value)
+		{
+			if (value instanceof String)
+				fused.fieldString(cn, new FieldNode(access, name, descriptor, signature, value), (String) value, buffers);
+			
+			return null;
+		}
+		
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+		                                 String[] exceptions)
+		{
+			return new ScanMethodVisitor(cn, new MethodNode(access, name, descriptor, signature, exceptions), buffers);
+		}
+	}
+	
+	/**
+	 * Turns each visited instruction into its instruction node and hands it to the scanners,
+	 * only the previous node is kept linked so the scanners can look one instruction back
+	 */
+	private class ScanMethodVisitor extends MethodVisitor
+	{
+		private final ClassNode cn;
+		private final MethodNode method;
+		private final FusedMalwareScan.Buffers buffers;
+		private final InsnList window = new InsnList();
+		private final HashMap<Label, LabelNode> labels = new HashMap<>();
+		
+		private ScanMethodVisitor(ClassNode cn, MethodNode method, FusedMalwareScan.Buffers buffers)
+		{
+			super(Opcodes.ASM9);
+			this.cn = cn;
+			this.method = method;
+			this.buffers = buffers;
+		}
+		
+		private void emit(AbstractInsnNode instruction)
+		{
+			window.add(instruction);
+			if (window.size() > 2)
+				window.remove(window.getFirst());
+			
+			fused.methodInstruction(cn, method, instruction, buffers);
+			
+			if (instruction instanceof LdcInsnNode && ((LdcInsnNode) instruction).cst instanceof String)
+				fused.methodString(cn, method, (String) ((LdcInsnNode) instruction).cst, buffers);
+		}
+		
+		private LabelNode getLabelNode(Label label)
+		{
+			return labels.computeIfAbsent(label, l -> new LabelNode());
+		}
+		
+		private LabelNode[] getLabelNodes(Label[] labels)
+		{
+			LabelNode[] nodes = new LabelNode[labels.length];
+			for (int i = 0; i < labels.length; i++)
+				nodes[i] = getLabelNode(labels[i]);
+			return nodes;
+		}
+		
+		@Override
+		public void visitInsn(int opcode)
+		{
+			emit(new InsnNode(opcode));
+		}
+		
+		@Override
+		public void visitIntInsn(int opcode, int operand)
+		{
+			emit(new IntInsnNode(opcode, operand));
+		}
+		
+		@Override
+		public void visitVarInsn(int opcode, int var)
+		{
+			emit(new VarInsnNode(opcode, var));
+		}
+		
+		@Override
+		public void visitTypeInsn(int opcode, String type)
+		{
+			emit(new TypeInsnNode(opcode, type));
+		}
+		
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor)
+		{
+			emit(new FieldInsnNode(opcode, owner, name, descriptor));
+		}
+		
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface)
+		{
+			emit(new MethodInsnNode(opcode, owner, name, descriptor, isInterface));
+		}
+		
+		@Override
+		public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+		                                   Object... bootstrapMethodArguments)
+		{
+			emit(new InvokeDynamicInsnNode(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments));
+		}
+		
+		@Override
+		public void visitJumpInsn(int opcode, Label label)
+		{
+			emit(new JumpInsnNode(opcode, getLabelNode(label)));
+		}
+		
+		@Override
+		public void visitLabel(Label label)
+		{
+			emit(getLabelNode(label));
+		}
+		
+		@Override
+		public void visitLdcInsn(Object value)
+		{
+			emit(new LdcInsnNode(value));
+		}
+		
+		@Override
+		public void visitIincInsn(int var, int increment)
+		{
+			emit(new IincInsnNode(var, increment));
+		}
+		
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels)
+		{
+			emit(new TableSwitchInsnNode(min, max, getLabelNode(dflt), getLabelNodes(labels)));
+		}
+		
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels)
+		{
+			emit(new LookupSwitchInsnNode(getLabelNode(dflt), keys, getLabelNodes(labels)));
+		}
+		
+		@Override
+		public void visitMultiANewArrayInsn(String descriptor, int numDimensions)
+		{
+			emit(new MultiANewArrayInsnNode(descriptor, numDimensions));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner.impl;
+
+import org.objectweb.asm.tree.*;
+import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScan;
+import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareCodeScanner;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.IOCRuleSet;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.SearchableString;
+
+import static the.bytecode.club.bytecodeviewer.Constants.nl;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Scans for the indicators of compromise of the IOC rules:
+ *  Any string containing a domain, shell command, class name or listed indicator
+ *  Any string containing a crypto-currency wallet address
+ *  Any instruction referencing one of the listed class names
+ *
+ * URLs & IP addresses are reported by the URL scanner.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class IOCScanner extends MalwareCodeScanner
+{
+	@Override
+	public void scanFieldString(MalwareScan scan, ClassNode cn, FieldNode field, SearchableString string)
+	{
+		for (IOCRuleSet.Rule rule : string.getIOCMatches())
+			if (rule.category != IOCRuleSet.Category.URL && rule.category != IOCRuleSet.Category.IP)
+				found(scan, rule + " in LDC \"" + string.original + "\" at field " + fieldToString(cn, field) + nl);
+	}
+	
+	@Override
+	public void scanMethodString(MalwareScan scan, ClassNode cn, MethodNode method, SearchableString string)
+	{
+		for (IOCRuleSet.Rule rule : string.getIOCMatches())
+			if (rule.category != IOCRuleSet.Category.URL && rule.category != IOCRuleSet.Category.IP)
+				found(scan, rule + " in LDC \"" + string.original + "\" at method " + methodToString(cn, method) + nl);
+	}
+	
+	@Override
+	public void scanMethodInstruction(MalwareScan scan, ClassNode cn, MethodNode method, AbstractInsnNode instruction)
+	{
+		String owner;
+		
+		if (instruction instanceof MethodInsnNode)
+			owner = ((MethodInsnNode) instruction).owner;
+		else if (instruction instanceof FieldInsnNode)
+			owner = ((FieldInsnNode) instruction).owner;
+		else if (instruction instanceof TypeInsnNode)
+			owner = ((TypeInsnNode) instruction).desc;
+		else
+			return;
+		
+		for (IOCRuleSet.Rule rule : IOCRuleSet.getDefault().matchClassName(owner))
+			found(scan, rule + " at " + instructionToString(instruction) + " at " + methodToString(cn, method) + nl);
+	}
+}
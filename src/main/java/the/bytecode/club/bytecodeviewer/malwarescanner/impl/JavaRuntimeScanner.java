@@ -3,6 +3,7 @@ package the.bytecode.club.bytecodeviewer.malwarescanner.impl;
 import org.objectweb.asm.tree.*;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScan;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareCodeScanner;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.AhoCorasick;
 import the.bytecode.club.bytecodeviewer.malwarescanner.util.SearchableString;
 
 import static the.bytecode.club.bytecodeviewer.Constants.nl;
@@ -33,19 +34,23 @@ import static the.bytecode.club.bytecodeviewer.Constants.nl;
  */
 public class JavaRuntimeScanner extends MalwareCodeScanner
 {
+	//the searchable strings are lower case
+	private static final AhoCorasick<String> runtimeStrings = new AhoCorasick<String>()
+			.add("java/lang/runtime", "java/lang/Runtime")
+			.add("java.lang.runtime", "java.lang.Runtime")
+			.compile();
+	
 	@Override
 	public void scanFieldString(MalwareScan scan, ClassNode cn, FieldNode field, SearchableString string)
 	{
-		if(string.searchable.contains("java/lang/Runtime")
-				|| string.searchable.contains("java.lang.Runtime"))
+		if(runtimeStrings.containsAny(string.searchable))
 			foundLDC(scan, string.original, "at field " + fieldToString(cn, field) + nl);
 	}
 	
 	@Override
 	public void scanMethodString(MalwareScan scan, ClassNode cn, MethodNode method, SearchableString string)
 	{
-		if(string.searchable.contains("java/lang/Runtime")
-				|| string.searchable.contains("java.lang.Runtime"))
+		if(runtimeStrings.containsAny(string.searchable))
 			foundLDC(scan, string.original, "at method " + methodToString(cn, method) + nl);
 	}
 	
@@ -1,6 +1,5 @@
 package the.bytecode.club.bytecodeviewer.malwarescanner.impl;
 
-import com.strobel.assembler.ir.OpCode;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareCodeScanner;
@@ -36,8 +35,6 @@ import static the.bytecode.club.bytecodeviewer.Constants.nl;
  */
 public class NullSecurityManagerScanner extends MalwareCodeScanner
 {
-	private int lastInstruction;
-	
 	@Override
 	public void scanFieldString(MalwareScan scan, ClassNode cn, FieldNode field, SearchableString string) { }
 	
@@ -53,21 +50,21 @@ public class NullSecurityManagerScanner extends MalwareCodeScanner
 			final String owner = min.owner;
 			final String name =  min.name;
 			
-			if(lastInstruction == OpCode.ACONST_NULL.getCode()
+			if(previousOpcode(instruction) == Opcodes.ACONST_NULL
 					&& owner.equals("java/lang/System")
 					&& name.equals("setSecurityManager"))
 			{
 				found(scan, "Security Manager set to null at method " + methodToString(cn, method) + nl);
 			}
 		}
-		
-		lastInstruction = instruction.getOpcode();
 	}
 	
-	@Override
-	public void scanningClass(MalwareScan scan, ClassNode cn)
+	/**
+	 * The scanners are shared between the scan threads, so the previous instruction is looked up instead of tracked
+	 */
+	private static int previousOpcode(AbstractInsnNode instruction)
 	{
-		lastInstruction = 0;
-		super.scanningClass(scan, cn);
+		AbstractInsnNode previous = instruction.getPrevious();
+		return previous == null ? 0 : previous.getOpcode();
 	}
-}
\ No newline at end of file
+}
@@ -3,10 +3,9 @@ package the.bytecode.club.bytecodeviewer.malwarescanner.impl;
 import org.objectweb.asm.tree.*;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScan;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareCodeScanner;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.IOCRuleSet;
 import the.bytecode.club.bytecodeviewer.malwarescanner.util.SearchableString;
 
-import java.util.regex.Pattern;
-
 import static the.bytecode.club.bytecodeviewer.Constants.nl;
 
 /***************************************************************************
@@ -32,7 +31,8 @@ import static the.bytecode.club.bytecodeviewer.Constants.nl;
  *  Any string containing www
  *  Any string containing http://
  *  Any string containing https://
- *  Any string matching an IP pattern
+ *  Any string containing an IP address
+ *  Any string containing one of the URL indicators of the IOC rules
  *
  * @author Konloch
  * @author WaterWolf
@@ -40,28 +40,29 @@ import static the.bytecode.club.bytecodeviewer.Constants.nl;
  */
 public class URLScanner extends MalwareCodeScanner
 {
-	private static final Pattern ipPattern = Pattern.compile("\\b\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\b");
-	
 	@Override
 	public void scanFieldString(MalwareScan scan, ClassNode cn, FieldNode field, SearchableString string)
 	{
-		if (string.searchable.contains("www.")
-				|| string.searchable.contains("http://")
-				|| string.searchable.contains("https://")
-				|| ipPattern.matcher(string.searchable).matches())
+		if (isURL(string))
 			foundLDC(scan, string.original, "at field " + fieldToString(cn, field) + nl);
 	}
 	
 	@Override
 	public void scanMethodString(MalwareScan scan, ClassNode cn, MethodNode method, SearchableString string)
 	{
-		if (string.searchable.contains("www.")
-				|| string.searchable.contains("http://")
-				|| string.searchable.contains("https://")
-				|| ipPattern.matcher(string.searchable).matches())
+		if (isURL(string))
 			foundLDC(scan, string.original, "at method " + methodToString(cn, method) + nl);
 	}
 	
 	@Override
 	public void scanMethodInstruction(MalwareScan scan, ClassNode cn, MethodNode method, AbstractInsnNode instruction) { }
+	
+	private static boolean isURL(SearchableString string)
+	{
+		for (IOCRuleSet.Rule rule : string.getIOCMatches())
+			if (rule.category == IOCRuleSet.Category.URL || rule.category == IOCRuleSet.Category.IP)
+				return true;
+		
+		return false;
+	}
 }
\ No newline at end of file
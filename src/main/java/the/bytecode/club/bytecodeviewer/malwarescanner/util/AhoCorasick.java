@@ -0,0 +1,254 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Matches any number of literal patterns against a string in a single pass (Aho-Corasick).
+ *
+ * The match time only depends on the length of the string and the number of matches,
+ * so adding more patterns doesn't make the scan slower.
+ *
+ * Add the patterns with add, then call compile once before matching.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class AhoCorasick<T>
+{
+	private static final char[] NO_KEYS = new char[0];
+	private static final int[] NO_TARGETS = new int[0];
+	private static final int[] NO_OUTPUTS = new int[0];
+	
+	//the trie is built with maps then flattened into sorted arrays by compile
+	private List<TreeMap<Character, Integer>> trieBuilder = new ArrayList<>();
+	private List<List<Integer>> outputBuilder = new ArrayList<>();
+	private final List<T> values = new ArrayList<>();
+	
+	private char[][] keys;
+	private int[][] targets;
+	private int[] fail;
+	//the closest state with an output along the fail links, -1 if there isn't one
+	private int[] outputLink;
+	private int[][] outputs;
+	
+	public AhoCorasick()
+	{
+		newState();
+	}
+	
+	/**
+	 * Adds a literal pattern, empty patterns are ignored
+	 */
+	public AhoCorasick<T> add(String pattern, T value)
+	{
+		if (trieBuilder == null)
+			throw new IllegalStateException("The patterns have already been compiled");
+		
+		if (pattern.isEmpty())
+			return this;
+		
+		int state = 0;
+		for (int i = 0; i < pattern.length(); i++)
+		{
+			Integer next = trieBuilder.get(state).get(pattern.charAt(i));
+			
+			if (next == null)
+			{
+				next = newState();
+				trieBuilder.get(state).put(pattern.charAt(i), next);
+			}
+			
+			state = next;
+		}
+		
+		if (outputBuilder.get(state) == null)
+			outputBuilder.set(state, new ArrayList<>(1));
+		
+		outputBuilder.get(state).add(values.size());
+		values.add(value);
+		return this;
+	}
+	
+	/**
+	 * Builds the fail links, no patterns can be added after this
+	 */
+	public AhoCorasick<T> compile()
+	{
+		if (trieBuilder == null)
+			return this;
+		
+		int states = trieBuilder.size();
+		keys = new char[states][];
+		targets = new int[states][];
+		outputs = new int[states][];
+		fail = new int[states];
+		outputLink = new int[states];
+		
+		for (int state = 0; state < states; state++)
+		{
+			TreeMap<Character, Integer> children = trieBuilder.get(state);
+			
+			if (children.isEmpty())
+			{
+				keys[state] = NO_KEYS;
+				targets[state] = NO_TARGETS;
+			}
+			else
+			{
+				keys[state] = new char[children.size()];
+				targets[state] = new int[children.size()];
+				
+				int i = 0;
+				for (Map.Entry<Character, Integer> child : children.entrySet())
+				{
+					keys[state][i] = child.getKey();
+					targets[state][i++] = child.getValue();
+				}
+			}
+			
+			List<Integer> out = outputBuilder.get(state);
+			outputs[state] = out == null ? NO_OUTPUTS : out.stream().mapToInt(Integer::intValue).toArray();
+		}
+		
+		trieBuilder = null;
+		outputBuilder = null;
+		
+		//breadth first, so the fail state of every parent is known before its children
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		outputLink[0] = -1;
+		
+		for (int child : targets[0])
+		{
+			fail[child] = 0;
+			outputLink[child] = -1;
+			queue.add(child);
+		}
+		
+		while (!queue.isEmpty())
+		{
+			int state = queue.poll();
+			
+			for (int i = 0; i < keys[state].length; i++)
+			{
+				char c = keys[state][i];
+				int child = targets[state][i];
+				
+				int f = fail[state];
+				int next;
+				while ((next = step(f, c)) == -1 && f != 0)
+					f = fail[f];
+				
+				fail[child] = next == -1 ? 0 : next;
+				outputLink[child] = outputs[fail[child]].length > 0 ? fail[child] : outputLink[fail[child]];
+				queue.add(child);
+			}
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Passes the value of every pattern found inside of the text, once per occurrence
+	 */
+	public void match(String text, Consumer<T> consumer)
+	{
+		int state = 0;
+		
+		for (int i = 0; i < text.length(); i++)
+		{
+			state = next(state, text.charAt(i));
+			
+			for (int out = outputs[state].length > 0 ? state : outputLink[state]; out != -1; out = outputLink[out])
+				for (int value : outputs[out])
+					consumer.accept(values.get(value));
+		}
+	}
+	
+	/**
+	 * Returns the values of the patterns found inside of the text, each value at most once in the order found
+	 */
+	public List<T> matches(String text)
+	{
+		List<T> matches = new ArrayList<>();
+		
+		match(text, value ->
+		{
+			if (!matches.contains(value))
+				matches.add(value);
+		});
+		
+		return matches;
+	}
+	
+	/**
+	 * Returns true if any of the patterns is found inside of the text
+	 */
+	public boolean containsAny(String text)
+	{
+		int state = 0;
+		
+		for (int i = 0; i < text.length(); i++)
+		{
+			state = next(state, text.charAt(i));
+			
+			if (outputs[state].length > 0 || outputLink[state] != -1)
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the amount of patterns
+	 */
+	public int size()
+	{
+		return values.size();
+	}
+	
+	private int next(int state, char c)
+	{
+		int next;
+		while ((next = step(state, c)) == -1 && state != 0)
+			state = fail[state];
+		
+		return next == -1 ? 0 : next;
+	}
+	
+	private int step(int state, char c)
+	{
+		int index = Arrays.binarySearch(keys[state], c);
+		return index < 0 ? -1 : targets[state][index];
+	}
+	
+	private int newState()
+	{
+		trieBuilder.add(new TreeMap<>());
+		outputBuilder.add(null);
+		return trieBuilder.size() - 1;
+	}
+}
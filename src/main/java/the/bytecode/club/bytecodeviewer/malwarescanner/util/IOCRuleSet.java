@@ -0,0 +1,389 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.apache.commons.lang3.StringUtils;
+import the.bytecode.club.bytecodeviewer.Configuration;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A set of indicators of compromise (URLs, domains, shell commands, class names..) compiled into a single
+ * multi-pattern matcher, plus the formats that can't be listed (IP addresses & crypto-currency wallets).
+ *
+ * Rule lists are plain text, one indicator per line. Lines starting with # are comments and a [category]
+ * line sets the category of the indicators below it, for example:
+ *
+ *  [domain]
+ *  evil.example.com
+ *  [shell_command]
+ *  curl -s
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class IOCRuleSet
+{
+	private static final String DEFAULT_RULES = "malware/iocs.txt";
+	private static final String BASE58 = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+	private static final String BECH32 = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
+	
+	private static volatile IOCRuleSet defaultRules;
+	
+	//matched against the lower case strings
+	private final AhoCorasick<Rule> stringRules = new AhoCorasick<>();
+	//matched against the internal class names of the instructions
+	private final AhoCorasick<Rule> classRules = new AhoCorasick<>();
+	private boolean compiled;
+	//the Configuration.iocRuleFiles the default rules were loaded with
+	private String ruleFiles = "";
+	
+	/**
+	 * Returns the built in rules plus the rule files set in Configuration.iocRuleFiles
+	 */
+	public static IOCRuleSet getDefault()
+	{
+		IOCRuleSet rules = defaultRules;
+		if (rules != null && rules.ruleFiles.equals(Configuration.iocRuleFiles))
+			return rules;
+		
+		return loadDefault();
+	}
+	
+	private static synchronized IOCRuleSet loadDefault()
+	{
+		if (defaultRules == null || !defaultRules.ruleFiles.equals(Configuration.iocRuleFiles))
+		{
+			IOCRuleSet rules = new IOCRuleSet();
+			
+			try (InputStream is = IOCRuleSet.class.getClassLoader().getResourceAsStream(DEFAULT_RULES))
+			{
+				if (is != null)
+					rules.load(new InputStreamReader(is, StandardCharsets.UTF_8));
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+			
+			for (String path : StringUtils.split(Configuration.iocRuleFiles, File.pathSeparatorChar))
+			{
+				try
+				{
+					rules.load(new File(path.trim()));
+				}
+				catch (IOException e)
+				{
+					System.err.println("Failed to load the IOC rules " + path + ": " + e);
+				}
+			}
+			
+			rules.ruleFiles = Configuration.iocRuleFiles;
+			defaultRules = rules.compile();
+		}
+		
+		return defaultRules;
+	}
+	
+	public IOCRuleSet load(File file) throws IOException
+	{
+		return load(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Adds every rule of the rule list, the reader is closed afterwards
+	 */
+	public IOCRuleSet load(Reader reader) throws IOException
+	{
+		Category category = Category.INDICATOR;
+		
+		try (BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader))
+		{
+			String line;
+			while ((line = br.readLine()) != null)
+			{
+				line = line.trim();
+				
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				
+				if (line.startsWith("[") && line.endsWith("]"))
+					category = Category.forName(line.substring(1, line.length() - 1));
+				else
+					add(category, line);
+			}
+		}
+		
+		return this;
+	}
+	
+	public IOCRuleSet add(Category category, String indicator)
+	{
+		if (compiled)
+			throw new IllegalStateException("The rules have already been compiled");
+		
+		Rule rule = new Rule(category, indicator);
+		stringRules.add(indicator.toLowerCase(Locale.ROOT), rule);
+		
+		//class names are also looked for in their source form inside of the strings
+		if (category == Category.CLASS_NAME)
+		{
+			String internalName = indicator.replace('.', '/');
+			classRules.add(internalName, rule);
+			stringRules.add(internalName.replace('/', '.').toLowerCase(Locale.ROOT), rule);
+			
+			if (!internalName.equals(indicator))
+				stringRules.add(internalName.toLowerCase(Locale.ROOT), rule);
+		}
+		
+		return this;
+	}
+	
+	public IOCRuleSet compile()
+	{
+		stringRules.compile();
+		classRules.compile();
+		compiled = true;
+		return this;
+	}
+	
+	/**
+	 * Returns the number of string patterns, class names are counted for each of their forms
+	 */
+	public int size()
+	{
+		return stringRules.size();
+	}
+	
+	/**
+	 * Returns the rules matching the string, each rule at most once
+	 */
+	public List<Rule> matchString(SearchableString string)
+	{
+		List<Rule> matches = stringRules.matches(string.searchable);
+		matchFormats(string.original, matches);
+		return matches;
+	}
+	
+	/**
+	 * Returns the class name rules matching the internal class name
+	 */
+	public List<Rule> matchClassName(String internalName)
+	{
+		return classRules.matches(internalName);
+	}
+	
+	/**
+	 * Splits the string into words and checks each word for the IP & wallet formats, in one pass.
+	 *
+	 * Dots are part of a word so the IP addresses stay whole, but leading & trailing dots are trimmed so an
+	 * address ending a sentence still matches. An IP address touching a - _ or + is part of a version string
+	 * (1.0.0.0-SNAPSHOT, 1.2.3.4_01) and is skipped.
+	 */
+	private static void matchFormats(String string, List<Rule> matches)
+	{
+		int wordStart = -1;
+		
+		for (int i = 0; i <= string.length(); i++)
+		{
+			boolean wordChar = i < string.length()
+					&& (Character.isLetterOrDigit(string.charAt(i)) || string.charAt(i) == '.');
+			
+			if (wordChar && wordStart == -1)
+				wordStart = i;
+			else if (!wordChar && wordStart != -1)
+			{
+				int start = wordStart;
+				int end = i;
+				
+				while (start < end && string.charAt(start) == '.')
+					start++;
+				while (end > start && string.charAt(end - 1) == '.')
+					end--;
+				
+				Category format = start < end ? getFormat(string, start, end) : null;
+				
+				if (format == Category.IP && (isVersionAffix(string, wordStart - 1) || isVersionAffix(string, i)))
+					format = null;
+				
+				if (format != null)
+				{
+					Rule rule = new Rule(format, string.substring(start, end));
+					if (!matches.contains(rule))
+						matches.add(rule);
+				}
+				
+				wordStart = -1;
+			}
+		}
+	}
+	
+	private static boolean isVersionAffix(String string, int index)
+	{
+		if (index < 0 || index >= string.length())
+			return false;
+		
+		char c = string.charAt(index);
+		return c == '-' || c == '_' || c == '+';
+	}
+	
+	private static Category getFormat(String string, int start, int end)
+	{
+		int length = end - start;
+		char first = string.charAt(start);
+		
+		if (length >= 7 && length <= 15 && Character.isDigit(first) && isIPAddress(string, start, end))
+			return Category.IP;
+		
+		//ethereum
+		if (length == 42 && first == '0' && string.charAt(start + 1) == 'x' && isOnly(string, start + 2, end, "0123456789abcdefABCDEF"))
+			return Category.WALLET;
+		
+		//bitcoin segwit
+		if (length >= 42 && length <= 62 && string.regionMatches(true, start, "bc1", 0, 3) && isOnly(string, start + 3, end, BECH32))
+			return Category.WALLET;
+		
+		//bitcoin legacy & monero
+		if (((length >= 26 && length <= 35 && (first == '1' || first == '3')) || (length == 95 && (first == '4' || first == '8')))
+				&& isOnly(string, start, end, BASE58) && hasLettersAndDigits(string, start, end))
+			return Category.WALLET;
+		
+		return null;
+	}
+	
+	private static boolean isIPAddress(String string, int start, int end)
+	{
+		int parts = 0;
+		int digits = 0;
+		int value = 0;
+		
+		for (int i = start; i <= end; i++)
+		{
+			char c = i < end ? string.charAt(i) : '.';
+			
+			if (c == '.')
+			{
+				if (digits == 0 || value > 255 || ++parts > 4)
+					return false;
+				
+				//0.x.x.x & x.x.x.0 aren't host addresses, but are common version numbers (1.0.0.0)
+				if (value == 0 && (parts == 1 || parts == 4))
+					return false;
+				
+				digits = 0;
+				value = 0;
+			}
+			else if (c >= '0' && c <= '9' && ++digits <= 3)
+				value = value * 10 + (c - '0');
+			else
+				return false;
+		}
+		
+		return parts == 4;
+	}
+	
+	private static boolean isOnly(String string, int start, int end, String chars)
+	{
+		for (int i = start; i < end; i++)
+			if (chars.indexOf(string.charAt(i)) == -1)
+				return false;
+		
+		return true;
+	}
+	
+	private static boolean hasLettersAndDigits(String string, int start, int end)
+	{
+		boolean letters = false;
+		boolean digits = false;
+		
+		for (int i = start; i < end; i++)
+		{
+			letters |= Character.isLetter(string.charAt(i));
+			digits |= Character.isDigit(string.charAt(i));
+		}
+		
+		return letters && digits;
+	}
+	
+	public enum Category
+	{
+		URL,
+		IP,
+		DOMAIN,
+		WALLET,
+		SHELL_COMMAND,
+		CLASS_NAME,
+		INDICATOR;
+		
+		public static Category forName(String name)
+		{
+			try
+			{
+				return valueOf(name.trim().toUpperCase(Locale.ROOT).replace(' ', '_'));
+			}
+			catch (IllegalArgumentException e)
+			{
+				return INDICATOR;
+			}
+		}
+	}
+	
+	public static class Rule
+	{
+		public final Category category;
+		public final String indicator;
+		
+		public Rule(Category category, String indicator)
+		{
+			this.category = category;
+			this.indicator = indicator;
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Rule))
+				return false;
+			
+			Rule rule = (Rule) o;
+			return category == rule.category && indicator.equals(rule.indicator);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return category.hashCode() * 31 + indicator.hashCode();
+		}
+		
+		@Override
+		public String toString()
+		{
+			return category + " \"" + indicator + "\"";
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package the.bytecode.club.bytecodeviewer.malwarescanner.util;
 
+import java.util.List;
+
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
  * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
@@ -26,10 +28,22 @@ public class SearchableString
 {
 	public final String original;
 	public final String searchable;
+	private List<IOCRuleSet.Rule> iocMatches;
 	
 	public SearchableString(String original)
 	{
 		this.original = original;
 		this.searchable = original.toLowerCase();
 	}
+	
+	/**
+	 * Returns the default IOC rules matching this string, matched once and shared by every scanner
+	 */
+	public List<IOCRuleSet.Rule> getIOCMatches()
+	{
+		if (iocMatches == null)
+			iocMatches = IOCRuleSet.getDefault().matchString(this);
+		
+		return iocMatches;
+	}
 }
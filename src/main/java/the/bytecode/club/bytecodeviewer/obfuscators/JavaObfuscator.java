@@ -1,9 +1,30 @@
 package the.bytecode.club.bytecodeviewer.obfuscators;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.Configuration;
-import the.bytecode.club.bytecodeviewer.util.MiscUtils;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.MappingTable;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.RefactorMapper;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.Refactorer;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -26,19 +47,62 @@ import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 /**
  * An unfinished obfuscator.
  *
+ * Runs a pipeline of {@link ObfuscationPass}es: every class is read once (in parallel), the method families are
+ * built from the whole workspace, then all of the passes run over each class in parallel and the names they picked
+ * are applied by the {@link Refactorer} in a single remap.
+ *
  * @author Konloch
  */
 
-public abstract class JavaObfuscator extends Thread {
+public class JavaObfuscator extends Thread {
+
+    private static final int CHUNK_SIZE = 256;
+
+    public static int MAX_STRING_LENGTH = 25;
+    public static int MIN_STRING_LENGTH = 5;
+
+    private final List<ObfuscationPass> passes;
+
+    public JavaObfuscator(ObfuscationPass... passes) {
+        super("Java Obfuscator");
+        this.passes = Arrays.asList(passes);
+    }
+
+    /**
+     * Runs the passes in the background, unless an obfuscation task is already running
+     */
+    public static void open(ObfuscationPass... passes) {
+        if (Configuration.runningObfuscation) {
+            BytecodeViewer.showMessage("You're currently running an obfuscation task, wait for this to finish.");
+            return;
+        }
+
+        Configuration.runningObfuscation = true;
+        new JavaObfuscator(passes).start();
+    }
 
     @Override
     public void run() {
         BytecodeViewer.updateBusyStatus(true);
         Configuration.runningObfuscation = true;
-        obfuscate();
-        BytecodeViewer.refactorer.run();
-        Configuration.runningObfuscation = false;
-        BytecodeViewer.updateBusyStatus(false);
+
+        try {
+            MappingTable table = obfuscate();
+            RefactorMapper mapper = BytecodeViewer.refactorer.run(table);
+            if (mapper != null)
+                mapper.printMap();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            BytecodeViewer.handleException(e.getCause());
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        } finally {
+            Configuration.runningObfuscation = false;
+            BytecodeViewer.updateBusyStatus(false);
+            BytecodeViewer.viewer.workPane.refreshClass.doClick();
+            BytecodeViewer.viewer.resourcePane.refreshTree();
+        }
     }
 
     public int getStringLength() {
@@ -50,26 +114,113 @@ public abstract class JavaObfuscator extends Thread {
         }
     }
 
-    public static int MAX_STRING_LENGTH = 25;
-    public static int MIN_STRING_LENGTH = 5;
-    private final ArrayList<String> names = new ArrayList<>();
-
-    protected String generateUniqueName(int length) {
-        boolean found = false;
-        String name = "";
-        while (!found) {
-            String nameTry = MiscUtils.randomString(1) + MiscUtils.randomStringNum(length - 1);
-            if (!Character.isJavaIdentifierStart(nameTry.toCharArray()[0]))
-                continue;
+    /**
+     * Runs the passes over the loaded classes
+     *
+     * @return the names the passes picked, nothing has been renamed yet
+     */
+    public MappingTable obfuscate() throws InterruptedException, ExecutionException {
+        StringJoiner names = new StringJoiner(", ");
+        for (ObfuscationPass pass : passes)
+            names.add(pass.getName());
 
-            if (!names.contains(nameTry)) {
-                names.add(nameTry);
-                name = nameTry;
-                found = true;
+        System.out.println("Obfuscating " + names + "...");
+        long start = System.currentTimeMillis();
+        List<ResourceContainer> containers = new ArrayList<>(BytecodeViewer.resourceContainers);
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new NamedThreadFactory("Java Obfuscator"));
+
+        try {
+            //the declarations of every class, the first container wins on duplicates
+            Map<String, ClassNode> classes = new LinkedHashMap<>();
+            Map<String, Set<String>> lambdaMethods = new ConcurrentHashMap<>();
+
+            for (ResourceContainer container : containers)
+                for (List<ClassNode> chunk : Refactorer.invokeChunked(pool, container,
+                        classNames -> readDeclarations(container, classNames, lambdaMethods)))
+                    for (ClassNode cn : chunk)
+                        classes.putIfAbsent(cn.name, cn);
+
+            MethodFamilies methodFamilies = MethodFamilies.build(classes.values(), lambdaMethods);
+            ObfuscationContext context = new ObfuscationContext(classes.keySet(), methodFamilies, getStringLength());
+
+            //every pass runs over a class before moving on to the next one
+            List<ClassNode> classList = new ArrayList<>(classes.values());
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < classList.size(); i += CHUNK_SIZE) {
+                List<ClassNode> chunk = classList.subList(i, Math.min(classList.size(), i + CHUNK_SIZE));
+                futures.add(pool.submit(() -> {
+                    for (ClassNode cn : chunk)
+                        for (ObfuscationPass pass : passes)
+                            pass.obfuscate(context, cn);
+                }));
             }
+
+            for (Future<?> future : futures)
+                future.get();
+
+            MappingTable table = context.toMappingTable();
+            System.out.println("Obfuscated " + names + ", renamed " + table + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+            return table;
+        } finally {
+            pool.shutdownNow();
         }
-        return name;
     }
 
-    public abstract void obfuscate();
+    /**
+     * Reads the declarations of the classes without their code, the code is only scanned for the
+     * interface methods implemented by lambdas since those names are bound at runtime
+     */
+    private static List<ClassNode> readDeclarations(ResourceContainer container, List<String> classNames,
+                                                    Map<String, Set<String>> lambdaMethods) {
+        MethodVisitor lambdaScanner = new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                               Object... bootstrapMethodArguments) {
+                if (!bootstrapMethodHandle.getOwner().equals("java/lang/invoke/LambdaMetafactory"))
+                    return;
+
+                //the erased & instantiated method types, plus the bridges for the alternate metafactory
+                String itf = Type.getReturnType(descriptor).getInternalName();
+                for (Object argument : bootstrapMethodArguments)
+                    if (argument instanceof Type && ((Type) argument).getSort() == Type.METHOD)
+                        lambdaMethods.computeIfAbsent(itf, k -> ConcurrentHashMap.newKeySet())
+                                .add(name + ((Type) argument).getDescriptor());
+            }
+        };
+
+        List<ClassNode> results = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            ClassNode declarations = new ClassNode(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                                 String[] exceptions) {
+                    super.visitMethod(access, name, descriptor, signature, exceptions);
+                    return lambdaScanner;
+                }
+            };
+
+            try {
+                ClassNode cn = container.resourceClasses.get(className);
+                if (cn != null) {
+                    cn.accept(declarations);
+                } else {
+                    byte[] bytes = container.getBytes(className + ".class");
+                    if (bytes == null)
+                        continue;
+
+                    new ClassReader(bytes).accept(declarations, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+                }
+            } catch (Exception e) {
+                //broken classes are left as they are
+                continue;
+            }
+
+            results.add(declarations);
+        }
+
+        return results;
+    }
 }
@@ -0,0 +1,267 @@
+package the.bytecode.club.bytecodeviewer.obfuscators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.MappingTable;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Groups the virtual methods of the workspace into families, a family being every declaration that overrides
+ * (or is overridden by) another one of the family. All of the methods of a family have to be renamed together.
+ *
+ * A family is locked, meaning it can't be renamed, when one of its methods overrides a method of a class outside
+ * of the workspace (or of a class that can't be found), is native or is implemented by a lambda.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class MethodFamilies {
+
+    private static final int LIBRARY = -1;
+
+    //owner -> name + desc -> node of the declared method
+    private final Map<String, Map<String, Integer>> nodes = new HashMap<>();
+    private final List<String> owners = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> descs = new ArrayList<>();
+    private final Map<String, ExternalClass> externalClasses = new HashMap<>();
+    private int[] parent;
+    private boolean[] locked;
+
+    /**
+     * @param classes       the classes of the workspace, the code isn't needed
+     * @param lambdaMethods interface -> the name + desc of the methods implemented by lambdas
+     */
+    public static MethodFamilies build(Collection<ClassNode> classes, Map<String, Set<String>> lambdaMethods) {
+        MethodFamilies families = new MethodFamilies();
+        Map<String, ClassNode> byName = new HashMap<>();
+        List<Integer> nativeMethods = new ArrayList<>();
+
+        for (ClassNode cn : classes) {
+            byName.put(cn.name, cn);
+
+            for (MethodNode m : cn.methods) {
+                if (!isVirtual(m.access, m.name))
+                    continue;
+
+                int node = families.owners.size();
+                families.nodes.computeIfAbsent(cn.name, k -> new HashMap<>()).put(m.name + m.desc, node);
+                families.owners.add(cn.name);
+                families.names.add(m.name);
+                families.descs.add(m.desc);
+
+                if ((m.access & Opcodes.ACC_NATIVE) != 0)
+                    nativeMethods.add(node);
+            }
+        }
+
+        families.parent = new int[families.owners.size()];
+        families.locked = new boolean[families.owners.size()];
+        for (int i = 0; i < families.parent.length; i++)
+            families.parent[i] = i;
+
+        for (int node : nativeMethods)
+            families.lock(node);
+
+        for (ClassNode cn : classes)
+            families.link(cn, byName, lambdaMethods.getOrDefault(cn.name, Collections.emptySet()));
+
+        //fully compressed so the lookups don't write, they're done from multiple threads
+        for (int i = 0; i < families.parent.length; i++)
+            families.parent[i] = families.find(i);
+
+        return families;
+    }
+
+    /**
+     * Returns the family of the method declared by the owner, or -1 if it isn't a virtual method of the workspace
+     * or the family is locked
+     */
+    public int getFamily(String owner, String name, String desc) {
+        Map<String, Integer> declared = nodes.get(owner);
+        Integer node = declared == null ? null : declared.get(name + desc);
+        if (node == null)
+            return -1;
+
+        int family = parent[node];
+        return locked[family] ? -1 : family;
+    }
+
+    /**
+     * Adds every declaration of the named families to the table
+     *
+     * @param familyNames family -> new name
+     */
+    public void putMethods(MappingTable table, Map<Integer, String> familyNames) {
+        for (int i = 0; i < parent.length; i++) {
+            String newName = familyNames.get(parent[i]);
+            if (newName != null)
+                table.putMethod(owners.get(i), names.get(i), descs.get(i), newName);
+        }
+    }
+
+    /**
+     * Joins the methods the class can see under the same name & desc, this covers the overrides as well as
+     * a class tying the methods of its super class & interfaces together
+     */
+    private void link(ClassNode cn, Map<String, ClassNode> classes, Set<String> lambdaMethods) {
+        Map<String, Integer> visible = new HashMap<>(nodes.getOrDefault(cn.name, Collections.emptyMap()));
+        boolean unknownSupertype = false;
+
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        addSupertypes(queue, seen, cn.superName, cn.interfaces);
+
+        while (!queue.isEmpty()) {
+            String type = queue.poll();
+            ClassNode supertype = classes.get(type);
+
+            if (supertype != null) {
+                for (Map.Entry<String, Integer> method : nodes.getOrDefault(type, Collections.emptyMap()).entrySet())
+                    merge(visible, method.getKey(), method.getValue());
+
+                addSupertypes(queue, seen, supertype.superName, supertype.interfaces);
+                continue;
+            }
+
+            ExternalClass external = getExternalClass(type);
+            if (external == null) {
+                unknownSupertype = true;
+                continue;
+            }
+
+            for (String method : external.methods)
+                merge(visible, method, LIBRARY);
+
+            addSupertypes(queue, seen, external.superName, external.interfaces);
+        }
+
+        for (String method : lambdaMethods) {
+            Integer node = visible.get(method);
+            if (node != null && node != LIBRARY)
+                lock(node);
+        }
+
+        //anything could be overridden
+        if (unknownSupertype)
+            for (int node : visible.values())
+                if (node != LIBRARY)
+                    lock(node);
+    }
+
+    private void merge(Map<String, Integer> visible, String method, int node) {
+        Integer previous = visible.putIfAbsent(method, node);
+        if (previous == null || (previous == LIBRARY && node == LIBRARY))
+            return;
+
+        if (previous == LIBRARY)
+            lock(node);
+        else if (node == LIBRARY)
+            lock(previous);
+        else
+            union(previous, node);
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+
+        return node;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b)
+            return;
+
+        parent[b] = a;
+        locked[a] |= locked[b];
+    }
+
+    private void lock(int node) {
+        locked[find(node)] = true;
+    }
+
+    /**
+     * Returns the class from the system class loader (JDK), or null if it can't be found
+     */
+    private ExternalClass getExternalClass(String className) {
+        if (externalClasses.containsKey(className))
+            return externalClasses.get(className);
+
+        ExternalClass external = null;
+        try (InputStream is = ClassLoader.getSystemResourceAsStream(className + ".class")) {
+            if (is != null) {
+                ClassNode cn = new ClassNode();
+                new ClassReader(is).accept(cn, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                external = new ExternalClass(cn);
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+
+        externalClasses.put(className, external);
+        return external;
+    }
+
+    private static void addSupertypes(ArrayDeque<String> queue, Set<String> seen, String superName,
+                                      Collection<String> interfaces) {
+        if (superName != null && seen.add(superName))
+            queue.add(superName);
+
+        for (String itf : interfaces)
+            if (seen.add(itf))
+                queue.add(itf);
+    }
+
+    private static boolean isVirtual(int access, String name) {
+        return !name.startsWith("<") && (access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0;
+    }
+
+    private static class ExternalClass {
+        private final String superName;
+        private final List<String> interfaces;
+        private final Set<String> methods = new HashSet<>();
+
+        private ExternalClass(ClassNode cn) {
+            this.superName = cn.superName;
+            this.interfaces = cn.interfaces;
+
+            for (MethodNode m : cn.methods)
+                if (isVirtual(m.access, m.name))
+                    methods.add(m.name + m.desc);
+        }
+    }
+}
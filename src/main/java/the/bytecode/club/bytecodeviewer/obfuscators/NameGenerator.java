@@ -0,0 +1,101 @@
+package the.bytecode.club.bytecodeviewer.obfuscators;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Generates random looking names that are guaranteed to be unique without having to remember the names
+ * that were already handed out.
+ *
+ * The first characters of every name encode a counter, shuffled with a random affine permutation so the names
+ * don't look sequential, the rest of the name is random filler.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class NameGenerator {
+
+    private static final String START = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final String PART = START + "0123456789";
+    //52 * 62^4 names, small enough for the permutation to be computed without overflowing a long
+    private static final int MAX_UNIQUE_LENGTH = 5;
+
+    private final int length;
+    private final int uniqueLength;
+    private final long capacity;
+    private final long multiplier;
+    private final long offset;
+    private final AtomicLong counter = new AtomicLong();
+
+    public NameGenerator(int length) {
+        if (length < 1)
+            throw new IllegalArgumentException("The name length has to be at least 1");
+
+        this.length = length;
+        this.uniqueLength = Math.min(length, MAX_UNIQUE_LENGTH);
+
+        long capacity = START.length();
+        for (int i = 1; i < uniqueLength; i++)
+            capacity *= PART.length();
+        this.capacity = capacity;
+
+        //the multiplier has to be coprime with the capacity (2^n * 13 * 31^(n - 1)) to give a permutation
+        Random random = new Random();
+        long multiplier;
+        do {
+            multiplier = 1 + (long) (random.nextDouble() * (capacity - 1));
+        } while (capacity > 1 && (multiplier % 2 == 0 || multiplier % 13 == 0 || multiplier % 31 == 0));
+
+        this.multiplier = multiplier;
+        this.offset = (long) (random.nextDouble() * capacity);
+    }
+
+    /**
+     * Returns the next unique name, this is safe to call from multiple threads
+     */
+    public String next() {
+        long index = counter.getAndIncrement();
+        if (index >= capacity)
+            throw new IllegalStateException("Ran out of unique names with a length of " + length);
+
+        long value = (index * multiplier + offset) % capacity;
+        char[] name = new char[length];
+
+        name[0] = START.charAt((int) (value % START.length()));
+        value /= START.length();
+
+        for (int i = 1; i < uniqueLength; i++) {
+            name[i] = PART.charAt((int) (value % PART.length()));
+            value /= PART.length();
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = uniqueLength; i < length; i++)
+            name[i] = PART.charAt(random.nextInt(PART.length()));
+
+        return new String(name);
+    }
+
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,126 @@
+package the.bytecode.club.bytecodeviewer.obfuscators;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.MappingTable;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex.MemberRef;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Collects the names picked by the {@link ObfuscationPass}es, shared by all of the threads of a
+ * {@link JavaObfuscator} run.
+ *
+ * Renaming the same class or member twice returns the name it already got, the methods of a
+ * {@link MethodFamilies family} all share one name.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class ObfuscationContext {
+
+    private final Set<String> classNames;
+    private final MethodFamilies methodFamilies;
+    private final int nameLength;
+    private final Map<Integer, NameGenerator> generators = new ConcurrentHashMap<>();
+    private final Map<String, String> classes = new ConcurrentHashMap<>();
+    private final Map<MemberRef, String> fields = new ConcurrentHashMap<>();
+    //private & static methods, they aren't part of a family
+    private final Map<MemberRef, String> methods = new ConcurrentHashMap<>();
+    private final Map<Integer, String> families = new ConcurrentHashMap<>();
+
+    /**
+     * @param classNames the names of every class of the workspace
+     * @param nameLength the name length picked in the obfuscation menu
+     */
+    public ObfuscationContext(Set<String> classNames, MethodFamilies methodFamilies, int nameLength) {
+        this.classNames = classNames;
+        this.methodFamilies = methodFamilies;
+        this.nameLength = nameLength;
+    }
+
+    public String renameClass(ClassNode cn, int length) {
+        return classes.computeIfAbsent(cn.name, k -> {
+            String name;
+            do {
+                name = generateName(length);
+            } while (classNames.contains(name));
+
+            return name;
+        });
+    }
+
+    public String renameField(ClassNode cn, FieldNode f, int length) {
+        return fields.computeIfAbsent(new MemberRef(cn.name, f.name, f.desc), k -> generateName(length));
+    }
+
+    /**
+     * Renames the method along with its family
+     *
+     * @return the new name, or null if the method can't be renamed
+     */
+    public String renameMethod(ClassNode cn, MethodNode m, int length) {
+        if (m.name.startsWith("<") || (m.access & Opcodes.ACC_NATIVE) != 0)
+            return null;
+
+        if ((m.access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) != 0)
+            return methods.computeIfAbsent(new MemberRef(cn.name, m.name, m.desc), k -> generateName(length));
+
+        int family = methodFamilies.getFamily(cn.name, m.name, m.desc);
+        if (family < 0)
+            return null;
+
+        return families.computeIfAbsent(family, k -> generateName(length));
+    }
+
+    /**
+     * Returns a name that hasn't been handed out yet
+     */
+    public String generateName(int length) {
+        return generators.computeIfAbsent(length, NameGenerator::new).next();
+    }
+
+    public int getNameLength() {
+        return nameLength;
+    }
+
+    /**
+     * Returns every name that was picked, ready for the Refactorer
+     */
+    public MappingTable toMappingTable() {
+        MappingTable table = new MappingTable();
+
+        for (Map.Entry<String, String> entry : classes.entrySet())
+            table.putClass(entry.getKey(), entry.getValue());
+
+        for (Map.Entry<MemberRef, String> entry : fields.entrySet())
+            table.putField(entry.getKey().owner, entry.getKey().name, entry.getKey().desc, entry.getValue());
+
+        for (Map.Entry<MemberRef, String> entry : methods.entrySet())
+            table.putMethod(entry.getKey().owner, entry.getKey().name, entry.getKey().desc, entry.getValue());
+
+        methodFamilies.putMethods(table, families);
+        return table;
+    }
+}
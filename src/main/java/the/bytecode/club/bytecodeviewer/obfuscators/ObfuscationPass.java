@@ -1,8 +1,6 @@
 package the.bytecode.club.bytecodeviewer.obfuscators;
 
 import org.objectweb.asm.tree.ClassNode;
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.api.ASMResourceUtil;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -23,24 +21,25 @@ import the.bytecode.club.bytecodeviewer.api.ASMResourceUtil;
  ***************************************************************************/
 
 /**
- * Rename classes.
+ * A single obfuscation, run by the {@link JavaObfuscator} together with the other passes in one traversal
+ * of the workspace.
  *
- * @author Konloch
+ * The passes don't edit the classes, they pick the new names through the {@link ObfuscationContext} and
+ * everything is remapped in one go once all of the passes are done.
+ *
+ * @author agent
+ * @since 10/18/2026
  */
+public abstract class ObfuscationPass {
 
-public class RenameClasses extends JavaObfuscator {
-
-    @Override
-    public void obfuscate() {
-        int stringLength = getStringLength();
-
-        System.out.println("Obfuscating class names...");
-        for (ClassNode c : BytecodeViewer.getLoadedClasses()) {
-            String newName = generateUniqueName(stringLength);
-            ASMResourceUtil.renameClassNode(c.name, newName);
-            c.name = newName;
-        }
+    /**
+     * Returns what the pass obfuscates, used for the progress messages
+     */
+    public abstract String getName();
 
-        System.out.println("Obfuscated class names.");
-    }
+    /**
+     * Called once for every class of the workspace, from multiple threads at once.
+     * The ClassNode only holds the declarations, the method code isn't read.
+     */
+    public abstract void obfuscate(ObfuscationContext context, ClassNode cn);
 }
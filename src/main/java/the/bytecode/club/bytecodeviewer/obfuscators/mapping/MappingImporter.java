@@ -0,0 +1,548 @@
+package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.util.DialogueUtils;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Reads ProGuard, SRG (CSRG / TSRG), Tiny (v1 / v2) and Enigma mapping files into a {@link MappingTable}.
+ *
+ * The files are streamed line by line and always map the obfuscated names (the names inside of the loaded
+ * classes) to the deobfuscated names, for ProGuard that's the reverse of how the file is written.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class MappingImporter {
+
+    public enum Format {
+        PROGUARD,
+        SRG,
+        CSRG,
+        TSRG,
+        TINY,
+        TINY_V2,
+        ENIGMA
+    }
+
+    /**
+     * Asks for a mapping file and applies it to the loaded classes in the background
+     */
+    public static void open() {
+        if (Configuration.runningObfuscation) {
+            BytecodeViewer.showMessage("You're currently running an obfuscation task, wait for this to finish.");
+            return;
+        }
+
+        File file = DialogueUtils.fileChooser("Select Mappings", "Mappings (ProGuard, SRG, Tiny, Enigma)",
+                "txt", "map", "mapping", "mappings", "srg", "csrg", "tsrg", "tiny");
+        if (file == null)
+            return;
+
+        Configuration.runningObfuscation = true;
+        new Thread(() -> {
+            BytecodeViewer.updateBusyStatus(true);
+            try {
+                long start = System.currentTimeMillis();
+                MappingTable table = read(file);
+                System.out.println("Read " + table + " from " + file.getName() + " in "
+                        + (System.currentTimeMillis() - start) + "ms");
+
+                BytecodeViewer.refactorer.run(table);
+            } catch (Exception e) {
+                BytecodeViewer.handleException(e);
+            } finally {
+                Configuration.runningObfuscation = false;
+                BytecodeViewer.updateBusyStatus(false);
+                BytecodeViewer.viewer.resourcePane.refreshTree();
+            }
+        }, "Mapping Importer").start();
+    }
+
+    /**
+     * Reads the mapping file, the format is detected from the file name & the first line.
+     * A directory is read as Enigma mappings (one .mapping file per class).
+     */
+    public static MappingTable read(File file) throws IOException {
+        MappingTable table = new MappingTable();
+
+        if (file.isDirectory()) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(file.toPath())) {
+                files = walk.filter(path -> path.toString().endsWith(".mapping")).sorted()
+                        .collect(Collectors.toList());
+            }
+
+            for (Path path : files)
+                try (BufferedReader reader = open(path.toFile())) {
+                    readEnigma(reader, table);
+                }
+
+            return table;
+        }
+
+        Format format;
+        try (BufferedReader reader = open(file)) {
+            format = detect(file.getName(), reader.readLine());
+        }
+
+        if (format == null)
+            throw new IOException("Unknown mapping format: " + file.getName());
+
+        try (BufferedReader reader = open(file)) {
+            read(reader, format, table);
+        }
+
+        return table;
+    }
+
+    public static void read(BufferedReader reader, Format format, MappingTable table) throws IOException {
+        switch (format) {
+            case PROGUARD:
+                readProGuard(reader, table);
+                break;
+            case SRG:
+                readSrg(reader, table);
+                break;
+            case CSRG:
+                readCsrg(reader, table);
+                break;
+            case TSRG:
+                readTsrg(reader, table);
+                break;
+            case TINY:
+                readTiny(reader, table);
+                break;
+            case TINY_V2:
+                readTinyV2(reader, table);
+                break;
+            case ENIGMA:
+                readEnigma(reader, table);
+                break;
+        }
+    }
+
+    /**
+     * Returns the mapping format, or null if it isn't known
+     *
+     * @throws IOException if the format is known but can't be read
+     */
+    public static Format detect(String fileName, String firstLine) throws IOException {
+        if (firstLine == null)
+            return null;
+
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+
+        if (firstLine.startsWith("tsrg2 "))
+            throw new IOException("TSRG v2 is not supported");
+
+        if (firstLine.startsWith("tiny\t2\t"))
+            return Format.TINY_V2;
+        if (firstLine.startsWith("v1\t"))
+            return Format.TINY;
+        if (firstLine.startsWith("PK: ") || firstLine.startsWith("CL: ") || firstLine.startsWith("FD: ")
+                || firstLine.startsWith("MD: "))
+            return Format.SRG;
+        if (firstLine.startsWith("CLASS ") || extension.equals("mapping"))
+            return Format.ENIGMA;
+        //CSRG & TSRG can start with a # comment too
+        if (extension.equals("tsrg"))
+            return Format.TSRG;
+        if (extension.equals("csrg"))
+            return Format.CSRG;
+        if (firstLine.startsWith("#") || firstLine.contains(" -> "))
+            return Format.PROGUARD;
+
+        return null;
+    }
+
+    /**
+     * ProGuard maps the original names to the obfuscated ones and uses java names & types:
+     * <pre>
+     * com.example.Foo -> a:
+     *     int count -> a
+     *     1:4:void run(int,java.lang.String):10:13 -> b
+     * </pre>
+     */
+    private static void readProGuard(BufferedReader reader, MappingTable table) throws IOException {
+        //original name -> obfuscated name, the member descriptors use the original names
+        Map<String, String> classes = new HashMap<>();
+        List<String[]> fields = new ArrayList<>();
+        List<String[]> methods = new ArrayList<>();
+        String owner = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.trim().startsWith("#"))
+                continue;
+
+            int arrow = line.indexOf(" -> ");
+            if (arrow < 0)
+                continue;
+
+            if (!Character.isWhitespace(line.charAt(0))) {
+                String original = line.substring(0, arrow).trim().replace('.', '/');
+                owner = line.substring(arrow + 4, line.lastIndexOf(':')).trim().replace('.', '/');
+                classes.put(original, owner);
+
+                if (!original.equals(owner))
+                    table.putClass(owner, original);
+                continue;
+            }
+
+            if (owner == null)
+                continue;
+
+            String member = line.substring(0, arrow).trim();
+            String obfuscated = line.substring(arrow + 4).trim();
+            int space = member.indexOf(' ');
+            if (space < 0)
+                continue;
+
+            //the line numbers in front of the return type
+            String type = member.substring(member.lastIndexOf(':', space) + 1, space);
+            String name = member.substring(space + 1);
+            int paren = name.indexOf('(');
+
+            if (paren < 0) {
+                if (!name.equals(obfuscated))
+                    fields.add(new String[]{owner, obfuscated, javaToDesc(type), name});
+                continue;
+            }
+
+            String arguments = name.substring(paren + 1, name.indexOf(')', paren));
+            name = name.substring(0, paren);
+
+            //inlined methods are written with their original class, they're only used for retracing
+            if (name.indexOf('.') >= 0 || name.equals(obfuscated))
+                continue;
+
+            StringBuilder desc = new StringBuilder("(");
+            if (!arguments.isEmpty())
+                for (String argument : arguments.split(","))
+                    desc.append(javaToDesc(argument.trim()));
+            desc.append(')').append(javaToDesc(type));
+
+            methods.add(new String[]{owner, obfuscated, desc.toString(), name});
+        }
+
+        //the descriptors can only be converted once every class is known
+        for (String[] field : fields)
+            table.putField(field[0], field[1], mapDesc(field[2], classes), field[3]);
+
+        for (String[] method : methods)
+            table.putMethod(method[0], method[1], mapDesc(method[2], classes), method[3]);
+    }
+
+    /**
+     * <pre>
+     * CL: a net/example/Foo
+     * FD: a/b net/example/Foo/count
+     * MD: a/c (La;)V net/example/Foo/run (Lnet/example/Foo;)V
+     * </pre>
+     */
+    private static void readSrg(BufferedReader reader, MappingTable table) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.trim().split(" ");
+
+            if (parts[0].equals("CL:") && parts.length >= 3) {
+                table.putClass(parts[1], parts[2]);
+            } else if (parts[0].equals("FD:") && parts.length >= 3) {
+                int owner = parts[1].lastIndexOf('/');
+                table.putField(parts[1].substring(0, owner), parts[1].substring(owner + 1),
+                        parts.length >= 5 ? parts[2] : null, simpleName(parts[parts.length >= 5 ? 3 : 2]));
+            } else if (parts[0].equals("MD:") && parts.length >= 5) {
+                int owner = parts[1].lastIndexOf('/');
+                table.putMethod(parts[1].substring(0, owner), parts[1].substring(owner + 1), parts[2],
+                        simpleName(parts[3]));
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * a net/example/Foo
+     * a b count
+     * a c (La;)V run
+     * </pre>
+     */
+    private static void readCsrg(BufferedReader reader, MappingTable table) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] parts = line.trim().split(" ");
+            if (parts.length == 2)
+                table.putClass(parts[0], parts[1]);
+            else if (parts.length == 3)
+                table.putField(parts[0], parts[1], null, parts[2]);
+            else if (parts.length == 4)
+                table.putMethod(parts[0], parts[1], parts[2], parts[3]);
+        }
+    }
+
+    /**
+     * <pre>
+     * a net/example/Foo
+     *     b count
+     *     c (La;)V run
+     * </pre>
+     */
+    private static void readTsrg(BufferedReader reader, MappingTable table) throws IOException {
+        String owner = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] parts = line.trim().split(" ");
+            if (!Character.isWhitespace(line.charAt(0))) {
+                owner = parts[0];
+                if (parts.length >= 2)
+                    table.putClass(parts[0], parts[1]);
+            } else if (owner != null) {
+                if (parts.length == 2)
+                    table.putField(owner, parts[0], null, parts[1]);
+                else if (parts.length == 3)
+                    table.putMethod(owner, parts[0], parts[1], parts[2]);
+            }
+        }
+    }
+
+    /**
+     * Maps the first namespace to the last one:
+     * <pre>
+     * v1	official	named
+     * CLASS	a	net/example/Foo
+     * FIELD	a	I	b	count
+     * METHOD	a	(La;)V	c	run
+     * </pre>
+     */
+    private static void readTiny(BufferedReader reader, MappingTable table) throws IOException {
+        String header = reader.readLine();
+        if (header == null)
+            return;
+
+        int target = header.split("\t").length - 2;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.split("\t");
+
+            switch (parts[0]) {
+                case "CLASS":
+                    if (hasName(parts, 1 + target))
+                        table.putClass(parts[1], parts[1 + target]);
+                    break;
+                case "FIELD":
+                    if (hasName(parts, 3 + target))
+                        table.putField(parts[1], parts[3], parts[2], parts[3 + target]);
+                    break;
+                case "METHOD":
+                    if (hasName(parts, 3 + target))
+                        table.putMethod(parts[1], parts[3], parts[2], parts[3 + target]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Maps the first namespace to the last one:
+     * <pre>
+     * tiny	2	0	official	named
+     * c	a	net/example/Foo
+     * 	f	I	b	count
+     * 	m	(La;)V	c	run
+     * 		p	1		value
+     * </pre>
+     */
+    private static void readTinyV2(BufferedReader reader, MappingTable table) throws IOException {
+        String header = reader.readLine();
+        if (header == null)
+            return;
+
+        int target = header.split("\t").length - 4;
+        String owner = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("c\t")) {
+                String[] parts = line.split("\t");
+                owner = parts[1];
+                if (hasName(parts, 1 + target))
+                    table.putClass(owner, parts[1 + target]);
+            } else if (owner != null && (line.startsWith("\tf\t") || line.startsWith("\tm\t"))) {
+                String[] parts = line.substring(1).split("\t");
+                if (!hasName(parts, 2 + target))
+                    continue;
+
+                if (parts[0].equals("f"))
+                    table.putField(owner, parts[2], parts[1], parts[2 + target]);
+                else
+                    table.putMethod(owner, parts[2], parts[1], parts[2 + target]);
+            }
+        }
+    }
+
+    /**
+     * Inner classes are nested inside of their outer class:
+     * <pre>
+     * CLASS a net/example/Foo
+     * 	FIELD b count I
+     * 	METHOD c run (La;)V
+     * 		ARG 1 value
+     * 	CLASS d Bar
+     * </pre>
+     */
+    private static void readEnigma(BufferedReader reader, MappingTable table) throws IOException {
+        //the obfuscated & deobfuscated class names for each indentation level
+        List<String[]> classes = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int depth = 0;
+            while (depth < line.length() && line.charAt(depth) == '\t')
+                depth++;
+
+            String[] parts = line.trim().split(" ");
+            int length = parts.length;
+            if (length > 0 && parts[length - 1].startsWith("ACC:"))
+                length--;
+
+            if (parts[0].equals("CLASS") && length >= 2) {
+                while (classes.size() > depth)
+                    classes.remove(classes.size() - 1);
+
+                String[] outer = depth > 0 && depth <= classes.size() ? classes.get(depth - 1) : null;
+                String obfuscated = parts[1];
+                String deobfuscated = length >= 3 ? parts[2] : null;
+
+                if (outer != null) {
+                    if (!obfuscated.startsWith(outer[0] + "$"))
+                        obfuscated = outer[0] + "$" + obfuscated;
+
+                    if (deobfuscated != null && deobfuscated.indexOf('/') < 0)
+                        deobfuscated = outer[1] + "$" + deobfuscated;
+                }
+
+                if (deobfuscated != null)
+                    table.putClass(obfuscated, deobfuscated);
+                else if (outer != null)
+                    deobfuscated = outer[1] + obfuscated.substring(outer[0].length());
+                else
+                    deobfuscated = obfuscated;
+
+                if (classes.size() == depth)
+                    classes.add(new String[]{obfuscated, deobfuscated});
+            } else if ((parts[0].equals("FIELD") || parts[0].equals("METHOD")) && length == 4
+                    && depth > 0 && depth <= classes.size()) {
+                //FIELD obfuscated deobfuscated desc, unmapped members don't have the deobfuscated name
+                String owner = classes.get(depth - 1)[0];
+
+                if (parts[0].equals("FIELD"))
+                    table.putField(owner, parts[1], parts[3], parts[2]);
+                else
+                    table.putMethod(owner, parts[1], parts[3], parts[2]);
+            }
+        }
+    }
+
+    private static BufferedReader open(File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static boolean hasName(String[] parts, int index) {
+        return index < parts.length && !parts[index].isEmpty();
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Converts a java type (java.lang.String[]) into a descriptor ([Ljava/lang/String;)
+     */
+    private static String javaToDesc(String type) {
+        StringBuilder desc = new StringBuilder();
+        while (type.endsWith("[]")) {
+            desc.append('[');
+            type = type.substring(0, type.length() - 2);
+        }
+
+        switch (type) {
+            case "void": return desc.append('V').toString();
+            case "boolean": return desc.append('Z').toString();
+            case "byte": return desc.append('B').toString();
+            case "char": return desc.append('C').toString();
+            case "short": return desc.append('S').toString();
+            case "int": return desc.append('I').toString();
+            case "long": return desc.append('J').toString();
+            case "float": return desc.append('F').toString();
+            case "double": return desc.append('D').toString();
+            default: return desc.append('L').append(type.replace('.', '/')).append(';').toString();
+        }
+    }
+
+    /**
+     * Replaces the class names inside of the descriptor
+     */
+    private static String mapDesc(String desc, Map<String, String> classes) {
+        StringBuilder mapped = null;
+        int last = 0;
+
+        for (int i = desc.indexOf('L'); i >= 0; i = desc.indexOf('L', i + 1)) {
+            int end = desc.indexOf(';', i);
+            String newName = classes.get(desc.substring(i + 1, end));
+
+            if (newName != null) {
+                if (mapped == null)
+                    mapped = new StringBuilder(desc.length());
+                mapped.append(desc, last, i + 1).append(newName);
+                last = end;
+            }
+
+            i = end;
+        }
+
+        if (mapped == null)
+            return desc;
+
+        return mapped.append(desc, last, desc.length()).toString();
+    }
+}
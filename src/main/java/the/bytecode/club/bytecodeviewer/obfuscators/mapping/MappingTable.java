@@ -0,0 +1,164 @@
+package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.FieldMappingData;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
+import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MethodMappingData;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The class, field & method names to remap, looked up by owner, name & descriptor.
+ *
+ * Every name uses the internal form (a/b/C) and the owners & descriptors always use the names from before the
+ * remapping. Fields can be mapped without a descriptor (SRG), those match any field with the same owner & name.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class MappingTable {
+
+    private final Map<String, ClassMapping> classes = new HashMap<>();
+    private int classCount;
+    private int fieldCount;
+    private int methodCount;
+
+    /**
+     * Builds the table from the names collected by the rename obfuscators
+     */
+    public static MappingTable fromHooks(HookMap hooks) {
+        MappingTable table = new MappingTable();
+
+        for (MappingData hook : hooks.getClasses()) {
+            //inner classes keep their name
+            if (hook.getObfuscatedName().contains("$"))
+                continue;
+
+            table.putClass(hook.getObfuscatedName(), hook.getRefactoredName());
+        }
+
+        for (FieldMappingData hook : hooks.getFields())
+            table.putField(hook.getFieldOwner(), hook.getName().getObfuscatedName(), hook.getDesc(),
+                    hook.getName().getRefactoredName());
+
+        for (MethodMappingData hook : hooks.getMethods())
+            table.putMethod(hook.getMethodOwner(), hook.getMethodName().getObfuscatedName(), hook.getMethodDesc(),
+                    hook.getMethodName().getRefactoredName());
+
+        return table;
+    }
+
+    public void putClass(String name, String newName) {
+        ClassMapping mapping = getOrCreate(name);
+        if (mapping.newName == null)
+            classCount++;
+
+        mapping.newName = newName;
+    }
+
+    /**
+     * @param desc the field descriptor, or null to match the field by name only
+     */
+    public void putField(String owner, String name, String desc, String newName) {
+        if (getOrCreate(owner).fields.computeIfAbsent(name, k -> new HashMap<>(2)).put(desc, newName) == null)
+            fieldCount++;
+    }
+
+    public void putMethod(String owner, String name, String desc, String newName) {
+        if (getOrCreate(owner).methods.computeIfAbsent(name, k -> new HashMap<>(2)).put(desc, newName) == null)
+            methodCount++;
+    }
+
+    /**
+     * Returns the new class name, or null if the class isn't mapped
+     */
+    public String getClassName(String name) {
+        ClassMapping mapping = classes.get(name);
+        return mapping == null ? null : mapping.newName;
+    }
+
+    /**
+     * Returns the new name of the field declared by the owner, or null if it isn't mapped
+     */
+    public String getFieldName(String owner, String name, String desc) {
+        ClassMapping mapping = classes.get(owner);
+        if (mapping == null)
+            return null;
+
+        Map<String, String> descs = mapping.fields.get(name);
+        if (descs == null)
+            return null;
+
+        String newName = descs.get(desc);
+        return newName != null ? newName : descs.get(null);
+    }
+
+    /**
+     * Returns the new name of the method declared by the owner, or null if it isn't mapped
+     */
+    public String getMethodName(String owner, String name, String desc) {
+        ClassMapping mapping = classes.get(owner);
+        if (mapping == null)
+            return null;
+
+        Map<String, String> descs = mapping.methods.get(name);
+        return descs == null ? null : descs.get(desc);
+    }
+
+    /**
+     * Returns true if the owner has at least one field or method mapping
+     */
+    public boolean hasMembers(String owner) {
+        ClassMapping mapping = classes.get(owner);
+        return mapping != null && (!mapping.fields.isEmpty() || !mapping.methods.isEmpty());
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    public boolean isEmpty() {
+        return classCount == 0 && fieldCount == 0 && methodCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return classCount + " classes, " + fieldCount + " fields & " + methodCount + " methods";
+    }
+
+    private ClassMapping getOrCreate(String name) {
+        return classes.computeIfAbsent(name, k -> new ClassMapping());
+    }
+
+    private static class ClassMapping {
+        private String newName;
+        //name -> descriptor -> new name
+        private final Map<String, Map<String, String>> fields = new HashMap<>(4);
+        private final Map<String, Map<String, String>> methods = new HashMap<>(4);
+    }
+}
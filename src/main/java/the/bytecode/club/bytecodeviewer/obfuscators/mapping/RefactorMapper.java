@@ -1,12 +1,15 @@
 package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.FieldMappingData;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MethodMappingData;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -27,88 +30,178 @@ import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MethodMappingDa
  ***************************************************************************/
 
 /**
+ * Maps the names through a {@link MappingTable}, this is safe to use from multiple threads at once.
+ *
+ * Members referenced through a subclass (b.foo() where foo is declared by b's super class) are resolved
+ * by walking the class hierarchy of the remapped classes.
+ *
  * @author sc4re
  */
 public class RefactorMapper extends Remapper {
 
-    protected final Map<String, MappingData> sortedClasses;
-    protected final Map<String, MethodMappingData> sortedMethods;
-    protected final Map<String, FieldMappingData> sortedFields;
-    protected final List<String> mappingList;
+    private static final String UNMAPPED = new String();
 
-    private final StringBuilder builder;
+    protected final MappingTable table;
+    //class name -> super class & interfaces, from before the remapping
+    protected final Map<String, String[]> hierarchy;
+    protected final Set<String> mappedClasses = ConcurrentHashMap.newKeySet();
+    protected final Set<MemberKey> mappedMembers = ConcurrentHashMap.newKeySet();
+
+    //the inner classes of the renamed classes & the inherited members
+    private final Map<String, String> innerClasses = new ConcurrentHashMap<>();
+    private final Map<MemberKey, String> inherited = new ConcurrentHashMap<>();
 
     public RefactorMapper(HookMap hookMap) {
-        sortedClasses = new HashMap<>();
-        sortedMethods = new HashMap<>();
-        sortedFields = new HashMap<>();
-        mappingList = new ArrayList<>();
-        builder = new StringBuilder();
-        for (MappingData hook : hookMap.getClasses()) {
-            if (hook.getObfuscatedName().contains("$"))
-                continue;
-            String obfuscatedName = hook.getObfuscatedName();
-            String refactoredName = hook.getRefactoredName();
-            sortedClasses.put(obfuscatedName, hook);
-            sortedClasses.put(refactoredName, hook);
-        }
-        for (MethodMappingData hook : hookMap.getMethods()) {
-            String obfuscatedName = hook.getMethodName().getObfuscatedName();
-            String obfuscatedDesc = hook.getMethodDesc();
-            String obfuscatedCname = hook.getMethodOwner();
-            sortedMethods.put(obfuscatedCname + "$$$$" + obfuscatedName + "$$$$" + obfuscatedDesc, hook);
-        }
-        for (FieldMappingData hook : hookMap.getFields()) {
-            String obfuscatedName = hook.getName().getObfuscatedName();
-            String obfuscatedDesc = hook.getDesc();
-            String obfuscatedCname = hook.getFieldOwner();
-            sortedFields.put(obfuscatedCname + "$$$$" + obfuscatedName + "$$$$" + obfuscatedDesc, hook);
-        }
+        this(MappingTable.fromHooks(hookMap), Collections.emptyMap());
+    }
+
+    public RefactorMapper(MappingTable table, Map<String, String[]> hierarchy) {
+        this.table = table;
+        this.hierarchy = hierarchy;
     }
 
     @Override
     public String map(String type) {
-        if (sortedClasses.containsKey(type)) {
-            String map = type + " --> " + sortedClasses.get(type).getRefactoredName() + "\n";
-            if (!mappingList.contains(map))
-                mappingList.add(map);
+        String newName = table.getClassName(type);
+        if (newName != null) {
+            mappedClasses.add(type);
+            return newName;
+        }
+
+        //unmapped inner classes follow their outer class, a$1 -> Outer$1
+        int inner = type.lastIndexOf('$');
+        if (inner <= 0)
+            return type;
 
-            return sortedClasses.get(type).getRefactoredName();
+        newName = innerClasses.get(type);
+        if (newName == null) {
+            //not computeIfAbsent, mapping the outer class can recurse into this map
+            String outerName = type.substring(0, inner);
+            String outer = map(outerName);
+            newName = outer.equals(outerName) ? UNMAPPED : outer + type.substring(inner);
+            innerClasses.put(type, newName);
         }
-        return type;
+
+        return newName == UNMAPPED ? type : newName;
     }
 
     @Override
     public String mapFieldName(String owner, String name, String desc) {
-        String obfKey = owner + "$$$$" + name + "$$$$" + desc;
-        if (sortedFields.containsKey(obfKey)) {
-            String map =
-                    owner + "." + name + " --> " + owner + sortedFields.get(obfKey).getName().getRefactoredName() +
-                            "\n";
-            if (!mappingList.contains(map))
-                mappingList.add(map);
-            name = sortedFields.get(obfKey).getName().getRefactoredName();
-        }
-        return name;
+        String newName = table.getFieldName(owner, name, desc);
+        if (newName == null)
+            newName = resolveInherited(owner, name, desc, false);
+
+        if (newName == null)
+            return name;
+
+        mappedMembers.add(new MemberKey(owner, name, desc, false));
+        return newName;
     }
 
     @Override
     public String mapMethodName(String owner, String name, String desc) {
-        String obfKey = owner + "$$$$" + name + "$$$$" + desc;
-        if (sortedMethods.containsKey(obfKey)) {
-            String map =
-                    owner + "." + name + " --> " + owner + sortedMethods.get(obfKey).getMethodName().getRefactoredName() + "\n";
-            if (!mappingList.contains(map))
-                mappingList.add(map);
-            name = sortedMethods.get(obfKey).getMethodName().getRefactoredName();
-        }
-        return name;
+        if (name.charAt(0) == '<') //<init> & <clinit>
+            return name;
+
+        String newName = table.getMethodName(owner, name, desc);
+        if (newName == null)
+            newName = resolveInherited(owner, name, desc, true);
+
+        if (newName == null)
+            return name;
+
+        mappedMembers.add(new MemberKey(owner, name, desc, true));
+        return newName;
+    }
+
+    /**
+     * Returns the new name of a member the owner inherits, or null if it isn't inherited from a mapped class
+     */
+    private String resolveInherited(String owner, String name, String desc, boolean method) {
+        String[] supertypes = hierarchy.get(owner);
+        if (supertypes == null)
+            return null;
+
+        String newName = inherited.computeIfAbsent(new MemberKey(owner, name, desc, method), key -> {
+            Set<String> visited = new HashSet<>();
+            Deque<String> queue = new ArrayDeque<>();
+            Collections.addAll(queue, supertypes);
+
+            while (!queue.isEmpty()) {
+                String type = queue.poll();
+                if (type == null || !visited.add(type))
+                    continue;
+
+                String mapped = method ? table.getMethodName(type, name, desc) : table.getFieldName(type, name, desc);
+                if (mapped != null)
+                    return mapped;
+
+                String[] next = hierarchy.get(type);
+                if (next != null)
+                    Collections.addAll(queue, next);
+            }
+
+            return UNMAPPED;
+        });
+
+        return newName == UNMAPPED ? null : newName;
+    }
+
+    /**
+     * Returns the mappings that have been used, one per line
+     */
+    public List<String> getMappingList() {
+        List<String> mappingList = new ArrayList<>(mappedClasses.size() + mappedMembers.size());
+
+        for (String type : mappedClasses)
+            mappingList.add(type + " --> " + table.getClassName(type));
+
+        for (MemberKey member : mappedMembers)
+            mappingList.add(member.owner + "." + member.name + " --> " + map(member.owner) + "."
+                    + (member.method ? mapMethodName(member.owner, member.name, member.desc)
+                    : mapFieldName(member.owner, member.name, member.desc)));
+
+        Collections.sort(mappingList);
+        return mappingList;
     }
 
     public void printMap() {
-        for (String map : mappingList) {
-            builder.append(map);
+        StringBuilder builder = new StringBuilder();
+        for (String map : getMappingList()) {
+            builder.append(map).append("\n");
+        }
+        System.out.println(builder);
+    }
+
+    protected static class MemberKey {
+        private final String owner;
+        private final String name;
+        private final String desc;
+        private final boolean method;
+        private final int hash;
+
+        protected MemberKey(String owner, String name, String desc, boolean method) {
+            this.owner = owner;
+            this.name = name;
+            this.desc = desc;
+            this.method = method;
+            this.hash = Objects.hash(owner, name, desc, method);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof MemberKey))
+                return false;
+            MemberKey other = (MemberKey) obj;
+            return hash == other.hash && method == other.method && owner.equals(other.owner)
+                    && name.equals(other.name) && Objects.equals(desc, other.desc);
         }
-        System.out.println(builder.toString());
     }
 }
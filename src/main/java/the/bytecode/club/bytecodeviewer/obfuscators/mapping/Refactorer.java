@@ -1,9 +1,24 @@
 package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.api.ASMUtil;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -24,10 +39,17 @@ import the.bytecode.club.bytecodeviewer.BytecodeViewer;
  ***************************************************************************/
 
 /**
+ * Applies a {@link MappingTable} to every loaded class and writes the remapped classes back into their containers.
+ *
+ * The classes are remapped in parallel, each container is then updated in one go so classes swapping names
+ * (a -> b & b -> a) can't overwrite each other.
+ *
  * @author sc4re
  */
 public class Refactorer {
 
+    private static final int CHUNK_SIZE = 256;
+
     protected HookMap hooks;
 
     public Refactorer() {
@@ -38,32 +60,184 @@ public class Refactorer {
         return hooks;
     }
 
+    /**
+     * Applies the names collected by the rename obfuscators, the hooks are cleared afterwards
+     */
     public void run() {
         if (getHooks() == null)
             return;
 
-        RefactorMapper mapper = new RefactorMapper(getHooks());
-        //Map<String, ClassNode> refactored = new HashMap<>();
-        for (ClassNode cn : BytecodeViewer.getLoadedClasses()) {
-            //String oldName = cn.name;
-            ClassReader cr = new ClassReader(getClassNodeBytes(cn));
-            ClassWriter cw = new ClassWriter(cr, 0);
-            RemappingClassAdapter rca = new RemappingClassAdapter(cw, mapper);
-            cr.accept(rca, ClassReader.EXPAND_FRAMES);
-            cr = new ClassReader(cw.toByteArray());
-            cn = new ClassNode();
-            cr.accept(cn, 0);
-            //refactored.put(oldName, cn);
+        RefactorMapper mapper = run(MappingTable.fromHooks(getHooks()));
+        hooks = new HookMap();
+
+        if (mapper != null)
+            mapper.printMap();
+    }
+
+    /**
+     * Remaps all of the loaded classes
+     *
+     * @return the mapper that was used, or null if there was nothing to remap
+     */
+    public RefactorMapper run(MappingTable table) {
+        if (table.isEmpty())
+            return null;
+
+        long start = System.currentTimeMillis();
+        List<ResourceContainer> containers = new ArrayList<>(BytecodeViewer.resourceContainers);
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new NamedThreadFactory("Refactorer"));
+
+        try {
+            //the hierarchy from before the remapping, used to find the inherited members
+            Map<String, String[]> hierarchy = new HashMap<>();
+            for (ResourceContainer container : containers)
+                for (Map<String, String[]> supertypes : invokeChunked(pool, container,
+                        classNames -> readSupertypes(container, classNames)))
+                    for (Map.Entry<String, String[]> entry : supertypes.entrySet())
+                        hierarchy.putIfAbsent(entry.getKey(), entry.getValue());
+
+            RefactorMapper mapper = new RefactorMapper(table, hierarchy);
+            int remapped = 0;
+
+            for (ResourceContainer container : containers) {
+                Map<String, ClassNode> nodes = new LinkedHashMap<>();
+                Map<String, byte[]> classBytes = new HashMap<>();
+
+                for (List<RemappedClass> chunk : invokeChunked(pool, container,
+                        classNames -> remap(container, classNames, mapper)))
+                    for (RemappedClass remappedClass : chunk) {
+                        nodes.put(remappedClass.oldName, remappedClass.node);
+                        classBytes.put(remappedClass.node.name, remappedClass.bytes);
+                    }
+
+                container.updateNodes(nodes, classBytes);
+                remapped += nodes.size();
+            }
+
+            System.out.println("Remapped " + remapped + " classes in " + (System.currentTimeMillis() - start) + "ms");
+            return mapper;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            BytecodeViewer.handleException(e.getCause());
+            return null;
+        } finally {
+            pool.shutdownNow();
         }
-        /*for (Map.Entry<String, ClassNode> factor : refactored.entrySet()) {
-            BytecodeViewer.relocate(factor.getKey(), factor.getValue());
-        }*/
-        mapper.printMap();
     }
 
-    private byte[] getClassNodeBytes(ClassNode cn) {
-        ClassWriter cw = new ClassWriter(0);
-        cn.accept(cw);
-        return cw.toByteArray();
+    /**
+     * Runs the task for every chunk of class names of the container & returns the results in order
+     */
+    public static <T> List<T> invokeChunked(ExecutorService pool, ResourceContainer container,
+                                            Function<List<String>, T> task) throws InterruptedException, ExecutionException {
+        List<Future<T>> futures = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        for (String className : container.getClassNames()) {
+            chunk.add(className);
+
+            if (chunk.size() == CHUNK_SIZE) {
+                List<String> classNames = chunk;
+                futures.add(pool.submit(() -> task.apply(classNames)));
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            List<String> classNames = chunk;
+            futures.add(pool.submit(() -> task.apply(classNames)));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures)
+            results.add(future.get());
+
+        return results;
+    }
+
+    /**
+     * Returns the super class & interfaces of each class, the class bytes are read directly for lazily loaded classes
+     */
+    private static Map<String, String[]> readSupertypes(ResourceContainer container, Collection<String> classNames) {
+        Map<String, String[]> supertypes = new HashMap<>();
+
+        for (String className : classNames) {
+            ClassNode cn = container.resourceClasses.get(className);
+            String superName;
+            String[] interfaces;
+
+            if (cn != null) {
+                superName = cn.superName;
+                interfaces = cn.interfaces.toArray(new String[0]);
+            } else {
+                byte[] bytes = container.getBytes(className + ".class");
+                if (bytes == null)
+                    continue;
+
+                try {
+                    ClassReader cr = new ClassReader(bytes);
+                    superName = cr.getSuperName();
+                    interfaces = cr.getInterfaces();
+                } catch (Exception e) {
+                    continue;
+                }
+            }
+
+            String[] types = new String[interfaces.length + 1];
+            types[0] = superName;
+            System.arraycopy(interfaces, 0, types, 1, interfaces.length);
+            supertypes.put(className, types);
+        }
+
+        return supertypes;
+    }
+
+    /**
+     * Remaps the classes, the ClassNodes are taken as they are so unsaved edits are kept
+     */
+    private static List<RemappedClass> remap(ResourceContainer container, List<String> classNames,
+                                             RefactorMapper mapper) {
+        List<RemappedClass> results = new ArrayList<>(classNames.size());
+
+        for (String className : classNames) {
+            ClassWriter cw = new ClassWriter(0);
+            ClassNode cn = container.resourceClasses.get(className);
+
+            try {
+                if (cn != null) {
+                    cn.accept(new ClassRemapper(cw, mapper));
+                } else {
+                    byte[] bytes = container.getBytes(className + ".class");
+                    if (bytes == null)
+                        continue;
+
+                    new ClassReader(bytes).accept(new ClassRemapper(cw, mapper), ClassReader.EXPAND_FRAMES);
+                }
+            } catch (Exception e) {
+                //broken classes are left as they are
+                e.printStackTrace();
+                continue;
+            }
+
+            byte[] bytes = cw.toByteArray();
+            results.add(new RemappedClass(className, ASMUtil.bytesToNode(bytes), bytes));
+        }
+
+        return results;
+    }
+
+    private static class RemappedClass {
+        private final String oldName;
+        private final ClassNode node;
+        private final byte[] bytes;
+
+        private RemappedClass(String oldName, ClassNode node, byte[] bytes) {
+            this.oldName = oldName;
+            this.node = node;
+            this.bytes = bytes;
+        }
     }
 }
@@ -30,6 +30,7 @@
 
 package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
 
+import org.objectweb.asm.ConstantDynamic;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
@@ -143,9 +144,16 @@ public abstract class Remapper extends org.objectweb.asm.commons.Remapper {
         }
         if (value instanceof Handle) {
             Handle h = (Handle) value;
+            if (h.getTag() <= Opcodes.H_PUTSTATIC) //field handles
+                return new Handle(h.getTag(), mapType(h.getOwner()), mapFieldName(
+                        h.getOwner(), h.getName(), h.getDesc()),
+                        mapDesc(h.getDesc()), h.isInterface());
             return new Handle(h.getTag(), mapType(h.getOwner()), mapMethodName(
                     h.getOwner(), h.getName(), h.getDesc()),
-                    mapMethodDesc(h.getDesc()), h.getTag() == Opcodes.H_INVOKEINTERFACE);
+                    mapMethodDesc(h.getDesc()), h.isInterface());
+        }
+        if (value instanceof ConstantDynamic) {
+            return super.mapValue(value);
         }
         return value;
     }
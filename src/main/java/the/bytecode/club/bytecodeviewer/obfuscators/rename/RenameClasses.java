@@ -3,10 +3,9 @@ package the.bytecode.club.bytecodeviewer.obfuscators.rename;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.obfuscators.JavaObfuscator;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationContext;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationPass;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -32,48 +31,37 @@ import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
  * @author Konloch
  */
 
-public class RenameClasses extends JavaObfuscator {
+public class RenameClasses extends ObfuscationPass {
 
     public static void open()
     {
-        if (Configuration.runningObfuscation) {
-            BytecodeViewer.showMessage("You're currently running an obfuscation task, wait for this to finish"
-                    + ".");
-            return;
-        }
-        new RenameClasses().start();
-        BytecodeViewer.viewer.workPane.refreshClass.doClick();
-        BytecodeViewer.viewer.resourcePane.tree.updateUI();
+        JavaObfuscator.open(new RenameClasses());
     }
-    
-    @Override
-    public void obfuscate() {
-        int stringLength = 5;//getStringLength();
 
-        System.out.println("Obfuscating class names...");
-        classLoop:
-        for (ClassNode c : BytecodeViewer.getLoadedClasses()) {
+    @Override
+    public String getName() {
+        return "class names";
+    }
 
-            /* As we dont want to rename classes that contain native dll methods */
-            for (MethodNode o : c.methods) {
-                /* As we dont want to rename any  main-classes */
-                if (o.name.equals("main") && o.desc.equals("([Ljava/lang/String;)V")
-                        || o.name.equals("init") && c.superName.equals("java/applet/Applet"))
-                    continue classLoop;
+    @Override
+    public void obfuscate(ObfuscationContext context, ClassNode c) {
+        int stringLength = 5;//context.getNameLength();
 
-                /* As we dont want to rename native dll methods */
-                if ((o.access & Opcodes.ACC_NATIVE) != 0)
-                    continue classLoop;
-            }
+        /* As inner classes follow the name of their outer class */
+        if (c.name.contains("$"))
+            return;
 
-            String newName = generateUniqueName(stringLength);
+        for (MethodNode o : c.methods) {
+            /* As we dont want to rename any  main-classes */
+            if (o.name.equals("main") && o.desc.equals("([Ljava/lang/String;)V")
+                    || o.name.equals("init") && "java/applet/Applet".equals(c.superName))
+                return;
 
-            BytecodeViewer.refactorer.getHooks().addClass(new MappingData(c.name, newName));
-			
-			/*ASMUtil_OLD.renameClassNode(c.name, newName);
-			c.name = newName;*/
+            /* As we dont want to rename classes that contain native dll methods */
+            if ((o.access & Opcodes.ACC_NATIVE) != 0)
+                return;
         }
 
-        System.out.println("Obfuscated class names.");
+        context.renameClass(c, stringLength);
     }
 }
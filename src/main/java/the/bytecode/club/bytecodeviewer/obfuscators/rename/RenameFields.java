@@ -2,11 +2,9 @@ package the.bytecode.club.bytecodeviewer.obfuscators.rename;
 
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.obfuscators.JavaObfuscator;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.FieldMappingData;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationContext;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationPass;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -29,41 +27,26 @@ import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
 /**
  * Rename fields.
  *
+ * The names are unique across the workspace, so a renamed field can't end up hiding an inherited one.
+ *
  * @author Konloch
  */
 
-public class RenameFields extends JavaObfuscator {
+public class RenameFields extends ObfuscationPass {
 
     public static void open()
     {
-        if (Configuration.runningObfuscation) {
-            BytecodeViewer.showMessage("You're currently running an obfuscation task, wait for this to finish.");
-            return;
-        }
-        new RenameFields().start();
-        BytecodeViewer.viewer.workPane.refreshClass.doClick();
-        BytecodeViewer.viewer.resourcePane.tree.updateUI();
+        JavaObfuscator.open(new RenameFields());
     }
-    
-    @Override
-    public void obfuscate() {
-        int stringLength = getStringLength();
-
-        System.out.println("Obfuscating fields names...");
-        for (ClassNode c : BytecodeViewer.getLoadedClasses()) {
-            for (Object o : c.fields.toArray()) {
-                FieldNode f = (FieldNode) o;
-
-                String newName = generateUniqueName(stringLength);
 
-                BytecodeViewer.refactorer.getHooks().addField(new FieldMappingData(c.name, new MappingData(f.name,
-                        newName), f.desc));
-				
-				/*ASMUtil_OLD.renameFieldNode(c.name, f.name, f.desc, null, newName, null);
-				f.name = newName;*/
-            }
-        }
+    @Override
+    public String getName() {
+        return "field names";
+    }
 
-        System.out.println("Obfuscated field names.");
+    @Override
+    public void obfuscate(ObfuscationContext context, ClassNode c) {
+        for (FieldNode f : c.fields)
+            context.renameField(c, f, context.getNameLength());
     }
 }
@@ -1,13 +1,10 @@
 package the.bytecode.club.bytecodeviewer.obfuscators.rename;
 
-import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.obfuscators.JavaObfuscator;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MappingData;
-import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MethodMappingData;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationContext;
+import the.bytecode.club.bytecodeviewer.obfuscators.ObfuscationPass;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -30,65 +27,32 @@ import the.bytecode.club.bytecodeviewer.obfuscators.mapping.data.MethodMappingDa
 /**
  * Rename methods.
  *
+ * Overriding methods share one name, methods overriding a library method (or implemented by a lambda)
+ * keep theirs. See {@link the.bytecode.club.bytecodeviewer.obfuscators.MethodFamilies}.
+ *
  * @author Konloch
  */
 
-public class RenameMethods extends JavaObfuscator {
+public class RenameMethods extends ObfuscationPass {
 
     public static void open()
     {
-        if (Configuration.runningObfuscation) {
-            BytecodeViewer.showMessage("You're currently running an obfuscation task, wait for this to finish"
-                    + ".");
-            return;
-        }
-        new RenameMethods().start();
-        BytecodeViewer.viewer.workPane.refreshClass.doClick();
-        BytecodeViewer.viewer.resourcePane.tree.updateUI();
+        JavaObfuscator.open(new RenameMethods());
     }
-    
-    @Override
-    public void obfuscate() {
-        int stringLength = getStringLength();
-
-        System.out.println("Obfuscating method names...");
-        for (ClassNode c : BytecodeViewer.getLoadedClasses()) {
-            for (Object o : c.methods.toArray()) {
-                MethodNode m = (MethodNode) o;
 
-                /* As we dont want to rename native dll methods */
-                if ((m.access & Opcodes.ACC_NATIVE) != 0)
-                    continue;
+    @Override
+    public String getName() {
+        return "method names";
+    }
 
-                if (m.access != Opcodes.ACC_ABSTRACT
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_STATIC
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_STATIC + Opcodes.ACC_PUBLIC
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_STATIC + Opcodes.ACC_PRIVATE
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_STATIC + Opcodes.ACC_PROTECTED
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_PUBLIC
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_PRIVATE
-                        && m.access != Opcodes.ACC_ABSTRACT
-                        + Opcodes.ACC_PROTECTED) {
-                    if (!m.name.equals("main") && !m.name.equals("<init>")
-                            && !m.name.equals("<clinit>")) {
-                        String newName = generateUniqueName(stringLength);
+    @Override
+    public void obfuscate(ObfuscationContext context, ClassNode c) {
+        for (MethodNode m : c.methods) {
+            /* As we dont want to rename any entry points, native dll methods are skipped by the context */
+            if (m.name.equals("main"))
+                continue;
 
-                        BytecodeViewer.refactorer.getHooks().addMethod(new MethodMappingData(c.name,
-                                new MappingData(m.name, newName), m.desc));
-						
-						/*ASMUtil_OLD.renameMethodNode(c.name, m.name, m.desc,
-								null, newName, null);*/
-                    }
-                }
-            }
+            context.renameMethod(c, m, context.getNameLength());
         }
-
-        System.out.println("Obfuscated method names.");
     }
 }
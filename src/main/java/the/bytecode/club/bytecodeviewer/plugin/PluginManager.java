@@ -2,10 +2,12 @@ package the.bytecode.club.bytecodeviewer.plugin;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.filechooser.FileFilter;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.api.Plugin;
 import the.bytecode.club.bytecodeviewer.plugin.strategies.*;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 /***************************************************************************
@@ -40,6 +42,8 @@ public final class PluginManager {
     private static final Map<String, PluginLaunchStrategy> launchStrategies = new HashMap<>();
     private static final PluginFileFilter filter = new PluginFileFilter();
     private static List<Plugin> pluginInstances = new ArrayList<>();
+    //the containers each running plugin can edit in place, see ResourceContainer.beginInPlaceEdits
+    private static final Map<Plugin, List<ResourceContainer>> pluginContainers = new ConcurrentHashMap<>();
 
     static
     {
@@ -67,15 +71,42 @@ public final class PluginManager {
      */
     public static void runPlugin(Plugin newPluginInstance)
     {
-        //clean the plugin list from dead threads
+        //clean the plugin list from dead threads, a plugin that overrides run() might never call setFinished
+        for (Plugin plugin : pluginInstances)
+            if (!plugin.isAlive() && !plugin.isFinished())
+                plugin.setFinished();
+        
         pluginInstances.removeIf(Plugin::isFinished);
         
         //add to the list of running instances
         pluginInstances.add(newPluginInstance);
         
+        //keep the ClassNodes the plugin is handed in memory until it's finished, the ones it edits in place are
+        //reported through BCV.markEdited
+        List<ResourceContainer> containers = new ArrayList<>(BytecodeViewer.resourceContainers);
+        for (ResourceContainer container : containers)
+            container.beginInPlaceEdits();
+        
+        pluginContainers.put(newPluginInstance, containers);
+        
         //start the plugin thread
         newPluginInstance.start();
     }
+    
+    /**
+     * Called once a plugin has finished, the lazily loaded ClassNodes it was handed can be evicted again
+     *
+     * @param plugin the finished plugin instance
+     */
+    public static void pluginFinished(Plugin plugin)
+    {
+        List<ResourceContainer> containers = pluginContainers.remove(plugin);
+        if (containers == null)
+            return;
+        
+        for (ResourceContainer container : containers)
+            container.endInPlaceEdits();
+    }
 
     /**
      * Starts and runs a plugin from file
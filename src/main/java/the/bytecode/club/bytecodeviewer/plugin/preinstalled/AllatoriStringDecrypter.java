@@ -176,6 +176,7 @@ public class AllatoriStringDecrypter extends Plugin
 									log("Succesfully invoked decrypter method: " + decrypted);
 									laststringldconstack.cst = decrypted;
 									iList.remove(methodI);
+									BCV.markEdited(classNode);
 								}
 							}
 							catch (IndexOutOfBoundsException | ClassNotFoundException | IOException e)
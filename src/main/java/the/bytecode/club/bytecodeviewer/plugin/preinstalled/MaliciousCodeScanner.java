@@ -5,11 +5,15 @@ import java.util.HashSet;
 import java.util.List;
 
 import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.api.Plugin;
 import the.bytecode.club.bytecodeviewer.api.PluginConsole;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScan;
 import the.bytecode.club.bytecodeviewer.malwarescanner.MalwareScanModule;
+import the.bytecode.club.bytecodeviewer.malwarescanner.StreamingMalwareScan;
 import the.bytecode.club.bytecodeviewer.malwarescanner.util.MaliciousCodeOptions;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -50,6 +54,45 @@ public class MaliciousCodeScanner extends Plugin
 
     @Override
     public void execute(ArrayList<ClassNode> classNodeList)
+    {
+        execute((Iterable<ClassNode>) classNodeList);
+    }
+
+    @Override
+    public void run()
+    {
+        if (!Configuration.streamingMalwareScan)
+        {
+            super.run();
+            return;
+        }
+        
+        BytecodeViewer.updateBusyStatus(true);
+        
+        try
+        {
+            if (BytecodeViewer.promptIfNoLoadedClasses())
+                return;
+            
+            scan(null);
+        } catch (Exception e) {
+            BytecodeViewer.handleException(e);
+        } finally {
+            setFinished();
+            BytecodeViewer.updateBusyStatus(false);
+        }
+    }
+
+    @Override
+    public void execute(Iterable<ClassNode> classNodeList)
+    {
+        scan(classNodeList);
+    }
+    
+    /**
+     * Scans the ClassNodes, or all of the loaded classes when null
+     */
+    private void scan(Iterable<ClassNode> classNodeList)
     {
         PluginConsole frame = new PluginConsole("Malicious Code Scanner");
         StringBuilder sb = new StringBuilder();
@@ -60,6 +103,10 @@ public class MaliciousCodeScanner extends Plugin
             if(option.getCheckBox().isSelected())
                 scanOptions.add(option.getModule().name());
         
+        //the lazily loaded classes are streamed from their bytes, only the remaining ClassNodes are scanned below
+        if (classNodeList == null)
+            classNodeList = streamLazyContainers(sb, scanOptions);
+        
         //create a new code scan object with all of the scan options
         MalwareScan scan = new MalwareScan(classNodeList, sb, scanOptions);
         
@@ -69,4 +116,40 @@ public class MaliciousCodeScanner extends Plugin
         frame.appendText(sb.toString());
         frame.setVisible(true);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Scans the unmodified classes of the lazily loaded containers straight from their bytes,
+     * returns the ClassNodes that still have to be scanned (loaded or edited classes)
+     */
+    private Iterable<ClassNode> streamLazyContainers(StringBuilder sb, HashSet<String> scanOptions)
+    {
+        List<ClassNode> classNodes = new ArrayList<>();
+        
+        try (StreamingMalwareScan streamingScan = new StreamingMalwareScan(scanOptions, Configuration.malwareScanThreads))
+        {
+            for (ResourceContainer container : BytecodeViewer.resourceContainers)
+            {
+                if (!container.lazyClassNodes)
+                {
+                    container.getClassNodes().forEach(classNodes::add);
+                    continue;
+                }
+                
+                List<String> streamed = new ArrayList<>();
+                for (String className : container.getClassNames())
+                {
+                    ClassNode cn = container.resourceClasses.get(className);
+                    if (cn != null)
+                        classNodes.add(cn);
+                    else
+                        streamed.add(className);
+                }
+                
+                sb.append(streamingScan.scan(() -> streamed.stream()
+                        .map(className -> container.getBytes(className + ".class")).iterator()));
+            }
+        }
+        
+        return classNodes;
+    }
+}
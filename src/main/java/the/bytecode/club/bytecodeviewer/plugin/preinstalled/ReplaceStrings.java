@@ -7,6 +7,7 @@ import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.api.BCV;
 import the.bytecode.club.bytecodeviewer.api.Plugin;
 import the.bytecode.club.bytecodeviewer.api.PluginConsole;
 
@@ -70,6 +71,8 @@ public class ReplaceStrings extends Plugin
 
     public void scanClassNode(ClassNode classNode)
     {
+        boolean edited = false;
+        
         for (Object o : classNode.fields.toArray())
         {
             FieldNode f = (FieldNode) o;
@@ -80,12 +83,18 @@ public class ReplaceStrings extends Plugin
                 if (contains)
                 {
                     if (s.contains(originalLDC))
+                    {
                         f.value = ((String) f.value).replaceAll(originalLDC, newLDC);
+                        edited = true;
+                    }
                 }
                 else
                 {
                     if (s.equals(originalLDC))
+                    {
                         f.value = newLDC;
+                        edited = true;
+                    }
                 }
             }
             
@@ -99,6 +108,7 @@ public class ReplaceStrings extends Plugin
                         if (s.contains(originalLDC))
                         {
                             f.value = ((String[]) f.value)[i].replaceAll(originalLDC, newLDC);
+                            edited = true;
                             String ugh = s.replaceAll("\\n", "\\\\n")
                                     .replaceAll("\\r", "\\\\r");
                             frame.appendText(classNode.name + "." + f.name + ""
@@ -111,6 +121,7 @@ public class ReplaceStrings extends Plugin
                         if (s.equals(originalLDC))
                         {
                             ((String[]) f.value)[i] = newLDC;
+                            edited = true;
                             String ugh = s.replaceAll("\\n", "\\\\n")
                                     .replaceAll("\\r", "\\\\r");
                             frame.appendText(classNode.name + "." + f.name + ""
@@ -138,6 +149,7 @@ public class ReplaceStrings extends Plugin
                             {
                                 ((LdcInsnNode) a).cst = ((String) ((LdcInsnNode) a).cst)
                                         .replaceAll(originalLDC, newLDC);
+                                edited = true;
                                 String ugh = s.replaceAll("\\n", "\\\\n")
                                         .replaceAll("\\r", "\\\\r");
                                 frame.appendText(classNode.name + "." + m.name + "" + m.desc
@@ -153,6 +165,7 @@ public class ReplaceStrings extends Plugin
                             if (s.equals(originalLDC))
                             {
                                 ((LdcInsnNode) a).cst = newLDC;
+                                edited = true;
                                 String ugh = s.replaceAll("\\n", "\\\\n")
                                         .replaceAll("\\r", "\\\\r");
                                 frame.appendText(classNode.name + "." + m.name + "" + m.desc
@@ -166,5 +179,8 @@ public class ReplaceStrings extends Plugin
                 }
             }
         }
+        
+        if (edited)
+            BCV.markEdited(classNode);
     }
 }
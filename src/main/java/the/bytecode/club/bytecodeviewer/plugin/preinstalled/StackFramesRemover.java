@@ -6,6 +6,7 @@ import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FrameNode;
 import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.api.BCV;
 import the.bytecode.club.bytecodeviewer.api.Plugin;
 import the.bytecode.club.bytecodeviewer.api.PluginConsole;
 
@@ -18,6 +19,7 @@ public class StackFramesRemover extends Plugin
         PluginConsole frame = new PluginConsole("StackFrames Remover");
         for (ClassNode cn : classNodeList)
         {
+            int removed = counter.get();
             for (MethodNode mn : cn.methods)
             {
                 for (AbstractInsnNode insn : mn.instructions.toArray())
@@ -29,6 +31,9 @@ public class StackFramesRemover extends Plugin
                     }
                 }
             }
+            
+            if (counter.get() != removed)
+                BCV.markEdited(cn);
         }
 
         frame.appendText(String.format("Removed %s stackframes.", counter));
@@ -0,0 +1,169 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.objectweb.asm.tree.ClassNode;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A bounded cache of recently used ClassNodes for lazily loaded resource containers.
+ *
+ * The entries are evicted in least-recently-used order once the cache is full, the ClassNodes
+ * are also softly referenced so the garbage collector can reclaim them under memory pressure.
+ *
+ * While pinned (see {@link #pin}) every ClassNode handed out is also strongly referenced, so the in-place edits
+ * made to them can't be thrown away until they're written back.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class ClassNodeCache
+{
+    private final LinkedHashMap<String, SoftReference<ClassNode>> cache;
+    private final Map<String, ClassNode> pinned = new HashMap<>();
+    private int pinCount;
+    
+    public ClassNodeCache(final int maxSize)
+    {
+        this.cache = new LinkedHashMap<String, SoftReference<ClassNode>>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<ClassNode>> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    /**
+     * Returns the cached ClassNode, or null if it isn't cached (or has been reclaimed)
+     */
+    public synchronized ClassNode getIfPresent(String name)
+    {
+        ClassNode cn = pinned.get(name);
+        if (cn != null)
+            return cn;
+        
+        SoftReference<ClassNode> reference = cache.get(name);
+        if (reference == null)
+            return null;
+        
+        cn = reference.get();
+        if (cn == null)
+            cache.remove(name);
+        else if (pinCount > 0)
+            pinned.put(name, cn);
+        
+        return cn;
+    }
+    
+    /**
+     * Returns the cached ClassNode, on a miss the loader is used to build it and the result is cached
+     */
+    public ClassNode get(String name, Function<String, ClassNode> loader)
+    {
+        ClassNode cn = getIfPresent(name);
+        if (cn != null)
+            return cn;
+        
+        //build the ClassNode outside of the lock, two threads may build the same node but only one is kept
+        cn = loader.apply(name);
+        if (cn == null)
+            return null;
+        
+        synchronized (this)
+        {
+            ClassNode existing = getIfPresent(name);
+            if (existing != null)
+                return existing;
+            
+            cache.put(name, new SoftReference<>(cn));
+            if (pinCount > 0)
+                pinned.put(name, cn);
+        }
+        
+        return cn;
+    }
+    
+    /**
+     * Returns the name the ClassNode instance is cached under, or null if it isn't cached
+     */
+    public synchronized String getName(ClassNode cn)
+    {
+        for (Map.Entry<String, ClassNode> entry : pinned.entrySet())
+            if (entry.getValue() == cn)
+                return entry.getKey();
+        
+        for (Map.Entry<String, SoftReference<ClassNode>> entry : cache.entrySet())
+            if (entry.getValue().get() == cn)
+                return entry.getKey();
+        
+        return null;
+    }
+    
+    /**
+     * Holds on to a ClassNode that was built without being cached while pinned, otherwise this does nothing
+     *
+     * @return the ClassNode to use, a pinned ClassNode of the same name wins
+     */
+    public synchronized ClassNode keepIfPinned(String name, ClassNode cn)
+    {
+        if (pinCount == 0)
+            return cn;
+        
+        ClassNode existing = pinned.putIfAbsent(name, cn);
+        return existing != null ? existing : cn;
+    }
+    
+    /**
+     * Starts holding on to every ClassNode handed out, calls can be nested
+     */
+    public synchronized void pin()
+    {
+        pinCount++;
+    }
+    
+    /**
+     * Ends a {@link #pin} call, the ClassNodes that were handed out are released once the last pin ends
+     */
+    public synchronized void unpin()
+    {
+        if (pinCount == 0 || --pinCount > 0)
+            return;
+        
+        pinned.clear();
+    }
+    
+    public synchronized void remove(String name)
+    {
+        cache.remove(name);
+        pinned.remove(name);
+    }
+    
+    public synchronized void clear()
+    {
+        cache.clear();
+        pinned.clear();
+    }
+}
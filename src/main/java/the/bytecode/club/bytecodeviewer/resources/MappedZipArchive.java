@@ -0,0 +1,320 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A read-only, random-access view of a zip archive backed by a memory mapped file.
+ *
+ * Only the central directory is read when the archive is opened, the entry contents are
+ * read on demand straight from the mapping. Stored entries are copied out of it, deflated entries are inflated
+ * from it into an exactly sized array. The mapping is released with {@link #close} when the container is removed.
+ *
+ * ZIP64, encrypted entries and compression methods other than stored/deflated are not supported,
+ * opening those archives throws a ZipException so the caller can fall back to a regular import.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class MappedZipArchive
+{
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	private static final int METHOD_STORED = 0;
+	private static final int METHOD_DEFLATED = 8;
+	private static final int INFLATE_INPUT_SIZE = 16 * 1024;
+	
+	private final File file;
+	private volatile MappedByteBuffer mapping;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+	private final List<String> classEntryNames = new ArrayList<>();
+	private final List<String> resourceEntryNames = new ArrayList<>();
+	
+	public MappedZipArchive(File file) throws IOException
+	{
+		this.file = file;
+		
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+		     FileChannel channel = raf.getChannel())
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new ZipException("Archive is too large to be memory mapped: " + file);
+			
+			//the mapping stays valid after the channel has been closed
+			mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		
+		readCentralDirectory();
+	}
+	
+	/**
+	 * Reads the entry metadata from the central directory, the entry contents are not touched
+	 */
+	private void readCentralDirectory() throws IOException
+	{
+		ByteBuffer buffer = view();
+		int end = findEndOfCentralDirectory(buffer);
+		
+		int totalEntries = buffer.getShort(end + 10) & 0xFFFF;
+		long directoryOffset = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+		
+		if (totalEntries == 0xFFFF || directoryOffset == 0xFFFFFFFFL)
+			throw new ZipException("ZIP64 archives are not supported: " + file);
+		
+		int offset = (int) directoryOffset;
+		for (int i = 0; i < totalEntries; i++)
+		{
+			if (offset + 46 > buffer.limit() || buffer.getInt(offset) != CENTRAL_HEADER_SIGNATURE)
+				throw new ZipException("Invalid central directory entry in " + file);
+			
+			int flags = buffer.getShort(offset + 8) & 0xFFFF;
+			int method = buffer.getShort(offset + 10) & 0xFFFF;
+			long compressedSize = buffer.getInt(offset + 20) & 0xFFFFFFFFL;
+			long size = buffer.getInt(offset + 24) & 0xFFFFFFFFL;
+			int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+			int extraLength = buffer.getShort(offset + 30) & 0xFFFF;
+			int commentLength = buffer.getShort(offset + 32) & 0xFFFF;
+			long headerOffset = buffer.getInt(offset + 42) & 0xFFFFFFFFL;
+			
+			byte[] nameBytes = new byte[nameLength];
+			ByteBuffer nameBuffer = view();
+			nameBuffer.position(offset + 46);
+			nameBuffer.get(nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+			
+			offset += 46 + nameLength + extraLength + commentLength;
+			
+			//skip directories
+			if (name.endsWith("/"))
+				continue;
+			
+			if ((flags & 1) != 0)
+				throw new ZipException("Encrypted entries are not supported: " + name);
+			if (method != METHOD_STORED && method != METHOD_DEFLATED)
+				throw new ZipException("Unsupported compression method " + method + ": " + name);
+			if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || headerOffset == 0xFFFFFFFFL)
+				throw new ZipException("ZIP64 entries are not supported: " + name);
+			if (size > Integer.MAX_VALUE - 8)
+				throw new ZipException("Entry is too large to be loaded: " + name);
+			
+			//later duplicates overwrite the earlier ones, the same as the regular import
+			if (entries.put(name, new Entry(method, (int) compressedSize, (int) size, (int) headerOffset)) == null)
+			{
+				//TODO remove this .class check and just look for cafebabe
+				if (name.endsWith(".class"))
+					classEntryNames.add(name);
+				else
+					resourceEntryNames.add(name);
+			}
+		}
+	}
+	
+	/**
+	 * Searches backwards for the end of central directory record, it can be followed by a comment
+	 */
+	private int findEndOfCentralDirectory(ByteBuffer buffer) throws ZipException
+	{
+		int lowest = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+		for (int i = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; i >= lowest; i--)
+			if (buffer.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+				return i;
+		
+		throw new ZipException("Unable to find the central directory: " + file);
+	}
+	
+	/**
+	 * Returns a new little-endian view of the mapping, views are not shared between threads
+	 */
+	private ByteBuffer view() throws IOException
+	{
+		MappedByteBuffer mapping = this.mapping;
+		if (mapping == null)
+			throw new ClosedChannelException();
+		
+		return mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	public File getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Returns true if the archive contains the specified entry
+	 */
+	public boolean contains(String name)
+	{
+		return entries.containsKey(name);
+	}
+	
+	/**
+	 * Returns true if the archive contains at least one class entry
+	 */
+	public boolean hasClassEntries()
+	{
+		return !classEntryNames.isEmpty();
+	}
+	
+	/**
+	 * Returns the names of all of the class entries in archive order
+	 */
+	public List<String> getClassEntryNames()
+	{
+		return Collections.unmodifiableList(classEntryNames);
+	}
+	
+	/**
+	 * Returns the names of all of the non-class entries in archive order
+	 */
+	public List<String> getResourceEntryNames()
+	{
+		return Collections.unmodifiableList(resourceEntryNames);
+	}
+	
+	/**
+	 * Returns a copy of the entry contents
+	 */
+	public byte[] getBytes(String name) throws IOException
+	{
+		Entry entry = entries.get(name);
+		if (entry == null)
+			return null;
+		
+		ByteBuffer raw = getRawData(name, entry);
+		if (entry.method == METHOD_DEFLATED)
+			return inflate(name, entry, raw);
+		
+		byte[] bytes = new byte[raw.remaining()];
+		raw.get(bytes);
+		return bytes;
+	}
+	
+	/**
+	 * Releases the mapping, the entries can't be read anymore afterwards.
+	 *
+	 * The mapping isn't unmapped by force since a thread could still be reading from it, it's freed once
+	 * the last view has been garbage collected.
+	 */
+	public void close()
+	{
+		mapping = null;
+	}
+	
+	/**
+	 * Returns the raw (possibly compressed) entry data as a view of the mapping
+	 */
+	private ByteBuffer getRawData(String name, Entry entry) throws IOException
+	{
+		ByteBuffer buffer = view();
+		if (buffer.getInt(entry.headerOffset) != LOCAL_HEADER_SIGNATURE)
+			throw new ZipException("Invalid local header for " + name);
+		
+		int nameLength = buffer.getShort(entry.headerOffset + 26) & 0xFFFF;
+		int extraLength = buffer.getShort(entry.headerOffset + 28) & 0xFFFF;
+		int dataOffset = entry.headerOffset + 30 + nameLength + extraLength;
+		
+		buffer.position(dataOffset);
+		buffer.limit(dataOffset + entry.compressedSize);
+		return buffer.slice();
+	}
+	
+	/**
+	 * Inflates the entry, the compressed data is fed to the inflater in small slices instead of being copied
+	 * out of the mapping as a whole
+	 */
+	private byte[] inflate(String name, Entry entry, ByteBuffer raw) throws IOException
+	{
+		byte[] input = new byte[Math.min(INFLATE_INPUT_SIZE, Math.max(1, raw.remaining()))];
+		byte[] bytes = new byte[entry.size];
+		Inflater inflater = new Inflater(true);
+		try
+		{
+			int read = 0;
+			while (read < bytes.length && !inflater.finished())
+			{
+				if (inflater.needsInput())
+				{
+					if (!raw.hasRemaining())
+						break;
+					
+					int length = Math.min(input.length, raw.remaining());
+					raw.get(input, 0, length);
+					inflater.setInput(input, 0, length);
+				}
+				
+				int inflated = inflater.inflate(bytes, read, bytes.length - read);
+				if (inflated == 0 && inflater.needsDictionary())
+					break;
+				
+				read += inflated;
+			}
+			
+			if (read != bytes.length)
+				throw new ZipException("Truncated entry " + name);
+		}
+		catch (DataFormatException e)
+		{
+			throw new ZipException("Invalid deflate data for " + name + ": " + e.getMessage());
+		}
+		finally
+		{
+			inflater.end();
+		}
+		
+		return bytes;
+	}
+	
+	/**
+	 * The central directory metadata of a single entry
+	 */
+	private static class Entry
+	{
+		private final int method;
+		private final int compressedSize;
+		private final int size;
+		private final int headerOffset;
+		
+		private Entry(int method, int compressedSize, int size, int headerOffset)
+		{
+			this.method = method;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.headerOffset = headerOffset;
+		}
+	}
+}
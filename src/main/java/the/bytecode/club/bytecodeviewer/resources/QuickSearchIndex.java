@@ -0,0 +1,458 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The name index behind the resource list quick search.
+ *
+ * Every class and file of the registered containers is flattened into arrays once, a query is ranked by
+ * exact name, prefix, camel case humps, substring and finally a fuzzy subsequence match. A character mask
+ * skips entries that can't match before any string is touched, and when a query extends the previous one
+ * only the previous candidates are scanned again (search-as-you-type).
+ *
+ * The arrays are built into a new snapshot on the updater thread when the {@link ResourceRegistry} changes,
+ * the searches read the last snapshot without locking so typing never waits for a build.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class QuickSearchIndex
+{
+    private static final int EXACT = 10000;
+    private static final int PREFIX = 8000;
+    private static final int CAMEL_CASE = 6000;
+    private static final int SUBSTRING = 4000;
+    private static final int FUZZY = 2000;
+    private static final int PATH = 1000;
+    
+    private static final ExecutorService asyncUpdater = Executors.newSingleThreadExecutor(
+            new NamedThreadFactory("Quick Search Index"));
+    
+    private final ResourceRegistry registry;
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(new ArrayList<>(), new ArrayList<>(), -1);
+    private volatile LastSearch lastSearch;
+    
+    public QuickSearchIndex(ResourceRegistry registry)
+    {
+        this.registry = registry;
+    }
+    
+    /**
+     * Builds the index if the registry has changed since the last build
+     */
+    public synchronized void update()
+    {
+        long modCount = registry.getModCount();
+        if (modCount == snapshot.builtFor)
+            return;
+        
+        List<ResourceContainer> entryContainers = new ArrayList<>();
+        List<String> entryPaths = new ArrayList<>();
+        
+        for (ResourceContainer container : registry.getContainers())
+        {
+            for (String className : container.getClassNames())
+            {
+                entryContainers.add(container);
+                entryPaths.add(className + ".class");
+            }
+            
+            for (String fileName : container.getFileNames())
+            {
+                entryContainers.add(container);
+                entryPaths.add(fileName);
+            }
+        }
+        
+        snapshot = new Snapshot(entryContainers, entryPaths, modCount);
+        lastSearch = null;
+    }
+    
+    /**
+     * Builds the index on the updater thread, at most one build is queued at a time
+     */
+    public void updateAsync()
+    {
+        if (updatePending.compareAndSet(false, true))
+        {
+            asyncUpdater.submit(() ->
+            {
+                updatePending.set(false);
+                update();
+            });
+        }
+    }
+    
+    public synchronized void clear()
+    {
+        snapshot = new Snapshot(new ArrayList<>(), new ArrayList<>(), -1);
+        lastSearch = null;
+    }
+    
+    /**
+     * Returns the best matches for the query, best first.
+     *
+     * A query containing a '.' or '/' is matched against the full path (com.example.Main),
+     * anything else against the class or file name.
+     *
+     * The last built snapshot is searched, if the registry has changed since a new one is built in the background.
+     */
+    public List<Result> search(String query, int limit)
+    {
+        Snapshot s = snapshot;
+        if (registry.getModCount() != s.builtFor)
+            updateAsync();
+        
+        if (query == null || query.trim().isEmpty() || limit <= 0)
+            return Collections.emptyList();
+        
+        String lowerQuery = normalize(query.trim());
+        boolean pathQuery = lowerQuery.indexOf('/') != -1;
+        long queryMask = mask(lowerQuery);
+        
+        //only the entries that matched the shorter query can match the longer one
+        LastSearch last = lastSearch;
+        boolean narrow = last != null && last.snapshot == s && lowerQuery.startsWith(last.query)
+                && pathQuery == (last.query.indexOf('/') != -1);
+        int[] scan = narrow ? last.candidates : null;
+        int scanCount = narrow ? last.candidateCount : s.size;
+        
+        int[] candidates = new int[Math.min(scanCount, 1024)];
+        int candidateCount = 0;
+        int[] scores = new int[s.size];
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> s.compare(scores, b, a));
+        
+        for (int n = 0; n < scanCount; n++)
+        {
+            int i = scan == null ? n : scan[n];
+            if ((s.pathMasks[i] & queryMask) != queryMask)
+                continue;
+            
+            int score = pathQuery ? s.scorePath(i, lowerQuery) : s.scoreName(i, query.trim(), lowerQuery, queryMask);
+            if (score <= 0)
+                continue;
+            
+            if (candidateCount == candidates.length)
+                candidates = Arrays.copyOf(candidates, candidates.length * 2);
+            candidates[candidateCount++] = i;
+            scores[i] = score;
+            
+            if (best.size() < limit)
+                best.add(i);
+            else if (s.compare(scores, i, best.peek()) < 0)
+            {
+                best.poll();
+                best.add(i);
+            }
+        }
+        
+        lastSearch = new LastSearch(s, lowerQuery, candidates, candidateCount);
+        
+        List<Result> results = new ArrayList<>(best.size());
+        while (!best.isEmpty())
+        {
+            int i = best.poll();
+            results.add(new Result(s.containers[i], s.paths[i], s.names[i], scores[i]));
+        }
+        
+        Collections.reverse(results);
+        return results;
+    }
+    
+    /**
+     * Returns the amount of indexed classes and files
+     */
+    public int size()
+    {
+        return snapshot.size;
+    }
+    
+    /**
+     * The flattened entries of one build, never modified once published
+     */
+    private static class Snapshot
+    {
+        private final long builtFor;
+        private final int size;
+        private final ResourceContainer[] containers;
+        private final String[] paths;          //the name path as it's shown on the resource list
+        private final String[] names;          //the simple name, classes are without the extension
+        private final String[] lowerNames;
+        private final String[] lowerPaths;     //lower case with '.' and '/' both turned into '/'
+        private final long[] nameMasks;
+        private final long[] pathMasks;
+        
+        private Snapshot(List<ResourceContainer> entryContainers, List<String> entryPaths, long builtFor)
+        {
+            this.builtFor = builtFor;
+            size = entryPaths.size();
+            containers = entryContainers.toArray(new ResourceContainer[0]);
+            paths = entryPaths.toArray(new String[0]);
+            names = new String[size];
+            lowerNames = new String[size];
+            lowerPaths = new String[size];
+            nameMasks = new long[size];
+            pathMasks = new long[size];
+            
+            for (int i = 0; i < size; i++)
+            {
+                String path = paths[i];
+                String name = path.substring(path.lastIndexOf('/') + 1);
+                if (name.endsWith(".class"))
+                    name = name.substring(0, name.length() - ".class".length());
+                
+                names[i] = name;
+                lowerNames[i] = name.toLowerCase();
+                lowerPaths[i] = normalize(path);
+                nameMasks[i] = mask(lowerNames[i]);
+                pathMasks[i] = mask(lowerPaths[i]);
+            }
+        }
+        
+        private int scoreName(int i, String query, String lowerQuery, long queryMask)
+        {
+            String lowerName = lowerNames[i];
+            int score = 0;
+            
+            if ((nameMasks[i] & queryMask) == queryMask)
+            {
+                if (lowerName.equals(lowerQuery))
+                    score = EXACT;
+                else if (lowerName.startsWith(lowerQuery))
+                    score = PREFIX;
+                else if (camelCaseMatch(names[i], 0, query, 0))
+                    score = CAMEL_CASE;
+                else
+                {
+                    int index = lowerName.indexOf(lowerQuery);
+                    if (index != -1)
+                        score = SUBSTRING - Math.min(index, 100);
+                    else
+                    {
+                        int gaps = fuzzyGaps(lowerName, lowerQuery);
+                        if (gaps != -1)
+                            score = FUZZY - Math.min(gaps * 10, 900);
+                    }
+                }
+            }
+            
+            //typing a package or folder name
+            if (score == 0 && lowerPaths[i].contains(lowerQuery))
+                score = PATH;
+            
+            //shorter names first on the same tier
+            return score == 0 ? 0 : score - Math.min(lowerName.length(), 99);
+        }
+        
+        private int scorePath(int i, String lowerQuery)
+        {
+            String lowerPath = lowerPaths[i];
+            int score = 0;
+            
+            if (lowerPath.endsWith(lowerQuery) || lowerPath.endsWith(lowerQuery + "/class"))
+                score = lowerPath.length() == lowerQuery.length() ? EXACT : PREFIX;
+            else
+            {
+                int index = lowerPath.indexOf(lowerQuery);
+                if (index != -1)
+                    score = SUBSTRING;
+                else
+                {
+                    int gaps = fuzzyGaps(lowerPath, lowerQuery);
+                    if (gaps != -1)
+                        score = FUZZY - Math.min(gaps * 10, 900);
+                }
+            }
+            
+            return score == 0 ? 0 : score - Math.min(lowerPath.length(), 99);
+        }
+        
+        private int compare(int[] scores, int a, int b)
+        {
+            if (scores[a] != scores[b])
+                return Integer.compare(scores[b], scores[a]);
+            
+            return paths[a].compareTo(paths[b]);
+        }
+    }
+    
+    /**
+     * The candidates of the previous query, only valid for the snapshot they were found in
+     */
+    private static class LastSearch
+    {
+        private final Snapshot snapshot;
+        private final String query;
+        private final int[] candidates;
+        private final int candidateCount;
+        
+        private LastSearch(Snapshot snapshot, String query, int[] candidates, int candidateCount)
+        {
+            this.snapshot = snapshot;
+            this.query = query;
+            this.candidates = candidates;
+            this.candidateCount = candidateCount;
+        }
+    }
+    
+    /**
+     * Matches the query against the humps of a name, every query character either continues the
+     * current hump or starts one of the next humps. For example "CV" and "ClaVie" match ClassViewer.
+     */
+    private static boolean camelCaseMatch(String name, int nameIndex, String query, int queryIndex)
+    {
+        if (queryIndex == query.length())
+            return true;
+        
+        char q = Character.toLowerCase(query.charAt(queryIndex));
+        
+        //continue the current hump
+        if (queryIndex > 0 && nameIndex < name.length()
+                && Character.toLowerCase(name.charAt(nameIndex)) == q
+                && camelCaseMatch(name, nameIndex + 1, query, queryIndex + 1))
+            return true;
+        
+        //or jump to the start of a later hump
+        for (int i = queryIndex == 0 ? 0 : nameIndex; i < name.length(); i++)
+        {
+            if (isHumpStart(name, i) && Character.toLowerCase(name.charAt(i)) == q
+                    && camelCaseMatch(name, i + 1, query, queryIndex + 1))
+                return true;
+            
+            if (queryIndex == 0)
+                break;
+        }
+        
+        return false;
+    }
+    
+    private static boolean isHumpStart(String name, int index)
+    {
+        if (index == 0)
+            return true;
+        
+        char c = name.charAt(index);
+        char previous = name.charAt(index - 1);
+        return (Character.isUpperCase(c) && !Character.isUpperCase(previous))
+                || (Character.isDigit(c) && !Character.isDigit(previous))
+                || (Character.isLetterOrDigit(c) && !Character.isLetterOrDigit(previous));
+    }
+    
+    /**
+     * Returns how many characters were skipped to match the query as a subsequence, or -1 if it doesn't match
+     */
+    private static int fuzzyGaps(String text, String query)
+    {
+        int first = -1;
+        int t = 0;
+        
+        for (int q = 0; q < query.length(); q++)
+        {
+            t = text.indexOf(query.charAt(q), t);
+            if (t == -1)
+                return -1;
+            
+            if (first == -1)
+                first = t;
+            t++;
+        }
+        
+        return (t - first) - query.length();
+    }
+    
+    private static String normalize(String path)
+    {
+        return path.toLowerCase().replace('.', '/');
+    }
+    
+    private static long mask(String lower)
+    {
+        long mask = 0;
+        for (int i = 0; i < lower.length(); i++)
+        {
+            char c = lower.charAt(i);
+            int bit;
+            
+            if (c >= 'a' && c <= 'z')
+                bit = c - 'a';
+            else if (c >= '0' && c <= '9')
+                bit = 26 + (c - '0');
+            else if (c == '_')
+                bit = 36;
+            else if (c == '$')
+                bit = 37;
+            else if (c == '/')
+                bit = 38;
+            else if (c == '-')
+                bit = 39;
+            else
+                bit = 63;
+            
+            mask |= 1L << bit;
+        }
+        
+        return mask;
+    }
+    
+    /**
+     * A single quick search match
+     */
+    public static class Result
+    {
+        public final ResourceContainer container;
+        public final String path;
+        public final String name;
+        public final int score;
+        
+        public Result(ResourceContainer container, String path, String name, int score)
+        {
+            this.container = container;
+            this.path = path;
+            this.name = name;
+            this.score = score;
+        }
+        
+        /**
+         * Returns the path split into the resource list node names
+         */
+        public String[] getNodeNames()
+        {
+            return path.split("/");
+        }
+        
+        @Override
+        public String toString()
+        {
+            int split = path.lastIndexOf('/');
+            String parent = split == -1 ? "" : path.substring(0, split).replace('/', '.');
+            return parent.isEmpty() ? name + " - " + container.name : name + " - " + parent + " (" + container.name + ")";
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package the.bytecode.club.bytecodeviewer.resources;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FilenameUtils;
 import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.api.ASMUtil;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex;
 import the.bytecode.club.bytecodeviewer.util.LazyNameUtil;
 
 /***************************************************************************
@@ -29,6 +45,16 @@ import the.bytecode.club.bytecodeviewer.util.LazyNameUtil;
  * Represents a loaded file in the form of a resource container
  * with all of the contents inside of it.
  *
+ * When lazy ClassNodes are enabled only the class bytes are stored on import,
+ * the ClassNodes are built on first access and kept in a bounded cache.
+ * Edited classes are pinned inside of resourceClasses so they can't be evicted.
+ *
+ * Archives can also be memory mapped, in that case only the central directory is read on import
+ * and every entry (class or file) is served on demand from the archive.
+ *
+ * The entries changed after the import are tracked as dirty, on export the clean ones are copied from
+ * the source archive as they are (still compressed) instead of being serialized & compressed again.
+ *
  * @author Konloch
  */
 
@@ -42,6 +68,23 @@ public class ResourceContainer
     public LinkedHashMap<String, byte[]> resourceClassBytes = new LinkedHashMap<>();
     public LinkedHashMap<String, ClassNode> resourceClasses = new LinkedHashMap<>();
     
+    public MappedZipArchive archive = null;
+    
+    public final boolean lazyClassNodes = Configuration.lazyClassNodes || Configuration.memoryMappedArchives;
+    private final ClassNodeCache classNodeCache = new ClassNodeCache(Configuration.classNodeCacheSize);
+    //archive class entries that have been renamed
+    private final HashSet<String> removedArchiveEntries = new HashSet<>();
+    //built on the first search, see getSearchIndex
+    private volatile SearchIndex searchIndex;
+    //resource keys changed since the import, they're written from memory on export
+    private final Set<String> dirtyEntries = ConcurrentHashMap.newKeySet();
+    private volatile boolean allEntriesDirty;
+    //set once a plugin was handed the ClassNodes, it could have edited them in place without reporting it
+    private volatile boolean inPlaceEdits;
+    //the source file on import, its entries are only reused while it's unchanged
+    private final long sourceLength;
+    private final long sourceLastModified;
+    
     public ResourceContainer(File f)
     {
         this(f, f.getName());
@@ -51,6 +94,8 @@ public class ResourceContainer
     {
         this.file = f;
         this.name = LazyNameUtil.applyNameChanges(name);
+        this.sourceLength = f.length();
+        this.sourceLastModified = f.lastModified();
     }
     
     /**
@@ -58,7 +103,183 @@ public class ResourceContainer
      */
     public ClassNode getClassNode(String resourceName)
     {
-        return resourceClasses.get(resourceName);
+        ClassNode cn = resourceClasses.get(resourceName);
+        if (cn != null || !lazyClassNodes)
+            return cn;
+        
+        return classNodeCache.get(resourceName, this::buildClassNode);
+    }
+    
+    /**
+     * Returns the ClassNode only if it's already in memory, without building it. These are the ClassNodes that
+     * could have been edited in place since their class bytes were stored.
+     */
+    public ClassNode getLoadedClassNode(String resourceName)
+    {
+        ClassNode cn = resourceClasses.get(resourceName);
+        if (cn != null || !lazyClassNodes)
+            return cn;
+        
+        return classNodeCache.getIfPresent(resourceName);
+    }
+    
+    /**
+     * Returns the names of all of the classes inside of this container (full name path without the extension)
+     */
+    public Collection<String> getClassNames()
+    {
+        if (!lazyClassNodes)
+            return resourceClasses.keySet();
+        
+        ArrayList<String> names = new ArrayList<>(resourceClassBytes.size());
+        
+        if (archive != null)
+            for (String resourceName : archive.getClassEntryNames())
+                if (!removedArchiveEntries.contains(resourceName))
+                    names.add(FilenameUtils.removeExtension(resourceName));
+        
+        for (String resourceName : resourceClassBytes.keySet())
+            if (!isArchiveClassEntry(resourceName))
+                names.add(FilenameUtils.removeExtension(resourceName));
+        
+        return names;
+    }
+    
+    /**
+     * Returns the names of all of the file resources inside of this container (full name path)
+     */
+    public Collection<String> getFileNames()
+    {
+        if (archive == null)
+            return resourceFiles.keySet();
+        
+        ArrayList<String> names = new ArrayList<>(resourceFiles.keySet());
+        for (String resourceName : archive.getResourceEntryNames())
+            if (!resourceFiles.containsKey(resourceName))
+                names.add(resourceName);
+        
+        return names;
+    }
+    
+    /**
+     * Returns the file resource bytes for the specified resource key (full name path)
+     */
+    public byte[] getFileBytes(String resourceName)
+    {
+        byte[] bytes = resourceFiles.get(resourceName);
+        if (bytes == null && archive != null)
+            bytes = readArchiveEntry(resourceName);
+        
+        return bytes;
+    }
+    
+    /**
+     * Returns true if this container has at least one class resource
+     */
+    public boolean hasClasses()
+    {
+        return !resourceClasses.isEmpty() || (lazyClassNodes && !resourceClassBytes.isEmpty())
+                || (archive != null && archive.hasClassEntries());
+    }
+    
+    /**
+     * Returns all of the ClassNodes inside of this container.
+     *
+     * For lazily loaded containers the ClassNodes are streamed one at a time,
+     * the ClassNodes built during the iteration are not cached so a full scan doesn't flush the cache.
+     */
+    public Iterable<ClassNode> getClassNodes()
+    {
+        if (!lazyClassNodes)
+            return resourceClasses.values();
+        
+        return () -> new Iterator<ClassNode>()
+        {
+            private final Iterator<String> names = getClassNames().iterator();
+            private ClassNode next;
+            
+            @Override
+            public boolean hasNext()
+            {
+                while (next == null && names.hasNext())
+                {
+                    String name = names.next();
+                    next = resourceClasses.get(name);
+                    
+                    if (next == null)
+                        next = classNodeCache.getIfPresent(name);
+                    
+                    if (next == null && (next = buildClassNode(name)) != null)
+                        next = classNodeCache.keepIfPinned(name, next);
+                }
+                
+                return next != null;
+            }
+            
+            @Override
+            public ClassNode next()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                
+                ClassNode cn = next;
+                next = null;
+                return cn;
+            }
+        };
+    }
+    
+    /**
+     * Builds a new ClassNode from the stored class bytes
+     */
+    private ClassNode buildClassNode(String resourceName)
+    {
+        byte[] bytes = getClassBytes(resourceName + ".class");
+        if (bytes == null)
+            return null;
+        
+        try
+        {
+            return ASMUtil.bytesToNode(bytes);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the class bytes for the specified resource key, falling back to the mapped archive
+     */
+    private byte[] getClassBytes(String resourceName)
+    {
+        byte[] bytes = resourceClassBytes.get(resourceName);
+        if (bytes == null && archive != null && !removedArchiveEntries.contains(resourceName))
+            bytes = readArchiveEntry(resourceName);
+        
+        return bytes;
+    }
+    
+    /**
+     * Returns true if the class resource key is served from the mapped archive
+     */
+    private boolean isArchiveClassEntry(String resourceName)
+    {
+        return archive != null && archive.contains(resourceName) && !removedArchiveEntries.contains(resourceName);
+    }
+    
+    private byte[] readArchiveEntry(String resourceName)
+    {
+        try
+        {
+            return archive.getBytes(resourceName);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
     }
     
     /**
@@ -78,8 +299,12 @@ public class ResourceContainer
     {
         if(resourceClassBytes.containsKey(resourceName))
             return resourceClassBytes.get(resourceName);
-        else
+        else if(resourceFiles.containsKey(resourceName) || archive == null)
             return resourceFiles.get(resourceName);
+        else if(!removedArchiveEntries.contains(resourceName))
+            return readArchiveEntry(resourceName);
+        
+        return null;
     }
     
     /**
@@ -88,23 +313,273 @@ public class ResourceContainer
     public ResourceContainer updateNode(ClassNode oldNode, ClassNode newNode)
     {
         //update all classnode references for ASM
-        if (resourceClasses.containsKey(oldNode.name))
+        if (resourceClasses.containsKey(oldNode.name)
+                || (lazyClassNodes && resourceClassBytes.containsKey(oldNode.name + ".class"))
+                || isArchiveClassEntry(oldNode.name + ".class"))
         {
             resourceClasses.remove(oldNode.name);
+            classNodeCache.remove(oldNode.name);
             resourceClasses.put(newNode.name, newNode);
         }
         
         //update the resource bytes
         String oldResourceKey = oldNode.name + ".class";
         String newResourceKey = newNode.name + ".class";
-        if(resourceClassBytes.containsKey(oldResourceKey))
+        dirtyEntries.add(oldResourceKey);
+        dirtyEntries.add(newResourceKey);
+        if(resourceClassBytes.containsKey(oldResourceKey) || isArchiveClassEntry(oldResourceKey))
         {
             resourceClassBytes.remove(oldResourceKey);
+            
+            //renamed archive entries are hidden, in-place edits keep their archive position
+            if(isArchiveClassEntry(oldResourceKey) && !oldResourceKey.equals(newResourceKey))
+                removedArchiveEntries.add(oldResourceKey);
+            
             resourceClassBytes.put(newResourceKey, ASMUtil.nodeToBytes(newNode));
         }
+        
+        //keep the search index in sync with the edit / rename
+        SearchIndex index = searchIndex;
+        if (index != null)
+        {
+            index.removeClass(oldNode.name);
+            index.addClass(newNode);
+        }
+        
+        BytecodeViewer.resourceRegistry.classRenamed(this, oldNode.name, newNode.name);
+        BytecodeViewer.workspaceIndex.classUpdated(this, oldNode, newNode);
         return this;
     }
     
+    /**
+     * Replaces a batch of ClassNodes at once, used for renames that touch every class (mappings / obfuscation).
+     * Unlike calling updateNode per class this handles classes swapping names (a -> b & b -> a)
+     * and the indexes are rebuilt once instead of once per class.
+     *
+     * @param nodes the old class names with the ClassNodes replacing them
+     * @param classBytes the class bytes of the new ClassNodes by their new name, missing ones are written here
+     */
+    public ResourceContainer updateNodes(Map<String, ClassNode> nodes, Map<String, byte[]> classBytes)
+    {
+        HashSet<String> newResourceKeys = new HashSet<>();
+        for (ClassNode newNode : nodes.values())
+            newResourceKeys.add(newNode.name + ".class");
+        
+        //every old name is removed first so a renamed class can't be overwritten by the one taking its old name
+        ArrayList<ClassNode> updated = new ArrayList<>(nodes.size());
+        for (Map.Entry<String, ClassNode> entry : nodes.entrySet())
+        {
+            String oldName = entry.getKey();
+            String oldResourceKey = oldName + ".class";
+            boolean archiveEntry = isArchiveClassEntry(oldResourceKey);
+            
+            if (resourceClasses.remove(oldName) == null && !resourceClassBytes.containsKey(oldResourceKey)
+                    && !archiveEntry)
+                continue;
+            
+            classNodeCache.remove(oldName);
+            resourceClassBytes.remove(oldResourceKey);
+            dirtyEntries.add(oldResourceKey);
+            updated.add(entry.getValue());
+            
+            //renamed archive entries are hidden, the names that are taken again keep their archive position
+            if (archiveEntry && !newResourceKeys.contains(oldResourceKey))
+                removedArchiveEntries.add(oldResourceKey);
+        }
+        
+        for (ClassNode newNode : updated)
+        {
+            byte[] bytes = classBytes.get(newNode.name);
+            resourceClasses.put(newNode.name, newNode);
+            resourceClassBytes.put(newNode.name + ".class", bytes != null ? bytes : ASMUtil.nodeToBytes(newNode));
+            dirtyEntries.add(newNode.name + ".class");
+        }
+        
+        invalidateSearchIndex();
+        BytecodeViewer.resourceRegistry.containerUpdated(this);
+        BytecodeViewer.workspaceIndex.containerUpdated(this);
+        return this;
+    }
+    
+    /**
+     * Marks the resource (full name path, classes end with .class) as changed. Use this after editing a ClassNode
+     * or the resource bytes in place without going through updateNode, otherwise the export can copy the original
+     * entry from the source archive. The search index is dropped since it can't see the edit either.
+     */
+    public void markDirty(String resourceName)
+    {
+        dirtyEntries.add(resourceName);
+        invalidateSearchIndex();
+    }
+    
+    /**
+     * Marks every resource as changed, used when the ClassNodes could have been edited in place (plugins)
+     */
+    public void markAllDirty()
+    {
+        allEntriesDirty = true;
+        invalidateSearchIndex();
+    }
+    
+    /**
+     * Returns true if the resource (full name path) was changed since the import
+     */
+    public boolean isDirty(String resourceName)
+    {
+        return allEntriesDirty || dirtyEntries.contains(resourceName);
+    }
+    
+    /**
+     * Returns true if anything in this container could have changed since the import
+     */
+    public boolean isEdited()
+    {
+        return allEntriesDirty || inPlaceEdits || !dirtyEntries.isEmpty();
+    }
+    
+    /**
+     * Opens the archive this container was imported from for {@link #getSourceEntry}.
+     *
+     * @return the archive, or null if the container isn't a zip archive or the file changed since the import
+     */
+    public ZipFile openSourceArchive()
+    {
+        if (allEntriesDirty || !file.isFile() || file.length() != sourceLength
+                || file.lastModified() != sourceLastModified)
+            return null;
+        
+        try
+        {
+            return new ZipFile(file);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the entry of the source archive holding the resource as it's loaded, so it can be copied without
+     * recompressing it. Returns null if the resource is dirty or doesn't match the entry.
+     *
+     * @param source the archive from {@link #openSourceArchive}
+     */
+    public ZipArchiveEntry getSourceEntry(ZipFile source, String resourceName)
+    {
+        if (source == null || isDirty(resourceName))
+            return null;
+        
+        //the import keeps the last of the duplicate entries
+        ZipArchiveEntry entry = null;
+        for (ZipArchiveEntry duplicate : source.getEntries(resourceName))
+            entry = duplicate;
+        
+        if (entry == null || entry.isDirectory() || !source.canReadEntryData(entry))
+            return null;
+        
+        byte[] bytes = resourceClassBytes.get(resourceName);
+        if (bytes == null)
+            bytes = resourceFiles.get(resourceName);
+        
+        //served from the mapped archive, which is the unchanged source file
+        if (bytes == null)
+            return archive != null && archive.getFile().equals(file) && archive.contains(resourceName)
+                    && !removedArchiveEntries.contains(resourceName) ? entry : null;
+        
+        //the bytes could have been replaced without marking them, comparing the checksum is still far cheaper
+        //than compressing them again
+        if (entry.getSize() != bytes.length)
+            return null;
+        
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue() == entry.getCrc() ? entry : null;
+    }
+    
+    /**
+     * Called before a plugin runs. The ClassNodes of the lazily loaded classes handed out from now on are kept in
+     * memory until {@link #endInPlaceEdits}, so the plugin can still report its edits through {@link #markEdited}.
+     */
+    public void beginInPlaceEdits()
+    {
+        inPlaceEdits = true;
+        classNodeCache.pin();
+        invalidateSearchIndex();
+    }
+    
+    /**
+     * Called once the plugin has finished, the lazily loaded ClassNodes it didn't mark as edited can be evicted again
+     */
+    public void endInPlaceEdits()
+    {
+        classNodeCache.unpin();
+        
+        //a search while the plugin was running could have indexed the ClassNodes half way through its edits
+        invalidateSearchIndex();
+    }
+    
+    /**
+     * Marks a ClassNode of this container that was edited in place (by a plugin for example) as changed.
+     * The ClassNode is kept in memory & its class bytes are written again under the resource key it was loaded
+     * from, so the class keeps its place in the archive even if the ClassNode was renamed.
+     *
+     * @return false if the ClassNode isn't from this container
+     */
+    public boolean markEdited(ClassNode cn)
+    {
+        String resourceName = getResourceName(cn);
+        if (resourceName == null)
+            return false;
+        
+        String resourceKey = resourceName + ".class";
+        resourceClasses.put(resourceName, cn);
+        classNodeCache.remove(resourceName);
+        
+        if (resourceClassBytes.containsKey(resourceKey) || isArchiveClassEntry(resourceKey))
+            resourceClassBytes.put(resourceKey, ASMUtil.nodeToBytes(cn));
+        
+        markDirty(resourceKey);
+        BytecodeViewer.workspaceIndex.containerUpdated(this);
+        return true;
+    }
+    
+    /**
+     * Returns the resource key (without the extension) the ClassNode instance is held under, or null if this
+     * container doesn't hold it. The key is usually the class name, unless the class is stored under a prefix
+     * (BOOT-INF/classes/) or was renamed in place.
+     */
+    private String getResourceName(ClassNode cn)
+    {
+        if (cn.name != null && (resourceClasses.get(cn.name) == cn
+                || (lazyClassNodes && classNodeCache.getIfPresent(cn.name) == cn)))
+            return cn.name;
+        
+        for (Map.Entry<String, ClassNode> entry : resourceClasses.entrySet())
+            if (entry.getValue() == cn)
+                return entry.getKey();
+        
+        return lazyClassNodes ? classNodeCache.getName(cn) : null;
+    }
+    
+    /**
+     * Returns the search index for this container, it's built (or loaded from disk) on the first call
+     */
+    public synchronized SearchIndex getSearchIndex()
+    {
+        if (searchIndex == null)
+            searchIndex = SearchIndex.build(this, Configuration.persistSearchIndex);
+        
+        return searchIndex;
+    }
+    
+    /**
+     * Drops the search index, use this after changing the ClassNodes without going through updateNode
+     */
+    public synchronized void invalidateSearchIndex()
+    {
+        searchIndex = null;
+    }
+    
     /**
      * Clear this container's resources
      */
@@ -113,9 +588,23 @@ public class ResourceContainer
         resourceFiles.clear();
         resourceClassBytes.clear();
         resourceClasses.clear();
+        classNodeCache.clear();
+        removedArchiveEntries.clear();
+        dirtyEntries.clear();
+        archive = null;
+        invalidateSearchIndex();
         return this;
     }
     
+    /**
+     * Releases the memory mapped archive, called once the container has been removed from the workspace
+     */
+    public void close()
+    {
+        if (archive != null)
+            archive.close();
+    }
+    
     /**
      * Copy a resource container's resources into this container
      */
@@ -124,6 +613,16 @@ public class ResourceContainer
         resourceFiles.putAll(copyFrom.resourceFiles);
         resourceClassBytes.putAll(copyFrom.resourceClassBytes);
         resourceClasses.putAll(copyFrom.resourceClasses);
+        
+        if (copyFrom.archive != null)
+        {
+            archive = copyFrom.archive;
+            removedArchiveEntries.addAll(copyFrom.removedArchiveEntries);
+        }
+        
+        //the copied resources don't come from this container's file
+        markAllDirty();
+        invalidateSearchIndex();
         return this;
     }
 }
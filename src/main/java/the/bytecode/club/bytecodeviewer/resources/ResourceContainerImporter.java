@@ -4,11 +4,19 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.io.FilenameUtils;
 import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.api.ASMUtil;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
 
 import java.io.*;
+import java.util.ArrayDeque;
 import java.util.Enumeration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -31,12 +39,25 @@ import java.util.zip.ZipInputStream;
  ***************************************************************************/
 
 /**
+ * Archives are imported through a pipeline: the import thread inflates the entries,
+ * the class bytes are handed off to a pool of parsing workers and the parsed ClassNodes
+ * are merged back into the container in archive order.
+ *
  * @author Konloch
  * @since 7/10/2021
  */
 public class ResourceContainerImporter
 {
+	private static final int PARSER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	//limits how far the inflater can run ahead of the parsing workers
+	private static final int MAX_PENDING_CLASSES = PARSER_THREADS * 64;
+	
 	private final ResourceContainer container;
+	private final ArrayDeque<PendingClass> pendingClasses = new ArrayDeque<>();
+	private ExecutorService parsers;
+	private int totalEntries;
+	private int importedEntries;
+	private int lastProgress;
 	
 	public ResourceContainerImporter(ResourceContainer container)
 	{
@@ -83,6 +104,39 @@ public class ResourceContainerImporter
 		return this;
 	}
 	
+	/**
+	 * Start importing the container file as a zip archive, memory mapped when
+	 * {@link Configuration#memoryMappedArchives} is enabled
+	 */
+	public ResourceContainerImporter importAsArchive() throws IOException
+	{
+		if (Configuration.memoryMappedArchives)
+			return importAsMappedZip();
+		
+		return importAsZip();
+	}
+	
+	/**
+	 * Start importing the container file as a memory mapped zip archive,
+	 * only the central directory is read and the entries are served on demand.
+	 * On failure (unsupported archive features) this falls back to a regular zip import.
+	 */
+	public ResourceContainerImporter importAsMappedZip() throws IOException
+	{
+		container.clear();
+		
+		try
+		{
+			container.archive = new MappedZipArchive(container.file);
+		}
+		catch (IOException e)
+		{
+			System.err.println("Unable to memory map " + container.file + ", importing it normally: " + e.getMessage());
+			importAsZip();
+		}
+		return this;
+	}
+	
 	/**
 	 * Adds an unknown resource to the container
 	 * This will sort the file and start the file-specific adding process
@@ -100,27 +154,31 @@ public class ResourceContainerImporter
 	
 	/**
 	 * Adds a class resource to the container
+	 * While an archive is being imported the parsing is handed off to the parsing workers
 	 */
 	public ResourceContainerImporter addClassResource(String name, InputStream stream) throws IOException
 	{
 		byte[] bytes = MiscUtils.getBytes(stream);
 		if (MiscUtils.getFileHeader(bytes).equalsIgnoreCase("cafebabe"))
 		{
-			try
+			//lazy containers build the ClassNode on first access
+			if (container.lazyClassNodes)
 			{
-				final ClassNode cn = ASMUtil.bytesToNode(bytes);
-				
-				//classes are copied into memory twice
-				ClassNode existingNode = container.resourceClasses.put(FilenameUtils.removeExtension(name), cn);
 				container.resourceClassBytes.put(name, bytes);
-				if( existingNode != null)
-				{
-					//TODO prompt to ask the user if they would like to overwrite the resource conflict
-					// or solve it automatically by creating a new file container for each conflict (means no editing)
-					
-					System.err.println("WARNING: Resource Conflict: " + name);
-					System.err.println("Suggested Fix: Contact Konloch to add support for resource conflicts");
-				}
+				entryImported();
+				return this;
+			}
+			
+			if (parsers != null)
+			{
+				pendingClasses.add(new PendingClass(name, bytes, parsers.submit(() -> ASMUtil.bytesToNode(bytes))));
+				mergeParsedClasses(false);
+				return this;
+			}
+			
+			try
+			{
+				putClassResource(name, bytes, ASMUtil.bytesToNode(bytes));
 			}
 			catch (Exception e)
 			{
@@ -128,6 +186,7 @@ public class ResourceContainerImporter
 			}
 		} else {
 			System.err.println(container.file + ">" + name + ": Header does not start with CAFEBABE, ignoring.");
+			entryImported();
 		}
 		
 		return this;
@@ -140,28 +199,143 @@ public class ResourceContainerImporter
 	{
 		byte[] bytes = MiscUtils.getBytes(stream);
 		container.resourceFiles.put(name, bytes);
+		entryImported();
 		return this;
 	}
 	
+	/**
+	 * Stores a parsed class resource inside of the container
+	 */
+	private void putClassResource(String name, byte[] bytes, ClassNode cn)
+	{
+		//classes are copied into memory twice
+		ClassNode existingNode = container.resourceClasses.put(FilenameUtils.removeExtension(name), cn);
+		container.resourceClassBytes.put(name, bytes);
+		if( existingNode != null)
+		{
+			//TODO prompt to ask the user if they would like to overwrite the resource conflict
+			// or solve it automatically by creating a new file container for each conflict (means no editing)
+			
+			System.err.println("WARNING: Resource Conflict: " + name);
+			System.err.println("Suggested Fix: Contact Konloch to add support for resource conflicts");
+		}
+		
+		entryImported();
+	}
+	
+	/**
+	 * Merges the parsed classes into the container in the same order they were read from the archive.
+	 * Without waiting this only merges the classes that have already finished parsing.
+	 */
+	private void mergeParsedClasses(boolean wait) throws IOException
+	{
+		while (!pendingClasses.isEmpty())
+		{
+			PendingClass pending = pendingClasses.peek();
+			
+			if (!wait && !pending.node.isDone() && pendingClasses.size() < MAX_PENDING_CLASSES)
+				return;
+			
+			pendingClasses.poll();
+			
+			try
+			{
+				putClassResource(pending.name, pending.bytes, pending.node.get());
+			}
+			catch (ExecutionException e)
+			{
+				e.getCause().printStackTrace();
+				entryImported();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while importing " + container.file);
+			}
+		}
+	}
+	
+	/**
+	 * Starts the parsing workers for an archive import
+	 */
+	private void startPipeline(int totalEntries)
+	{
+		this.totalEntries = totalEntries;
+		this.importedEntries = 0;
+		this.lastProgress = -1;
+		parsers = Executors.newFixedThreadPool(PARSER_THREADS, new NamedThreadFactory("Import Parser"));
+	}
+	
+	/**
+	 * Stops the parsing workers, optionally merging the remaining classes first
+	 */
+	private void finishPipeline(boolean merge) throws IOException
+	{
+		try
+		{
+			if (merge)
+				mergeParsedClasses(true);
+		}
+		finally
+		{
+			parsers.shutdownNow();
+			parsers = null;
+			pendingClasses.clear();
+		}
+	}
+	
+	/**
+	 * Counts a finished entry and reports the import progress to the busy status icon
+	 */
+	private void entryImported()
+	{
+		importedEntries++;
+		
+		if (parsers == null || totalEntries <= 0)
+			return;
+		
+		int progress = Math.min(100, importedEntries * 100 / totalEntries);
+		if (progress != lastProgress)
+		{
+			lastProgress = progress;
+			
+			if (BytecodeViewer.viewer != null)
+				BytecodeViewer.updateBusyProgress(progress);
+		}
+	}
+	
 	/**
 	 * Imports resources from zip archives using ZipInputStream
 	 */
 	private ResourceContainerImporter importZipInputStream(boolean classesOnly) throws IOException
 	{
-		ZipInputStream jis = new ZipInputStream(new FileInputStream(container.file));
-		ZipEntry entry;
-		while ((entry = jis.getNextEntry()) != null)
+		startPipeline(countArchiveEntries());
+		boolean finished = false;
+		
+		try (ZipInputStream jis = new ZipInputStream(new FileInputStream(container.file)))
 		{
-			final String name = entry.getName();
-			
-			//skip directories
-			if(entry.isDirectory())
-				continue;
+			ZipEntry entry;
+			while ((entry = jis.getNextEntry()) != null)
+			{
+				final String name = entry.getName();
+				
+				//skip directories
+				if (entry.isDirectory())
+				{
+					entryImported();
+					continue;
+				}
+				
+				addUnknownFile(name, jis, classesOnly);
+				jis.closeEntry();
+			}
 			
-			addUnknownFile(name, jis, classesOnly);
-			jis.closeEntry();
+			finished = true;
+		}
+		finally
+		{
+			finishPipeline(finished);
 		}
-		jis.close();
 		return this;
 	}
 	
@@ -175,22 +349,69 @@ public class ResourceContainerImporter
 	{
 		try (ZipFile zipFile = new ZipFile(container.file))
 		{
-			Enumeration<? extends ZipArchiveEntry> entries = zipFile.getEntries();
-			while (entries.hasMoreElements())
+			startPipeline(countArchiveEntries());
+			boolean finished = false;
+			
+			try
 			{
-				ZipArchiveEntry entry = entries.nextElement();
-				String name = entry.getName();
-				
-				if(entry.isDirectory())
-					continue;
-				
-				try (InputStream in = zipFile.getInputStream(entry))
+				Enumeration<? extends ZipArchiveEntry> entries = zipFile.getEntries();
+				while (entries.hasMoreElements())
 				{
-					addUnknownFile(name, in, classesOnly);
+					ZipArchiveEntry entry = entries.nextElement();
+					String name = entry.getName();
+					
+					if (entry.isDirectory())
+					{
+						entryImported();
+						continue;
+					}
+					
+					try (InputStream in = zipFile.getInputStream(entry))
+					{
+						addUnknownFile(name, in, classesOnly);
+					}
 				}
+				
+				finished = true;
+			}
+			finally
+			{
+				finishPipeline(finished);
 			}
 		}
 		
 		return this;
 	}
+	
+	/**
+	 * Reads the total entry count from the archive's central directory, this is only used for the progress
+	 */
+	private int countArchiveEntries()
+	{
+		try (java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(container.file))
+		{
+			return zipFile.size();
+		}
+		catch (Exception e)
+		{
+			return -1;
+		}
+	}
+	
+	/**
+	 * A class that has been inflated and is waiting on (or finished) parsing
+	 */
+	private static class PendingClass
+	{
+		private final String name;
+		private final byte[] bytes;
+		private final Future<ClassNode> node;
+		
+		private PendingClass(String name, byte[] bytes, Future<ClassNode> node)
+		{
+			this.name = name;
+			this.bytes = bytes;
+			this.node = node;
+		}
+	}
 }
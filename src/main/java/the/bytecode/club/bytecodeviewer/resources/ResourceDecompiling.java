@@ -5,18 +5,16 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.decompilers.BatchDecompiler;
 import the.bytecode.club.bytecodeviewer.decompilers.Decompiler;
 import the.bytecode.club.bytecodeviewer.gui.components.FileChooser;
 import the.bytecode.club.bytecodeviewer.util.DialogueUtils;
-import the.bytecode.club.bytecodeviewer.util.JarUtils;
 import the.bytecode.club.bytecodeviewer.util.MiscUtils;
 
 import javax.swing.*;
 import java.io.File;
 import java.util.Objects;
 
-import static the.bytecode.club.bytecodeviewer.Constants.fs;
-import static the.bytecode.club.bytecodeviewer.Constants.tempDirectory;
 
 /**
  * @author Konloch
@@ -57,7 +55,7 @@ public class ResourceDecompiling
 				
 				JOptionPane pane = new JOptionPane("What decompiler will you use?");
 				Object[] options = new String[]{"All", "Procyon", "CFR",
-						"Fernflower", "Krakatau", "Cancel"};
+						"Fernflower", "Krakatau", "JD-GUI", "JADX", "Cancel"};
 				pane.setOptions(options);
 				JDialog dialog = pane.createDialog(BytecodeViewer.viewer,
 						"Bytecode Viewer - Select Decompiler");
@@ -68,106 +66,38 @@ public class ResourceDecompiling
 					if (options[k].equals(obj))
 						result = k;
 				
-				BytecodeViewer.updateBusyStatus(true);
-				
-				File tempZip = new File(tempDirectory + fs + "temp_" + MiscUtils.getRandomizedName() + ".jar");
-				if (tempZip.exists())
-					tempZip.delete();
-				
-				JarUtils.saveAsJarClassesOnly(BytecodeViewer.getLoadedClasses(), tempZip.getAbsolutePath());
+				if (result < 0 || result == 7)
+					return;
 				
-				if (result == 0) {
-					Thread t12 = new Thread(() -> {
-						try {
-							Decompiler.PROCYON_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(),
-									MiscUtils.append(javaSucks, "-proycon.zip"));
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t12.start();
-					Thread t2 = new Thread(() -> {
-						try {
-							BytecodeViewer.updateBusyStatus(true);
-							Decompiler.CFR_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(),
-									MiscUtils.append(javaSucks, "-CFR.zip"));
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t2.start();
-					Thread t3 = new Thread(() -> {
-						try {
-							BytecodeViewer.updateBusyStatus(true);
-							Decompiler.FERNFLOWER_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(),
-									MiscUtils.append(javaSucks, "-fernflower.zip"));
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t3.start();
-					Thread t4 = new Thread(() -> {
-						try {
-							BytecodeViewer.updateBusyStatus(true);
-							Decompiler.KRAKATAU_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(),
-									MiscUtils.append(javaSucks, "-kraktau.zip"));
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t4.start();
-				}
-				if (result == 1) {
-					Thread t12 = new Thread(() -> {
-						try {
-							Decompiler.PROCYON_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), path);
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t12.start();
-				}
-				if (result == 2) {
-					Thread t12 = new Thread(() -> {
-						try {
-							Decompiler.CFR_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), path);
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t12.start();
-				}
-				if (result == 3) {
-					Thread t12 = new Thread(() -> {
-						try {
-							Decompiler.FERNFLOWER_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), path);
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t12.start();
-				}
+				BytecodeViewer.updateBusyStatus(true);
 				
-				if (result == 4) {
-					Thread t12 = new Thread(() -> {
-						try {
-							Decompiler.KRAKATAU_DECOMPILER.getDecompiler().decompileToZip(tempZip.getAbsolutePath(), path);
-							BytecodeViewer.updateBusyStatus(false);
-						} catch (Exception e) {
-							BytecodeViewer.handleException(e);
-						}
-					});
-					t12.start();
+				try
+				{
+					//each decompiler spreads the classes across every core, so they're ran one after another
+					if (result == 0)
+					{
+						decompileSaveAll(Decompiler.PROCYON_DECOMPILER, MiscUtils.append(javaSucks, "-proycon.zip"));
+						decompileSaveAll(Decompiler.CFR_DECOMPILER, MiscUtils.append(javaSucks, "-CFR.zip"));
+						decompileSaveAll(Decompiler.FERNFLOWER_DECOMPILER, MiscUtils.append(javaSucks, "-fernflower.zip"));
+						decompileSaveAll(Decompiler.KRAKATAU_DECOMPILER, MiscUtils.append(javaSucks, "-kraktau.zip"));
+						decompileSaveAll(Decompiler.JD_DECOMPILER, MiscUtils.append(javaSucks, "-JD-GUI.zip"));
+						decompileSaveAll(Decompiler.JADX_DECOMPILER, MiscUtils.append(javaSucks, "-JADX.zip"));
+					}
+					else if (result == 1)
+						decompileSaveAll(Decompiler.PROCYON_DECOMPILER, path);
+					else if (result == 2)
+						decompileSaveAll(Decompiler.CFR_DECOMPILER, path);
+					else if (result == 3)
+						decompileSaveAll(Decompiler.FERNFLOWER_DECOMPILER, path);
+					else if (result == 4)
+						decompileSaveAll(Decompiler.KRAKATAU_DECOMPILER, path);
+					else if (result == 5)
+						decompileSaveAll(Decompiler.JD_DECOMPILER, path);
+					else if (result == 6)
+						decompileSaveAll(Decompiler.JADX_DECOMPILER, path);
 				}
-				
-				if (result == 5) {
+				finally
+				{
 					BytecodeViewer.updateBusyStatus(false);
 				}
 			}
@@ -175,6 +105,21 @@ public class ResourceDecompiling
 		decompileThread.start();
 	}
 	
+	/**
+	 * Decompiles every loaded class into the zip, per-class failures are written into the zip
+	 */
+	public static void decompileSaveAll(Decompiler decompiler, String zipName)
+	{
+		try
+		{
+			new BatchDecompiler(decompiler).decompileLoadedClasses(new File(zipName));
+		}
+		catch (Exception e)
+		{
+			BytecodeViewer.handleException(e);
+		}
+	}
+	
 	public static void decompileSaveOpenedOnly()
 	{
 		if (BytecodeViewer.promptIfNoLoadedClasses())
@@ -0,0 +1,239 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Maps the container names, paths, class names & file names to their resource container,
+ * so the lookups don't have to loop over every container.
+ *
+ * The importers register the containers through BytecodeViewer.addResourceContainer. If the container
+ * list was changed directly (plugins) the registry is rebuilt on the next lookup, so is a container
+ * that had classes or files added to (or removed from) it directly, outside of updateNode & updateNodes.
+ * When a name is loaded by more than one container the first one wins, same as the container order.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class ResourceRegistry
+{
+    //the registered containers in order, compared against BytecodeViewer.resourceContainers on lookup
+    private final List<ResourceContainer> registered = new ArrayList<>();
+    private final Map<String, ResourceContainer> containersByName = new HashMap<>();
+    private final Map<String, ResourceContainer> containersByPath = new HashMap<>();
+    private final Map<String, ResourceContainer> classes = new HashMap<>();
+    private final Map<String, ResourceContainer> files = new HashMap<>();
+    //the number of entries each container had when it was indexed, a change means it was edited directly
+    private final Map<ResourceContainer, Integer> entryCounts = new IdentityHashMap<>();
+    
+    //bumped on every change, lets the indexes built on top of the registry know when to rebuild
+    private long modCount;
+    
+    public synchronized void register(ResourceContainer container)
+    {
+        registered.add(container);
+        index(container);
+        modCount++;
+    }
+    
+    public synchronized void unregister(ResourceContainer container)
+    {
+        //the names it was hiding belong to the next container now
+        if (registered.remove(container))
+            rebuild(new ArrayList<>(registered));
+    }
+    
+    public synchronized void clear()
+    {
+        registered.clear();
+        containersByName.clear();
+        containersByPath.clear();
+        classes.clear();
+        files.clear();
+        entryCounts.clear();
+        modCount++;
+    }
+    
+    /**
+     * Keeps the class name up to date after a class has been renamed (ResourceContainer.updateNode)
+     */
+    public synchronized void classRenamed(ResourceContainer container, String oldName, String newName)
+    {
+        if (oldName.equals(newName) || !registered.contains(container))
+            return;
+        
+        if (classes.get(oldName) == container)
+            classes.remove(oldName);
+        
+        classes.putIfAbsent(newName, container);
+        modCount++;
+    }
+    
+    /**
+     * Re-indexes the container after a batch of its classes has been replaced (ResourceContainer.updateNodes)
+     */
+    public synchronized void containerUpdated(ResourceContainer container)
+    {
+        if (registered.contains(container))
+            rebuild(new ArrayList<>(registered));
+    }
+    
+    /**
+     * Returns a counter that changes every time a container is registered, removed or a class is renamed
+     */
+    public synchronized long getModCount()
+    {
+        sync();
+        return modCount;
+    }
+    
+    /**
+     * Returns the container by its name, or null if there isn't one
+     */
+    public synchronized ResourceContainer getContainer(String name)
+    {
+        sync();
+        ResourceContainer container = containersByName.get(name);
+        
+        //container names can be changed after they're registered
+        if (container != null && !container.name.equals(name))
+        {
+            rebuild(new ArrayList<>(registered));
+            container = containersByName.get(name);
+        }
+        
+        return container;
+    }
+    
+    /**
+     * Returns the container that was loaded from the absolute path, or null if there isn't one
+     */
+    public synchronized ResourceContainer getContainerByPath(String absolutePath)
+    {
+        sync();
+        return containersByPath.get(absolutePath);
+    }
+    
+    /**
+     * Returns the container for a working name (see ResourceContainer.getWorkingName), or null if there isn't one
+     */
+    public ResourceContainer getContainerByWorkingName(String workingName)
+    {
+        int split = workingName.lastIndexOf('>');
+        return split == -1 ? null : getContainerByPath(workingName.substring(0, split));
+    }
+    
+    /**
+     * Returns the first container holding the class (full name path without the extension)
+     */
+    public synchronized ResourceContainer getClassContainer(String className)
+    {
+        sync();
+        return classes.get(className);
+    }
+    
+    /**
+     * Returns the first container holding the file resource (full name path)
+     */
+    public synchronized ResourceContainer getFileContainer(String fileName)
+    {
+        sync();
+        return files.get(fileName);
+    }
+    
+    /**
+     * Returns a copy of the registered containers
+     */
+    public synchronized List<ResourceContainer> getContainers()
+    {
+        sync();
+        return new ArrayList<>(registered);
+    }
+    
+    /**
+     * Returns a copy of every loaded class name, safe to iterate while containers are being imported
+     */
+    public synchronized Set<String> getClassNames()
+    {
+        sync();
+        return new HashSet<>(classes.keySet());
+    }
+    
+    /**
+     * Returns a copy of every loaded file resource name, safe to iterate while containers are being imported
+     */
+    public synchronized Set<String> getFileNames()
+    {
+        sync();
+        return new HashSet<>(files.keySet());
+    }
+    
+    private void sync()
+    {
+        List<ResourceContainer> current = BytecodeViewer.resourceContainers;
+        boolean changed = current.size() != registered.size();
+        
+        for (int i = 0; !changed && i < current.size(); i++)
+            changed = current.get(i) != registered.get(i);
+        
+        for (int i = 0; !changed && i < registered.size(); i++)
+            changed = entryCounts.get(registered.get(i)) != getEntryCount(registered.get(i));
+        
+        if (changed)
+            rebuild(new ArrayList<>(current));
+    }
+    
+    private void rebuild(Collection<ResourceContainer> containers)
+    {
+        clear();
+        
+        for (ResourceContainer container : containers)
+            register(container);
+    }
+    
+    private void index(ResourceContainer container)
+    {
+        containersByName.putIfAbsent(container.name, container);
+        
+        if (container.file != null)
+            containersByPath.putIfAbsent(container.file.getAbsolutePath(), container);
+        
+        for (String className : container.getClassNames())
+            classes.putIfAbsent(className, container);
+        
+        for (String fileName : container.getFileNames())
+            files.putIfAbsent(fileName, container);
+        
+        entryCounts.put(container, getEntryCount(container));
+    }
+    
+    private static int getEntryCount(ResourceContainer container)
+    {
+        return container.resourceClasses.size() + container.resourceClassBytes.size() + container.resourceFiles.size();
+    }
+}
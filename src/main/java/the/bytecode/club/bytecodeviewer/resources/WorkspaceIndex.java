@@ -0,0 +1,714 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex.MemberRef;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * The type hierarchy and call graph of every loaded class, shared across the workspace.
+ *
+ * The index follows BytecodeViewer.resourceContainers, new containers are indexed in parallel on the next
+ * update (or query) and the edited classes are re-indexed by ResourceContainer.updateNode.
+ *
+ * Each container is indexed on its own and the containers are merged into an immutable snapshot, the queries
+ * read the last snapshot without locking. A query only waits when the snapshot is out of date, while the
+ * next one is built, and editing a container only re-indexes that container.
+ *
+ * Method references are kept as they're written in the bytecode (the owner of the call instruction),
+ * the queries resolve them through the hierarchy.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class WorkspaceIndex
+{
+    private static final int CHUNK_SIZE = 256;
+    private static final ExecutorService asyncUpdater = Executors.newSingleThreadExecutor(
+            new NamedThreadFactory("Workspace Index Updater"));
+    
+    //the classes of each indexed container, replaced (never modified) when one of its classes is edited
+    private final Map<ResourceContainer, Map<String, ClassInfo>> containers = new ConcurrentHashMap<>();
+    //bumped whenever the indexed classes change, a snapshot built from an older version is out of date
+    private final AtomicInteger version = new AtomicInteger();
+    private final Object buildLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), -1);
+    //the classes outside of the workspace (JDK), loaded on demand, the classes that can't be found are empty
+    private final Map<String, Optional<ClassInfo>> externalClasses = new ConcurrentHashMap<>();
+    
+    /**
+     * Indexes the new containers and drops the closed ones
+     */
+    public void update()
+    {
+        current();
+    }
+    
+    /**
+     * Updates the index in the background, the queries wait for it to finish
+     */
+    public void updateAsync()
+    {
+        asyncUpdater.submit(this::update);
+    }
+    
+    public void clear()
+    {
+        containers.clear();
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Re-indexes an edited or renamed class, ignored if the container hasn't been indexed yet
+     */
+    public void classUpdated(ResourceContainer container, ClassNode oldNode, ClassNode newNode)
+    {
+        if (!containers.containsKey(container))
+            return;
+        
+        ClassInfo info = new ClassInfo(container);
+        newNode.accept(info.visitor());
+        
+        containers.computeIfPresent(container, (c, classes) ->
+        {
+            Map<String, ClassInfo> updated = new LinkedHashMap<>(classes);
+            updated.remove(oldNode.name);
+            
+            if (info.name != null)
+                updated.put(info.name, info);
+            
+            return updated;
+        });
+        
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Drops the container after a batch of its classes has been replaced (ResourceContainer.updateNodes),
+     * it's re-indexed on the next update or query
+     */
+    public void containerUpdated(ResourceContainer container)
+    {
+        if (containers.remove(container) != null)
+            version.incrementAndGet();
+    }
+    
+    /**
+     * Returns the container the class was loaded from, or null if it isn't loaded
+     */
+    public ResourceContainer getContainer(String className)
+    {
+        ClassInfo info = current().classes.get(className);
+        return info == null ? null : info.container;
+    }
+    
+    /**
+     * Returns the ClassNode for the class name, or null if it isn't loaded
+     */
+    public ClassNode getClassNode(String className)
+    {
+        ResourceContainer container = getContainer(className);
+        return container == null ? null : container.getClassNode(className);
+    }
+    
+    public String getSuperName(String className)
+    {
+        ClassInfo info = current().getClassInfo(className);
+        return info == null ? null : info.superName;
+    }
+    
+    public List<String> getInterfaces(String className)
+    {
+        ClassInfo info = current().getClassInfo(className);
+        return info == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(info.interfaces));
+    }
+    
+    /**
+     * Returns every super class & interface, closest first. This includes the JDK classes
+     */
+    public Set<String> getSupertypes(String className)
+    {
+        return current().supertypes(className);
+    }
+    
+    /**
+     * Returns the loaded classes directly extending or implementing the type
+     */
+    public Set<String> getSubtypes(String className)
+    {
+        return new LinkedHashSet<>(current().subtypes.getOrDefault(className, Collections.emptySet()));
+    }
+    
+    /**
+     * Returns every loaded class extending or implementing the type, directly or not
+     */
+    public Set<String> getAllSubtypes(String className)
+    {
+        return current().allSubtypes(className);
+    }
+    
+    public boolean isSubtypeOf(String className, String superName)
+    {
+        return className.equals(superName) || current().supertypes(className).contains(superName);
+    }
+    
+    /**
+     * Returns the methods of the subtypes overriding the method
+     */
+    public Set<MemberRef> getOverrides(String owner, String name, String desc)
+    {
+        Snapshot s = current();
+        Set<MemberRef> overrides = new LinkedHashSet<>();
+        if (!s.isVirtual(owner, name, desc))
+            return overrides;
+        
+        for (String subtype : s.allSubtypes(owner))
+            if (s.declaresVirtual(subtype, name, desc))
+                overrides.add(new MemberRef(subtype, name, desc));
+        
+        return overrides;
+    }
+    
+    /**
+     * Returns the methods of the loaded supertypes the method overrides
+     */
+    public Set<MemberRef> getOverridden(String owner, String name, String desc)
+    {
+        Snapshot s = current();
+        Set<MemberRef> overridden = new LinkedHashSet<>();
+        if (!s.isVirtual(owner, name, desc))
+            return overridden;
+        
+        for (String supertype : s.supertypes(owner))
+            if (s.classes.containsKey(supertype) && s.declaresVirtual(supertype, name, desc))
+                overridden.add(new MemberRef(supertype, name, desc));
+        
+        return overridden;
+    }
+    
+    /**
+     * Returns every owner the method can be referenced through: the declaring class, the classes
+     * it overrides or is overridden by and the classes inheriting any of them.
+     *
+     * Renaming a method safely means renaming it on all of these owners with the same name.
+     */
+    public Set<MemberRef> getMethodFamily(String owner, String name, String desc)
+    {
+        Set<MemberRef> family = new LinkedHashSet<>();
+        
+        for (String type : current().getFamilyTypes(owner, name, desc))
+            family.add(new MemberRef(type, name, desc));
+        
+        return family;
+    }
+    
+    /**
+     * Returns true if the method overrides or implements a method of a class outside of the workspace
+     * (or a class that couldn't be found), meaning it can't be renamed
+     */
+    public boolean isLibraryMethod(String owner, String name, String desc)
+    {
+        Snapshot s = current();
+        if (!s.isVirtual(owner, name, desc))
+            return false;
+        
+        for (String type : s.getFamilyTypes(owner, name, desc))
+        {
+            for (String supertype : s.supertypes(type))
+            {
+                if (s.classes.containsKey(supertype))
+                    continue;
+                
+                ClassInfo external = s.getClassInfo(supertype);
+                if (external == null || external.methods.containsKey(name + desc))
+                    return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Returns the methods calling the method, through the declaring class or a subtype inheriting it
+     */
+    public Set<MemberRef> getCallers(String owner, String name, String desc)
+    {
+        Snapshot s = current();
+        Set<MemberRef> result = new LinkedHashSet<>(s.callers.getOrDefault(new MemberRef(owner, name, desc),
+                Collections.emptySet()));
+        
+        ArrayDeque<String> queue = new ArrayDeque<>(s.subtypes.getOrDefault(owner, Collections.emptySet()));
+        Set<String> visited = new HashSet<>(queue);
+        
+        while (!queue.isEmpty())
+        {
+            String subtype = queue.poll();
+            
+            //overridden, the calls through this class don't reach the method
+            if (s.declaresVirtual(subtype, name, desc))
+                continue;
+            
+            result.addAll(s.callers.getOrDefault(new MemberRef(subtype, name, desc), Collections.emptySet()));
+            
+            for (String next : s.subtypes.getOrDefault(subtype, Collections.emptySet()))
+                if (visited.add(next))
+                    queue.add(next);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns the methods called by the method, as they're referenced by the instructions
+     */
+    public Set<MemberRef> getCallees(String owner, String name, String desc)
+    {
+        ClassInfo info = current().classes.get(owner);
+        MethodInfo method = info == null ? null : info.methods.get(name + desc);
+        return method == null ? Collections.emptySet() : new LinkedHashSet<>(method.callees);
+    }
+    
+    /**
+     * Returns the class declaring the method the reference resolves to, searching the super classes first
+     * then the interfaces. Returns null if it can't be resolved.
+     */
+    public String resolveMethodOwner(String owner, String name, String desc)
+    {
+        Snapshot s = current();
+        if (s.declares(owner, name, desc))
+            return owner;
+        
+        for (String supertype : s.supertypes(owner))
+            if (s.declares(supertype, name, desc))
+                return supertype;
+        
+        return null;
+    }
+    
+    /**
+     * Returns the last snapshot, or builds a new one if the containers changed since.
+     * Only one snapshot is built at a time, the queries needing it wait for it.
+     */
+    private Snapshot current()
+    {
+        Snapshot current = snapshot;
+        if (current.isCurrent())
+            return current;
+        
+        synchronized (buildLock)
+        {
+            current = snapshot;
+            if (current.isCurrent())
+                return current;
+            
+            snapshot = current = build();
+            return current;
+        }
+    }
+    
+    private Snapshot build()
+    {
+        int buildVersion = version.get();
+        List<ResourceContainer> current = new ArrayList<>(BytecodeViewer.resourceContainers);
+        
+        //the closed containers are dropped, the duplicates they were hiding come back on the merge
+        Set<ResourceContainer> open = Collections.newSetFromMap(new IdentityHashMap<>());
+        open.addAll(current);
+        containers.keySet().retainAll(open);
+        
+        List<ResourceContainer> missing = new ArrayList<>();
+        for (ResourceContainer container : current)
+            if (!containers.containsKey(container))
+                missing.add(container);
+        
+        if (!missing.isEmpty())
+            index(missing);
+        
+        //merged in order, so the first container & class wins on duplicates
+        Snapshot built = new Snapshot(current, buildVersion);
+        for (ResourceContainer container : current)
+            for (ClassInfo info : containers.getOrDefault(container, Collections.emptyMap()).values())
+                built.addClass(info);
+        
+        return built;
+    }
+    
+    private void index(List<ResourceContainer> missing)
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new NamedThreadFactory("Workspace Index"));
+        
+        try
+        {
+            for (ResourceContainer container : missing)
+            {
+                List<Future<List<ClassInfo>>> results = new ArrayList<>();
+                List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+                
+                for (String className : container.getClassNames())
+                {
+                    chunk.add(className);
+                    
+                    if (chunk.size() == CHUNK_SIZE)
+                    {
+                        results.add(submit(pool, container, chunk));
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+                
+                if (!chunk.isEmpty())
+                    results.add(submit(pool, container, chunk));
+                
+                Map<String, ClassInfo> classes = new LinkedHashMap<>();
+                for (Future<List<ClassInfo>> result : results)
+                    for (ClassInfo info : result.get())
+                        classes.putIfAbsent(info.name, info);
+                
+                containers.put(container, classes);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            BytecodeViewer.handleException(e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * The merged index of the containers, never modified once published
+     */
+    private class Snapshot
+    {
+        private final List<ResourceContainer> containers;
+        private final int version;
+        private final Map<String, ClassInfo> classes = new HashMap<>();
+        //direct subtypes, this includes the subtypes of the classes outside of the workspace
+        private final Map<String, Set<String>> subtypes = new HashMap<>();
+        //callee (as referenced) -> the methods calling it
+        private final Map<MemberRef, Set<MemberRef>> callers = new HashMap<>();
+        
+        private Snapshot(List<ResourceContainer> containers, int version)
+        {
+            this.containers = containers;
+            this.version = version;
+        }
+        
+        private boolean isCurrent()
+        {
+            if (version != WorkspaceIndex.this.version.get())
+                return false;
+            
+            List<ResourceContainer> current = BytecodeViewer.resourceContainers;
+            if (current.size() != containers.size())
+                return false;
+            
+            for (int i = 0; i < containers.size(); i++)
+                if (current.get(i) != containers.get(i))
+                    return false;
+            
+            return true;
+        }
+        
+        private void addClass(ClassInfo info)
+        {
+            if (classes.putIfAbsent(info.name, info) != null)
+                return;
+            
+            if (info.superName != null)
+                subtypes.computeIfAbsent(info.superName, k -> new LinkedHashSet<>()).add(info.name);
+            
+            for (String itf : info.interfaces)
+                subtypes.computeIfAbsent(itf, k -> new LinkedHashSet<>()).add(info.name);
+            
+            for (MethodInfo method : info.methods.values())
+                for (MemberRef callee : method.callees)
+                    callers.computeIfAbsent(callee, k -> new LinkedHashSet<>()).add(method.ref);
+        }
+        
+        private Set<String> supertypes(String className)
+        {
+            Set<String> supertypes = new LinkedHashSet<>();
+            ArrayDeque<String> queue = new ArrayDeque<>();
+            queue.add(className);
+            
+            while (!queue.isEmpty())
+            {
+                ClassInfo info = getClassInfo(queue.poll());
+                if (info == null)
+                    continue;
+                
+                if (info.superName != null && supertypes.add(info.superName))
+                    queue.add(info.superName);
+                
+                for (String itf : info.interfaces)
+                    if (supertypes.add(itf))
+                        queue.add(itf);
+            }
+            
+            return supertypes;
+        }
+        
+        private Set<String> allSubtypes(String className)
+        {
+            Set<String> all = new LinkedHashSet<>();
+            ArrayDeque<String> queue = new ArrayDeque<>();
+            queue.add(className);
+            
+            while (!queue.isEmpty())
+                for (String subtype : subtypes.getOrDefault(queue.poll(), Collections.emptySet()))
+                    if (all.add(subtype))
+                        queue.add(subtype);
+            
+            return all;
+        }
+        
+        private Set<String> getFamilyTypes(String owner, String name, String desc)
+        {
+            Set<String> types = new LinkedHashSet<>();
+            types.add(owner);
+            
+            if (!isVirtual(owner, name, desc))
+                return types;
+            
+            ArrayDeque<String> queue = new ArrayDeque<>();
+            queue.add(owner);
+            
+            while (!queue.isEmpty())
+            {
+                String type = queue.poll();
+                
+                //the supertypes declaring it are part of the family, so are all of their subtypes
+                for (String supertype : supertypes(type))
+                    if (classes.containsKey(supertype) && declaresVirtual(supertype, name, desc) && types.add(supertype))
+                        queue.add(supertype);
+                
+                //the subtypes are queued too, a subtype can tie two families together by implementing an interface
+                for (String subtype : allSubtypes(type))
+                    if (types.add(subtype))
+                        queue.add(subtype);
+            }
+            
+            return types;
+        }
+        
+        private boolean isVirtual(String owner, String name, String desc)
+        {
+            if (name.startsWith("<"))
+                return false;
+            
+            ClassInfo info = getClassInfo(owner);
+            MethodInfo method = info == null ? null : info.methods.get(name + desc);
+            return method == null || (method.access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0;
+        }
+        
+        private boolean declares(String owner, String name, String desc)
+        {
+            ClassInfo info = getClassInfo(owner);
+            return info != null && info.methods.containsKey(name + desc);
+        }
+        
+        private boolean declaresVirtual(String owner, String name, String desc)
+        {
+            ClassInfo info = getClassInfo(owner);
+            MethodInfo method = info == null ? null : info.methods.get(name + desc);
+            return method != null && (method.access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0;
+        }
+        
+        /**
+         * Returns the loaded class, or the class outside of the workspace from the system class loader
+         */
+        private ClassInfo getClassInfo(String className)
+        {
+            ClassInfo info = classes.get(className);
+            if (info != null)
+                return info;
+            
+            Optional<ClassInfo> external = externalClasses.get(className);
+            if (external != null)
+                return external.orElse(null);
+            
+            try (InputStream is = ClassLoader.getSystemResourceAsStream(className + ".class"))
+            {
+                if (is != null)
+                {
+                    info = new ClassInfo(null);
+                    new ClassReader(is).accept(info.visitor(), ClassReader.SKIP_CODE);
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                info = null;
+            }
+            
+            externalClasses.putIfAbsent(className, Optional.ofNullable(info));
+            return info;
+        }
+    }
+    
+    private static Future<List<ClassInfo>> submit(ExecutorService pool, ResourceContainer container,
+                                                  List<String> classNames)
+    {
+        return pool.submit(() ->
+        {
+            List<ClassInfo> infos = new ArrayList<>(classNames.size());
+            
+            for (String className : classNames)
+            {
+                ClassInfo info = new ClassInfo(container);
+                
+                try
+                {
+                    //the bytes are read directly for lazily loaded classes, no ClassNode is built
+                    ClassNode cn = container.resourceClasses.get(className);
+                    byte[] bytes = cn == null ? container.getBytes(className + ".class") : null;
+                    
+                    if (cn != null)
+                        cn.accept(info.visitor());
+                    else if (bytes != null)
+                        new ClassReader(bytes).accept(info.visitor(), ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+                    else
+                        continue;
+                }
+                catch (Exception e)
+                {
+                    //broken classes are left out of the index
+                    continue;
+                }
+                
+                if (info.name != null)
+                    infos.add(info);
+            }
+            
+            return infos;
+        });
+    }
+    
+    private static class ClassInfo
+    {
+        private final ResourceContainer container;
+        private String name;
+        private String superName;
+        private String[] interfaces = new String[0];
+        //name + desc -> method
+        private final Map<String, MethodInfo> methods = new HashMap<>();
+        
+        private ClassInfo(ResourceContainer container)
+        {
+            this.container = container;
+        }
+        
+        private ClassVisitor visitor()
+        {
+            return new ClassVisitor(Opcodes.ASM9)
+            {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName,
+                                  String[] interfaces)
+                {
+                    ClassInfo.this.name = name;
+                    ClassInfo.this.superName = superName;
+                    
+                    if (interfaces != null)
+                        ClassInfo.this.interfaces = interfaces;
+                }
+                
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                                 String[] exceptions)
+                {
+                    MethodInfo method = new MethodInfo(new MemberRef(ClassInfo.this.name, name, descriptor), access);
+                    methods.put(name + descriptor, method);
+                    
+                    return new MethodVisitor(Opcodes.ASM9)
+                    {
+                        @Override
+                        public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+                                                    boolean isInterface)
+                        {
+                            method.callees.add(new MemberRef(owner, name, descriptor));
+                        }
+                        
+                        @Override
+                        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                                           Object... bootstrapMethodArguments)
+                        {
+                            //lambdas & method references call their implementation method through the handle
+                            for (Object argument : bootstrapMethodArguments)
+                            {
+                                if (argument instanceof Handle && ((Handle) argument).getTag() >= Opcodes.H_INVOKEVIRTUAL)
+                                {
+                                    Handle handle = (Handle) argument;
+                                    method.callees.add(new MemberRef(handle.getOwner(), handle.getName(), handle.getDesc()));
+                                }
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
+    
+    private static class MethodInfo
+    {
+        private final MemberRef ref;
+        private final int access;
+        private final Set<MemberRef> callees = new LinkedHashSet<>();
+        
+        private MethodInfo(MemberRef ref, int access)
+        {
+            this.ref = ref;
+            this.access = access;
+        }
+    }
+}
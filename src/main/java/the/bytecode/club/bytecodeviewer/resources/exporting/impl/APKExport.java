@@ -92,7 +92,7 @@ public class APKExport implements Exporter
 				{
 					BytecodeViewer.updateBusyStatus(true);
 					final String input = tempDirectory + fs + MiscUtils.getRandomizedName() + ".jar";
-					JarUtils.saveAsJar(BytecodeViewer.getLoadedClasses(), input);
+					JarUtils.saveContainersAsJar(BytecodeViewer.resourceContainers, input, null);
 					
 					Thread buildAPKThread = new Thread(() ->
 					{
@@ -50,7 +50,7 @@ public class ZipExport implements Exporter
 				BytecodeViewer.updateBusyStatus(true);
 				Thread saveThread = new Thread(() ->
 				{
-					JarUtils.saveAsJar(BytecodeViewer.getLoadedClasses(), file2.getAbsolutePath());
+					JarUtils.saveContainersAsJar(BytecodeViewer.resourceContainers, file2.getAbsolutePath(), null);
 					BytecodeViewer.updateBusyStatus(false);
 				}, "Jar Export");
 				saveThread.start();
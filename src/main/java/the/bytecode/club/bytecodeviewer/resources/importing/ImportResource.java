@@ -1,6 +1,7 @@
 package the.bytecode.club.bytecodeviewer.resources.importing;
 
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.Settings;
 import the.bytecode.club.bytecodeviewer.api.ExceptionUI;
 import the.bytecode.club.bytecodeviewer.gui.resourcelist.ResourceListPane;
@@ -91,6 +92,11 @@ public class ImportResource implements Runnable
 		}
 		finally
 		{
+			if (Configuration.workspaceIndex)
+				BytecodeViewer.workspaceIndex.updateAsync();
+			
+			BytecodeViewer.quickSearchIndex.updateAsync();
+			
 			BytecodeViewer.updateBusyStatus(false);
 			try {
 				BytecodeViewer.viewer.resourcePane.updateTree();
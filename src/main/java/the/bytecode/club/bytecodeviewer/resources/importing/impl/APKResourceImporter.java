@@ -28,7 +28,8 @@ public class APKResourceImporter implements Importer
 		ResourceContainer container = new ResourceContainer(tempCopy, file.getName());
 		
 		//APK Resource Decoding Here
-		if (BytecodeViewer.viewer.decodeAPKResources.isSelected())
+		//the command line runs without the settings menu, the resources are decoded by default
+		if (BytecodeViewer.viewer == null || BytecodeViewer.viewer.decodeAPKResources.isSelected())
 		{
 			File decodedResources = new File(tempDirectory + fs + MiscUtils.randomString(32) + ".apk");
 			APKTool.decodeResources(tempCopy, decodedResources, container);
@@ -41,15 +42,15 @@ public class APKResourceImporter implements Importer
 		String name = MiscUtils.getRandomizedName() + ".jar";
 		File output = new File(tempDirectory + fs + name);
 		
-		if (BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionDex.getModel()))
+		if (BytecodeViewer.viewer == null || BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionDex.getModel()))
 			Dex2Jar.dex2Jar(tempCopy, output);
 		else if (BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionEnjarify.getModel()))
 			Enjarify.apk2Jar(tempCopy, output);
 		
 		//create a new resource importer and copy the contents from it
 		container.copy(new ResourceContainerImporter(
-				new ResourceContainer(output)).importAsZip().getContainer());
+				new ResourceContainer(output)).importAsArchive().getContainer());
 		
-		BytecodeViewer.resourceContainers.add(container);
+		BytecodeViewer.addResourceContainer(container);
 	}
 }
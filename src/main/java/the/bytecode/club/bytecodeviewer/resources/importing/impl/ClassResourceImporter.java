@@ -26,9 +26,13 @@ public class ClassResourceImporter implements Importer
 		
 		if (MiscUtils.getFileHeader(bytes).equalsIgnoreCase("cafebabe"))
 		{
-			final ClassNode cn = JarUtils.getNode(bytes);
+			//lazy containers build the ClassNode on first access
+			if (!container.lazyClassNodes)
+			{
+				final ClassNode cn = JarUtils.getNode(bytes);
+				container.resourceClasses.put(FilenameUtils.removeExtension(name), cn);
+			}
 			
-			container.resourceClasses.put(FilenameUtils.removeExtension(name), cn);
 			container.resourceClassBytes.put(name, bytes);
 		}
 		else
@@ -38,6 +42,6 @@ public class ClassResourceImporter implements Importer
 			//TODO double check this
 			container.resourceFiles.put(name, bytes);
 		}
-		BytecodeViewer.resourceContainers.add(container);
+		BytecodeViewer.addResourceContainer(container);
 	}
 }
@@ -30,15 +30,16 @@ public class DEXResourceImporter implements Importer
 		String name = MiscUtils.getRandomizedName() + ".jar";
 		File output = new File(tempDirectory + fs + name);
 		
-		if (BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionDex.getModel()))
+		//the command line runs without the settings menu, dex2jar is used by default
+		if (BytecodeViewer.viewer == null || BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionDex.getModel()))
 			Dex2Jar.dex2Jar(tempCopy, output);
 		else if (BytecodeViewer.viewer.apkConversionGroup.isSelected(BytecodeViewer.viewer.apkConversionEnjarify.getModel()))
 			Enjarify.apk2Jar(tempCopy, output);
 		
 		//create a new resource importer and copy the contents from it
 		container.copy(new ResourceContainerImporter(
-				new ResourceContainer(output)).importAsZip().getContainer());
+				new ResourceContainer(output)).importAsArchive().getContainer());
 		
-		BytecodeViewer.resourceContainers.add(container);
+		BytecodeViewer.addResourceContainer(container);
 	}
 }
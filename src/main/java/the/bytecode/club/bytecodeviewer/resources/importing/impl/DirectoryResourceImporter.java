@@ -28,6 +28,7 @@ public class DirectoryResourceImporter implements Importer
 		ResourceContainer container = new ResourceContainer(file);
 		LinkedHashMap<String, byte[]> allDirectoryFiles = new LinkedHashMap<>();
 		LinkedHashMap<String, ClassNode> allDirectoryClasses = new LinkedHashMap<>();
+		LinkedHashMap<String, byte[]> allDirectoryClassBytes = new LinkedHashMap<>();
 		
 		boolean finished = false;
 		ArrayList<File> totalFiles = new ArrayList<>();
@@ -72,8 +73,14 @@ public class DirectoryResourceImporter implements Importer
 						byte[] bytes = Files.readAllBytes(Paths.get(child.getAbsolutePath()));
 						if (MiscUtils.getFileHeader(bytes).equalsIgnoreCase("cafebabe"))
 						{
-							final ClassNode cn = JarUtils.getNode(bytes);
-							allDirectoryClasses.put(FilenameUtils.removeExtension(trimmedPath), cn);
+							//lazy containers build the ClassNode on first access
+							if (!container.lazyClassNodes)
+							{
+								final ClassNode cn = JarUtils.getNode(bytes);
+								allDirectoryClasses.put(FilenameUtils.removeExtension(trimmedPath), cn);
+							}
+							
+							allDirectoryClassBytes.put(trimmedPath, bytes);
 						}
 					}
 					else //pack files into a single container
@@ -87,7 +94,8 @@ public class DirectoryResourceImporter implements Importer
 		}
 		
 		container.resourceClasses.putAll(allDirectoryClasses);
+		container.resourceClassBytes.putAll(allDirectoryClassBytes);
 		container.resourceFiles = allDirectoryFiles;
-		BytecodeViewer.resourceContainers.add(container);
+		BytecodeViewer.addResourceContainer(container);
 	}
 }
@@ -70,9 +70,9 @@ public class XAPKResourceImporter implements Importer
 		}
 		
 		Configuration.silenceExceptionGUI--; //turn exceptions back on
-		BytecodeViewer.viewer.clearBusyStatus(); //clear errant busy signals from failed APK imports
+		BytecodeViewer.clearBusyStatus(); //clear errant busy signals from failed APK imports
 		container.resourceFiles = allDirectoryFiles; //store the file resource
-		BytecodeViewer.resourceContainers.add(container); //add the file container to BCV's total loaded files
+		BytecodeViewer.addResourceContainer(container); //add the file container to BCV's total loaded files
 	}
 	
 	public File exportTo(File original, String extension, byte[] bytes)
@@ -21,8 +21,8 @@ public class ZipResourceImporter implements Importer
 		//create the new file importer
 		ResourceContainerImporter importer = new ResourceContainerImporter(container);
 		//import the file as zip into the file container
-		importer.importAsZip();
+		importer.importAsArchive();
 		//add the file container to BCV's total loaded files
-		BytecodeViewer.resourceContainers.add(container);
+		BytecodeViewer.addResourceContainer(container);
 	}
 }
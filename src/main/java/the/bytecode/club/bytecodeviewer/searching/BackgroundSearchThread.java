@@ -1,6 +1,15 @@
 package the.bytecode.club.bytecodeviewer.searching;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
+import the.bytecode.club.bytecodeviewer.util.NamedThreadFactory;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -23,6 +32,9 @@ import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 /**
  * A simple class to make searching run in a background thread.
  *
+ * The work can be split into tasks with runInParallel, they share a single search pool.
+ * Searches are cancelled cooperatively, the tasks are expected to check isCancelled between classes.
+ *
  * @author Konloch
  */
 
@@ -34,16 +46,86 @@ public abstract class BackgroundSearchThread extends Thread
         this.finished = finished;
     }
 
-    public boolean finished = false;
+    public volatile boolean finished = false;
+    private volatile boolean cancelled = false;
 
     public abstract void search();
+    
+    /**
+     * Stops this search, used when a new search replaces it
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        interrupt();
+    }
+    
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+    
+    /**
+     * Runs the tasks on a new search pool and waits for all of them to finish,
+     * the tasks that haven't started yet are dropped once the search is cancelled.
+     * The first task that fails is reported once the others have finished.
+     */
+    protected void runInParallel(List<Runnable> tasks)
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(Configuration.searchThreads, tasks.size())),
+                new NamedThreadFactory("Search"));
+        Throwable failure = null;
+        
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            
+            for (Runnable task : tasks)
+                futures.add(pool.submit(task));
+            
+            for (Future<?> future : futures)
+            {
+                try
+                {
+                    if (cancelled)
+                        future.cancel(false);
+                    else
+                        future.get();
+                }
+                catch (InterruptedException e)
+                {
+                    cancelled = true;
+                    future.cancel(false);
+                }
+                catch (ExecutionException e)
+                {
+                    if (failure == null)
+                        failure = e.getCause();
+                }
+                catch (CancellationException ignored) { }
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        
+        if (failure != null)
+            BytecodeViewer.handleException(failure);
+    }
 
     @Override
     public void run()
     {
         BytecodeViewer.updateBusyStatus(true);
-        search();
-        finished = true;
-        BytecodeViewer.updateBusyStatus(false);
+        try
+        {
+            search();
+        }
+        finally
+        {
+            finished = true;
+            BytecodeViewer.updateBusyStatus(false);
+        }
     }
 }
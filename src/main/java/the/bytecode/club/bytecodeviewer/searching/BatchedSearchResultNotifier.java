@@ -0,0 +1,103 @@
+package the.bytecode.club.bytecodeviewer.searching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Collects the results of the search workers and hands them to the search pane in batches on the EDT,
+ * so the results stream in while the search is still running.
+ *
+ * Once the result limit is hit the remaining results are dropped and isFull returns true.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+
+public class BatchedSearchResultNotifier implements SearchResultNotifier
+{
+    private static final int BATCH_SIZE = 256;
+    private static final long BATCH_INTERVAL = 100; //ms
+    
+    private final BackgroundSearchThread search;
+    private final SearchResultNotifier target;
+    private final int maxResults;
+    private final AtomicInteger resultCount = new AtomicInteger();
+    private List<String> pending = new ArrayList<>();
+    private long lastFlush = System.currentTimeMillis();
+    
+    public BatchedSearchResultNotifier(BackgroundSearchThread search, SearchResultNotifier target, int maxResults)
+    {
+        this.search = search;
+        this.target = target;
+        this.maxResults = maxResults;
+    }
+    
+    @Override
+    public void notifyOfResult(String debug)
+    {
+        if (search.isCancelled() || resultCount.incrementAndGet() > maxResults)
+            return;
+        
+        synchronized (this)
+        {
+            pending.add(debug);
+            
+            if (pending.size() >= BATCH_SIZE || System.currentTimeMillis() - lastFlush >= BATCH_INTERVAL)
+                flush();
+        }
+    }
+    
+    /**
+     * Sends the pending results to the search pane
+     */
+    public synchronized void flush()
+    {
+        lastFlush = System.currentTimeMillis();
+        
+        if (pending.isEmpty())
+            return;
+        
+        final List<String> batch = pending;
+        pending = new ArrayList<>();
+        
+        SwingUtilities.invokeLater(() ->
+        {
+            //a newer search has already cleared the results
+            if (!search.isCancelled())
+                target.notifyOfResults(batch);
+        });
+    }
+    
+    /**
+     * Returns true once the result limit has been reached, the search should stop at that point
+     */
+    public boolean isFull()
+    {
+        return resultCount.get() >= maxResults;
+    }
+    
+    public int getResultCount()
+    {
+        return Math.min(resultCount.get(), maxResults);
+    }
+}
@@ -0,0 +1,1098 @@
+package the.bytecode.club.bytecodeviewer.searching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.objectweb.asm.util.Printer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * A compiled instruction pattern, the regex search syntax is compiled once into an automaton over
+ * instructions and matched against the InsnList directly, without turning the method into a string.
+ *
+ * Syntax, the instructions are separated by whitespace:
+ * <pre>
+ *   ALOAD                   any opcode by name
+ *   ALOAD_1                 a var instruction with a fixed local index
+ *   ANYINSN or .            any instruction
+ *   IFINSN                  any conditional jump
+ *   BIPUSH\{5\}             operands, each operand is a regex that has to match the whole operand
+ *   LDC\{Hello.*\}          the constant
+ *   IINC\{var,incr\}        or IINC\{incr\}
+ *   GETFIELD\{desc,owner,name\} INVOKEVIRTUAL\{desc,owner,name\}  missing operands match anything
+ *   NEW\{type\}             MULTIANEWARRAY\{dims,desc\}
+ *   ( ) (?: ) | * + ? {n} {n,} {n,m}   groups, captures, alternation & (lazy) quantifiers
+ * </pre>
+ * The unescaped {operands} form is accepted as well, directly after instructions that have operands.
+ *
+ * The instruction names are upper case only, text that isn't a valid pattern (lower case words for example)
+ * is searched for inside of the operands instead, see {@link #operandRegex}.
+ *
+ * The operands are regexes, so parentheses inside of them are regex groups. A method descriptor has to
+ * escape them, INVOKESTATIC{\(I\)V,,} or INVOKESTATIC\{\(I\)V,,\}, an unescaped (I)V only matches IV.
+ *
+ * The automaton is simulated breadth first (a Pike VM), so matching is linear in the number of instructions.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+
+public class InsnPattern
+{
+    private static final HashMap<String, Integer> OPCODES = new HashMap<>();
+    
+    private static final int OP_INSN = 0;
+    private static final int OP_SPLIT = 1;
+    private static final int OP_JMP = 2;
+    private static final int OP_SAVE = 3;
+    private static final int OP_MATCH = 4;
+    
+    private static final int MAX_REPEAT = 1000;
+    
+    static
+    {
+        for (int i = 0; i < Printer.OPCODES.length; i++)
+            if (Printer.OPCODES[i] != null && !Printer.OPCODES[i].isEmpty())
+                OPCODES.put(Printer.OPCODES[i], i);
+        
+        //the wide forms only exist in the class file, ASM always hands out the regular opcode
+        OPCODES.put("LDC_W", Opcodes.LDC);
+        OPCODES.put("LDC2_W", Opcodes.LDC);
+        OPCODES.put("GOTO_W", Opcodes.GOTO);
+        OPCODES.put("JSR_W", Opcodes.JSR);
+    }
+    
+    private final String pattern;
+    private final int groupCount;
+    private final int[] op;
+    private final int[] x;
+    private final int[] y;
+    private final InsnPredicate[] predicates;
+    
+    private InsnPattern(String pattern, int groupCount, Program program)
+    {
+        this.pattern = pattern;
+        this.groupCount = groupCount;
+        int size = program.op.size();
+        this.op = new int[size];
+        this.x = new int[size];
+        this.y = new int[size];
+        this.predicates = program.predicates.toArray(new InsnPredicate[0]);
+        
+        for (int i = 0; i < size; i++)
+        {
+            op[i] = program.op.get(i);
+            x[i] = program.x.get(i);
+            y[i] = program.y.get(i);
+        }
+    }
+    
+    /**
+     * Compiles the instruction pattern
+     *
+     * @throws PatternSyntaxException if the pattern or one of the operand regexes is invalid
+     */
+    public static InsnPattern compile(String pattern)
+    {
+        Parser parser = new Parser(pattern);
+        Node root = parser.parse();
+        
+        Program program = new Program();
+        program.emit(OP_SAVE, 0, 0, null);
+        root.emit(program);
+        program.emit(OP_SAVE, 1, 0, null);
+        program.emit(OP_MATCH, 0, 0, null);
+        
+        return new InsnPattern(pattern, parser.groupCount, program);
+    }
+    
+    /**
+     * A single instruction pattern that searches the operands of each instruction with a plain regex,
+     * this is how the regex search used to behave for queries that aren't instruction patterns
+     */
+    public static InsnPattern operandRegex(Pattern regex)
+    {
+        Program program = new Program();
+        program.emit(OP_SAVE, 0, 0, null);
+        program.emit(OP_INSN, 0, 0, insn -> regex.matcher(operandString(insn)).find());
+        program.emit(OP_SAVE, 1, 0, null);
+        program.emit(OP_MATCH, 0, 0, null);
+        
+        return new InsnPattern(regex.pattern(), 0, program);
+    }
+    
+    public String pattern()
+    {
+        return pattern;
+    }
+    
+    /**
+     * Returns the number of capturing groups, the whole match is group 0
+     */
+    public int groupCount()
+    {
+        return groupCount;
+    }
+    
+    /**
+     * Returns a matcher, a matcher can be reused for any amount of methods but isn't thread safe
+     */
+    public InsnMatcher matcher()
+    {
+        return new InsnMatcher();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return pattern;
+    }
+    
+    /**
+     * Returns the real instructions (no labels, frames or line numbers) of the list
+     */
+    public static AbstractInsnNode[] instructions(InsnList list)
+    {
+        AbstractInsnNode[] result = new AbstractInsnNode[list.size()];
+        int count = 0;
+        
+        for (AbstractInsnNode insn = list.getFirst(); insn != null; insn = insn.getNext())
+            if (insn.getOpcode() >= 0)
+                result[count++] = insn;
+        
+        return Arrays.copyOf(result, count);
+    }
+    
+    /**
+     * The operand text the old regex search matched against
+     */
+    static String operandString(AbstractInsnNode insn)
+    {
+        switch (insn.getType())
+        {
+            case AbstractInsnNode.INT_INSN:
+                return "{" + ((IntInsnNode) insn).operand + "}";
+            case AbstractInsnNode.LDC_INSN:
+                return "{" + ((LdcInsnNode) insn).cst.toString().replace("}", "\\}") + "}";
+            case AbstractInsnNode.VAR_INSN:
+                return "_" + ((VarInsnNode) insn).var;
+            case AbstractInsnNode.IINC_INSN:
+                IincInsnNode iinc = (IincInsnNode) insn;
+                return "{" + iinc.var + "," + iinc.incr + "}";
+            case AbstractInsnNode.FIELD_INSN:
+                FieldInsnNode fin = (FieldInsnNode) insn;
+                return "{" + fin.desc + "," + fin.owner + "," + fin.name + "}";
+            case AbstractInsnNode.METHOD_INSN:
+                MethodInsnNode min = (MethodInsnNode) insn;
+                return "{" + min.desc + "," + min.owner + "," + min.name + "}";
+            case AbstractInsnNode.TYPE_INSN:
+                return "{" + ((TypeInsnNode) insn).desc + "}";
+            case AbstractInsnNode.MULTIANEWARRAY_INSN:
+                MultiANewArrayInsnNode multi = (MultiANewArrayInsnNode) insn;
+                return "{" + multi.dims + "," + multi.desc + "}";
+            default:
+                return "";
+        }
+    }
+    
+    /**
+     * Runs the compiled pattern against methods, the state is reused between calls
+     */
+    public class InsnMatcher
+    {
+        //sparse sets of program counters for the current and the next instruction
+        private final int[] currentPcs = new int[op.length];
+        private final int[][] currentCaps = new int[op.length][];
+        private final int[] nextPcs = new int[op.length];
+        private final int[][] nextCaps = new int[op.length][];
+        private final int[] visited = new int[op.length];
+        private final int[] stack = new int[op.length * 2 + 1];
+        private final int[][] capsStack = new int[op.length * 2 + 1][];
+        private int currentCount;
+        private int nextCount;
+        private int generation;
+        
+        /**
+         * Returns true if the pattern matches anywhere inside of the method
+         */
+        public boolean find(MethodNode method)
+        {
+            return find(instructions(method.instructions), 0) != null;
+        }
+        
+        /**
+         * Returns the first match starting at or after the instruction index, null if there is none
+         */
+        public InsnMatch find(AbstractInsnNode[] insns, int from)
+        {
+            int[] matched = null;
+            currentCount = 0;
+            
+            for (int pos = from; pos <= insns.length; pos++)
+            {
+                //new match attempts have the lowest priority, earlier starting threads win
+                if (matched == null)
+                {
+                    int[] caps = new int[(groupCount + 1) * 2];
+                    Arrays.fill(caps, -1);
+                    generation++;
+                    for (int i = 0; i < currentCount; i++)
+                        visited[currentPcs[i]] = generation;
+                    addThread(true, 0, caps, pos);
+                }
+                
+                if (currentCount == 0)
+                    break;
+                
+                nextCount = 0;
+                generation++;
+                AbstractInsnNode insn = pos < insns.length ? insns[pos] : null;
+                
+                for (int i = 0; i < currentCount; i++)
+                {
+                    int pc = currentPcs[i];
+                    int[] caps = currentCaps[i];
+                    
+                    if (op[pc] == OP_MATCH)
+                    {
+                        matched = caps;
+                        //lower priority threads can't win anymore
+                        break;
+                    }
+                    
+                    if (op[pc] == OP_INSN && insn != null && predicates[pc].test(insn))
+                        addThread(false, pc + 1, caps, pos + 1);
+                }
+                
+                swap();
+            }
+            
+            Arrays.fill(currentCaps, null);
+            Arrays.fill(nextCaps, null);
+            Arrays.fill(capsStack, null);
+            
+            return matched == null ? null : new InsnMatch(insns, matched);
+        }
+        
+        /**
+         * Returns every non-overlapping match inside of the method
+         */
+        public List<InsnMatch> findAll(MethodNode method)
+        {
+            List<InsnMatch> results = new ArrayList<>();
+            AbstractInsnNode[] insns = instructions(method.instructions);
+            int from = 0;
+            
+            while (from <= insns.length)
+            {
+                InsnMatch match = find(insns, from);
+                if (match == null)
+                    break;
+                
+                results.add(match);
+                //empty matches still have to move forward
+                from = match.end() > match.start() ? match.end() : match.start() + 1;
+            }
+            
+            return results;
+        }
+        
+        private void swap()
+        {
+            System.arraycopy(nextPcs, 0, currentPcs, 0, nextCount);
+            System.arraycopy(nextCaps, 0, currentCaps, 0, nextCount);
+            currentCount = nextCount;
+        }
+        
+        /**
+         * Follows the splits, jumps & saves from pc and adds the resulting instruction / match states in priority order
+         */
+        private void addThread(boolean current, int startPc, int[] startCaps, int pos)
+        {
+            //explicit stack of (pc, caps), caps are copied on write by SAVE
+            int sp = 0;
+            stack[sp] = startPc;
+            capsStack[sp++] = startCaps;
+            
+            while (sp > 0)
+            {
+                int pc = stack[--sp];
+                int[] caps = capsStack[sp];
+                
+                if (visited[pc] == generation)
+                    continue;
+                visited[pc] = generation;
+                
+                switch (op[pc])
+                {
+                    case OP_JMP:
+                        stack[sp] = x[pc];
+                        capsStack[sp++] = caps;
+                        break;
+                    case OP_SPLIT:
+                        //y is pushed first so x is followed first
+                        stack[sp] = y[pc];
+                        capsStack[sp++] = caps;
+                        stack[sp] = x[pc];
+                        capsStack[sp++] = caps;
+                        break;
+                    case OP_SAVE:
+                        int[] copy = caps.clone();
+                        copy[x[pc]] = pos;
+                        stack[sp] = pc + 1;
+                        capsStack[sp++] = copy;
+                        break;
+                    default:
+                        if (current)
+                        {
+                            currentPcs[currentCount] = pc;
+                            currentCaps[currentCount++] = caps;
+                        }
+                        else
+                        {
+                            nextPcs[nextCount] = pc;
+                            nextCaps[nextCount++] = caps;
+                        }
+                }
+            }
+        }
+    }
+    
+    /**
+     * A single match, group 0 is the whole match
+     */
+    public static class InsnMatch
+    {
+        private final AbstractInsnNode[] insns;
+        private final int[] caps;
+        
+        private InsnMatch(AbstractInsnNode[] insns, int[] caps)
+        {
+            this.insns = insns;
+            this.caps = caps;
+        }
+        
+        public int start()
+        {
+            return caps[0];
+        }
+        
+        public int end()
+        {
+            return caps[1];
+        }
+        
+        public int groupCount()
+        {
+            return caps.length / 2 - 1;
+        }
+        
+        /**
+         * Returns the instructions of the group, empty if the group didn't take part in the match
+         */
+        public AbstractInsnNode[] group(int group)
+        {
+            int start = caps[group * 2];
+            int end = caps[group * 2 + 1];
+            
+            if (start < 0 || end < start)
+                return new AbstractInsnNode[0];
+            
+            return Arrays.copyOfRange(insns, start, end);
+        }
+        
+        public AbstractInsnNode[] group()
+        {
+            return group(0);
+        }
+    }
+    
+    private interface InsnPredicate
+    {
+        boolean test(AbstractInsnNode insn);
+    }
+    
+    private static class Program
+    {
+        private final List<Integer> op = new ArrayList<>();
+        private final List<Integer> x = new ArrayList<>();
+        private final List<Integer> y = new ArrayList<>();
+        private final List<InsnPredicate> predicates = new ArrayList<>();
+        
+        private int emit(int opcode, int x, int y, InsnPredicate predicate)
+        {
+            op.add(opcode);
+            this.x.add(x);
+            this.y.add(y);
+            predicates.add(predicate);
+            return op.size() - 1;
+        }
+        
+        private int next()
+        {
+            return op.size();
+        }
+        
+        private void patchX(int pc, int target)
+        {
+            x.set(pc, target);
+        }
+        
+        private void patchY(int pc, int target)
+        {
+            y.set(pc, target);
+        }
+    }
+    
+    private abstract static class Node
+    {
+        abstract void emit(Program program);
+    }
+    
+    private static class InsnNode extends Node
+    {
+        private final InsnPredicate predicate;
+        
+        private InsnNode(InsnPredicate predicate)
+        {
+            this.predicate = predicate;
+        }
+        
+        @Override
+        void emit(Program program)
+        {
+            program.emit(OP_INSN, 0, 0, predicate);
+        }
+    }
+    
+    private static class SequenceNode extends Node
+    {
+        private final List<Node> nodes;
+        
+        private SequenceNode(List<Node> nodes)
+        {
+            this.nodes = nodes;
+        }
+        
+        @Override
+        void emit(Program program)
+        {
+            for (Node node : nodes)
+                node.emit(program);
+        }
+    }
+    
+    private static class AlternationNode extends Node
+    {
+        private final List<Node> alternatives;
+        
+        private AlternationNode(List<Node> alternatives)
+        {
+            this.alternatives = alternatives;
+        }
+        
+        @Override
+        void emit(Program program)
+        {
+            List<Integer> jumps = new ArrayList<>();
+            
+            for (int i = 0; i < alternatives.size(); i++)
+            {
+                if (i < alternatives.size() - 1)
+                {
+                    int split = program.emit(OP_SPLIT, 0, 0, null);
+                    program.patchX(split, program.next());
+                    alternatives.get(i).emit(program);
+                    jumps.add(program.emit(OP_JMP, 0, 0, null));
+                    program.patchY(split, program.next());
+                }
+                else
+                {
+                    alternatives.get(i).emit(program);
+                }
+            }
+            
+            for (int jump : jumps)
+                program.patchX(jump, program.next());
+        }
+    }
+    
+    private static class GroupNode extends Node
+    {
+        private final Node node;
+        private final int group;
+        
+        private GroupNode(Node node, int group)
+        {
+            this.node = node;
+            this.group = group;
+        }
+        
+        @Override
+        void emit(Program program)
+        {
+            program.emit(OP_SAVE, group * 2, 0, null);
+            node.emit(program);
+            program.emit(OP_SAVE, group * 2 + 1, 0, null);
+        }
+    }
+    
+    private static class RepeatNode extends Node
+    {
+        private final Node node;
+        private final int min;
+        private final int max; //-1 for unbounded
+        private final boolean greedy;
+        
+        private RepeatNode(Node node, int min, int max, boolean greedy)
+        {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+        
+        @Override
+        void emit(Program program)
+        {
+            for (int i = 0; i < min; i++)
+                node.emit(program);
+            
+            if (max == -1)
+            {
+                int split = program.emit(OP_SPLIT, 0, 0, null);
+                int body = program.next();
+                node.emit(program);
+                program.emit(OP_JMP, split, 0, null);
+                branch(program, split, body, program.next());
+                return;
+            }
+            
+            List<Integer> splits = new ArrayList<>();
+            for (int i = min; i < max; i++)
+            {
+                int split = program.emit(OP_SPLIT, 0, 0, null);
+                splits.add(split);
+                program.patchX(split, program.next());
+                node.emit(program);
+            }
+            
+            for (int split : splits)
+                branch(program, split, program.x.get(split), program.next());
+        }
+        
+        private void branch(Program program, int split, int body, int out)
+        {
+            program.patchX(split, greedy ? body : out);
+            program.patchY(split, greedy ? out : body);
+        }
+    }
+    
+    /**
+     * Recursive descent parser for the pattern syntax
+     */
+    private static class Parser
+    {
+        private final String pattern;
+        private int pos;
+        private int groupCount;
+        
+        private Parser(String pattern)
+        {
+            this.pattern = pattern;
+        }
+        
+        private Node parse()
+        {
+            Node node = parseAlternation();
+            skipWhitespace();
+            
+            if (pos < pattern.length())
+                throw error("Unmatched closing ')'");
+            
+            return node;
+        }
+        
+        private Node parseAlternation()
+        {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseSequence());
+            
+            while (peek() == '|')
+            {
+                pos++;
+                alternatives.add(parseSequence());
+            }
+            
+            return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+        }
+        
+        private Node parseSequence()
+        {
+            List<Node> nodes = new ArrayList<>();
+            
+            while (true)
+            {
+                char c = peek();
+                if (c == 0 || c == '|' || c == ')')
+                    break;
+                
+                nodes.add(parseQuantifier(parseAtom()));
+            }
+            
+            return nodes.size() == 1 ? nodes.get(0) : new SequenceNode(nodes);
+        }
+        
+        private Node parseAtom()
+        {
+            char c = peek();
+            
+            if (c == '(')
+            {
+                pos++;
+                int group = -1;
+                
+                if (pattern.startsWith("?:", pos))
+                    pos += 2;
+                else
+                    group = ++groupCount;
+                
+                Node inner = parseAlternation();
+                if (peek() != ')')
+                    throw error("Unclosed group");
+                pos++;
+                
+                return group == -1 ? inner : new GroupNode(inner, group);
+            }
+            
+            if (c == '.')
+            {
+                pos++;
+                return new InsnNode(insn -> true);
+            }
+            
+            if (Character.isLetter(c) || c == '_')
+                return parseInstruction();
+            
+            throw error("Expected an instruction");
+        }
+        
+        private Node parseQuantifier(Node node)
+        {
+            if (pos >= pattern.length())
+                return node;
+            
+            int min;
+            int max;
+            char c = pattern.charAt(pos);
+            
+            if (c == '*')
+            {
+                min = 0;
+                max = -1;
+                pos++;
+            }
+            else if (c == '+')
+            {
+                min = 1;
+                max = -1;
+                pos++;
+            }
+            else if (c == '?')
+            {
+                min = 0;
+                max = 1;
+                pos++;
+            }
+            else if (c == '{')
+            {
+                int close = pattern.indexOf('}', pos);
+                if (close == -1)
+                    throw error("Unclosed counted repetition");
+                
+                String[] bounds = pattern.substring(pos + 1, close).split(",", -1);
+                try
+                {
+                    min = Integer.parseInt(bounds[0].trim());
+                    max = bounds.length == 1 ? min
+                            : bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    throw error("Invalid counted repetition");
+                }
+                
+                if (bounds.length > 2 || min < 0 || (max != -1 && max < min))
+                    throw error("Invalid counted repetition");
+                if (min > MAX_REPEAT || max > MAX_REPEAT)
+                    throw error("Counted repetition is limited to " + MAX_REPEAT);
+                
+                pos = close + 1;
+            }
+            else
+            {
+                return node;
+            }
+            
+            boolean greedy = true;
+            if (pos < pattern.length() && pattern.charAt(pos) == '?')
+            {
+                greedy = false;
+                pos++;
+            }
+            
+            return parseQuantifier(new RepeatNode(node, min, max, greedy));
+        }
+        
+        private Node parseInstruction()
+        {
+            int start = pos;
+            while (pos < pattern.length()
+                    && (Character.isLetterOrDigit(pattern.charAt(pos)) || pattern.charAt(pos) == '_'))
+                pos++;
+            
+            //the opcodes are case sensitive so plain lower case text falls back to the operand regex
+            String name = pattern.substring(start, pos);
+            
+            if (name.equals("ANYINSN"))
+                return new InsnNode(insn -> true);
+            
+            if (name.equals("IFINSN"))
+                return new InsnNode(insn -> insn instanceof JumpInsnNode
+                        && insn.getOpcode() != Opcodes.GOTO && insn.getOpcode() != Opcodes.JSR);
+            
+            //ALOAD_1 style var instructions
+            Integer opcode = OPCODES.get(name);
+            int var = -1;
+            int underscore = name.lastIndexOf('_');
+            if (underscore > 0 && isNumber(name.substring(underscore + 1)))
+            {
+                Integer varOpcode = OPCODES.get(name.substring(0, underscore));
+                if (varOpcode != null && isVarOpcode(varOpcode))
+                {
+                    opcode = varOpcode;
+                    var = Integer.parseInt(name.substring(underscore + 1));
+                }
+            }
+            
+            if (opcode == null)
+                throw error("Unknown instruction " + name, start);
+            
+            final int expectedOpcode = opcode;
+            final int expectedVar = var;
+            if (expectedVar != -1)
+                return new InsnNode(insn -> insn.getOpcode() == expectedOpcode
+                        && ((VarInsnNode) insn).var == expectedVar);
+            
+            String[] operands = parseOperands(opcode);
+            if (operands == null)
+                return new InsnNode(insn -> insn.getOpcode() == expectedOpcode);
+            
+            return new InsnNode(operandPredicate(opcode, operands));
+        }
+        
+        /**
+         * Returns the operands of the instruction, null if there are none
+         */
+        private String[] parseOperands(int opcode)
+        {
+            String close;
+            if (pattern.startsWith("\\{", pos))
+            {
+                pos += 2;
+                close = "\\}";
+            }
+            else if (pos < pattern.length() && pattern.charAt(pos) == '{' && hasOperands(opcode))
+            {
+                pos++;
+                close = "}";
+            }
+            else
+            {
+                return null;
+            }
+            
+            int end = pattern.indexOf(close, pos);
+            if (close.equals("}"))
+                while (end > 0 && pattern.charAt(end - 1) == '\\')
+                    end = pattern.indexOf(close, end + 1);
+            
+            if (end == -1)
+                throw error("Unclosed operands");
+            
+            String operands = pattern.substring(pos, end);
+            pos = end + close.length();
+            
+            //the constant can contain commas
+            if (opcode == Opcodes.LDC)
+                return new String[]{operands.trim()};
+            
+            String[] split = operands.split(",", -1);
+            for (int i = 0; i < split.length; i++)
+                split[i] = split[i].trim();
+            
+            return split;
+        }
+        
+        private InsnPredicate operandPredicate(int opcode, String[] operands)
+        {
+            switch (opcode)
+            {
+                case Opcodes.BIPUSH:
+                case Opcodes.SIPUSH:
+                case Opcodes.NEWARRAY:
+                {
+                    Operand operand = operand(operands, 0);
+                    return insn -> insn.getOpcode() == opcode && operand.matches(((IntInsnNode) insn).operand);
+                }
+                
+                case Opcodes.LDC:
+                {
+                    Operand operand = operand(operands, 0);
+                    return insn -> insn.getOpcode() == opcode && operand.matches(((LdcInsnNode) insn).cst.toString());
+                }
+                
+                case Opcodes.IINC:
+                {
+                    Operand var = operands.length > 1 ? operand(operands, 0) : Operand.ANY;
+                    Operand incr = operand(operands, operands.length > 1 ? 1 : 0);
+                    return insn -> insn.getOpcode() == opcode && var.matches(((IincInsnNode) insn).var)
+                            && incr.matches(((IincInsnNode) insn).incr);
+                }
+                
+                case Opcodes.GETSTATIC:
+                case Opcodes.PUTSTATIC:
+                case Opcodes.GETFIELD:
+                case Opcodes.PUTFIELD:
+                {
+                    Operand desc = operand(operands, 0);
+                    Operand owner = operand(operands, 1);
+                    Operand name = operand(operands, 2);
+                    return insn -> insn.getOpcode() == opcode && desc.matches(((FieldInsnNode) insn).desc)
+                            && owner.matches(((FieldInsnNode) insn).owner)
+                            && name.matches(((FieldInsnNode) insn).name);
+                }
+                
+                case Opcodes.INVOKEVIRTUAL:
+                case Opcodes.INVOKESPECIAL:
+                case Opcodes.INVOKESTATIC:
+                case Opcodes.INVOKEINTERFACE:
+                {
+                    Operand desc = operand(operands, 0);
+                    Operand owner = operand(operands, 1);
+                    Operand name = operand(operands, 2);
+                    return insn -> insn.getOpcode() == opcode && desc.matches(((MethodInsnNode) insn).desc)
+                            && owner.matches(((MethodInsnNode) insn).owner)
+                            && name.matches(((MethodInsnNode) insn).name);
+                }
+                
+                case Opcodes.INVOKEDYNAMIC:
+                {
+                    //the bootstrap method owner takes the place of the owner
+                    Operand desc = operand(operands, 0);
+                    Operand owner = operand(operands, 1);
+                    Operand name = operand(operands, 2);
+                    return insn -> insn.getOpcode() == opcode && desc.matches(((InvokeDynamicInsnNode) insn).desc)
+                            && owner.matches(((InvokeDynamicInsnNode) insn).bsm.getOwner())
+                            && name.matches(((InvokeDynamicInsnNode) insn).name);
+                }
+                
+                case Opcodes.NEW:
+                case Opcodes.ANEWARRAY:
+                case Opcodes.CHECKCAST:
+                case Opcodes.INSTANCEOF:
+                {
+                    Operand desc = operand(operands, 0);
+                    return insn -> insn.getOpcode() == opcode && desc.matches(((TypeInsnNode) insn).desc);
+                }
+                
+                case Opcodes.MULTIANEWARRAY:
+                {
+                    Operand dims = operands.length > 1 ? operand(operands, 0) : Operand.ANY;
+                    Operand desc = operand(operands, operands.length > 1 ? 1 : 0);
+                    return insn -> insn.getOpcode() == opcode && dims.matches(((MultiANewArrayInsnNode) insn).dims)
+                            && desc.matches(((MultiANewArrayInsnNode) insn).desc);
+                }
+                
+                default:
+                {
+                    //the var index of the remaining var instructions
+                    if (isVarOpcode(opcode))
+                    {
+                        Operand var = operand(operands, 0);
+                        return insn -> insn.getOpcode() == opcode && var.matches(((VarInsnNode) insn).var);
+                    }
+                    
+                    throw error(Printer.OPCODES[opcode] + " has no operands");
+                }
+            }
+        }
+        
+        private Operand operand(String[] operands, int index)
+        {
+            if (index >= operands.length || operands[index].isEmpty())
+                return Operand.ANY;
+            
+            try
+            {
+                return new Operand(operands[index]);
+            }
+            catch (PatternSyntaxException e)
+            {
+                throw error("Invalid operand regex " + operands[index] + ": " + e.getDescription());
+            }
+        }
+        
+        private char peek()
+        {
+            skipWhitespace();
+            return pos < pattern.length() ? pattern.charAt(pos) : 0;
+        }
+        
+        private void skipWhitespace()
+        {
+            while (pos < pattern.length() && Character.isWhitespace(pattern.charAt(pos)))
+                pos++;
+        }
+        
+        private PatternSyntaxException error(String description)
+        {
+            return error(description, pos);
+        }
+        
+        private PatternSyntaxException error(String description, int index)
+        {
+            return new PatternSyntaxException(description, pattern, index);
+        }
+    }
+    
+    /**
+     * An operand regex, plain text operands are compared without the regex engine
+     */
+    private static class Operand
+    {
+        private static final Operand ANY = new Operand();
+        private static final Pattern METACHARACTERS = Pattern.compile("[\\\\\\[\\](){}.*+?^$|]");
+        
+        private final String literal;
+        private final Pattern regex;
+        
+        private Operand()
+        {
+            literal = null;
+            regex = null;
+        }
+        
+        private Operand(String operand)
+        {
+            if (METACHARACTERS.matcher(operand).find())
+            {
+                literal = null;
+                regex = Pattern.compile(operand);
+            }
+            else
+            {
+                literal = operand;
+                regex = null;
+            }
+        }
+        
+        private boolean matches(String value)
+        {
+            if (literal != null)
+                return literal.equals(value);
+            
+            return regex == null || regex.matcher(value).matches();
+        }
+        
+        private boolean matches(int value)
+        {
+            if (literal != null)
+                return isNumber(literal) && literal.equals(Integer.toString(value));
+            
+            return regex == null || regex.matcher(Integer.toString(value)).matches();
+        }
+    }
+    
+    private static boolean hasOperands(int opcode)
+    {
+        switch (opcode)
+        {
+            case Opcodes.BIPUSH:
+            case Opcodes.SIPUSH:
+            case Opcodes.NEWARRAY:
+            case Opcodes.LDC:
+            case Opcodes.IINC:
+            case Opcodes.GETSTATIC:
+            case Opcodes.PUTSTATIC:
+            case Opcodes.GETFIELD:
+            case Opcodes.PUTFIELD:
+            case Opcodes.INVOKEVIRTUAL:
+            case Opcodes.INVOKESPECIAL:
+            case Opcodes.INVOKESTATIC:
+            case Opcodes.INVOKEINTERFACE:
+            case Opcodes.INVOKEDYNAMIC:
+            case Opcodes.NEW:
+            case Opcodes.ANEWARRAY:
+            case Opcodes.CHECKCAST:
+            case Opcodes.INSTANCEOF:
+            case Opcodes.MULTIANEWARRAY:
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    private static boolean isVarOpcode(int opcode)
+    {
+        return (opcode >= Opcodes.ILOAD && opcode <= Opcodes.ALOAD)
+                || (opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE)
+                || opcode == Opcodes.RET;
+    }
+    
+    private static boolean isNumber(String s)
+    {
+        if (s.isEmpty())
+            return false;
+        
+        for (int i = s.charAt(0) == '-' && s.length() > 1 ? 1 : 0; i < s.length(); i++)
+            if (!Character.isDigit(s.charAt(i)))
+                return false;
+        
+        return true;
+    }
+}
@@ -1,23 +1,14 @@
 package the.bytecode.club.bytecodeviewer.searching;
 
-import java.rmi.UnexpectedException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldInsnNode;
-import org.objectweb.asm.tree.IincInsnNode;
-import org.objectweb.asm.tree.InsnList;
-import org.objectweb.asm.tree.IntInsnNode;
-import org.objectweb.asm.tree.LdcInsnNode;
-import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.MultiANewArrayInsnNode;
-import org.objectweb.asm.tree.TypeInsnNode;
-import org.objectweb.asm.tree.VarInsnNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 
 /***************************************************************************
@@ -42,46 +33,14 @@ import the.bytecode.club.bytecodeviewer.BytecodeViewer;
  * An instruction finder that finds regex patterns in a method's instruction
  * list and returns an array with the found instructions.
  *
+ * The patterns are compiled into an {@link InsnPattern} and matched against the
+ * instructions directly, compiled patterns are cached between calls.
+ *
  * @author Frédéric Hannes
  */
 
 public class RegexInsnFinder {
 
-    private static final String[] opcodes = new String[]{"NOP", "ACONST_NULL",
-            "ICONST_M1", "ICONST_0", "ICONST_1", "ICONST_2", "ICONST_3",
-            "ICONST_4", "ICONST_5", "LCONST_0", "LCONST_1", "FCONST_0",
-            "FCONST_1", "FCONST_2", "DCONST_0", "DCONST_1", "BIPUSH", "SIPUSH",
-            "LDC", "LDC_W", "LDC2_W", "ILOAD", "LLOAD", "FLOAD", "DLOAD",
-            "ALOAD", "ILOAD_0", "ILOAD_1", "ILOAD_2", "ILOAD_3", "LLOAD_0",
-            "LLOAD_1", "LLOAD_2", "LLOAD_3", "FLOAD_0", "FLOAD_1", "FLOAD_2",
-            "FLOAD_3", "DLOAD_0", "DLOAD_1", "DLOAD_2", "DLOAD_3", "ALOAD_0",
-            "ALOAD_1", "ALOAD_2", "ALOAD_3", "IALOAD", "LALOAD", "FALOAD",
-            "DALOAD", "AALOAD", "BALOAD", "CALOAD", "SALOAD", "ISTORE",
-            "LSTORE", "FSTORE", "DSTORE", "ASTORE", "ISTORE_0", "ISTORE_1",
-            "ISTORE_2", "ISTORE_3", "LSTORE_0", "LSTORE_1", "LSTORE_2",
-            "LSTORE_3", "FSTORE_0", "FSTORE_1", "FSTORE_2", "FSTORE_3",
-            "DSTORE_0", "DSTORE_1", "DSTORE_2", "DSTORE_3", "ASTORE_0",
-            "ASTORE_1", "ASTORE_2", "ASTORE_3", "IASTORE", "LASTORE",
-            "FASTORE", "DASTORE", "AASTORE", "BASTORE", "CASTORE", "SASTORE",
-            "POP", "POP2", "DUP", "DUP_X1", "DUP_X2", "DUP2", "DUP2_X1",
-            "DUP2_X2", "SWAP", "IADD", "LADD", "FADD", "DADD", "ISUB", "LSUB",
-            "FSUB", "DSUB", "IMUL", "LMUL", "FMUL", "DMUL", "IDIV", "LDIV",
-            "FDIV", "DDIV", "IREM", "LREM", "FREM", "DREM", "INEG", "LNEG",
-            "FNEG", "DNEG", "ISHL", "LSHL", "ISHR", "LSHR", "IUSHR", "LUSHR",
-            "IAND", "LAND", "IOR", "LOR", "IXOR", "LXOR", "IINC", "I2L", "I2F",
-            "I2D", "L2I", "L2F", "L2D", "F2I", "F2L", "F2D", "D2I", "D2L",
-            "D2F", "I2B", "I2C", "I2S", "LCMP", "FCMPL", "FCMPG", "DCMPL",
-            "DCMPG", "IFEQ", "IFNE", "IFLT", "IFGE", "IFGT", "IFLE",
-            "IF_ICMPEQ", "IF_ICMPNE", "IF_ICMPLT", "IF_ICMPGE", "IF_ICMPGT",
-            "IF_ICMPLE", "IF_ACMPEQ", "IF_ACMPNE", "GOTO", "JSR", "RET",
-            "TABLESWITCH", "LOOKUPSWITCH", "IRETURN", "LRETURN", "FRETURN",
-            "DRETURN", "ARETURN", "RETURN", "GETSTATIC", "PUTSTATIC",
-            "GETFIELD", "PUTFIELD", "INVOKEVIRTUAL", "INVOKESPECIAL",
-            "INVOKESTATIC", "INVOKEINTERFACE", "INVOKEDYNAMIC", "NEW",
-            "NEWARRAY", "ANEWARRAY", "ARRAYLENGTH", "ATHROW", "CHECKCAST",
-            "INSTANCEOF", "MONITORENTER", "MONITOREXIT", "WIDE",
-            "MULTIANEWARRAY", "IFNULL", "IFNONNULL", "GOTO_W", "JSR_W"};
-
     private static final String[] opcodesVar = new String[]{"ILOAD", "LLOAD",
             "FLOAD", "DLOAD", "ALOAD", "ISTORE", "LSTORE", "FSTORE", "DSTORE",
             "ASTORE", "RET"};
@@ -154,6 +113,12 @@ public class RegexInsnFinder {
         return buildRegexItems(items, true, true);
     }
 
+    /**
+     * Turns the pattern into a java regex over the old instruction string format.
+     *
+     * @deprecated the patterns are compiled with {@link InsnPattern#compile(String)} now
+     */
+    @Deprecated
     public static String processRegex(final String regex) {
         String result = regex.trim();
         result = result.replaceAll("\\bANYINSN *", opcodesAnys);
@@ -202,24 +167,33 @@ public class RegexInsnFinder {
         return result;
     }
 
+    private static final int PATTERN_CACHE_SIZE = 64;
+    private static final Map<String, InsnPattern> patternCache = new LinkedHashMap<String, InsnPattern>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, InsnPattern> eldest) {
+            return size() > PATTERN_CACHE_SIZE;
+        }
+    };
+
     private MethodNode mn;
     private AbstractInsnNode[] origInstructions;
-    private int[] offsets;
-    private String insnString;
 
     public RegexInsnFinder(final ClassNode clazz, final MethodNode method) {
         setMethod(clazz, method);
     }
 
-    private AbstractInsnNode[] cleanInsn(final InsnList insnList) {
-        final List<AbstractInsnNode> il = new ArrayList<>();
-
-        for (AbstractInsnNode node : insnList) {
-            if (node.getOpcode() >= 0) {
-                il.add(node);
+    /**
+     * Returns the compiled pattern, compiled patterns are cached
+     */
+    public static InsnPattern compile(final String regex) {
+        synchronized (patternCache) {
+            InsnPattern pattern = patternCache.get(regex);
+            if (pattern == null) {
+                pattern = InsnPattern.compile(regex);
+                patternCache.put(regex, pattern);
             }
+            return pattern;
         }
-        return il.toArray(new AbstractInsnNode[0]);
     }
 
     /**
@@ -227,103 +201,17 @@ public class RegexInsnFinder {
      * method.
      */
     public void refresh() {
-        origInstructions = cleanInsn(mn.instructions);
-        final List<AbstractInsnNode> il = new ArrayList<>();
-        for (final AbstractInsnNode ain : mn.instructions.toArray())
-            if (ain.getOpcode() >= 0) {
-                il.add(ain);
-            }
-        AbstractInsnNode[] instructions = il.toArray(new AbstractInsnNode[0]);
-        offsets = new int[instructions.length];
-        StringBuilder insnStringBuilder = new StringBuilder();
-        for (int i = 0; i < instructions.length; i++) {
-            offsets[i] = -1;
-            final AbstractInsnNode ain = instructions[i];
-            if (ain.getOpcode() >= 0) {
-                if (ain.getOpcode() >= opcodes.length) {
-                    try {
-                        throw new UnexpectedException(
-                                "Unknown opcode encountered: "
-                                        + ain.getOpcode());
-                    } catch (final UnexpectedException e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-                offsets[i] = insnStringBuilder.length();
-                insnStringBuilder.append(opcodes[ain.getOpcode()]);
-                insnStringBuilder = new StringBuilder(getInsString(ain));
-                insnStringBuilder.append(" ");
-            }
-        }
-        insnString = insnStringBuilder.toString();
+        origInstructions = InsnPattern.instructions(mn.instructions);
     }
 
-    // Do a pattern check against each instruction directly,
-    // without building a string of the whole method.
+    /**
+     * Matches the regex against the operands of each instruction
+     *
+     * @deprecated use {@link InsnPattern#operandRegex(Pattern)}, it matches the same way
+     */
+    @Deprecated
     public static boolean staticScan(ClassNode node, MethodNode mn, Pattern pattern) {
-        final List<AbstractInsnNode> il = new ArrayList<>();
-        for (final AbstractInsnNode ain : mn.instructions.toArray())
-            if (ain.getOpcode() >= 0) {
-                il.add(ain);
-            }
-        return il.stream().anyMatch(ain -> {
-            if (ain.getOpcode() >= 0) {
-                if (ain.getOpcode() >= opcodes.length) {
-                    try {
-                        throw new UnexpectedException(
-                                "Unknown opcode encountered: "
-                                        + ain.getOpcode());
-                    } catch (final UnexpectedException e) {
-                        BytecodeViewer.handleException(e);
-                    }
-                }
-                String insnString = getInsString(ain);
-                return pattern.matcher(insnString).find();
-            }
-            return false;
-        });
-    }
-
-    private static String getInsString(AbstractInsnNode ain) {
-        String insnString = "";
-        switch (ain.getType()) {
-        case AbstractInsnNode.INT_INSN:
-            final IntInsnNode iin = (IntInsnNode) ain;
-            insnString += "{" + iin.operand + "}";
-            break;
-        case AbstractInsnNode.LDC_INSN:
-            final LdcInsnNode lin = (LdcInsnNode) ain;
-            insnString += "{" + lin.cst.toString().replace("}", "\\}")
-                    + "}";
-            break;
-        case AbstractInsnNode.VAR_INSN:
-            final VarInsnNode vin = (VarInsnNode) ain;
-            insnString += "_" + vin.var;
-            break;
-        case AbstractInsnNode.IINC_INSN:
-            final IincInsnNode iiin = (IincInsnNode) ain;
-            insnString += "{" + iiin.var + "," + iiin.incr + "}";
-            break;
-        case AbstractInsnNode.FIELD_INSN:
-            final FieldInsnNode fin = (FieldInsnNode) ain;
-            insnString += "{" + fin.desc + "," + fin.owner + ","
-                    + fin.name + "}";
-            break;
-        case AbstractInsnNode.METHOD_INSN:
-            final MethodInsnNode min = (MethodInsnNode) ain;
-            insnString += "{" + min.desc + "," + min.owner + ","
-                    + min.name + "}";
-            break;
-        case AbstractInsnNode.TYPE_INSN:
-            final TypeInsnNode tin = (TypeInsnNode) ain;
-            insnString += "{" + tin.desc + "}";
-            break;
-        case AbstractInsnNode.MULTIANEWARRAY_INSN:
-            final MultiANewArrayInsnNode manain = (MultiANewArrayInsnNode) ain;
-            insnString += "{" + manain.dims + "," + manain.desc + "}";
-            break;
-        }
-        return insnString;
+        return InsnPattern.operandRegex(pattern).matcher().find(mn);
     }
 
     public void setMethod(final ClassNode ci, final MethodNode mi) {
@@ -331,28 +219,6 @@ public class RegexInsnFinder {
         refresh();
     }
 
-    private AbstractInsnNode[] makeResult(final int start, final int end) {
-        int startIndex = 0;
-        int endIndex = -1;
-        for (int i = 0; i < offsets.length - 1; i++) {
-            final int offset = offsets[i];
-            if (offset == start) {
-                startIndex = i;
-            }
-            if ((offset < end) && (offsets[i + 1] >= end)) {
-                endIndex = i;
-                break;
-            }
-        }
-        if (endIndex == -1) {
-            endIndex = offsets.length - 1;
-        }
-        final int length = endIndex - startIndex + 1;
-        final AbstractInsnNode[] result = new AbstractInsnNode[length];
-        System.arraycopy(origInstructions, startIndex, result, 0, length);
-        return result;
-    }
-
     /**
      * Searches for a regex in the instruction list and returns the first match.
      *
@@ -361,10 +227,9 @@ public class RegexInsnFinder {
      */
     public AbstractInsnNode[] find(final String regex) {
         try {
-            final Matcher regexMatcher = Pattern.compile(processRegex(regex),
-                    Pattern.MULTILINE).matcher(insnString);
-            if (regexMatcher.find())
-                return makeResult(regexMatcher.start(), regexMatcher.end());
+            final InsnPattern.InsnMatch match = compile(regex).matcher().find(origInstructions, 0);
+            if (match != null)
+                return match.group();
         } catch (final PatternSyntaxException ex) {
             //ignore, they fucked up regex
         }
@@ -380,11 +245,8 @@ public class RegexInsnFinder {
     public List<AbstractInsnNode[]> findAll(final String regex) {
         final List<AbstractInsnNode[]> results = new ArrayList<>();
         try {
-            final Matcher regexMatcher = Pattern.compile(processRegex(regex),
-                    Pattern.MULTILINE).matcher(insnString);
-            while (regexMatcher.find()) {
-                results.add(makeResult(regexMatcher.start(), regexMatcher.end()));
-            }
+            for (InsnPattern.InsnMatch match : findMatches(regex))
+                results.add(match.group());
         } catch (final PatternSyntaxException ex) {
             BytecodeViewer.handleException(ex);
         }
@@ -400,17 +262,9 @@ public class RegexInsnFinder {
      */
     public AbstractInsnNode[][] findGroups(final String regex) {
         try {
-            final Matcher regexMatcher = Pattern.compile(processRegex(regex),
-                    Pattern.MULTILINE).matcher(insnString);
-            if (regexMatcher.find()) {
-                final AbstractInsnNode[][] result = new AbstractInsnNode[regexMatcher
-                        .groupCount() + 1][0];
-                for (int i = 0; i <= regexMatcher.groupCount(); i++) {
-                    result[i] = makeResult(regexMatcher.start(i),
-                            regexMatcher.end(i));
-                }
-                return result;
-            }
+            final InsnPattern.InsnMatch match = compile(regex).matcher().find(origInstructions, 0);
+            if (match != null)
+                return groups(match);
         } catch (final PatternSyntaxException ex) {
             BytecodeViewer.handleException(ex);
         }
@@ -427,20 +281,32 @@ public class RegexInsnFinder {
     public List<AbstractInsnNode[][]> findAllGroups(final String regex) {
         final List<AbstractInsnNode[][]> results = new ArrayList<>();
         try {
-            final Matcher regexMatcher = Pattern.compile(processRegex(regex),
-                    Pattern.MULTILINE).matcher(insnString);
-            if (regexMatcher.find()) {
-                final AbstractInsnNode[][] result = new AbstractInsnNode[regexMatcher
-                        .groupCount() + 1][0];
-                for (int i = 0; i <= regexMatcher.groupCount(); i++) {
-                    result[i] = makeResult(regexMatcher.start(i),
-                            regexMatcher.end(i));
-                }
-                results.add(result);
-            }
+            for (InsnPattern.InsnMatch match : findMatches(regex))
+                results.add(groups(match));
         } catch (final PatternSyntaxException ex) {
             BytecodeViewer.handleException(ex);
         }
         return results;
     }
+
+    private List<InsnPattern.InsnMatch> findMatches(final String regex) {
+        final List<InsnPattern.InsnMatch> results = new ArrayList<>();
+        final InsnPattern.InsnMatcher matcher = compile(regex).matcher();
+        int from = 0;
+        while (from <= origInstructions.length) {
+            final InsnPattern.InsnMatch match = matcher.find(origInstructions, from);
+            if (match == null)
+                break;
+            results.add(match);
+            from = match.end() > match.start() ? match.end() : match.start() + 1;
+        }
+        return results;
+    }
+
+    private static AbstractInsnNode[][] groups(final InsnPattern.InsnMatch match) {
+        final AbstractInsnNode[][] result = new AbstractInsnNode[match.groupCount() + 1][];
+        for (int i = 0; i <= match.groupCount(); i++)
+            result[i] = match.group(i);
+        return result;
+    }
 }
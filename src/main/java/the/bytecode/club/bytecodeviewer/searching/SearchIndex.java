@@ -0,0 +1,540 @@
+package the.bytecode.club.bytecodeviewer.searching;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * An inverted index over the classes of a single resource container.
+ *
+ * It maps string constants, invoked methods, accessed fields and referenced types back to the
+ * class & method that uses them, so the search pane no longer has to walk every instruction of
+ * every class per query. The index is built on the first search, kept up to date through
+ * {@link ResourceContainer#updateNode} and can optionally be persisted next to the archive.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+
+public class SearchIndex
+{
+    private static final int MAGIC = 0x42435649; //BCVI
+    private static final int VERSION = 1;
+    
+    public static final byte CONSTANT = 0;
+    public static final byte METHOD_REFERENCE = 1;
+    public static final byte FIELD_REFERENCE = 2;
+    public static final byte TYPE_REFERENCE = 3;
+    
+    private final HashMap<String, List<Occurrence>> constants = new HashMap<>();
+    private final HashMap<MemberRef, List<Occurrence>> methodReferences = new HashMap<>();
+    private final HashMap<MemberRef, List<Occurrence>> fieldReferences = new HashMap<>();
+    private final HashMap<String, List<Occurrence>> typeReferences = new HashMap<>();
+    //every occurrence a class contributed, used to drop the class again on edit / rename
+    private final LinkedHashMap<String, List<Occurrence>> classes = new LinkedHashMap<>();
+    private long order;
+    
+    /**
+     * Builds the index for the container, or loads it from disk when persisting is enabled and the archive is unchanged.
+     * Once the container has been edited the index is always built from the ClassNodes & isn't saved, the archive
+     * on disk (and the index persisted for it) no longer matches the classes in memory.
+     */
+    public static SearchIndex build(ResourceContainer container, boolean persist)
+    {
+        File indexFile = persist && !container.isEdited() ? getIndexFile(container) : null;
+        
+        if (indexFile != null && indexFile.exists())
+        {
+            try
+            {
+                SearchIndex index = load(indexFile, container.file);
+                if (index != null)
+                    return index;
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        
+        SearchIndex index = new SearchIndex();
+        for (ClassNode cn : container.getClassNodes())
+            index.addClass(cn);
+        
+        if (indexFile != null)
+        {
+            try
+            {
+                index.save(indexFile, container.file);
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Returns the file the index of this container is persisted to, null for containers not backed by a single file
+     */
+    public static File getIndexFile(ResourceContainer container)
+    {
+        if (container.file == null || !container.file.isFile())
+            return null;
+        
+        return new File(container.file.getAbsolutePath() + ".bcvindex");
+    }
+    
+    /**
+     * Indexes the ClassNode, any previous entries for the same class name are replaced
+     */
+    public synchronized void addClass(ClassNode cn)
+    {
+        removeClass(cn.name);
+        
+        List<Occurrence> contributed = new ArrayList<>();
+        classes.put(cn.name, contributed);
+        
+        if (cn.superName != null)
+            add(contributed, TYPE_REFERENCE, cn.superName, new Occurrence(cn.name, null, null, 0, "extends"));
+        if (cn.interfaces != null)
+            for (String itf : cn.interfaces)
+                add(contributed, TYPE_REFERENCE, itf, new Occurrence(cn.name, null, null, 0, "implements"));
+        
+        for (FieldNode field : cn.fields)
+        {
+            if (field.value instanceof String)
+                add(contributed, CONSTANT, field.value.toString(),
+                        new Occurrence(cn.name, field.name, field.desc, 0, "field"));
+        }
+        
+        for (MethodNode method : cn.methods)
+        {
+            if (method.tryCatchBlocks != null)
+                for (TryCatchBlockNode tcb : method.tryCatchBlocks)
+                    if (tcb.type != null)
+                        add(contributed, TYPE_REFERENCE, tcb.type,
+                                new Occurrence(cn.name, method.name, method.desc, 0, "catch"));
+            
+            for (AbstractInsnNode insn : method.instructions)
+            {
+                if (insn instanceof LdcInsnNode)
+                {
+                    Object cst = ((LdcInsnNode) insn).cst;
+                    add(contributed, CONSTANT, cst.toString(), new Occurrence(cn.name, method.name, method.desc,
+                            insn.getOpcode(), cst.getClass().getCanonicalName()));
+                    
+                    if (cst instanceof Type && ((Type) cst).getSort() == Type.OBJECT)
+                        add(contributed, TYPE_REFERENCE, ((Type) cst).getInternalName(),
+                                new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                }
+                else if (insn instanceof MethodInsnNode)
+                {
+                    MethodInsnNode min = (MethodInsnNode) insn;
+                    add(contributed, METHOD_REFERENCE, new MemberRef(min.owner, min.name, min.desc),
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                    add(contributed, TYPE_REFERENCE, min.owner,
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                }
+                else if (insn instanceof FieldInsnNode)
+                {
+                    FieldInsnNode fin = (FieldInsnNode) insn;
+                    add(contributed, FIELD_REFERENCE, new MemberRef(fin.owner, fin.name, fin.desc),
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                    add(contributed, TYPE_REFERENCE, fin.owner,
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                }
+                else if (insn instanceof TypeInsnNode)
+                {
+                    add(contributed, TYPE_REFERENCE, ((TypeInsnNode) insn).desc,
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                }
+                else if (insn instanceof MultiANewArrayInsnNode)
+                {
+                    add(contributed, TYPE_REFERENCE, Type.getType(((MultiANewArrayInsnNode) insn).desc)
+                                    .getElementType().getInternalName(),
+                            new Occurrence(cn.name, method.name, method.desc, insn.getOpcode(), null));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Drops every entry the class contributed to the index
+     */
+    public synchronized void removeClass(String className)
+    {
+        List<Occurrence> contributed = classes.remove(className);
+        if (contributed == null)
+            return;
+        
+        //each posting list is only walked once, no matter how often the class used the key
+        HashSet<Occurrence> removed = new HashSet<>(contributed);
+        HashSet<Object> visited = new HashSet<>();
+        for (Occurrence occurrence : contributed)
+        {
+            if (!visited.add(occurrence.kind + ":" + occurrence.key))
+                continue;
+            
+            Map<Object, List<Occurrence>> map = getMap(occurrence.kind);
+            List<Occurrence> postings = map.get(occurrence.key);
+            if (postings == null)
+                continue;
+            
+            postings.removeIf(removed::contains);
+            if (postings.isEmpty())
+                map.remove(occurrence.key);
+        }
+    }
+    
+    /**
+     * Returns the number of indexed classes
+     */
+    public synchronized int size()
+    {
+        return classes.size();
+    }
+    
+    /**
+     * Finds string / number / type constants, either equal to or containing the text
+     */
+    public synchronized List<Occurrence> findConstants(String text, boolean exact)
+    {
+        if (exact)
+            return sorted(constants.get(text));
+        
+        List<Occurrence> results = new ArrayList<>();
+        for (Map.Entry<String, List<Occurrence>> entry : constants.entrySet())
+            if (entry.getKey().contains(text))
+                results.addAll(entry.getValue());
+        
+        return sorted(results);
+    }
+    
+    /**
+     * Finds invocations of the method, null arguments match anything
+     */
+    public synchronized List<Occurrence> findMethodReferences(String owner, String name, String desc, boolean exact)
+    {
+        return findMembers(methodReferences, owner, name, desc, exact);
+    }
+    
+    /**
+     * Finds accesses of the field, null arguments match anything
+     */
+    public synchronized List<Occurrence> findFieldReferences(String owner, String name, String desc, boolean exact)
+    {
+        return findMembers(fieldReferences, owner, name, desc, exact);
+    }
+    
+    /**
+     * Finds references to the type (internal name), through inheritance, instructions or catch blocks
+     */
+    public synchronized List<Occurrence> findTypeReferences(String internalName, boolean exact)
+    {
+        if (exact)
+            return sorted(typeReferences.get(internalName));
+        
+        List<Occurrence> results = new ArrayList<>();
+        for (Map.Entry<String, List<Occurrence>> entry : typeReferences.entrySet())
+            if (entry.getKey().contains(internalName))
+                results.addAll(entry.getValue());
+        
+        return sorted(results);
+    }
+    
+    private List<Occurrence> findMembers(HashMap<MemberRef, List<Occurrence>> map, String owner, String name,
+                                         String desc, boolean exact)
+    {
+        //fully specified exact searches are a single lookup
+        if (exact && owner != null && name != null && desc != null)
+            return sorted(map.get(new MemberRef(owner, name, desc)));
+        
+        List<Occurrence> results = new ArrayList<>();
+        for (Map.Entry<MemberRef, List<Occurrence>> entry : map.entrySet())
+            if (entry.getKey().matches(owner, name, desc, exact))
+                results.addAll(entry.getValue());
+        
+        return sorted(results);
+    }
+    
+    /**
+     * Results are returned in the order the classes were indexed in, matching the un-indexed search
+     */
+    private static List<Occurrence> sorted(List<Occurrence> occurrences)
+    {
+        if (occurrences == null)
+            return new ArrayList<>();
+        
+        List<Occurrence> results = new ArrayList<>(occurrences);
+        results.sort(Comparator.comparingLong(o -> o.order));
+        return results;
+    }
+    
+    private void add(List<Occurrence> contributed, byte kind, Object key, Occurrence occurrence)
+    {
+        occurrence.kind = kind;
+        occurrence.key = key;
+        occurrence.order = order++;
+        getMap(kind).computeIfAbsent(key, k -> new ArrayList<>()).add(occurrence);
+        contributed.add(occurrence);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<Object, List<Occurrence>> getMap(byte kind)
+    {
+        switch (kind)
+        {
+            case CONSTANT:
+                return (Map<Object, List<Occurrence>>) (Map<?, ?>) constants;
+            case METHOD_REFERENCE:
+                return (Map<Object, List<Occurrence>>) (Map<?, ?>) methodReferences;
+            case FIELD_REFERENCE:
+                return (Map<Object, List<Occurrence>>) (Map<?, ?>) fieldReferences;
+            default:
+                return (Map<Object, List<Occurrence>>) (Map<?, ?>) typeReferences;
+        }
+    }
+    
+    /**
+     * Writes the index, tagged with the size & last modified date of the archive it was built from
+     */
+    public synchronized void save(File indexFile, File archive) throws IOException
+    {
+        File temp = new File(indexFile.getAbsolutePath() + ".tmp");
+        
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(archive.length());
+            out.writeLong(archive.lastModified());
+            out.writeInt(classes.size());
+            
+            for (Map.Entry<String, List<Occurrence>> entry : classes.entrySet())
+            {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                
+                for (Occurrence occurrence : entry.getValue())
+                {
+                    out.writeByte(occurrence.kind);
+                    if (occurrence.key instanceof MemberRef)
+                    {
+                        MemberRef ref = (MemberRef) occurrence.key;
+                        writeString(out, ref.owner);
+                        writeString(out, ref.name);
+                        writeString(out, ref.desc);
+                    }
+                    else
+                    {
+                        writeString(out, (String) occurrence.key);
+                    }
+                    
+                    writeString(out, occurrence.memberName);
+                    writeString(out, occurrence.memberDesc);
+                    out.writeInt(occurrence.opcode);
+                    writeString(out, occurrence.detail);
+                }
+            }
+        }
+        
+        Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Reads a persisted index, returns null if it's from another version or the archive has changed since
+     */
+    public static SearchIndex load(File indexFile, File archive) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != archive.length() || in.readLong() != archive.lastModified())
+                return null;
+            
+            SearchIndex index = new SearchIndex();
+            int classCount = in.readInt();
+            
+            for (int i = 0; i < classCount; i++)
+            {
+                String className = readString(in);
+                int occurrenceCount = in.readInt();
+                List<Occurrence> contributed = new ArrayList<>(occurrenceCount);
+                index.classes.put(className, contributed);
+                
+                for (int j = 0; j < occurrenceCount; j++)
+                {
+                    byte kind = in.readByte();
+                    Object key = kind == METHOD_REFERENCE || kind == FIELD_REFERENCE
+                            ? new MemberRef(readString(in), readString(in), readString(in))
+                            : readString(in);
+                    
+                    String memberName = readString(in);
+                    String memberDesc = readString(in);
+                    int opcode = in.readInt();
+                    String detail = readString(in);
+                    
+                    index.add(contributed, kind, key, new Occurrence(className, memberName, memberDesc, opcode, detail));
+                }
+            }
+            
+            return index;
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        if (s == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        
+        //writeUTF is limited to 64kb, large string constants aren't unusual
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * A single use of an indexed key, memberName & memberDesc are null for class level references
+     */
+    public static class Occurrence
+    {
+        public final String className;
+        public final String memberName;
+        public final String memberDesc;
+        public final int opcode;
+        public final String detail;
+        
+        private byte kind;
+        private Object key;
+        private long order;
+        
+        public Occurrence(String className, String memberName, String memberDesc, int opcode, String detail)
+        {
+            this.className = className;
+            this.memberName = memberName;
+            this.memberDesc = memberDesc;
+            this.opcode = opcode;
+            this.detail = detail;
+        }
+        
+        public Object getKey()
+        {
+            return key;
+        }
+    }
+    
+    /**
+     * An owner / name / descriptor triple
+     */
+    public static class MemberRef
+    {
+        public final String owner;
+        public final String name;
+        public final String desc;
+        
+        public MemberRef(String owner, String name, String desc)
+        {
+            this.owner = owner;
+            this.name = name;
+            this.desc = desc;
+        }
+        
+        public boolean matches(String owner, String name, String desc, boolean exact)
+        {
+            return matches(this.owner, owner, exact) && matches(this.name, name, exact)
+                    && matches(this.desc, desc, exact);
+        }
+        
+        private static boolean matches(String value, String search, boolean exact)
+        {
+            return search == null || (exact ? value.equals(search) : value.contains(search));
+        }
+        
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof MemberRef))
+                return false;
+            
+            MemberRef ref = (MemberRef) o;
+            return owner.equals(ref.owner) && name.equals(ref.name) && desc.equals(ref.desc);
+        }
+        
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(owner, name, desc);
+        }
+        
+        @Override
+        public String toString()
+        {
+            return owner + "." + name + desc;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package the.bytecode.club.bytecodeviewer.searching;
 
+import java.util.List;
+
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
  * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
@@ -28,4 +30,12 @@ package the.bytecode.club.bytecodeviewer.searching;
 
 public interface SearchResultNotifier {
     void notifyOfResult(String debug);
+    
+    /**
+     * Called with a batch of results at once, override this to update the UI once per batch
+     */
+    default void notifyOfResults(List<String> debug) {
+        for (String result : debug)
+            notifyOfResult(result);
+    }
 }
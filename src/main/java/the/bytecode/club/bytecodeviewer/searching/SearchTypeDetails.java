@@ -35,4 +35,13 @@ public interface SearchTypeDetails
     JPanel getPanel();
     
     void search(ResourceContainer container, ClassNode node, SearchResultNotifier srn, boolean exact);
+    
+    /**
+     * Searches the whole container through its {@link SearchIndex}, returns false if this search type isn't indexed
+     * and the classes have to be searched one by one instead
+     */
+    default boolean searchIndexed(ResourceContainer container, SearchResultNotifier srn, boolean exact)
+    {
+        return false;
+    }
 }
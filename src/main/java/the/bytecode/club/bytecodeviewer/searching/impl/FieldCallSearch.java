@@ -1,12 +1,14 @@
 package the.bytecode.club.bytecodeviewer.searching.impl;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.MethodNode;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex;
 import the.bytecode.club.bytecodeviewer.searching.SearchResultNotifier;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
@@ -93,4 +95,11 @@ public class FieldCallSearch extends MethodCallSearch
             }
         }
     }
+    
+    @Override
+    protected List<SearchIndex.Occurrence> findReferences(SearchIndex index, String owner, String name, String desc,
+                                                          boolean exact)
+    {
+        return index.findFieldReferences(owner, name, desc, exact);
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import the.bytecode.club.bytecodeviewer.searching.EnterKeyEvent;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex;
 import the.bytecode.club.bytecodeviewer.searching.SearchResultNotifier;
 import the.bytecode.club.bytecodeviewer.searching.SearchTypeDetails;
 import the.bytecode.club.bytecodeviewer.translation.Translation;
@@ -89,18 +90,10 @@ public class LDCSearch implements SearchTypeDetails
                 {
                     final LdcInsnNode ldcObject = ((LdcInsnNode) insnNode);
                     final String ldcString = ldcObject.cst.toString();
-                    String desc2 = method.desc;
-                    try
-                    {
-                        desc2 = Type.getType(method.desc).toString();
-                        if (desc2.equals("null"))
-                            desc2 = method.desc;
-                    } catch (ArrayIndexOutOfBoundsException ignored) { }
-
                     if ((exact && ldcString.equals(srchText)) || (!exact && ldcString.contains(srchText)))
                     {
                         srn.notifyOfResult(container.name + ">" + node.name + "." + method.name
-                                + desc2
+                                + toDesc(method.desc)
                                 + " -> \"" + ldcString + "\" > "
                                 + ldcObject.cst.getClass().getCanonicalName());
                     }
@@ -109,24 +102,49 @@ public class LDCSearch implements SearchTypeDetails
         }
         
         final Iterator<FieldNode> fields = node.fields.iterator();
-        while (methods.hasNext())
+        while (fields.hasNext())
         {
             final FieldNode field = fields.next();
-            String desc2 = field.desc;
-            
-            try
-            {
-                desc2 = Type.getType(field.desc).toString();
-                
-                if (desc2.equals("null"))
-                    desc2 = field.desc;
-            } catch (java.lang.ArrayIndexOutOfBoundsException ignored) { }
             
             if (field.value instanceof String)
             {
-                srn.notifyOfResult(container.name + ">" + node.name + "." + field.name + desc2
-                        + " -> \"" + field.value + "\" > field");
+                final String fieldString = field.value.toString();
+                
+                if ((exact && fieldString.equals(srchText)) || (!exact && fieldString.contains(srchText)))
+                    srn.notifyOfResult(container.name + ">" + node.name + "." + field.name + toDesc(field.desc)
+                            + " -> \"" + fieldString + "\" > field");
             }
         }
     }
-}
\ No newline at end of file
+    
+    @Override
+    public boolean searchIndexed(ResourceContainer container, SearchResultNotifier srn, boolean exact)
+    {
+        final String srchText = searchText.getText();
+        
+        if (srchText.isEmpty())
+            return true;
+        
+        for (SearchIndex.Occurrence occurrence : container.getSearchIndex().findConstants(srchText, exact))
+        {
+            srn.notifyOfResult(container.name + ">" + occurrence.className + "." + occurrence.memberName
+                    + toDesc(occurrence.memberDesc)
+                    + " -> \"" + occurrence.getKey() + "\" > "
+                    + occurrence.detail);
+        }
+        
+        return true;
+    }
+    
+    private static String toDesc(String desc)
+    {
+        try
+        {
+            String desc2 = Type.getType(desc).toString();
+            if (!desc2.equals("null"))
+                return desc2;
+        } catch (ArrayIndexOutOfBoundsException ignored) { }
+        
+        return desc;
+    }
+}
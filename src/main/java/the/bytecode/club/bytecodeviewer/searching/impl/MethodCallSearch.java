@@ -4,6 +4,7 @@ import eu.bibl.banalysis.asm.desc.OpcodeInfo;
 
 import java.awt.*;
 import java.util.Iterator;
+import java.util.List;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import org.objectweb.asm.Type;
@@ -13,6 +14,7 @@ import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import the.bytecode.club.bytecodeviewer.searching.EnterKeyEvent;
+import the.bytecode.club.bytecodeviewer.searching.SearchIndex;
 import the.bytecode.club.bytecodeviewer.searching.SearchResultNotifier;
 import the.bytecode.club.bytecodeviewer.searching.SearchTypeDetails;
 import the.bytecode.club.bytecodeviewer.translation.Translation;
@@ -136,23 +138,58 @@ public class MethodCallSearch implements SearchTypeDetails
         }
     }
     
+    @Override
+    public boolean searchIndexed(ResourceContainer container, SearchResultNotifier srn, boolean exact)
+    {
+        String searchOwner = mOwner.getText();
+        String searchName = mName.getText();
+        String searchDesc = mDesc.getText();
+        
+        if (searchOwner.isEmpty() && searchName.isEmpty() && searchDesc.isEmpty())
+            return true;
+        
+        found(container, findReferences(container.getSearchIndex(), searchOwner.isEmpty() ? null : searchOwner,
+                searchName.isEmpty() ? null : searchName, searchDesc.isEmpty() ? null : searchDesc, exact), srn);
+        return true;
+    }
+    
+    /**
+     * Looks up the references for this search type, null arguments match anything
+     */
+    protected List<SearchIndex.Occurrence> findReferences(SearchIndex index, String owner, String name, String desc,
+                                                          boolean exact)
+    {
+        return index.findMethodReferences(owner, name, desc, exact);
+    }
+    
     public void found(final ResourceContainer container, final ClassNode node, final MethodNode method, final AbstractInsnNode insnNode, final SearchResultNotifier srn)
     {
-        String desc = method.desc;
+        found(container, node.name, method.name, method.desc, insnNode.getOpcode(), srn);
+    }
+    
+    public void found(final ResourceContainer container, final List<SearchIndex.Occurrence> occurrences, final SearchResultNotifier srn)
+    {
+        for (SearchIndex.Occurrence occurrence : occurrences)
+            found(container, occurrence.className, occurrence.memberName, occurrence.memberDesc, occurrence.opcode, srn);
+    }
+    
+    public void found(final ResourceContainer container, final String className, final String methodName, final String methodDesc, final int opcode, final SearchResultNotifier srn)
+    {
+        String desc = methodDesc;
         try
         {
-            desc = Type.getType(method.desc).toString();
+            desc = Type.getType(methodDesc).toString();
         
             if (desc.equals("null"))
-                desc = method.desc;
+                desc = methodDesc;
         } catch (ArrayIndexOutOfBoundsException ignored) { }
         
-        srn.notifyOfResult(container.name + ">" + node.name
+        srn.notifyOfResult(container.name + ">" + className
                 + "."
-                + method.name
+                + methodName
                 + desc
                 + " > "
-                + OpcodeInfo.OPCODES.get(insnNode.getOpcode())
+                + OpcodeInfo.OPCODES.get(opcode)
                 .toLowerCase());
     }
 }
\ No newline at end of file
@@ -3,21 +3,20 @@ package the.bytecode.club.bytecodeviewer.searching.impl;
 import java.awt.GridLayout;
 import java.util.Iterator;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
 import the.bytecode.club.bytecodeviewer.searching.EnterKeyEvent;
-import the.bytecode.club.bytecodeviewer.searching.RegexInsnFinder;
+import the.bytecode.club.bytecodeviewer.searching.InsnPattern;
 import the.bytecode.club.bytecodeviewer.searching.SearchResultNotifier;
 import the.bytecode.club.bytecodeviewer.searching.SearchTypeDetails;
 import the.bytecode.club.bytecodeviewer.translation.Translation;
 import the.bytecode.club.bytecodeviewer.translation.components.TranslatedJLabel;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
-import static the.bytecode.club.bytecodeviewer.searching.RegexInsnFinder.processRegex;
-
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
  * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
@@ -47,6 +46,7 @@ import static the.bytecode.club.bytecodeviewer.searching.RegexInsnFinder.process
 public class RegexSearch implements SearchTypeDetails
 {
     public static JTextField searchText;
+    private static volatile InsnPattern lastPattern;
     JPanel myPanel = null;
 
     public RegexSearch()
@@ -78,12 +78,12 @@ public class RegexSearch implements SearchTypeDetails
         if (srchText.isEmpty())
             return;
         
-        Pattern pattern = Pattern.compile(processRegex(srchText), Pattern.MULTILINE);
+        InsnPattern.InsnMatcher matcher = compile(srchText).matcher();
         while (methods.hasNext())
         {
             final MethodNode method = methods.next();
 
-            if (RegexInsnFinder.staticScan(node, method, pattern))
+            if (matcher.find(method))
             {
                 String desc2 = method.desc;
                 try
@@ -98,4 +98,36 @@ public class RegexSearch implements SearchTypeDetails
             }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Compiles the search text once per query, text that isn't an instruction pattern
+     * is searched for inside of the instruction operands like before
+     *
+     * @throws PatternSyntaxException if the text is neither an instruction pattern nor a regex
+     */
+    public static InsnPattern compile(String text)
+    {
+        InsnPattern pattern = lastPattern;
+        if (pattern != null && pattern.pattern().equals(text))
+            return pattern;
+        
+        try
+        {
+            pattern = InsnPattern.compile(text);
+        }
+        catch (PatternSyntaxException e)
+        {
+            try
+            {
+                pattern = InsnPattern.operandRegex(Pattern.compile(text));
+            }
+            catch (PatternSyntaxException ignored)
+            {
+                throw e;
+            }
+        }
+        
+        lastPattern = pattern;
+        return pattern;
+    }
+}
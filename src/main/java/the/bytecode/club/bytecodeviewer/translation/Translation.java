@@ -87,6 +87,8 @@ public enum Translation
 	UPDATE_CHECK,
 	DELETE_UNKNOWN_LIBS,
 	FORCE_PURE_ASCII_AS_TEXT,
+	LOAD_CLASSES_ON_DEMAND,
+	MEMORY_MAP_ARCHIVES,
 	SET_PYTHON_27_EXECUTABLE,
 	SET_PYTHON_30_EXECUTABLE,
 	SET_JRE_RT_LIBRARY,
@@ -30,7 +30,8 @@ import static the.bytecode.club.bytecodeviewer.Constants.*;
  */
 public class APKTool {
 
-    public static synchronized void decodeResources(File input, File output, ResourceContainer container) {
+    //every call decodes into its own random temp directory with its own framework path
+    public static void decodeResources(File input, File output, ResourceContainer container) {
         try {
             File dir = new File(tempDirectory + fs + MiscUtils.randomString(32) + fs + "Decoded Resources");
             dir.mkdirs();
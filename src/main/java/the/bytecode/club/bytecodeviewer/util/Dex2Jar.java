@@ -33,13 +33,16 @@ import java.lang.reflect.Field;
 
 public class Dex2Jar {
 
+    //Jar2Dex runs DX, which keeps its state in static fields and writes the dex into the working directory
+    private static final Object DX_LOCK = new Object();
+
     /**
      * Converts a .apk or .dex to .jar
      *
      * @param input  the input .apk or .dex file
      * @param output the output .jar file
      */
-    public static synchronized void dex2Jar(File input, File output) {
+    public static void dex2Jar(File input, File output) {
         try {
             Dex2jar d2Jar = Dex2jar.from(input);
             d2Jar.to(output.toPath());
@@ -66,38 +69,44 @@ public class Dex2Jar {
      * @param input  the input .jar file
      * @param output the output .dex file
      */
-    public static synchronized void saveAsDex(File input, File output) {
+    public static void saveAsDex(File input, File output) {
         saveAsDex(input, output, true);
     }
 
-    public static synchronized void saveAsDex(File input, File output, boolean delete) {
+    public static void saveAsDex(File input, File output, boolean delete) {
         try {
-            com.googlecode.dex2jar.tools.Jar2Dex.main(input.getAbsolutePath());
-            File currentDexLocation = new File("./" + input.getName());
-
-            if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".jar")) {
-                currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.jar", "-jar2dex"
-                        + ".dex"));
-            } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".apk")) {
-                currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.apk", "-jar2dex"
-                        + ".dex"));
-            } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".dex")) {
-                currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.dex", "-jar2dex"
-                        + ".dex"));
-            } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".zip")) {
-                currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.zip", "-jar2dex"
-                        + ".dex"));
-            } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".class")) {
-                currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.class", "-jar2dex"
-                        + ".dex"));
+            synchronized (DX_LOCK) {
+                com.googlecode.dex2jar.tools.Jar2Dex.main(input.getAbsolutePath());
+                moveDex(input, output);
             }
 
-            currentDexLocation.renameTo(output);
-
             if (delete)
                 input.delete();
         } catch (Exception e) {
             BytecodeViewer.handleException(e);
         }
     }
+
+    private static void moveDex(File input, File output) {
+        File currentDexLocation = new File("./" + input.getName());
+
+        if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".jar")) {
+            currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.jar", "-jar2dex"
+                    + ".dex"));
+        } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".apk")) {
+            currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.apk", "-jar2dex"
+                    + ".dex"));
+        } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".dex")) {
+            currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.dex", "-jar2dex"
+                    + ".dex"));
+        } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".zip")) {
+            currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.zip", "-jar2dex"
+                    + ".dex"));
+        } else if (currentDexLocation.getAbsolutePath().toLowerCase().endsWith(".class")) {
+            currentDexLocation = new File(currentDexLocation.getAbsolutePath().replaceFirst("\\.class", "-jar2dex"
+                    + ".dex"));
+        }
+
+        currentDexLocation.renameTo(output);
+    }
 }
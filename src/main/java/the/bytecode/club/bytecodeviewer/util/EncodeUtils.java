@@ -2,8 +2,6 @@ package the.bytecode.club.bytecodeviewer.util;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 
 /***************************************************************************
@@ -54,18 +52,39 @@ public class EncodeUtils {
         }
     }
 
+    /**
+     * Decodes every \\uXXXX escape in a single pass, the string is returned as-is when there aren't any
+     */
     public static String unicodeToString(String str) {
+        int escape = str.indexOf("\\u");
+        if (escape == -1)
+            return str;
 
-        Pattern pattern = Pattern.compile("(\\\\u(\\p{XDigit}{4}))");
-        Matcher matcher = pattern.matcher(str);
-        char ch;
-        while (matcher.find()) {
-            String group = matcher.group(2);
-            ch = (char) Integer.parseInt(group, 16);
-            String group1 = matcher.group(1);
-            str = str.replace(group1, ch + "");
+        StringBuilder out = new StringBuilder(str.length());
+        int copied = 0;
+
+        while (escape != -1) {
+            if (escape + 6 <= str.length() && isHex(str, escape + 2, escape + 6)) {
+                out.append(str, copied, escape);
+                out.append((char) Integer.parseInt(str.substring(escape + 2, escape + 6), 16));
+                copied = escape + 6;
+                escape = str.indexOf("\\u", copied);
+            } else {
+                escape = str.indexOf("\\u", escape + 1);
+            }
+        }
+
+        out.append(str, copied, str.length());
+        return out.toString();
+    }
+
+    private static boolean isHex(String str, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f') && (c < 'A' || c > 'F'))
+                return false;
         }
-        return str;
+        return true;
     }
 
     public static String convertStringToUTF8(String s) {
@@ -1,23 +1,31 @@
 package the.bytecode.club.bytecodeviewer.util;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarOutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
 import me.konloch.kontainer.io.DiskWriter;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.io.FilenameUtils;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.api.ASMUtil;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
 
@@ -54,7 +62,21 @@ import static the.bytecode.club.bytecodeviewer.Constants.*;
 @Deprecated
 public class JarUtils
 {
-    public static Object LOCK = new Object();
+    //writers of the same output path are serialized, different paths are written in parallel
+    private static final Object[] PATH_LOCKS = new Object[64];
+    
+    //the classes are serialized in chunks, at most WRITE_QUEUE_SIZE chunks are waiting to be written at a time
+    private static final int WRITE_CHUNK_SIZE = 64;
+    private static final int WRITE_QUEUE_SIZE = Runtime.getRuntime().availableProcessors() * 4;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final ExecutorService classWriterPool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("Jar Class Writer"));
+    
+    static
+    {
+        for (int i = 0; i < PATH_LOCKS.length; i++)
+            PATH_LOCKS[i] = new Object();
+    }
     
     /**
      * Loads the classes and resources from the input jar file
@@ -103,7 +125,7 @@ public class JarUtils
         }
         jis.close();
         container.resourceFiles = files;
-        BytecodeViewer.resourceContainers.add(container);
+        BytecodeViewer.addResourceContainer(container);
     }
     
     
@@ -152,7 +174,7 @@ public class JarUtils
         }
 
         container.resourceFiles = files;
-        BytecodeViewer.resourceContainers.add(container);
+        BytecodeViewer.addResourceContainer(container);
     }
     
     public static ArrayList<ClassNode> loadClasses(final File jarFile) throws IOException
@@ -230,11 +252,8 @@ public class JarUtils
      */
     public static ClassNode getNode(final byte[] bytez)
     {
-        //TODO figure out why is this synchronized and if it's actually needed (probably not)
-        synchronized (LOCK)
-        {
-            return ASMUtil.bytesToNode(bytez);
-        }
+        //every call reads into its own ClassReader & ClassNode, there's no shared state to lock
+        return ASMUtil.bytesToNode(bytez);
     }
 
     /**
@@ -246,33 +265,21 @@ public class JarUtils
      */
     public static void saveAsJar(ArrayList<ClassNode> nodeList, String path,
                                  String manifest) {
-        try {
-            JarOutputStream out = new JarOutputStream(
-                    new FileOutputStream(path));
-            for (ClassNode cn : nodeList) {
-                ClassWriter cw = new ClassWriter(0);
-                cn.accept(cw);
-
-                out.putNextEntry(new ZipEntry(cn.name + ".class"));
-                out.write(cw.toByteArray());
-                out.closeEntry();
-            }
+        try (JarOutputStream out = openJar(path, Configuration.exportCompressionLevel)) {
+            writeClasses(entryWriter(out), nodeList, new HashSet<>());
 
             out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
             out.write((manifest.trim() + "\r\n\r\n").getBytes());
             out.closeEntry();
 
             for (ResourceContainer container : BytecodeViewer.resourceContainers)
-                for (Entry<String, byte[]> entry : container.resourceFiles.entrySet()) {
-                    String filename = entry.getKey();
+                for (String filename : container.getFileNames()) {
                     if (!filename.startsWith("META-INF")) {
                         out.putNextEntry(new ZipEntry(filename));
-                        out.write(entry.getValue());
+                        out.write(container.getFileBytes(filename));
                         out.closeEntry();
                     }
                 }
-
-            out.close();
         } catch (IOException e) {
             BytecodeViewer.handleException(e);
         }
@@ -286,31 +293,12 @@ public class JarUtils
      */
     public static void saveAsJarClassesOnly(Collection<ClassNode> nodeList, String path)
     {
-        //TODO figure out why is this synchronized and if it's actually needed (probably not)
-        synchronized (LOCK)
+        synchronized (getPathLock(path))
         {
-            try
+            //only used for the temp jars of the decompilers, they're read back right away
+            try (JarOutputStream out = openJar(path, Deflater.BEST_SPEED))
             {
-                JarOutputStream out = new JarOutputStream(new FileOutputStream(path));
-                ArrayList<String> noDupe = new ArrayList<>();
-                for (ClassNode cn : nodeList)
-                {
-                    ClassWriter cw = new ClassWriter(0);
-                    cn.accept(cw);
-            
-                    String name = cn.name + ".class";
-            
-                    if (!noDupe.contains(name))
-                    {
-                        noDupe.add(name);
-                        out.putNextEntry(new ZipEntry(name));
-                        out.write(cw.toByteArray());
-                        out.closeEntry();
-                    }
-                }
-        
-                noDupe.clear();
-                out.close();
+                writeClasses(entryWriter(out), nodeList, new HashSet<>());
             }
             catch (IOException e)
             {
@@ -319,6 +307,12 @@ public class JarUtils
         }
     }
 
+    private static Object getPathLock(String path)
+    {
+        int hash = new File(path).getAbsolutePath().hashCode();
+        return PATH_LOCKS[(hash ^ (hash >>> 16)) & (PATH_LOCKS.length - 1)];
+    }
+
     /**
      * Saves a jar without the manifest
      *
@@ -349,40 +343,260 @@ public class JarUtils
      * @param path     the exact jar output path
      */
     public static void saveAsJar(ArrayList<ClassNode> nodeList, String path) {
-        try {
-            JarOutputStream out = new JarOutputStream(new FileOutputStream(path));
-            ArrayList<String> noDupe = new ArrayList<>();
-            for (ClassNode cn : nodeList) {
-                ClassWriter cw = new ClassWriter(0);
-                cn.accept(cw);
-
-                String name = cn.name + ".class";
-
-                if (!noDupe.contains(name)) {
-                    noDupe.add(name);
-                    out.putNextEntry(new ZipEntry(name));
-                    out.write(cw.toByteArray());
-                    out.closeEntry();
-                }
-            }
+        try (JarOutputStream out = openJar(path, Configuration.exportCompressionLevel)) {
+            Set<String> written = new HashSet<>();
+            writeClasses(entryWriter(out), nodeList, written);
 
             for (ResourceContainer container : BytecodeViewer.resourceContainers)
-                for (Entry<String, byte[]> entry : container.resourceFiles.entrySet()) {
-                    String filename = entry.getKey();
+                for (String filename : container.getFileNames()) {
                     if (!filename.startsWith("META-INF")) {
-                        if (!noDupe.contains(filename)) {
-                            noDupe.add(filename);
+                        if (written.add(filename)) {
                             out.putNextEntry(new ZipEntry(filename));
-                            out.write(entry.getValue());
+                            out.write(container.getFileBytes(filename));
                             out.closeEntry();
                         }
                     }
                 }
-
-            noDupe.clear();
-            out.close();
         } catch (IOException e) {
             BytecodeViewer.handleException(e);
         }
     }
+    
+    /**
+     * Saves the containers as a jar. The entries that haven't changed since the import are copied from the source
+     * archives as they are, without being inflated & deflated again, and only the edited classes are serialized.
+     *
+     * @param manifest the manifest contents, or null to leave out the manifest
+     */
+    public static void saveContainersAsJar(Collection<ResourceContainer> containers, String path, String manifest)
+    {
+        try (ZipArchiveOutputStream out = openZip(path, Configuration.exportCompressionLevel))
+        {
+            EntryWriter writer = entryWriter(out);
+            Set<String> written = new HashSet<>();
+            Map<String, ClassNode> edited = new LinkedHashMap<>();
+            
+            if (manifest != null)
+            {
+                written.add("META-INF/MANIFEST.MF");
+                writer.write("META-INF/MANIFEST.MF", (manifest.trim() + "\r\n\r\n").getBytes());
+            }
+            
+            for (ResourceContainer container : containers)
+            {
+                try (ZipFile source = container.openSourceArchive())
+                {
+                    for (String className : container.getClassNames())
+                    {
+                        String name = className + ".class";
+                        if (!written.add(name))
+                            continue;
+                        
+                        if (copyEntry(out, source, container, name))
+                            continue;
+                        
+                        //the unchanged classes are written from their stored bytes, only the edited ones are serialized
+                        byte[] bytes = container.isDirty(name) ? null : container.getBytes(name);
+                        if (bytes != null)
+                        {
+                            writer.write(name, bytes);
+                        }
+                        else
+                        {
+                            ClassNode cn = container.getClassNode(className);
+                            if (cn != null)
+                                edited.put(name, cn);
+                        }
+                    }
+                    
+                    for (String fileName : container.getFileNames())
+                    {
+                        if (fileName.startsWith("META-INF") || !written.add(fileName))
+                            continue;
+                        
+                        if (copyEntry(out, source, container, fileName))
+                            continue;
+                        
+                        byte[] bytes = container.getFileBytes(fileName);
+                        if (bytes != null)
+                            writer.write(fileName, bytes);
+                    }
+                }
+            }
+            
+            writeClasses(writer, edited);
+        }
+        catch (IOException e)
+        {
+            BytecodeViewer.handleException(e);
+        }
+    }
+    
+    /**
+     * Copies the compressed entry from the source archive if the container still holds it unchanged
+     */
+    private static boolean copyEntry(ZipArchiveOutputStream out, ZipFile source, ResourceContainer container,
+                                     String name) throws IOException
+    {
+        ZipArchiveEntry entry = container.getSourceEntry(source, name);
+        if (entry == null)
+            return false;
+        
+        try (InputStream raw = source.getRawInputStream(entry))
+        {
+            if (raw == null)
+                return false;
+            
+            out.addRawArchiveEntry(entry, raw);
+        }
+        
+        return true;
+    }
+    
+    private static ZipArchiveOutputStream openZip(String path, int level) throws IOException
+    {
+        ZipArchiveOutputStream out = new ZipArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(path),
+                WRITE_BUFFER_SIZE));
+        out.setLevel(level);
+        return out;
+    }
+    
+    private static JarOutputStream openJar(String path, int level) throws IOException
+    {
+        JarOutputStream out = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(path),
+                WRITE_BUFFER_SIZE));
+        out.setLevel(level);
+        return out;
+    }
+    
+    /**
+     * Serializes the classes and writes them in their original order, the duplicate class names are skipped
+     * (the first one wins)
+     *
+     * @param written the names of the entries written so far, the classes are added to it
+     */
+    private static void writeClasses(EntryWriter out, Collection<ClassNode> nodeList, Set<String> written)
+            throws IOException
+    {
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : nodeList)
+            if (written.add(cn.name + ".class"))
+                classes.put(cn.name + ".class", cn);
+        
+        writeClasses(out, classes);
+    }
+    
+    /**
+     * Serializes the classes on the class writer pool and writes them in their original order
+     *
+     * @param classes the entry names with the classes to write
+     */
+    private static void writeClasses(EntryWriter out, Map<String, ClassNode> classes) throws IOException
+    {
+        ArrayDeque<PendingChunk> queue = new ArrayDeque<>();
+        
+        try
+        {
+            PendingChunk chunk = new PendingChunk();
+            for (Map.Entry<String, ClassNode> entry : classes.entrySet())
+            {
+                chunk.names.add(entry.getKey());
+                chunk.nodes.add(entry.getValue());
+                
+                if (chunk.nodes.size() == WRITE_CHUNK_SIZE)
+                {
+                    queue.add(chunk.submit());
+                    chunk = new PendingChunk();
+                    
+                    //the serialization can outrun the disk, wait for the oldest chunk before queuing more
+                    if (queue.size() >= WRITE_QUEUE_SIZE)
+                        queue.poll().write(out);
+                }
+            }
+            
+            if (!chunk.nodes.isEmpty())
+                queue.add(chunk.submit());
+            
+            while (!queue.isEmpty())
+                queue.poll().write(out);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cancelled while writing the jar");
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            
+            throw new IOException(e.getCause());
+        }
+        finally
+        {
+            for (PendingChunk pending : queue)
+                pending.bytes.cancel(true);
+        }
+    }
+    
+    private static EntryWriter entryWriter(JarOutputStream out)
+    {
+        return (name, bytes) ->
+        {
+            out.putNextEntry(new ZipEntry(name));
+            out.write(bytes);
+            out.closeEntry();
+        };
+    }
+    
+    private static EntryWriter entryWriter(ZipArchiveOutputStream out)
+    {
+        return (name, bytes) ->
+        {
+            out.putArchiveEntry(new ZipArchiveEntry(name));
+            out.write(bytes);
+            out.closeArchiveEntry();
+        };
+    }
+    
+    private interface EntryWriter
+    {
+        void write(String name, byte[] bytes) throws IOException;
+    }
+    
+    private static class PendingChunk
+    {
+        private final List<String> names = new ArrayList<>(WRITE_CHUNK_SIZE);
+        private final List<ClassNode> nodes = new ArrayList<>(WRITE_CHUNK_SIZE);
+        private Future<byte[][]> bytes;
+        
+        private PendingChunk submit()
+        {
+            bytes = classWriterPool.submit(() ->
+            {
+                byte[][] classBytes = new byte[nodes.size()][];
+                
+                for (int i = 0; i < classBytes.length; i++)
+                {
+                    ClassWriter cw = new ClassWriter(0);
+                    nodes.get(i).accept(cw);
+                    classBytes[i] = cw.toByteArray();
+                }
+                
+                return classBytes;
+            });
+            
+            return this;
+        }
+        
+        private void write(EntryWriter out) throws IOException, InterruptedException, ExecutionException
+        {
+            byte[][] classBytes = bytes.get();
+            
+            for (int i = 0; i < classBytes.length; i++)
+                out.write(names.get(i), classBytes[i]);
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package the.bytecode.club.bytecodeviewer.util;
 
 import org.apache.commons.lang3.StringUtils;
-import org.objectweb.asm.tree.ClassNode;
 import the.bytecode.club.bytecodeviewer.BytecodeViewer;
 import the.bytecode.club.bytecodeviewer.Configuration;
 import the.bytecode.club.bytecodeviewer.resources.ResourceContainer;
@@ -181,8 +180,8 @@ public class MiscUtils
         StringBuilder block = new StringBuilder();
         for (ResourceContainer container : resourceContainers) {
             block.append(container.name);
-            for (ClassNode node : container.resourceClasses.values()) {
-                block.append(node.name);
+            for (String className : container.getClassNames()) {
+                block.append(className);
             }
         }
         
@@ -285,9 +284,9 @@ public class MiscUtils
      */
     public static byte[] getBytes(final InputStream is) throws IOException
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(8192);
         
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[8192];
         int a;
         while ((a = is.read(buffer)) != -1)
             baos.write(buffer, 0, a);
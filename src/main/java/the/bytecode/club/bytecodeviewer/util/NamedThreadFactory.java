@@ -1,9 +1,7 @@
-package the.bytecode.club.bytecodeviewer.obfuscators;
+package the.bytecode.club.bytecodeviewer.util;
 
-import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldNode;
-import the.bytecode.club.bytecodeviewer.BytecodeViewer;
-import the.bytecode.club.bytecodeviewer.api.ASMResourceUtil;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /***************************************************************************
  * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
@@ -24,28 +22,27 @@ import the.bytecode.club.bytecodeviewer.api.ASMResourceUtil;
  ***************************************************************************/
 
 /**
- * Rename fields.
+ * Creates named daemon threads for the worker pools, this keeps the thread dumps readable
+ * and allows BCV to exit without waiting on idle workers.
  *
- * @author Konloch
+ * @author agent
+ * @since 10/18/2026
  */
-
-public class RenameFields extends JavaObfuscator {
-
-    @Override
-    public void obfuscate() {
-        int stringLength = getStringLength();
-
-        System.out.println("Obfuscating fields names...");
-        for (ClassNode c : BytecodeViewer.getLoadedClasses()) {
-            for (Object o : c.fields.toArray()) {
-                FieldNode f = (FieldNode) o;
-                String newName = generateUniqueName(stringLength);
-                ASMResourceUtil.renameFieldNode(c.name, f.name, f.desc, null,
-                        newName, null);
-                f.name = newName;
-            }
-        }
-
-        System.out.println("Obfuscated field names.");
-    }
+public class NamedThreadFactory implements ThreadFactory
+{
+	private final String name;
+	private final AtomicInteger counter = new AtomicInteger();
+	
+	public NamedThreadFactory(String name)
+	{
+		this.name = name;
+	}
+	
+	@Override
+	public Thread newThread(Runnable r)
+	{
+		Thread thread = new Thread(r, name + " #" + counter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
 }
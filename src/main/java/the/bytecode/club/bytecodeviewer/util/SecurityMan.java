@@ -48,6 +48,7 @@ public class SecurityMan extends SecurityManager
                 executedClass.equals("the.bytecode.club.bytecodeviewer.decompilers.impl.ProcyonDecompiler") ||
                 executedClass.equals("the.bytecode.club.bytecodeviewer.decompilers.impl.FernFlowerDecompiler") ||
                 executedClass.equals("the.bytecode.club.bytecodeviewer.decompilers.impl.JDGUIDecompiler") ||
+                executedClass.equals("the.bytecode.club.bytecodeviewer.decompilers.DecompilerWorkerPool") ||
                 executedClass.equals("the.bytecode.club.bytecodeviewer.compilers.impl.KrakatauAssembler") ||
                 executedClass.equals("the.bytecode.club.bytecodeviewer.resources.ExternalResources") ||
                 executedClass.equals("the.bytecode.club.bytecodeviewer.util.Enjarify") ||
@@ -28,7 +28,7 @@ public class Template extends Plugin
 	public void process(ClassNode cn)
 	{
 		out("Node: " + cn.name + ".class");
-		//TODO developer plugin code goes here
+		//TODO developer plugin code goes here, call BCV.markEdited(cn) after editing the class in place
 	}
 	
 	/**
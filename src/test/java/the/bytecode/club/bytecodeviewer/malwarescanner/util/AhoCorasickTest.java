@@ -0,0 +1,86 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * @author agent
+ * @since 10/18/2026
+ */
+public class AhoCorasickTest
+{
+    @Test
+    public void matchesOverlappingPatterns()
+    {
+        AhoCorasick<String> ac = new AhoCorasick<String>()
+                .add("he", "he")
+                .add("she", "she")
+                .add("his", "his")
+                .add("hers", "hers")
+                .compile();
+        
+        List<String> found = new ArrayList<>();
+        ac.match("ushers", found::add);
+        
+        assertEquals(Arrays.asList("she", "he", "hers"), found);
+    }
+    
+    @Test
+    public void matchesEveryOccurrence()
+    {
+        AhoCorasick<String> ac = new AhoCorasick<String>().add("aa", "aa").compile();
+        
+        List<String> found = new ArrayList<>();
+        ac.match("aaaa", found::add);
+        
+        assertEquals(3, found.size());
+        assertEquals(Arrays.asList("aa"), ac.matches("aaaa"));
+    }
+    
+    @Test
+    public void matchesEachValueOnce()
+    {
+        AhoCorasick<Integer> ac = new AhoCorasick<Integer>()
+                .add("abc", 1)
+                .add("bc", 2)
+                .add("c", 3)
+                .add("x", 4)
+                .compile();
+        
+        assertEquals(Arrays.asList(1, 2, 3), ac.matches("abcabc"));
+        assertTrue(ac.containsAny("xyz"));
+        assertFalse(ac.containsAny("yz"));
+        assertTrue(ac.matches("").isEmpty());
+    }
+    
+    @Test
+    public void ignoresEmptyPatterns()
+    {
+        AhoCorasick<String> ac = new AhoCorasick<String>().add("", "empty").add("a", "a").compile();
+        
+        assertEquals(1, ac.size());
+        assertEquals(Arrays.asList("a"), ac.matches("bab"));
+    }
+}
@@ -0,0 +1,151 @@
+package the.bytecode.club.bytecodeviewer.malwarescanner.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Test;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.IOCRuleSet.Category;
+import the.bytecode.club.bytecodeviewer.malwarescanner.util.IOCRuleSet.Rule;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * @author agent
+ * @since 10/18/2026
+ */
+public class IOCRuleSetTest
+{
+    private static final IOCRuleSet EMPTY = new IOCRuleSet().compile();
+    
+    @Test
+    public void matchesStandaloneIPAddresses()
+    {
+        assertMatches("10.0.0.1", new Rule(Category.IP, "10.0.0.1"));
+        assertMatches("connect to 192.168.1.20:4444 now", new Rule(Category.IP, "192.168.1.20"));
+        assertMatches("http://8.8.4.4/payload", new Rule(Category.IP, "8.8.4.4"));
+    }
+    
+    @Test
+    public void matchesIPAddressesEndingASentence()
+    {
+        assertMatches("the server is 10.0.0.1.", new Rule(Category.IP, "10.0.0.1"));
+        assertMatches("...10.0.0.1...", new Rule(Category.IP, "10.0.0.1"));
+    }
+    
+    @Test
+    public void ignoresVersionStrings()
+    {
+        assertMatches("1.0.0.0");
+        assertMatches("version 2.1.0.0");
+        assertMatches("v1.2.3.4");
+        assertMatches("1.2.3.4-SNAPSHOT");
+        assertMatches("lib_1.2.3.4_01");
+        assertMatches("1.2.3.4+build");
+        assertMatches("1.2.3.4.5");
+        assertMatches("jdk1.2.3.4");
+    }
+    
+    @Test
+    public void ignoresInvalidIPAddresses()
+    {
+        assertMatches("256.1.1.1");
+        assertMatches("1.1.1");
+        assertMatches("1..1.1");
+        assertMatches("1.1.1.1234");
+        assertMatches("0.1.2.3");
+    }
+    
+    @Test
+    public void matchesWallets()
+    {
+        String ethereum = "0x52908400098527886E0F7030069857D2E4169EE7";
+        String segwit = "bc1qar0srrr7xfkvy5l643lydnw9re59gtzzwf5mdq";
+        String legacy = "1BvBMSEYstWetqTFn5Au4m4GFg7xJaNVN2";
+        
+        assertMatches("send to " + ethereum, new Rule(Category.WALLET, ethereum));
+        assertMatches(segwit, new Rule(Category.WALLET, segwit));
+        assertMatches("wallet=" + legacy + ".", new Rule(Category.WALLET, legacy));
+        assertMatches("0x52908400098527886E0F7030069857D2E4169EEZ");
+        assertMatches("1111111111111111111111111111111111");
+    }
+    
+    @Test
+    public void matchesEachRuleOnce()
+    {
+        assertMatches("10.0.0.1 10.0.0.1 10.0.0.2", new Rule(Category.IP, "10.0.0.1"), new Rule(Category.IP, "10.0.0.2"));
+    }
+    
+    @Test
+    public void matchesIndicatorsCaseInsensitively()
+    {
+        IOCRuleSet rules = new IOCRuleSet().add(Category.DOMAIN, "PasteBin.com").compile();
+        
+        assertEquals(1, rules.matchString(new SearchableString("https://PASTEBIN.COM/raw/x")).size());
+        assertEquals(new Rule(Category.DOMAIN, "PasteBin.com"),
+                rules.matchString(new SearchableString("pastebin.com")).get(0));
+    }
+    
+    @Test
+    public void loadsCategoriesFromSections() throws IOException
+    {
+        IOCRuleSet rules = new IOCRuleSet().load(new StringReader(
+                "# comment\n"
+                + "untagged\n"
+                + "[domain]\n"
+                + "  evil.example.com  \n"
+                + "\n"
+                + "[shell_command]\n"
+                + "curl -s\n")).compile();
+        
+        assertEquals(3, rules.size());
+        assertEquals(new Rule(Category.INDICATOR, "untagged"),
+                rules.matchString(new SearchableString("UNTAGGED")).get(0));
+        assertEquals(new Rule(Category.DOMAIN, "evil.example.com"),
+                rules.matchString(new SearchableString("evil.example.com/x")).get(0));
+        assertEquals(new Rule(Category.SHELL_COMMAND, "curl -s"),
+                rules.matchString(new SearchableString("sh -c curl -s http")).get(0));
+    }
+    
+    @Test
+    public void matchesClassNamesInEveryForm()
+    {
+        IOCRuleSet rules = new IOCRuleSet().add(Category.CLASS_NAME, "java.lang.Runtime").compile();
+        Rule rule = new Rule(Category.CLASS_NAME, "java.lang.Runtime");
+        
+        assertEquals(3, rules.size());
+        assertTrue(rules.matchClassName("java/lang/Runtime").contains(rule));
+        assertTrue(rules.matchClassName("java/lang/Object").isEmpty());
+        assertTrue(rules.matchString(new SearchableString("java.lang.Runtime")).contains(rule));
+        assertTrue(rules.matchString(new SearchableString("Ljava/lang/Runtime;")).contains(rule));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void rejectsRulesAfterCompiling()
+    {
+        new IOCRuleSet().compile().add(Category.URL, "http://");
+    }
+    
+    private static void assertMatches(String string, Rule... expected)
+    {
+        List<Rule> matches = EMPTY.matchString(new SearchableString(string));
+        assertArrayEquals(string, expected, matches.toArray());
+    }
+}
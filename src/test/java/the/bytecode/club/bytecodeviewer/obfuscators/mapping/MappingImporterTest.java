@@ -0,0 +1,140 @@
+package the.bytecode.club.bytecodeviewer.obfuscators.mapping;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Reads the same small mapping (a -> net/example/Foo, d -> net/example/Bar, a.b -> count, a.c -> run)
+ * in every supported format from src/test/resources/mappings.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class MappingImporterTest
+{
+    @Test
+    public void readsProGuard() throws Exception
+    {
+        MappingTable table = read("proguard.txt");
+        
+        assertExampleMapping(table, "I");
+        assertEquals("children", table.getFieldName("a", "e", "[La;"));
+        //unchanged names & inlined methods aren't mapped
+        assertNull(table.getMethodName("a", "unchanged", "()V"));
+        assertEquals(2, table.getFieldCount());
+        assertEquals(1, table.getMethodCount());
+    }
+    
+    @Test
+    public void readsSrg() throws Exception
+    {
+        assertExampleMapping(read("example.srg"), "I");
+    }
+    
+    @Test
+    public void readsCsrg() throws Exception
+    {
+        assertExampleMapping(read("example.csrg"), "I");
+    }
+    
+    @Test
+    public void readsTsrg() throws Exception
+    {
+        assertExampleMapping(read("example.tsrg"), "I");
+    }
+    
+    @Test
+    public void rejectsTsrgV2()
+    {
+        try
+        {
+            read("example2.tsrg");
+            fail("TSRG v2 was read");
+        }
+        catch (Exception e)
+        {
+            assertTrue(e instanceof IOException);
+            assertEquals("TSRG v2 is not supported", e.getMessage());
+        }
+    }
+    
+    @Test
+    public void readsTiny() throws Exception
+    {
+        assertExampleMapping(read("example.tiny"), "I");
+    }
+    
+    @Test
+    public void readsTinyV2ToTheLastNamespace() throws Exception
+    {
+        assertExampleMapping(read("example-v2.tiny"), "I");
+    }
+    
+    @Test
+    public void readsEnigma() throws Exception
+    {
+        MappingTable table = read("example.mapping");
+        
+        assertExampleMapping(table, "I");
+        assertEquals("net/example/Foo$Inner", table.getClassName("a$e"));
+        assertNull(table.getMethodName("a", "x", "(I)V"));
+        assertEquals(3, table.getClassCount());
+    }
+    
+    @Test
+    public void detectsTheFormat() throws IOException
+    {
+        assertEquals(MappingImporter.Format.PROGUARD, MappingImporter.detect("mapping.txt", "# compiler: R8"));
+        assertEquals(MappingImporter.Format.PROGUARD, MappingImporter.detect("out.map", "com.Foo -> a:"));
+        assertEquals(MappingImporter.Format.SRG, MappingImporter.detect("x.srg", "CL: a b"));
+        assertEquals(MappingImporter.Format.CSRG, MappingImporter.detect("x.csrg", "a b"));
+        assertEquals(MappingImporter.Format.TSRG, MappingImporter.detect("x.tsrg", "a b"));
+        assertEquals(MappingImporter.Format.TINY, MappingImporter.detect("x.tiny", "v1\tofficial\tnamed"));
+        assertEquals(MappingImporter.Format.TINY_V2, MappingImporter.detect("x.tiny", "tiny\t2\t0\tofficial\tnamed"));
+        assertEquals(MappingImporter.Format.ENIGMA, MappingImporter.detect("Foo.mapping", "CLASS a Foo"));
+        assertNull(MappingImporter.detect("x.txt", "not a mapping"));
+        assertNull(MappingImporter.detect("x.txt", null));
+    }
+    
+    @Test(expected = IOException.class)
+    public void rejectsUnknownFormats() throws Exception
+    {
+        read("unknown.txt");
+    }
+    
+    private static MappingTable read(String name) throws IOException, URISyntaxException
+    {
+        return MappingImporter.read(new File(MappingImporterTest.class.getResource("/mappings/" + name).toURI()));
+    }
+    
+    private static void assertExampleMapping(MappingTable table, String fieldDesc)
+    {
+        assertEquals("net/example/Foo", table.getClassName("a"));
+        assertEquals("net/example/Bar", table.getClassName("d"));
+        assertEquals("count", table.getFieldName("a", "b", fieldDesc));
+        assertEquals("run", table.getMethodName("a", "c", "(La;)V"));
+        assertNull(table.getClassName("b"));
+    }
+}
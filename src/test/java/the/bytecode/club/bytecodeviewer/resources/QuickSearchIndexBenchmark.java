@@ -0,0 +1,93 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.io.File;
+import java.util.Random;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Times search-as-you-type over a large workspace, each keystroke should stay well below a frame.
+ * This isn't part of mvn test, run the main method by hand with the optional class count as the argument.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class QuickSearchIndexBenchmark
+{
+    private static final String[] WORDS = {"Class", "Viewer", "Manager", "Util", "Resource", "Tree", "Node",
+            "Search", "Index", "Factory", "Impl", "Handler", "Abstract", "Decompiler", "Panel", "Config"};
+    private static final String[] QUERIES = {"c", "cl", "cla", "clas", "class", "classv", "CV", "ClaVie",
+            "bytecodeviewer.gui", "xyz", "cvwr"};
+    
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        QuickSearchIndex index = new QuickSearchIndex(new ResourceRegistry());
+        
+        long start = System.nanoTime();
+        BytecodeViewer.resourceContainers.add(createContainer(count));
+        index.update();
+        System.out.printf("indexed %d classes in %.2f ms%n", index.size(), (System.nanoTime() - start) / 1e6);
+        
+        //warm up the JIT
+        for (int i = 0; i < 20; i++)
+            for (String query : QUERIES)
+                index.search(query, 50);
+        
+        for (String query : QUERIES)
+        {
+            start = System.nanoTime();
+            int results = index.search(query, 50).size();
+            
+            System.out.printf("quick search %-20s %6.2f ms, %d results%n", query, (System.nanoTime() - start) / 1e6,
+                    results);
+        }
+        
+        BytecodeViewer.resourceContainers.clear();
+    }
+    
+    private static ResourceContainer createContainer(int count)
+    {
+        ResourceContainer container = new ResourceContainer(new File("benchmark.jar"));
+        Random random = new Random(1);
+        
+        for (int i = 0; i < count; i++)
+        {
+            StringBuilder sb = new StringBuilder("com/p" + random.nextInt(500) + "/sub" + random.nextInt(20) + "/");
+            int words = 2 + random.nextInt(3);
+            
+            for (int w = 0; w < words; w++)
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            
+            add(container, sb.append(i).toString());
+        }
+        
+        add(container, "the/bytecode/club/bytecodeviewer/gui/components/ClassViewer");
+        return container;
+    }
+    
+    private static void add(ResourceContainer container, String className)
+    {
+        ClassNode cn = new ClassNode();
+        cn.name = className;
+        container.resourceClasses.put(className, cn);
+    }
+}
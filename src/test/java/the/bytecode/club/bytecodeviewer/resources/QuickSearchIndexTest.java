@@ -0,0 +1,176 @@
+package the.bytecode.club.bytecodeviewer.resources;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.tree.ClassNode;
+import the.bytecode.club.bytecodeviewer.BytecodeViewer;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * @author agent
+ * @since 10/18/2026
+ */
+public class QuickSearchIndexTest
+{
+    private static final String[] WORDS = {"Class", "Viewer", "Manager", "Util", "Resource", "Tree", "Node",
+            "Search", "Index", "Factory", "Impl", "Handler", "Abstract", "Decompiler", "Panel", "Config"};
+    
+    private ResourceRegistry registry;
+    private QuickSearchIndex index;
+    
+    @Before
+    public void setUp()
+    {
+        BytecodeViewer.resourceContainers.clear();
+        registry = new ResourceRegistry();
+        index = new QuickSearchIndex(registry);
+    }
+    
+    @After
+    public void tearDown()
+    {
+        BytecodeViewer.resourceContainers.clear();
+    }
+    
+    @Test
+    public void ranksExactPrefixCamelCaseSubstringFuzzy()
+    {
+        load("a/ClassViewer", "a/ClassViewerPanel", "a/CommonView", "b/MyClassViewer", "b/CxxVyyy", "b/Other");
+        
+        assertEquals(Arrays.asList("ClassViewer", "ClassViewerPanel", "MyClassViewer"), names(search("classviewer")));
+        assertEquals(Arrays.asList("CxxVyyy", "CommonView", "ClassViewer"), names(search("CV")).subList(0, 3));
+        assertEquals(Arrays.asList("ClassViewer", "ClassViewerPanel"), names(search("ClaVie")).subList(0, 2));
+        assertTrue(names(search("cvwr")).contains("ClassViewer"));
+        assertTrue(search("xyz").isEmpty());
+    }
+    
+    @Test
+    public void matchesPathQueries()
+    {
+        load("com/example/Main", "com/other/Main");
+        
+        List<QuickSearchIndex.Result> results = search("example.Main");
+        assertEquals("com/example/Main.class", results.get(0).path);
+        assertEquals(2, search("Main").size());
+        assertEquals(1, search("com/other").size());
+    }
+    
+    @Test
+    public void narrowedQueriesMatchFreshQueries()
+    {
+        loadRandom(5000);
+        
+        List<String> typed = null;
+        for (String query : new String[]{"c", "cl", "cla", "clas", "class", "classv"})
+            typed = names(search(query));
+        
+        index.clear();
+        index.update();
+        assertEquals(names(search("classv")), typed);
+    }
+    
+    @Test
+    public void searchesTheLastSnapshotUntilRebuilt()
+    {
+        ResourceContainer container = load("a/First");
+        assertEquals(1, search("First").size());
+        
+        ClassNode cn = new ClassNode();
+        cn.name = "a/Second";
+        container.resourceClasses.put(cn.name, cn);
+        
+        //the registry picks the direct edit up, the search never waits for the rebuild
+        index.update();
+        assertEquals(1, search("Second").size());
+        assertEquals(2, index.size());
+    }
+    
+    /**
+     * The timings are measured by QuickSearchIndexBenchmark, this only checks the results over 100k classes
+     */
+    @Test
+    public void searchesLargeWorkspaces()
+    {
+        loadRandom(100_000);
+        
+        assertEquals(50, search("cla").size());
+        assertEquals(Arrays.asList("ClassViewer"), names(search("bytecodeviewer.gui")));
+        assertTrue(search("xyz").isEmpty());
+    }
+    
+    private ResourceContainer load(String... classNames)
+    {
+        ResourceContainer container = new ResourceContainer(new File("test.jar"));
+        
+        for (String className : classNames)
+        {
+            ClassNode cn = new ClassNode();
+            cn.name = className;
+            container.resourceClasses.put(className, cn);
+        }
+        
+        BytecodeViewer.resourceContainers.add(container);
+        index.update();
+        return container;
+    }
+    
+    private void loadRandom(int count)
+    {
+        Random random = new Random(1);
+        String[] classNames = new String[count + 1];
+        
+        for (int i = 0; i < count; i++)
+        {
+            StringBuilder sb = new StringBuilder("com/p" + random.nextInt(500) + "/sub" + random.nextInt(20) + "/");
+            int words = 2 + random.nextInt(3);
+            
+            for (int w = 0; w < words; w++)
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            
+            classNames[i] = sb.append(i).toString();
+        }
+        
+        classNames[count] = "the/bytecode/club/bytecodeviewer/gui/components/ClassViewer";
+        load(classNames);
+    }
+    
+    private List<QuickSearchIndex.Result> search(String query)
+    {
+        return index.search(query, 50);
+    }
+    
+    private static List<String> names(List<QuickSearchIndex.Result> results)
+    {
+        List<String> names = new ArrayList<>();
+        
+        for (QuickSearchIndex.Result result : results)
+            names.add(result.name);
+        
+        return names;
+    }
+}
@@ -0,0 +1,177 @@
+package the.bytecode.club.bytecodeviewer.searching;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import the.bytecode.club.bytecodeviewer.searching.impl.RegexSearch;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * @author agent
+ * @since 10/18/2026
+ */
+public class InsnPatternTest
+{
+    /**
+     * aload_1, bipush 5, ldc "Hello World", getfield a/B.c:I, iconst_0, iconst_0, invokestatic a/B.d(I)V, ireturn
+     */
+    private static MethodNode method()
+    {
+        MethodNode method = new MethodNode(Opcodes.ACC_STATIC, "test", "()I", null, null);
+        method.instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        method.instructions.add(new IntInsnNode(Opcodes.BIPUSH, 5));
+        method.instructions.add(new LdcInsnNode("Hello World"));
+        method.instructions.add(new FieldInsnNode(Opcodes.GETFIELD, "a/B", "c", "I"));
+        method.instructions.add(new InsnNode(Opcodes.ICONST_0));
+        method.instructions.add(new InsnNode(Opcodes.ICONST_0));
+        method.instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "a/B", "d", "(I)V", false));
+        method.instructions.add(new InsnNode(Opcodes.IRETURN));
+        return method;
+    }
+    
+    private static boolean matches(String pattern)
+    {
+        return InsnPattern.compile(pattern).matcher().find(method());
+    }
+    
+    private static void assertInvalid(String pattern)
+    {
+        try
+        {
+            InsnPattern.compile(pattern);
+            fail(pattern + " should not compile");
+        }
+        catch (PatternSyntaxException expected) { }
+    }
+    
+    @Test
+    public void matchesOpcodes()
+    {
+        assertTrue(matches("ALOAD"));
+        assertTrue(matches("GETFIELD ICONST_0"));
+        assertTrue(matches("ANYINSN BIPUSH . GETFIELD"));
+        assertTrue(matches("IFINSN?"));
+        assertFalse(matches("ASTORE"));
+        assertFalse(matches("IFINSN"));
+        assertFalse(matches("ALOAD GETFIELD"));
+    }
+    
+    @Test
+    public void opcodesAreCaseSensitive()
+    {
+        assertInvalid("aload");
+        assertInvalid("Aload");
+        assertInvalid("anyinsn");
+    }
+    
+    @Test
+    public void matchesOperands()
+    {
+        assertTrue(matches("ALOAD_1"));
+        assertFalse(matches("ALOAD_2"));
+        assertTrue(matches("BIPUSH\\{5\\}"));
+        assertTrue(matches("BIPUSH{[0-9]}"));
+        assertFalse(matches("BIPUSH{6}"));
+        assertTrue(matches("LDC{Hello.*}"));
+        assertFalse(matches("LDC{Hello}"));
+        assertTrue(matches("GETFIELD{I,a/B,c}"));
+        assertTrue(matches("GETFIELD{,a/B}"));
+        assertFalse(matches("GETFIELD{J}"));
+        assertTrue(matches("INVOKESTATIC{\\(I\\)V,a/B,d}"));
+        assertTrue(matches("INVOKESTATIC\\{\\(I\\)V,,\\}"));
+    }
+    
+    @Test
+    public void unescapedParenthesesAreOperandGroups()
+    {
+        //(I)V is a regex matching IV, the descriptor needs \( \)
+        assertFalse(matches("INVOKESTATIC{(I)V}"));
+        assertTrue(matches("INVOKESTATIC{(\\(I\\))V}"));
+    }
+    
+    @Test
+    public void matchesQuantifiers()
+    {
+        assertTrue(matches("ICONST_0{2} INVOKESTATIC"));
+        assertFalse(matches("ICONST_0{3}"));
+        assertTrue(matches("GETFIELD ICONST_0{1,2} INVOKESTATIC"));
+        assertTrue(matches("GETFIELD ICONST_0+ INVOKESTATIC IRETURN"));
+        assertTrue(matches("GETFIELD ACONST_NULL* ICONST_0"));
+        assertTrue(matches("ALOAD ASTORE? BIPUSH"));
+        
+        InsnPattern.InsnMatch greedy = InsnPattern.compile("ALOAD .*").matcher().findAll(method()).get(0);
+        assertEquals(8, greedy.end());
+        
+        InsnPattern.InsnMatch lazy = InsnPattern.compile("ALOAD .*?").matcher().findAll(method()).get(0);
+        assertEquals(1, lazy.end());
+    }
+    
+    @Test
+    public void matchesAlternationAndGroups()
+    {
+        assertTrue(matches("(ILOAD|ALOAD) BIPUSH"));
+        assertTrue(matches("ASTORE | IRETURN"));
+        assertFalse(matches("(?:ILOAD|ASTORE) BIPUSH"));
+        
+        InsnPattern pattern = InsnPattern.compile("(GETFIELD) (?:ICONST_0)+ (INVOKESTATIC|INVOKEVIRTUAL)");
+        assertEquals(2, pattern.groupCount());
+        
+        List<InsnPattern.InsnMatch> matches = pattern.matcher().findAll(method());
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).start());
+        assertEquals(7, matches.get(0).end());
+        assertEquals(Opcodes.GETFIELD, matches.get(0).group(1)[0].getOpcode());
+        assertEquals(Opcodes.INVOKESTATIC, matches.get(0).group(2)[0].getOpcode());
+    }
+    
+    @Test
+    public void fallsBackToTheOperandRegex()
+    {
+        //lower case text isn't an instruction pattern, it's searched for inside of the operands
+        InsnPattern pattern = RegexSearch.compile("Hello W");
+        assertTrue(pattern.matcher().find(method()));
+        assertFalse(RegexSearch.compile("goodbye").matcher().find(method()));
+        assertTrue(RegexSearch.compile("a/B,d").matcher().find(method()));
+    }
+    
+    @Test
+    public void rejectsBadPatterns()
+    {
+        assertInvalid("FOO");
+        assertInvalid("(ALOAD");
+        assertInvalid("ALOAD)");
+        assertInvalid("BIPUSH{5");
+        assertInvalid("LDC{[}");
+        assertInvalid("NOP{2,1}");
+        assertInvalid("NOP{1001}");
+        assertInvalid("RETURN\\{1\\}");
+        assertInvalid("*");
+    }
+}
@@ -0,0 +1,361 @@
+package the.bytecode.club.bytecodeviewer.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import me.konloch.kontainer.io.DiskReader;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import static org.junit.Assert.*;
+
+/***************************************************************************
+ * Bytecode Viewer (BCV) - Java & Android Reverse Engineering Suite        *
+ * Copyright (C) 2014 Kalen 'Konloch' Kinloch - http://bytecodeviewer.com  *
+ *                                                                         *
+ * This program is free software: you can redistribute it and/or modify    *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation, either version 3 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ *   This program is distributed in the hope that it will be useful,       *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *   GNU General Public License for more details.                          *
+ *                                                                         *
+ *   You should have received a copy of the GNU General Public License     *
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>. *
+ ***************************************************************************/
+
+/**
+ * Runs the decompiler output I/O from many threads at once, now that DiskReader, EncodeUtils, JarUtils &
+ * Dex2Jar don't share a class wide lock anymore. Writers of the same jar are serialized by the path lock
+ * stripes and DX by its own lock, every result has to match what a single thread produces. The loads are also
+ * checked to really run at the same time instead of queueing behind each other.
+ *
+ * @author agent
+ * @since 10/18/2026
+ */
+public class ConcurrentIOStressTest
+{
+    private static final int THREADS = 8;
+    
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
+    @Test
+    public void decodesUnicodeEscapes()
+    {
+        assertEquals("a\u00e9b\u4e2d", EncodeUtils.unicodeToString("a\\u00e9b\\u4E2D"));
+        assertEquals("\\u12 \\uZZZZ \\u", EncodeUtils.unicodeToString("\\u12 \\uZZZZ \\u"));
+        
+        String plain = "no escapes";
+        assertSame(plain, EncodeUtils.unicodeToString(plain));
+    }
+    
+    @Test
+    public void loadsFilesInParallel() throws Exception
+    {
+        List<File> files = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        
+        for (int f = 0; f < 24; f++)
+        {
+            StringBuilder raw = new StringBuilder();
+            StringBuilder decoded = new StringBuilder();
+            
+            for (int line = 0; line < 2000; line++)
+            {
+                raw.append("String s").append(line).append(" = \"file ").append(f).append(" \\u00e9\\u4e2d\";\n");
+                decoded.append("String s").append(line).append(" = \"file ").append(f).append(" \u00e9\u4e2d\";")
+                        .append(System.lineSeparator());
+            }
+            
+            File file = temp.newFile("output" + f + ".java");
+            Files.write(file.toPath(), raw.toString().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+            expected.add(decoded.toString());
+        }
+        
+        runInParallel(() ->
+        {
+            for (int repeat = 0; repeat < 5; repeat++)
+                for (int f = 0; f < files.size(); f++)
+                    assertEquals(expected.get(f), DiskReader.loadAsString(files.get(f).getAbsolutePath()));
+            
+            return null;
+        });
+    }
+    
+    /**
+     * Every reader gets its own named pipe, opening a pipe for writing blocks until its reader has opened it.
+     * All of the pipes only open while nothing has been written yet if every load is running at the same time,
+     * a lock shared by the loads lets just one of them get that far.
+     */
+    @Test
+    public void loadsOverlapInTime() throws Exception
+    {
+        List<File> pipes = new ArrayList<>();
+        List<String> command = new ArrayList<>(Collections.singletonList("mkfifo"));
+        
+        for (int i = 0; i < THREADS; i++)
+        {
+            File pipe = new File(temp.getRoot(), "pane" + i + ".pipe");
+            pipes.add(pipe);
+            command.add(pipe.getAbsolutePath());
+        }
+        
+        Assume.assumeTrue("named pipes aren't supported", mkfifo(command));
+        
+        ExecutorService readers = Executors.newFixedThreadPool(THREADS, new NamedThreadFactory("IO Overlap Reader"));
+        ExecutorService writer = Executors.newSingleThreadExecutor(new NamedThreadFactory("IO Overlap Writer"));
+        List<OutputStream> outputs = Collections.synchronizedList(new ArrayList<>());
+        
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (File pipe : pipes)
+                results.add(readers.submit(() -> DiskReader.loadAsString(pipe.getAbsolutePath())));
+            
+            Future<?> opened = writer.submit(() ->
+            {
+                for (File pipe : pipes)
+                    outputs.add(new FileOutputStream(pipe));
+                
+                return null;
+            });
+            
+            try
+            {
+                opened.get(30, TimeUnit.SECONDS);
+            }
+            catch (TimeoutException e)
+            {
+                fail("only " + outputs.size() + " of " + THREADS + " loads were running at the same time");
+            }
+            
+            for (int i = 0; i < THREADS; i++)
+            {
+                outputs.get(i).write(("pane " + i + " \\u00e9\n").getBytes(StandardCharsets.UTF_8));
+                outputs.get(i).close();
+            }
+            
+            for (int i = 0; i < THREADS; i++)
+                assertEquals("pane " + i + " \u00e9" + System.lineSeparator(), results.get(i).get(30, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            //opening a pipe for reading & writing never blocks, it releases the threads still waiting on the pipes
+            for (File pipe : pipes)
+                new RandomAccessFile(pipe, "rw").close();
+            
+            for (OutputStream output : outputs)
+                output.close();
+            
+            readers.shutdownNow();
+            writer.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void writesDifferentJarsInParallel() throws Exception
+    {
+        File dir = temp.newFolder();
+        
+        runInParallel(new Callable<Void>()
+        {
+            private int next;
+            
+            @Override
+            public Void call() throws Exception
+            {
+                int id;
+                synchronized (this)
+                {
+                    id = next++;
+                }
+                
+                for (int repeat = 0; repeat < 10; repeat++)
+                {
+                    String path = new File(dir, "temp" + id + "-" + repeat + ".jar").getAbsolutePath();
+                    List<ClassNode> nodes = classes("w" + id + "r" + repeat + "/C", 50);
+                    
+                    JarUtils.saveAsJarClassesOnly(nodes, path);
+                    assertEquals(entryNames(nodes), readEntryNames(new File(path)));
+                }
+                
+                return null;
+            }
+        });
+    }
+    
+    @Test
+    public void serializesWritersOfTheSameJar() throws Exception
+    {
+        File jar = new File(temp.getRoot(), "shared.jar");
+        List<Set<String>> written = Collections.synchronizedList(new ArrayList<>());
+        
+        runInParallel(new Callable<Void>()
+        {
+            private int next;
+            
+            @Override
+            public Void call() throws Exception
+            {
+                int id;
+                synchronized (this)
+                {
+                    id = next++;
+                }
+                
+                for (int repeat = 0; repeat < 10; repeat++)
+                {
+                    List<ClassNode> nodes = classes("w" + id + "r" + repeat + "/C", 20 + id);
+                    written.add(entryNames(nodes));
+                    JarUtils.saveAsJarClassesOnly(nodes, jar.getAbsolutePath());
+                }
+                
+                return null;
+            }
+        });
+        
+        //the last writer wins as a whole, entries of two writers never end up in the same jar
+        assertTrue(written.contains(readEntryNames(jar)));
+    }
+    
+    @Test
+    public void convertsJarsToDexInParallel() throws Exception
+    {
+        File dir = temp.newFolder();
+        
+        runInParallel(new Callable<Void>()
+        {
+            private int next;
+            
+            @Override
+            public Void call() throws Exception
+            {
+                int id;
+                synchronized (this)
+                {
+                    id = next++;
+                }
+                
+                String className = "dex" + id + "/Main";
+                File input = new File(dir, "input" + id + ".jar");
+                File output = new File(dir, "output" + id + ".dex");
+                
+                JarUtils.saveAsJarClassesOnly(classes(className, 1), input.getAbsolutePath());
+                Dex2Jar.saveAsDex(input, output, false);
+                
+                String dex = new String(Files.readAllBytes(output.toPath()), StandardCharsets.ISO_8859_1);
+                assertTrue(dex.startsWith("dex\n"));
+                assertTrue(dex.contains("L" + className + "0;"));
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * Starts the task on every thread at the same time and rethrows the first failure
+     */
+    private static void runInParallel(Callable<Void> task) throws Exception
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS, new NamedThreadFactory("IO Stress Test"));
+        CountDownLatch start = new CountDownLatch(1);
+        
+        try
+        {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                futures.add(pool.submit(() ->
+                {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            
+            start.countDown();
+            
+            for (Future<Void> future : futures)
+                future.get();
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+    
+    private static boolean mkfifo(List<String> command)
+    {
+        try
+        {
+            return new ProcessBuilder(command).start().waitFor() == 0;
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+    
+    private static List<ClassNode> classes(String prefix, int count)
+    {
+        List<ClassNode> nodes = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++)
+        {
+            ClassNode cn = new ClassNode();
+            cn.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, prefix + i, null, "java/lang/Object", null);
+            nodes.add(cn);
+        }
+        
+        return nodes;
+    }
+    
+    private static Set<String> entryNames(List<ClassNode> nodes)
+    {
+        Set<String> names = new HashSet<>();
+        
+        for (ClassNode cn : nodes)
+            names.add(cn.name + ".class");
+        
+        return names;
+    }
+    
+    private static Set<String> readEntryNames(File jar) throws Exception
+    {
+        Set<String> names = new HashSet<>();
+        
+        try (ZipFile zip = new ZipFile(jar))
+        {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements())
+                names.add(entries.nextElement().getName());
+        }
+        
+        return names;
+    }
+}